@@ -86,6 +86,69 @@ public class PerlinNoise implements Noise2D {
     return (result + 1) / 2;
   }
 
+  /**
+   * Samples a regular grid of noise values using single precision arithmetic.
+   *
+   * <p>Lattice indices, fractional offsets and fade weights depend on one axis only, so they are
+   * computed once per column and once per row instead of once per sample. The inner loop is left
+   * with table lookups and a few multiply-adds over flat arrays, which keeps it friendly to the
+   * JIT's loop optimizations. Results match {@link #noise(double, double)} up to float rounding.
+   *
+   * @param out destination array, must hold at least {@code width * height} values
+   * @param x0 x-coordinate of the first grid cell in noise space
+   * @param y0 y-coordinate of the first grid cell in noise space
+   * @param step distance between neighbouring grid cells on both axes
+   * @param width number of cells along the x-axis
+   * @param height number of cells along the y-axis
+   */
+  @Override
+  public void sampleGrid(float[] out, float x0, float y0, float step, int width, int height) {
+    if (out.length < width * height) {
+      throw new IllegalArgumentException("Output array must hold at least width * height values.");
+    }
+
+    // Per-column terms: corner hashes along x, fractional offset and fade weight
+    int[] hashX0 = new int[width];
+    int[] hashX1 = new int[width];
+    float[] fracX = new float[width];
+    float[] fadeX = new float[width];
+    for (int i = 0; i < width; i++) {
+      float x = x0 + i * step;
+      float floorX = Mathf.floor(x);
+      int xi = (int) floorX & 255;
+      hashX0[i] = permutationTable[xi];
+      hashX1[i] = permutationTable[xi + 1];
+      fracX[i] = x - floorX;
+      fadeX[i] = fade(fracX[i]);
+    }
+
+    for (int j = 0; j < height; j++) {
+      float y = y0 + j * step;
+      float floorY = Mathf.floor(y);
+      int yi = (int) floorY & 255;
+      float yf = y - floorY;
+      float v = fade(yf);
+      int row = j * width;
+
+      for (int i = 0; i < width; i++) {
+        int a = hashX0[i] + yi;
+        int b = hashX1[i] + yi;
+        float xf = fracX[i];
+        float u = fadeX[i];
+
+        float x1 =
+            lerp(u, grad(permutationTable[a], xf, yf), grad(permutationTable[b], xf - 1, yf));
+        float x2 =
+            lerp(
+                u,
+                grad(permutationTable[a + 1], xf, yf - 1),
+                grad(permutationTable[b + 1], xf - 1, yf - 1));
+
+        out[row + i] = (lerp(v, x1, x2) + 1) * 0.5f;
+      }
+    }
+  }
+
   /**
    * Applies a fade curve to the input value, smoothing the transitions between points.
    *
@@ -130,6 +193,24 @@ public class PerlinNoise implements Noise2D {
     return u + v;
   }
 
+  /** Single precision variant of {@link #fade(double)} used by the grid sampler. */
+  private float fade(float t) {
+    return t * t * t * (t * (t * 6 - 15) + 10);
+  }
+
+  /** Single precision variant of {@link #lerp(double, double, double)}. */
+  private float lerp(float t, float a, float b) {
+    return a + t * (b - a);
+  }
+
+  /** Single precision variant of {@link #grad(int, double, double)}. */
+  private float grad(int hash, float x, float y) {
+    int h = hash & 3;
+    float u = h < 2 ? x : -x;
+    float v = h < 1 || h == 2 ? y : -y;
+    return u + v;
+  }
+
   @Override
   public float sample(float x, float y) {
     return (float) noise(x, y);
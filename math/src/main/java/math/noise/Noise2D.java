@@ -34,4 +34,34 @@ public interface Noise2D {
    * @return noise value in the range {@code [0, 1]}
    */
   float sample(float x, float y);
+
+  /**
+   * Samples the noise function on a regular 2D grid and writes the results row by row into {@code
+   * out}.
+   *
+   * <p>The value at grid cell {@code (i, j)} is stored at {@code out[i + j * width]} and equals
+   * {@code sample(x0 + i * step, y0 + j * step)}. The default implementation simply delegates to
+   * {@link #sample(float, float)}; implementations may override it to share per-row and per-column
+   * work across the whole grid.
+   *
+   * @param out destination array, must hold at least {@code width * height} values
+   * @param x0 x-coordinate of the first grid cell
+   * @param y0 y-coordinate of the first grid cell
+   * @param step distance between neighbouring grid cells on both axes
+   * @param width number of cells along the x-axis
+   * @param height number of cells along the y-axis
+   * @throws IllegalArgumentException if {@code out} is too small for the requested grid
+   */
+  default void sampleGrid(float[] out, float x0, float y0, float step, int width, int height) {
+    if (out.length < width * height) {
+      throw new IllegalArgumentException("Output array must hold at least width * height values.");
+    }
+    for (int j = 0; j < height; j++) {
+      float y = y0 + j * step;
+      int row = j * width;
+      for (int i = 0; i < width; i++) {
+        out[row + i] = sample(x0 + i * step, y);
+      }
+    }
+  }
 }
@@ -35,4 +35,47 @@ public interface Noise3D {
    * @return noise value in the range {@code [0, 1]}
    */
   float sample(float x, float y, float z);
+
+  /**
+   * Samples the noise function on a regular 3D grid and writes the results into {@code out}.
+   *
+   * <p>The value at grid cell {@code (i, j, k)} is stored at {@code out[i + width * (j + height *
+   * k)]} and equals {@code sample(x0 + i * step, y0 + j * step, z0 + k * step)}. The x-axis is the
+   * fastest varying one, matching the block layout of voxel chunks. The default implementation
+   * simply delegates to {@link #sample(float, float, float)}.
+   *
+   * @param out destination array, must hold at least {@code width * height * depth} values
+   * @param x0 x-coordinate of the first grid cell
+   * @param y0 y-coordinate of the first grid cell
+   * @param z0 z-coordinate of the first grid cell
+   * @param step distance between neighbouring grid cells on all axes
+   * @param width number of cells along the x-axis
+   * @param height number of cells along the y-axis
+   * @param depth number of cells along the z-axis
+   * @throws IllegalArgumentException if {@code out} is too small for the requested grid
+   */
+  default void sampleGrid(
+      float[] out,
+      float x0,
+      float y0,
+      float z0,
+      float step,
+      int width,
+      int height,
+      int depth) {
+    if (out.length < width * height * depth) {
+      throw new IllegalArgumentException(
+          "Output array must hold at least width * height * depth values.");
+    }
+    int index = 0;
+    for (int k = 0; k < depth; k++) {
+      float z = z0 + k * step;
+      for (int j = 0; j < height; j++) {
+        float y = y0 + j * step;
+        for (int i = 0; i < width; i++) {
+          out[index++] = sample(x0 + i * step, y, z);
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,88 @@
+package math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import math.noise.Noise2D;
+import math.noise.Noise3D;
+
+public class PerlinNoiseTest {
+
+  private static final float EPSILON = 1e-5f;
+
+  @Test
+  public void testSampleGridMatchesScalarNoise() {
+    PerlinNoise noise = new PerlinNoise(1234);
+    int width = 16;
+    int height = 16;
+    float x0 = -37.25f;
+    float y0 = 512.5f;
+    float step = 0.13f;
+    float[] grid = new float[width * height];
+
+    noise.sampleGrid(grid, x0, y0, step, width, height);
+
+    for (int j = 0; j < height; j++) {
+      for (int i = 0; i < width; i++) {
+        float expected = (float) noise.noise(x0 + i * step, y0 + j * step);
+        assertEquals(
+            expected,
+            grid[i + j * width],
+            EPSILON,
+            "Grid value should match noise() at " + i + "," + j);
+      }
+    }
+  }
+
+  @Test
+  public void testSampleGridStaysInUnitRange() {
+    PerlinNoise noise = new PerlinNoise(42);
+    float[] grid = new float[32 * 32];
+
+    noise.sampleGrid(grid, -100f, -100f, 0.37f, 32, 32);
+
+    for (float value : grid) {
+      assertEquals(0.5f, value, 0.5f + EPSILON, "Grid values should be normalized to [0, 1].");
+    }
+  }
+
+  @Test
+  public void testSampleGridRejectsTooSmallOutput() {
+    PerlinNoise noise = new PerlinNoise(0);
+    assertThrows(
+        IllegalArgumentException.class, () -> noise.sampleGrid(new float[15], 0, 0, 1, 4, 4));
+  }
+
+  @Test
+  public void testDefaultSampleGrid2DUsesRowMajorLayout() {
+    Noise2D noise = (x, y) -> x * 10 + y;
+    float[] grid = new float[6];
+
+    noise.sampleGrid(grid, 1, 2, 0.5f, 3, 2);
+
+    assertEquals(noise.sample(1.0f, 2.0f), grid[0], "First cell should sample the origin.");
+    assertEquals(noise.sample(2.0f, 2.0f), grid[2], "X should be the fastest varying axis.");
+    assertEquals(noise.sample(1.5f, 2.5f), grid[4], "Rows should advance along y.");
+  }
+
+  @Test
+  public void testDefaultSampleGrid3DUsesChunkLayout() {
+    Noise3D noise = (x, y, z) -> x * 100 + y * 10 + z;
+    float[] grid = new float[2 * 3 * 2];
+
+    noise.sampleGrid(grid, 0, 0, 0, 1, 2, 3, 2);
+
+    for (int k = 0; k < 2; k++) {
+      for (int j = 0; j < 3; j++) {
+        for (int i = 0; i < 2; i++) {
+          assertEquals(
+              noise.sample(i, j, k),
+              grid[i + 2 * (j + 3 * k)],
+              "Grid should be indexed x + width * (y + height * z).");
+        }
+      }
+    }
+  }
+}
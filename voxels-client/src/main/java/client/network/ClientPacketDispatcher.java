@@ -15,9 +15,12 @@ import common.game.Inventory;
 import common.game.ItemStack;
 import common.network.Packet;
 import common.network.packets.ActionBarPacket;
+import common.network.packets.BlockUpdateBatchPacket;
 import common.network.packets.BlockUpdatePacket;
 import common.network.packets.ChatMessagePacket;
+import common.network.packets.ChunkCachedPacket;
 import common.network.packets.ChunkDataPacket;
+import common.network.packets.ChunkSummaryPacket;
 import common.network.packets.DisconnectPacket;
 import common.network.packets.EntityDestroyPacket;
 import common.network.packets.GameModeUpdatePacket;
@@ -47,7 +50,10 @@ public class ClientPacketDispatcher {
 
     // Registration of client-side logic
     register(ChunkDataPacket.class, this::handleChunkData);
+    register(ChunkCachedPacket.class, this::handleChunkCached);
+    register(ChunkSummaryPacket.class, this::handleChunkSummary);
     register(BlockUpdatePacket.class, this::handleBlockUpdate);
+    register(BlockUpdateBatchPacket.class, this::handleBlockUpdateBatch);
     register(ChatMessagePacket.class, this::handleChatMessage);
     register(SoundEffectPacket.class, this::handleSoundEffect);
     register(PlayerPositionPacket.class, this::handlePlayerPosition);
@@ -106,8 +112,17 @@ public class ClientPacketDispatcher {
   // --- Specific Handler Logic ---
 
   private void handleChunkData(ChunkDataPacket packet) {
-    short[] blocks = packet.decompress();
-    client.getWorld().applyChunkData(packet.getChunkX(), packet.getChunkZ(), blocks);
+    client.getWorld().applyChunkData(packet);
+  }
+
+  private void handleChunkCached(ChunkCachedPacket packet) {
+    client
+        .getWorld()
+        .applyCachedChunk(packet.getChunkX(), packet.getChunkZ(), packet.getContentHash());
+  }
+
+  private void handleChunkSummary(ChunkSummaryPacket packet) {
+    client.getWorld().applyChunkSummary(packet.getSummary());
   }
 
   private void handleBlockUpdate(BlockUpdatePacket packet) {
@@ -116,6 +131,10 @@ public class ClientPacketDispatcher {
         .onServerBlockUpdate(packet.getX(), packet.getY(), packet.getZ(), packet.getBlockId());
   }
 
+  private void handleBlockUpdateBatch(BlockUpdateBatchPacket packet) {
+    client.getWorld().onServerBlockUpdates(packet);
+  }
+
   private void handleChatMessage(ChatMessagePacket packet) {
     ChatMessage message = new ChatMessage(packet.getMessage());
     client.getView().getChatView().addMessage(message);
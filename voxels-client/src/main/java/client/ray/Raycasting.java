@@ -3,6 +3,7 @@ package client.ray;
 import client.world.Chunk;
 import common.game.block.BlockType;
 import common.interaction.BlockTarget;
+import common.world.BlockAccessor;
 import common.world.BlockFace;
 import common.world.World;
 import engine.physics.ray.Raycaster;
@@ -134,11 +135,14 @@ public final class Raycasting {
     BlockFace hitFace = BlockFace.NONE;
     float t = 0;
 
+    // Aufeinanderfolgende Voxel liegen fast immer im selben oder im Nachbarchunk
+    BlockAccessor blocks = new BlockAccessor(world);
+
     while (t <= maxDistance) {
 
-      BlockType type = world.getBlock(x, y, z);
+      BlockType type = blocks.getBlock(x, y, z);
       // Check if current voxel contains a solid block
-      if (world.getBlock(x, y, z).isSelectable()) {
+      if (type.isSelectable()) {
 
         int placeX = x + hitFace.x;
         int placeY = y + hitFace.y;
@@ -7,6 +7,10 @@ import java.util.List;
 import client.app.GameClient;
 import client.settings.GameSettings;
 import client.world.Chunk;
+import client.world.ChunkManager;
+import client.world.ChunkMesher;
+import client.world.ChunkRenderList;
+import client.world.SectionOcclusionCuller;
 import engine.rendering.Graphics;
 import engine.runtime.debug.core.DebugDraw;
 import engine.scene.CameraMode;
@@ -22,10 +26,6 @@ public class BasicChunkRenderer implements ChunkRenderer {
 
   private final ProceduralSkyBox sky = new ProceduralSkyBox(500);
 
-  private final Vector3f tempMin = new Vector3f();
-
-  private final Vector3f tempMax = new Vector3f();
-
   private final Vector3f tempVec = new Vector3f();
 
   private final List<Chunk> visibleChunksCache = new ArrayList<>();
@@ -36,14 +36,24 @@ public class BasicChunkRenderer implements ChunkRenderer {
 
   private static final Vector3f ZERO = new Vector3f(0, 0, 0);
 
-  private Bounds worldBounds = new Bounds(new Vector3f(), new Vector3f());
-
-  private Bounds meshBounds = new Bounds(new Vector3f(), new Vector3f());
+  /** Fog density for the plain render distance. */
+  private static final float FOG_DENSITY = 0.0035f;
 
   private final Vector3f camPos = new Vector3f();
 
+  /** Tile size and margin of the block atlas, see {@link client.world.mesh.AtlasLayout}. */
+  private final Vector3f atlasParameters =
+      ChunkMesher.getAtlasLayout().getShaderParameters(new Vector3f());
+
   private final Frustum frustum = new Frustum();
 
+  private final SectionOcclusionCuller occlusionCuller = new SectionOcclusionCuller();
+
+  private final ChunkRenderList renderList = new ChunkRenderList();
+
+  /** Whether the occlusion culler picked the visible chunks of this frame. */
+  private boolean occlusionCulled;
+
   public BasicChunkRenderer(GameClient client) {
     this.client = client;
   }
@@ -72,12 +82,19 @@ public class BasicChunkRenderer implements ChunkRenderer {
   }
 
   private void prepareVisibleChunks(Collection<Chunk> chunks) {
-    visibleChunksCache.clear();
+    Frustum cullFrustum = RenderSettings.frustum_Culling ? frustum : null;
+    occlusionCulled =
+        RenderSettings.occlusionCulling
+            && occlusionCuller.cull(
+                client.getChunkManager(), camPos, cullFrustum, visibleChunksCache);
+    Collection<Chunk> candidates = occlusionCulled ? visibleChunksCache : chunks;
 
-    for (Chunk chunk : chunks) {
-      if (isChunkVisible(frustum, chunk, camPos)) {
-        visibleChunksCache.add(chunk);
-      }
+    // Geladene Chunks reichen bis zur Pufferdistanz, plus einen Chunk für die Kreisform
+    float maxDistance = (client.getChunkManager().getDetailDistance() + 1) * Chunk.WIDTH;
+    renderList.build(candidates, camPos, cullFrustum, maxDistance);
+
+    if (RenderSettings.debugChunkBounds) {
+      drawDebugBounds(candidates);
     }
   }
 
@@ -97,8 +114,14 @@ public class BasicChunkRenderer implements ChunkRenderer {
     g.setShader("voxel.vert", "voxel.frag");
     applyBaseShaderSettings(g);
     g.enableFaceCulling();
-    for (Chunk chunk : visibleChunksCache) {
-      chunk.renderOpaque(g, camPos);
+    for (Chunk chunk : renderList.getOpaque()) {
+      chunk.renderOpaque(g, camPos, getVisibleSections(chunk));
+    }
+    if (GameSettings.distantTerrain) {
+      client
+          .getChunkManager()
+          .getLodTerrain()
+          .render(g, camPos, RenderSettings.frustum_Culling ? frustum : null);
     }
 
     // WATER PASS
@@ -114,8 +137,8 @@ public class BasicChunkRenderer implements ChunkRenderer {
   private void renderDecor(Graphics g) {
     g.setShader("voxel.vert", "voxel.frag");
     applyBaseShaderSettings(g);
-    for (Chunk chunk : visibleChunksCache) {
-      chunk.renderDecor(g, camPos);
+    for (Chunk chunk : renderList.getOpaque()) {
+      chunk.renderDecor(g, camPos, getVisibleSections(chunk));
     }
   }
 
@@ -124,48 +147,46 @@ public class BasicChunkRenderer implements ChunkRenderer {
     applyBaseShaderSettings(g);
     g.setUniform("u_time", (float) (System.nanoTime() * 1e-9));
 
-    for (Chunk chunk : visibleChunksCache) {
+    // Von hinten nach vorne, damit sich das Wasser richtig überblendet
+    for (Chunk chunk : renderList.getTransparent()) {
       tempVec.set(chunk.getWorldPosition()).subtractLocal(camPos);
       g.setUniform("u_chunkPos", tempVec);
       g.setUniform("u_worldChunkPos", chunk.getWorldPosition());
-      chunk.renderWater(g, camPos);
+      chunk.renderWater(g, camPos, getVisibleSections(chunk));
     }
   }
 
+  /** Thins the fog when distant terrain extends the view, so the far rings stay visible. */
+  private float getFogDensity() {
+    ChunkManager chunkManager = client.getChunkManager();
+    return FOG_DENSITY * chunkManager.getDetailDistance() / chunkManager.getVisibleDistance();
+  }
+
+  private int getVisibleSections(Chunk chunk) {
+    return occlusionCulled ? occlusionCuller.getVisibleSections(chunk) : Chunk.ALL_SECTIONS;
+  }
+
   private void applyBaseShaderSettings(Graphics g) {
     g.setUniform("u_cameraPos", ZERO);
     g.setUniform("u_lightDir", sky.getLightDir());
     g.setUniform("u_lightColor", sky.getLightColor());
     g.setUniform("u_ambient", sky.getAmbient());
     g.setUniform("u_fogColor", sky.getSkyColor());
-    g.setUniform("u_fogDensity", GameSettings.fog ? 0.0035f : 0.0f);
+    g.setUniform("u_fogDensity", GameSettings.fog ? getFogDensity() : 0.0f);
+    g.setUniform("u_atlas", atlasParameters);
   }
 
-  private boolean isChunkVisible(Frustum frustum, Chunk chunk, Vector3f camPos) {
-    if (!RenderSettings.frustum_Culling) return true;
-
-    chunk.getMeshBounds(meshBounds);
-
-    Vector3f pos = chunk.getWorldPosition();
-
-    // WORLD → CAMERA RELATIVE
-    tempMin.set(meshBounds.getMin()).addLocal(pos).subtractLocal(camPos);
-    tempMax.set(meshBounds.getMax()).addLocal(pos).subtractLocal(camPos);
-
-    float padding = 1f;
-
-    tempMin.subtractLocal(padding, padding, padding);
-    tempMax.addLocal(padding, padding, padding);
-
-    worldBounds.setMinMax(tempMin, tempMax);
-
-    boolean intersects = frustum.intersectsAABB(worldBounds);
-
-    if (RenderSettings.debugChunkBounds) {
-      Bounds b = new Bounds(worldBounds.getMin(), worldBounds.getMax());
-      DebugDraw.drawBounds(b, intersects ? Color.GREEN : Color.RED);
+  private void drawDebugBounds(Collection<Chunk> chunks) {
+    Bounds bounds = new Bounds(new Vector3f(), new Vector3f());
+    for (Chunk chunk : chunks) {
+      if (chunk.getMeshLayers() == 0) continue;
+      chunk.getMeshBounds(bounds);
+      Vector3f pos = chunk.getWorldPosition();
+      float padding = ChunkRenderList.PADDING;
+      bounds.getMin().addLocal(pos).subtractLocal(camPos).subtractLocal(padding, padding, padding);
+      bounds.getMax().addLocal(pos).subtractLocal(camPos).addLocal(padding, padding, padding);
+      Bounds b = new Bounds(bounds.getMin(), bounds.getMax());
+      DebugDraw.drawBounds(b, renderList.isVisible(chunk) ? Color.GREEN : Color.RED);
     }
-
-    return intersects;
   }
 }
@@ -3,6 +3,9 @@ package client.rendering;
 public class RenderSettings {
 
   public static boolean frustum_Culling = true;
+
+  /** Skips chunk sections hidden behind opaque terrain, see {@code SectionOcclusionCuller}. */
+  public static boolean occlusionCulling = true;
   
   public static boolean debugChunkBounds = false;
 }
@@ -6,6 +6,7 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
 import client.settings.GameSettings;
+import client.world.mesh.AtlasLayout;
 import common.game.block.BlockRegistry;
 import common.game.block.BlockType;
 import common.game.block.Blocks;
@@ -359,6 +360,11 @@ public class TextureAtlas {
     return new int[] {index + 3, index + 2, index + 1, index};
   }
 
+  /** Returns the tile layout of this atlas for meshing without allocating UV arrays. */
+  public AtlasLayout getLayout() {
+    return new AtlasLayout(columns, rows, epsilon);
+  }
+
   public Vector2f[] getUVCoordinates(int blockId, int face) {
 
     int col = face;
@@ -17,4 +17,19 @@ public class GameSettings {
   public static boolean dynamicTextures = false;
   
   public static boolean fog = true;
+
+  /** Merges equal chunk faces into larger quads, the shader repeats the texture per block. */
+  public static boolean greedyMeshing = true;
+
+  /** Number of chunk meshing threads, 0 picks one per core minus the main thread. */
+  public static int meshingThreads = 0;
+
+  /** Keeps received chunks on disk, so the server can skip unchanged chunks on rejoin. */
+  public static boolean chunkCache = true;
+
+  /** Draws low detail terrain beyond the render distance. */
+  public static boolean distantTerrain = true;
+
+  /** Radius of the distant terrain in chunks, 0 picks four times the render distance. */
+  public static int lodDistance = 0;
 }
@@ -45,7 +45,8 @@ public class ConnectToServerController {
 
     ConnectToServerRequest request = new ConnectToServerRequestModel(host, port, playerName, uuid);
 
-    ConnectToServerUseCase useCase = new ConnectToServerUseCase(client.getNetwork());
+    ConnectToServerUseCase useCase =
+        new ConnectToServerUseCase(client.getNetwork(), client.getWorld());
 
     useCase.execute(request, presenter);
   }
@@ -1,19 +1,30 @@
 package client.usecases.connecttoserver;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import client.network.ClientNetwork;
+import client.settings.GameSettings;
+import client.world.ClientChunkCache;
+import client.world.ClientWorld;
+import common.network.packets.ChunkCacheStatePacket;
 import common.network.packets.PlayerJoinPacket;
+import common.world.World;
 
 public class ConnectToServerUseCase implements ConnectToServer {
 
   private ClientNetwork network;
 
+  private ClientWorld world;
+
   private ExecutorService executor = Executors.newSingleThreadExecutor();
 
-  public ConnectToServerUseCase(ClientNetwork network) {
+  public ConnectToServerUseCase(ClientNetwork network, ClientWorld world) {
     this.network = network;
+    this.world = world;
   }
 
   @Override
@@ -24,7 +35,15 @@ public class ConnectToServerUseCase implements ConnectToServer {
         () -> {
           try {
             network.connect(request.getHost(), request.getPort());
+            // Cache vor dem Beitritt öffnen, sonst fehlen die ersten Chunks darin
+            ClientChunkCache cache = null;
+            if (GameSettings.chunkCache) {
+              cache = openChunkCache(request.getHost() + "_" + request.getPort());
+            }
             network.send(new PlayerJoinPacket(request.getPlayerUuid(), request.getPlayerName()));
+            if (cache != null) {
+              reportChunkCache(cache);
+            }
 
             response.onConnected();
 
@@ -33,4 +52,36 @@ public class ConnectToServerUseCase implements ConnectToServer {
           }
         });
   }
+
+  /** Opens the chunk cache of the server, so every chunk received from now on is stored. */
+  private ClientChunkCache openChunkCache(String serverId) {
+    ClientChunkCache cache = new ClientChunkCache(ClientChunkCache.getDefaultRoot(), serverId);
+    cache.setMissListener(
+        (x, z) ->
+            network.send(
+                new ChunkCacheStatePacket(
+                    new long[] {World.getChunkKey(x, z)}, new long[] {0})));
+    world.setChunkCache(cache);
+    return cache;
+  }
+
+  /** Reports the cached chunks to the server, so chunks the client already has are skipped. */
+  private void reportChunkCache(ClientChunkCache cache) {
+    Map<Long, Long> entries = cache.getEntries();
+    List<Long> keys = new ArrayList<>(entries.keySet());
+    for (int start = 0; start < keys.size(); start += ChunkCacheStatePacket.MAX_ENTRIES) {
+      int count = Math.min(ChunkCacheStatePacket.MAX_ENTRIES, keys.size() - start);
+      long[] chunkKeys = new long[count];
+      long[] hashes = new long[count];
+      for (int i = 0; i < count; i++) {
+        chunkKeys[i] = keys.get(start + i);
+        hashes[i] = entries.get(chunkKeys[i]);
+      }
+      network.send(new ChunkCacheStatePacket(chunkKeys, hashes));
+    }
+    // Auch ein leerer Cache wird gemeldet, damit der Server ab jetzt Hashes mitführt
+    if (keys.isEmpty()) {
+      network.send(new ChunkCacheStatePacket(new long[0], new long[0]));
+    }
+  }
 }
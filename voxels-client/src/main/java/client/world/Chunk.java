@@ -1,9 +1,8 @@
 package client.world;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Arrays;
 
+import client.world.mesh.SectionVisibility;
 import common.world.ChunkData;
 import common.world.ChunkStatus;
 import engine.components.StaticGeometry;
@@ -11,79 +10,158 @@ import engine.rendering.Graphics;
 import math.Bounds;
 import math.Vector3f;
 
+/**
+ * Client side chunk. Its geometry is split into {@link #SECTION_COUNT} vertical sections that are
+ * meshed independently, so a block update only rebuilds the sections it can change.
+ */
 public class Chunk extends ChunkData {
-  private static final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+  /** Section mask with every section set. */
+  public static final int ALL_SECTIONS = (1 << SECTION_COUNT) - 1;
+
+  /** Layer bits of {@link #getMeshLayers()}. */
+  public static final int OPAQUE_LAYER = 1;
+
+  public static final int WATER_LAYER = 2;
+
+  public static final int DECOR_LAYER = 4;
 
   private final Vector3f worldPosition = new Vector3f();
 
-  private volatile StaticGeometry opaqueGeometry;
+  // Pro Section, nur vom Main-Thread gelesen und geschrieben
+  private final StaticGeometry[] opaqueGeometry = new StaticGeometry[SECTION_COUNT];
 
-  private volatile StaticGeometry waterGeometry;
+  private final StaticGeometry[] waterGeometry = new StaticGeometry[SECTION_COUNT];
 
-  private volatile StaticGeometry decorGeometry;
+  private final StaticGeometry[] decorGeometry = new StaticGeometry[SECTION_COUNT];
 
-  private Future<ChunkMesher.MeshResult> meshFuture;
+  /** Face connectivity per section, everything counts as see-through until meshed. */
+  private final long[] sectionVisibility = new long[SECTION_COUNT];
+
+  /**
+   * Chunk relative bounds of all layers (min x, y, z, max x, y, z), updated whenever a mesh is
+   * applied so the renderer does not have to merge the section bounds every frame.
+   */
+  final float[] meshBounds = new float[6];
+
+  private int meshLayers;
 
   private volatile int generation = 0;
 
-  private volatile boolean needsRebuild = false;
+  /** Sections whose mesh is outdated, bit {@code s} for section {@code s}. */
+  private volatile int dirtySections = 0;
 
   private volatile ChunkStatus status = ChunkStatus.EMPTY;
 
+  // Verwaltet von ChunkMeshQueue und MeshScheduler
+  int meshQueueIndex = -1;
+
+  float meshPriority;
+
+  long meshQueuedAt;
+
+  // Verwaltet von SectionOcclusionCuller
+  int cullFrame = -1;
+
+  int cullVisibleSections;
+
+  // Verwaltet von ChunkRenderList
+  int renderFrame = -1;
+
+  boolean renderSorted;
+
+  float renderDistance;
+
   public Chunk(int x, int z) {
     super(x, z);
     this.worldPosition.set(x * 16, 0, z * 16);
+    Arrays.fill(sectionVisibility, SectionVisibility.ALL);
   }
 
   public void setupForPooling(int x, int z) {
+    // Laufende Mesh-Jobs erkennen daran, dass ihr Ergebnis veraltet ist
     this.generation++;
-    if (meshFuture != null) {
-      meshFuture.cancel(true);
-      meshFuture = null;
-    }
 
     this.chunkX = x;
     this.chunkZ = z;
     this.worldPosition.set(x * 16, 0, z * 16);
 
     this.clear();
-    this.opaqueGeometry = null;
-    this.waterGeometry = null;
-    this.decorGeometry = null;
+    Arrays.fill(opaqueGeometry, null);
+    Arrays.fill(waterGeometry, null);
+    Arrays.fill(decorGeometry, null);
+    Arrays.fill(sectionVisibility, SectionVisibility.ALL);
+    setMeshBounds(0, 0, 0, 0, 0, 0, 0);
     this.status = ChunkStatus.EMPTY;
-    this.needsRebuild = false;
+    this.dirtySections = 0;
   }
 
-  public void scheduleMeshGeneration(ChunkManager manager) {
-    if (status == ChunkStatus.MESH_GENERATING || !isDataReady()) return;
+  /**
+   * Marks the chunk as being meshed and returns the sections to rebuild, or 0 if there is nothing
+   * to do. A chunk without any mesh yet is meshed completely.
+   */
+  public int beginMeshGeneration() {
+    if (status == ChunkStatus.MESH_GENERATING || !isDataReady()) return 0;
+    int sections = (status == ChunkStatus.DATA_READY) ? ALL_SECTIONS : dirtySections;
+    if (sections == 0) return 0;
+    dirtySections = 0;
     status = ChunkStatus.MESH_GENERATING;
-    final int taskGen = generation;
-
-    meshFuture =
-        executorService.submit(
-            () -> {
-              ChunkMesher mesher = new ChunkMesher(this, manager);
-              ChunkMesher.MeshResult result = mesher.createMesh();
-              return (taskGen == generation) ? result : null;
-            });
-  }
-
-  public void updateMesh() {
-    if (meshFuture == null || !meshFuture.isDone()) return;
-    try {
-      ChunkMesher.MeshResult result = meshFuture.get();
-      if (result != null) {
-        this.opaqueGeometry = result.opaque;
-        this.waterGeometry = result.water;
-        this.decorGeometry = result.decor;
-        this.status = ChunkStatus.MESH_READY;
-        this.needsRebuild = false;
-      }
-    } catch (Exception e) {
-      e.printStackTrace();
-      this.status = ChunkStatus.DATA_READY;
+    return sections;
+  }
+
+  /** Replaces the geometry of the rebuilt sections. */
+  public void applyMesh(ChunkMesher.MeshResult result) {
+    for (int section = 0; section < SECTION_COUNT; section++) {
+      if ((result.sections & (1 << section)) == 0) continue;
+      opaqueGeometry[section] = result.opaque[section];
+      waterGeometry[section] = result.water[section];
+      decorGeometry[section] = result.decor[section];
+      sectionVisibility[section] = result.visibility[section];
+    }
+    updateMeshBounds();
+    this.status = ChunkStatus.MESH_READY;
+  }
+
+  private void updateMeshBounds() {
+    Bounds bounds = new Bounds(new Vector3f(), new Vector3f());
+    boolean initialized = false;
+    int layers = 0;
+    if (mergeBounds(bounds, opaqueGeometry, initialized)) {
+      initialized = true;
+      layers |= OPAQUE_LAYER;
     }
-    meshFuture = null;
+    if (mergeBounds(bounds, waterGeometry, initialized)) {
+      initialized = true;
+      layers |= WATER_LAYER;
+    }
+    if (mergeBounds(bounds, decorGeometry, initialized)) {
+      layers |= DECOR_LAYER;
+    }
+    Vector3f min = bounds.getMin();
+    Vector3f max = bounds.getMax();
+    setMeshBounds(min.x, min.y, min.z, max.x, max.y, max.z, layers);
+  }
+
+  /** Stores the cached mesh bounds and the layers that have geometry. */
+  void setMeshBounds(
+      float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int layers) {
+    meshBounds[0] = minX;
+    meshBounds[1] = minY;
+    meshBounds[2] = minZ;
+    meshBounds[3] = maxX;
+    meshBounds[4] = maxY;
+    meshBounds[5] = maxZ;
+    meshLayers = layers;
+  }
+
+  public void failMeshGeneration() {
+    // Beim nächsten Mal komplett neu bauen
+    this.status = ChunkStatus.DATA_READY;
+  }
+
+  /** Incremented whenever the chunk is recycled, so outdated mesh jobs can be recognized. */
+  public int getGeneration() {
+    return generation;
   }
 
   /**
@@ -91,37 +169,75 @@ public class Chunk extends ChunkData {
    * precision jitter.
    */
   public void renderOpaque(Graphics g, Vector3f cameraPos) {
-    if (opaqueGeometry == null) return;
-    renderLayer(g, cameraPos, opaqueGeometry);
+    renderOpaque(g, cameraPos, ALL_SECTIONS);
+  }
+
+  /** Renders the opaque layer of the sections set in {@code sections}. */
+  public void renderOpaque(Graphics g, Vector3f cameraPos, int sections) {
+    renderLayer(g, cameraPos, opaqueGeometry, sections);
   }
 
   /** Renders the water layer. */
   public void renderWater(Graphics g, Vector3f cameraPos) {
-    if (waterGeometry == null) return;
-    renderLayer(g, cameraPos, waterGeometry);
+    renderWater(g, cameraPos, ALL_SECTIONS);
+  }
+
+  /** Renders the water layer of the sections set in {@code sections}. */
+  public void renderWater(Graphics g, Vector3f cameraPos, int sections) {
+    renderLayer(g, cameraPos, waterGeometry, sections);
   }
 
   /** Renders the decoration/cut-out layer. */
   public void renderDecor(Graphics g, Vector3f cameraPos) {
-    if (decorGeometry != null) {
-      renderLayer(g, cameraPos, decorGeometry);
-    }
+    renderDecor(g, cameraPos, ALL_SECTIONS);
+  }
+
+  /** Renders the decoration/cut-out layer of the sections set in {@code sections}. */
+  public void renderDecor(Graphics g, Vector3f cameraPos, int sections) {
+    renderLayer(g, cameraPos, decorGeometry, sections);
   }
 
-  /** Helper to apply the relative transformation and draw the geometry. */
-  private void renderLayer(Graphics g, Vector3f cameraPos, StaticGeometry geometry) {
-    g.pushMatrix();
-    // The core fix: (World Position - Camera Position)
-    g.translate(
-        worldPosition.x - cameraPos.x,
-        worldPosition.y - cameraPos.y,
-        worldPosition.z - cameraPos.z);
-    geometry.render(g);
-    g.popMatrix();
+  /** Helper to apply the relative transformation and draw the section geometries of a layer. */
+  private void renderLayer(
+      Graphics g, Vector3f cameraPos, StaticGeometry[] geometries, int sections) {
+    boolean translated = false;
+    for (int section = 0; section < SECTION_COUNT; section++) {
+      StaticGeometry geometry = geometries[section];
+      if (geometry == null || (sections & (1 << section)) == 0) continue;
+      if (!translated) {
+        g.pushMatrix();
+        // The core fix: (World Position - Camera Position)
+        g.translate(
+            worldPosition.x - cameraPos.x,
+            worldPosition.y - cameraPos.y,
+            worldPosition.z - cameraPos.z);
+        translated = true;
+      }
+      geometry.render(g);
+    }
+    if (translated) {
+      g.popMatrix();
+    }
   }
 
+  /** Marks every section for rebuilding. */
   public void markDirty() {
-    this.needsRebuild = true;
+    this.dirtySections = ALL_SECTIONS;
+  }
+
+  /** Marks a single section for rebuilding, sections outside of the chunk are ignored. */
+  public void markSectionDirty(int section) {
+    if (section < 0 || section >= SECTION_COUNT) return;
+    this.dirtySections |= 1 << section;
+  }
+
+  /** Returns the face connectivity of a section, see {@link SectionVisibility}. */
+  public long getSectionVisibility(int section) {
+    return sectionVisibility[section];
+  }
+
+  public int getDirtySections() {
+    return dirtySections;
   }
 
   public void setDataReady() {
@@ -137,49 +253,42 @@ public class Chunk extends ChunkData {
   }
 
   public boolean needsRebuild() {
-    return needsRebuild;
+    return dirtySections != 0;
   }
 
   public Vector3f getWorldPosition() {
     return worldPosition;
   }
 
+  /** Returns the layers with geometry as a mask of {@link #OPAQUE_LAYER} and friends. */
+  public int getMeshLayers() {
+    return meshLayers;
+  }
+
+  /** Stores the chunk relative bounds of all layers, all zero if the chunk has no geometry. */
   public Bounds getMeshBounds(Bounds store) {
     if (store == null) {
       throw new IllegalArgumentException("store must not be null");
     }
+    store.setMin(meshBounds[0], meshBounds[1], meshBounds[2]);
+    store.setMax(meshBounds[3], meshBounds[4], meshBounds[5]);
+    return store;
+  }
 
-    boolean initialized = false;
-
-    if (opaqueGeometry != null) {
-      store.set(opaqueGeometry.getLocalBounds());
-      initialized = true;
-    }
-
-    if (waterGeometry != null) {
-      if (!initialized) {
-        store.set(waterGeometry.getLocalBounds());
-        initialized = true;
-      } else {
-        store.merge(waterGeometry.getLocalBounds());
-      }
-    }
-
-    if (decorGeometry != null) {
+  /** Merges the bounds of the geometries into {@code store}, returns whether there was any. */
+  private static boolean mergeBounds(
+      Bounds store, StaticGeometry[] sections, boolean initialized) {
+    boolean merged = false;
+    for (StaticGeometry geometry : sections) {
+      if (geometry == null) continue;
       if (!initialized) {
-        store.set(decorGeometry.getLocalBounds());
+        store.set(geometry.getLocalBounds());
         initialized = true;
       } else {
-        store.merge(decorGeometry.getLocalBounds());
+        store.merge(geometry.getLocalBounds());
       }
+      merged = true;
     }
-
-    // Optional: fallback wenn alles null
-    if (!initialized) {
-      store.setMin(0, 0, 0);
-      store.setMax(0, 0, 0);
-    }
-
-    return store;
+    return merged;
   }
 }
@@ -0,0 +1,171 @@
+package client.world;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import common.network.packets.ChunkDataPacket;
+import common.world.ChunkData;
+import common.world.LightEngine;
+
+/**
+ * Decompresses incoming chunk data on worker threads, reading it from the {@link ClientChunkCache}
+ * first if the server only referenced a cached copy.
+ *
+ * <p>Each worker keeps one {@link Inflater} that is reset per chunk. Chunks are decoded into a
+ * fixed set of staging {@link ChunkData}s, which also get their height map and section summaries
+ * computed off the main thread. The light sent by the server is decompressed as well; chunks
+ * without light, like those from the cache, are lit on the worker by themselves; the client world
+ * exchanges their light with the neighbours when it publishes them. Publishing a decoded chunk only
+ * swaps arrays with the client chunk, see {@link ChunkData#swapContents(ChunkData)}; the staging
+ * data then holds the previous arrays of the chunk and is reused for the next packet. The number
+ * of staging chunks bounds the work in flight, further packets wait compressed.
+ *
+ * <p>Apart from the worker tasks, all methods must be called from the main thread.
+ */
+public class ChunkDataDecoder {
+
+  /** A decoded chunk, ready to be published. */
+  public static final class Decoded {
+
+    private final ChunkData data = new ChunkData(0, 0);
+
+    private int chunkX;
+
+    private int chunkZ;
+
+    private boolean failed;
+
+    public ChunkData getData() {
+      return data;
+    }
+
+    public int getChunkX() {
+      return chunkX;
+    }
+
+    public int getChunkZ() {
+      return chunkZ;
+    }
+  }
+
+  /** A chunk to decode, either received or to be loaded from the client cache. */
+  private record Request(
+      int chunkX, int chunkZ, ChunkDataPacket packet, long cachedHash, ClientChunkCache cache) {}
+
+  private static final int STAGING_PER_WORKER = 4;
+
+  private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+  private static final ThreadLocal<LightEngine> LIGHT_ENGINE =
+      ThreadLocal.withInitial(() -> new LightEngine(null));
+
+  private final ExecutorService workers;
+
+  private final ArrayDeque<Request> pending = new ArrayDeque<>();
+
+  private final ArrayDeque<Decoded> staging = new ArrayDeque<>();
+
+  private final ConcurrentLinkedQueue<Decoded> ready = new ConcurrentLinkedQueue<>();
+
+  public ChunkDataDecoder(int workerThreads) {
+    if (workerThreads <= 0) {
+      throw new IllegalArgumentException("Worker thread count must be greater than zero.");
+    }
+    for (int i = 0; i < workerThreads * STAGING_PER_WORKER; i++) {
+      staging.push(new Decoded());
+    }
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            workerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "Chunk-Decode-Worker-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** Queues a packet for decoding. */
+  public void submit(ChunkDataPacket packet) {
+    pending.offer(new Request(packet.getChunkX(), packet.getChunkZ(), packet, 0, null));
+    dispatch();
+  }
+
+  /** Queues a chunk to be read from the cache and decoded, both on a worker thread. */
+  public void submitCached(int chunkX, int chunkZ, long hash, ClientChunkCache cache) {
+    pending.offer(new Request(chunkX, chunkZ, null, hash, cache));
+    dispatch();
+  }
+
+  /**
+   * Returns the next decoded chunk, or null if none is ready. Chunks that failed to decode or were
+   * missing from the cache are skipped. The returned chunk must be handed back with {@link
+   * #release(Decoded)}.
+   */
+  public Decoded poll() {
+    Decoded decoded;
+    while ((decoded = ready.poll()) != null) {
+      if (!decoded.failed) return decoded;
+      release(decoded);
+    }
+    dispatch();
+    return null;
+  }
+
+  /** Returns a staging chunk after its contents were published, and starts the next packet. */
+  public void release(Decoded decoded) {
+    staging.push(decoded);
+    dispatch();
+  }
+
+  /** Number of packets waiting for a free staging chunk. */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  public void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private void dispatch() {
+    while (!pending.isEmpty() && !staging.isEmpty()) {
+      Request request = pending.poll();
+      Decoded decoded = staging.pop();
+      decoded.chunkX = request.chunkX();
+      decoded.chunkZ = request.chunkZ();
+      workers.execute(() -> decode(request, decoded));
+    }
+  }
+
+  private void decode(Request request, Decoded decoded) {
+    try {
+      ChunkDataPacket packet = request.packet();
+      if (packet == null) {
+        packet = request.cache().load(request.chunkX(), request.chunkZ(), request.cachedHash());
+      }
+      if (packet == null) {
+        decoded.failed = true;
+        ready.offer(decoded);
+        return;
+      }
+      packet.decompress(decoded.data.getRawBlockData(), INFLATER.get());
+      decoded.data.recalculateSections();
+      decoded.data.recalculateHeightMap();
+      if (!packet.decompressLight(decoded.data, INFLATER.get())) {
+        LIGHT_ENGINE.get().lightChunk(decoded.data);
+      }
+      decoded.failed = false;
+    } catch (DataFormatException | RuntimeException e) {
+      e.printStackTrace();
+      decoded.failed = true;
+    }
+    ready.offer(decoded);
+  }
+}
@@ -1,8 +1,5 @@
 package client.world;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -11,13 +8,17 @@ import client.app.GameClient;
 import client.rendering.BasicChunkRenderer;
 import client.rendering.ChunkRenderer;
 import client.settings.GameSettings;
+import common.util.ConcurrentLong2ObjectMap;
+import common.util.Long2LongMap;
 import common.world.ChunkData;
 import common.world.ChunkStatus;
+import common.world.ChunkSummary;
 import common.world.World;
 import common.world.WorldMath;
 import engine.components.AbstractComponent;
 import engine.components.RenderableComponent;
 import engine.rendering.Graphics;
+import engine.scene.camera.Camera;
 import math.Vector3f;
 
 /**
@@ -36,15 +37,15 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
 
   private final ConcurrentLinkedDeque<Chunk> chunkPool = new ConcurrentLinkedDeque<>();
 
-  private final Map<Long, Chunk> activeChunks = new ConcurrentHashMap<>();
+  private final ConcurrentLong2ObjectMap<Chunk> activeChunks = new ConcurrentLong2ObjectMap<>();
 
   private final ConcurrentLinkedQueue<Chunk> dataQueue = new ConcurrentLinkedQueue<>();
 
-  private final ConcurrentLinkedQueue<Chunk> meshQueue = new ConcurrentLinkedQueue<>();
-
   private final ConcurrentHashMap<Chunk, Boolean> dataQueueSet = new ConcurrentHashMap<>();
 
-  private final ConcurrentHashMap<Chunk, Boolean> meshQueueSet = new ConcurrentHashMap<>();
+  private final MeshScheduler meshScheduler;
+
+  private final LodTerrain lodTerrain = new LodTerrain();
 
   private int playerChunkX;
 
@@ -54,17 +55,30 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
 
   private ChunkRenderer chunkRenderer;
 
+  private final GameClient client;
+
   private ClientWorld world;
 
   // Füge eine Map für den Lösch-Timer hinzu
-  private final Map<Long, Long> deletionQueue = new ConcurrentHashMap<>();
+  // Nur im Update-Thread benutzt
+  private final Long2LongMap deletionQueue = new Long2LongMap();
 
   private static final long DELETION_DELAY_MS = 2000; // 2 Sekunden Puffer
 
+  // Zeitstempel sind nie negativ
+  private static final long NOT_QUEUED = -1;
+
+  /** Default distant terrain radius as a multiple of the render distance. */
+  private static final int LOD_DISTANCE_FACTOR = 4;
+
   public ChunkManager(GameClient client) {
+    this.client = client;
     this.world = client.getWorld();
     this.chunkRenderer = new BasicChunkRenderer(client);
     setRenderDistance(GameSettings.renderDistance);
+    int meshThreads = GameSettings.meshingThreads;
+    this.meshScheduler =
+        new MeshScheduler(meshThreads > 0 ? meshThreads : MeshScheduler.getDefaultWorkerCount());
   }
 
   @Override
@@ -84,68 +98,35 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
 
     enqueueChunks();
     processQueues();
+
+    if (GameSettings.distantTerrain) {
+      lodTerrain.update(playerChunkX, playerChunkZ, bufferDistance, getLodDistance());
+    }
   }
 
   private void enqueueChunks() {
-    List<Chunk> toMesh = new ArrayList<>();
-
     for (Chunk chunk : activeChunks.values()) {
       if (!chunk.isDataReady() && dataQueueSet.putIfAbsent(chunk, true) == null) {
         dataQueue.offer(chunk);
       }
       if (chunk.isDataReady()
           && (chunk.getStatus() == ChunkStatus.DATA_READY || chunk.needsRebuild())) {
-        if (!meshQueueSet.containsKey(chunk)) {
-          toMesh.add(chunk);
-        }
-      }
-    }
-
-    toMesh.sort(
-        (a, b) -> {
-          float distA = a.getWorldPosition().distanceSquared(playerPosition);
-          float distB = b.getWorldPosition().distanceSquared(playerPosition);
-          return Float.compare(distA, distB);
-        });
-
-    for (Chunk c : toMesh) {
-      if (meshQueueSet.putIfAbsent(c, true) == null) {
-        meshQueue.offer(c);
+        meshScheduler.enqueue(chunk);
       }
     }
   }
 
   private void processQueues() {
-    long startTime = System.nanoTime();
-    long budget = 2_000_000;
-
-    while (!meshQueue.isEmpty() && (System.nanoTime() - startTime) < budget) {
-      Chunk chunk = meshQueue.poll();
-      if (chunk == null) continue;
-
-      meshQueueSet.remove(chunk);
-
-      // Sicherstellen, dass der Chunk noch Teil der Welt ist
-      if (!activeChunks.containsKey(World.getChunkKey(chunk.getChunkX(), chunk.getChunkZ()))) {
-        continue;
-      }
-
-      // Der Chunk braucht ein Update
-      if (chunk.needsRebuild() || chunk.getStatus() == ChunkStatus.DATA_READY) {
-        // Nur wenn Nachbarn da sind, sonst zurück in die Queue (mit Verzögerung)
-        if (neighborsReady(chunk.getChunkX(), chunk.getChunkZ())) {
-          chunk.scheduleMeshGeneration(this); // Startet Worker-Thread
-        } else {
-          // Erneut hinten anstellen, damit andere Chunks erst dran kommen
-          meshQueue.offer(chunk);
-          meshQueueSet.put(chunk, true);
-          continue;
-        }
-      }
-
-      // Mesh-Resultate vom Worker-Thread einsammeln
-      chunk.updateMesh();
+    Camera camera = client.getPlayerCamera();
+    if (camera != null) {
+      meshScheduler.setView(playerPosition, camera.getTransform().getForward());
     }
+    meshScheduler.update(this);
+  }
+
+  /** Returns whether the chunk is still the active chunk at its position. */
+  public boolean isActive(Chunk chunk) {
+    return activeChunks.get(World.getChunkKey(chunk.getChunkX(), chunk.getChunkZ())) == chunk;
   }
 
   public boolean neighborsReady(int cx, int cz) {
@@ -195,38 +176,38 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
     int r2 = (bufferDistance + 1) * (bufferDistance + 1);
     long currentTime = System.currentTimeMillis();
 
-    activeChunks
-        .entrySet()
-        .removeIf(
-            entry -> {
-              Chunk chunk = entry.getValue();
-              int dx = chunk.getChunkX() - centerX;
-              int dz = chunk.getChunkZ() - centerZ;
-
-              if (dx * dx + dz * dz > r2) {
-                long key = entry.getKey();
-                // If not yet in the deletion queue, add it now
-                if (!deletionQueue.containsKey(key)) {
-                  deletionQueue.put(key, currentTime);
-                } else if (currentTime - deletionQueue.get(key) > DELETION_DELAY_MS) {
-                  // Only recycle after the delay has passed
-                  recycleChunk(chunk);
-                  deletionQueue.remove(key);
-                  return true;
-                }
-              } else {
-                // If the player moves back, remove from the deletion queue
-                deletionQueue.remove(World.getChunkKey(chunk.getChunkX(), chunk.getChunkZ()));
-              }
-              return false;
-            });
+    activeChunks.removeIf(
+        (key, chunk) -> {
+          int dx = chunk.getChunkX() - centerX;
+          int dz = chunk.getChunkZ() - centerZ;
+
+          if (dx * dx + dz * dz > r2) {
+            long queuedAt = deletionQueue.get(key, NOT_QUEUED);
+            // If not yet in the deletion queue, add it now
+            if (queuedAt == NOT_QUEUED) {
+              deletionQueue.put(key, currentTime);
+            } else if (currentTime - queuedAt > DELETION_DELAY_MS) {
+              // Only recycle after the delay has passed
+              recycleChunk(chunk);
+              deletionQueue.remove(key);
+              return true;
+            }
+          } else {
+            // If the player moves back, remove from the deletion queue
+            deletionQueue.remove(key);
+          }
+          return false;
+        });
   }
 
   private void recycleChunk(Chunk chunk) {
+    // Der Chunk bleibt als Fernansicht erhalten, inklusive aller Änderungen
+    if (chunk.isDataReady()) {
+      lodTerrain.addSummary(ChunkSummary.of(chunk));
+    }
     dataQueue.remove(chunk);
-    meshQueue.remove(chunk);
     dataQueueSet.remove(chunk);
-    meshQueueSet.remove(chunk);
+    meshScheduler.remove(chunk);
     chunkPool.push(chunk);
   }
 
@@ -240,16 +221,40 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
     int cz = Math.floorDiv(z, 16);
     Chunk c = getChunk(cx, cz);
 
-    if (c != null) {
+    if (c != null && y >= 0 && y < ChunkData.HEIGHT) {
       c.setBlockId(id, Math.floorMod(x, 16), y, Math.floorMod(z, 16));
-      c.markDirty();
+
+      // Nur die betroffene Section und ihre direkten Nachbarn neu meshen
+      int section = y / Chunk.SECTION_SIZE;
+      int ly = y % Chunk.SECTION_SIZE;
+      c.markSectionDirty(section);
+      if (ly == 0) c.markSectionDirty(section - 1);
+      if (ly == Chunk.SECTION_SIZE - 1) c.markSectionDirty(section + 1);
 
       int lx = Math.floorMod(x, 16);
       int lz = Math.floorMod(z, 16);
-      if (lx == 0) markChunkDirty(cx - 1, cz);
-      if (lx == 15) markChunkDirty(cx + 1, cz);
-      if (lz == 0) markChunkDirty(cx, cz - 1);
-      if (lz == 15) markChunkDirty(cx, cz + 1);
+      if (lx == 0) markSectionDirty(cx - 1, cz, section);
+      if (lx == 15) markSectionDirty(cx + 1, cz, section);
+      if (lz == 0) markSectionDirty(cx, cz - 1, section);
+      if (lz == 15) markSectionDirty(cx, cz + 1, section);
+    }
+  }
+
+  /**
+   * Marks every section dirty whose mesh can depend on a block in the given box. Faces sample the
+   * block next to them, so the box is grown by one first.
+   */
+  public void markBoxDirty(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+    int minSection = Math.max(0, (minY - 1) / Chunk.SECTION_SIZE);
+    int maxSection = Math.min(Chunk.SECTION_COUNT - 1, (maxY + 1) / Chunk.SECTION_SIZE);
+    for (int cx = Math.floorDiv(minX - 1, 16); cx <= Math.floorDiv(maxX + 1, 16); cx++) {
+      for (int cz = Math.floorDiv(minZ - 1, 16); cz <= Math.floorDiv(maxZ + 1, 16); cz++) {
+        Chunk c = getChunk(cx, cz);
+        if (c == null) continue;
+        for (int section = minSection; section <= maxSection; section++) {
+          c.markSectionDirty(section);
+        }
+      }
     }
   }
 
@@ -258,6 +263,11 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
     if (c != null) c.markDirty();
   }
 
+  public void markSectionDirty(int cx, int cz, int section) {
+    Chunk c = getChunk(cx, cz);
+    if (c != null) c.markSectionDirty(section);
+  }
+
   public Chunk getChunk(int x, int z) {
     return activeChunks.get(World.getChunkKey(x, z));
   }
@@ -299,6 +309,31 @@ public class ChunkManager extends AbstractComponent implements RenderableCompone
     playerPosition.set(x, y, z);
   }
 
+  /** Radius in chunks up to which distant terrain is drawn. */
+  public int getLodDistance() {
+    int lodDistance = GameSettings.lodDistance;
+    return lodDistance > 0 ? lodDistance : renderDistance * LOD_DISTANCE_FACTOR;
+  }
+
+  /** Radius in chunks that is drawn with full chunk meshes. */
+  public int getDetailDistance() {
+    return bufferDistance;
+  }
+
+  /** Radius in chunks up to which anything is drawn, with or without distant terrain. */
+  public int getVisibleDistance() {
+    if (!GameSettings.distantTerrain) return bufferDistance;
+    return Math.max(getLodDistance(), bufferDistance);
+  }
+
+  public LodTerrain getLodTerrain() {
+    return lodTerrain;
+  }
+
+  public MeshScheduler getMeshScheduler() {
+    return meshScheduler;
+  }
+
   @Override
   public void onAttach() {
     // Placeholder for attach logic
@@ -0,0 +1,142 @@
+package client.world;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Binary min-heap of chunks waiting to be meshed, ordered by a priority where lower values are
+ * meshed first.
+ *
+ * <p>Every chunk remembers its own slot in the heap, so membership tests are constant time and
+ * removing or re-prioritizing a chunk is logarithmic. {@link #rekey(ToDoubleFunction)} recomputes
+ * all priorities and restores the heap in linear time, which is cheaper than re-sorting when the
+ * player moves. Not thread-safe; the queue is owned by the main thread.
+ */
+public class ChunkMeshQueue {
+
+  private Chunk[] heap = new Chunk[64];
+
+  private int size;
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean contains(Chunk chunk) {
+    int index = chunk.meshQueueIndex;
+    return index >= 0 && index < size && heap[index] == chunk;
+  }
+
+  /** Adds the chunk, or changes its priority if it is already queued. */
+  public void add(Chunk chunk, float priority) {
+    if (contains(chunk)) {
+      float previous = chunk.meshPriority;
+      chunk.meshPriority = priority;
+      if (priority < previous) {
+        siftUp(chunk.meshQueueIndex);
+      } else {
+        siftDown(chunk.meshQueueIndex);
+      }
+      return;
+    }
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    chunk.meshPriority = priority;
+    heap[size] = chunk;
+    chunk.meshQueueIndex = size;
+    size++;
+    siftUp(size - 1);
+  }
+
+  /** Removes and returns the chunk with the lowest priority value, or null if empty. */
+  public Chunk poll() {
+    if (size == 0) return null;
+    Chunk first = heap[0];
+    removeAt(0);
+    return first;
+  }
+
+  public Chunk peek() {
+    return size == 0 ? null : heap[0];
+  }
+
+  /** Removes the chunk if it is queued. */
+  public boolean remove(Chunk chunk) {
+    if (!contains(chunk)) return false;
+    removeAt(chunk.meshQueueIndex);
+    return true;
+  }
+
+  /** Recomputes the priority of every queued chunk and restores the heap order. */
+  public void rekey(ToDoubleFunction<Chunk> priority) {
+    for (int i = 0; i < size; i++) {
+      heap[i].meshPriority = (float) priority.applyAsDouble(heap[i]);
+    }
+    for (int i = (size >>> 1) - 1; i >= 0; i--) {
+      siftDown(i);
+    }
+  }
+
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      heap[i].meshQueueIndex = -1;
+      heap[i] = null;
+    }
+    size = 0;
+  }
+
+  private void removeAt(int index) {
+    Chunk removed = heap[index];
+    removed.meshQueueIndex = -1;
+    size--;
+    if (index == size) {
+      heap[size] = null;
+      return;
+    }
+    Chunk last = heap[size];
+    heap[size] = null;
+    heap[index] = last;
+    last.meshQueueIndex = index;
+    siftDown(index);
+    if (heap[index] == last) {
+      siftUp(index);
+    }
+  }
+
+  private void siftUp(int index) {
+    Chunk chunk = heap[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heap[parent].meshPriority <= chunk.meshPriority) break;
+      move(heap[parent], index);
+      index = parent;
+    }
+    move(chunk, index);
+  }
+
+  private void siftDown(int index) {
+    Chunk chunk = heap[index];
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < size && heap[right].meshPriority < heap[child].meshPriority) {
+        child = right;
+      }
+      if (chunk.meshPriority <= heap[child].meshPriority) break;
+      move(heap[child], index);
+      index = child;
+    }
+    move(chunk, index);
+  }
+
+  private void move(Chunk chunk, int index) {
+    heap[index] = chunk;
+    chunk.meshQueueIndex = index;
+  }
+}
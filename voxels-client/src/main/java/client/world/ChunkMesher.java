@@ -1,321 +1,224 @@
 package client.world;
 
 import java.util.Arrays;
+
 import client.resources.TextureAtlas;
+import client.settings.GameSettings;
 import client.ui.GameTextures;
-import common.game.block.BlockRegistry;
-import common.game.block.BlockShape;
+import client.world.mesh.AtlasLayout;
+import client.world.mesh.ChunkMeshBuilder;
+import client.world.mesh.ChunkMeshLayers;
+import client.world.mesh.MeshUploader;
+import client.world.mesh.SectionVisibility;
 import common.game.block.Blocks;
-import engine.backend.processing.BufferedShape;
+import common.world.NibbleArray;
 import engine.components.StaticGeometry;
 import engine.rendering.Material;
 import engine.resources.FilterMode;
 import engine.resources.Texture;
 import engine.resources.TextureWrapMode;
-import math.Vector2f;
 
+/**
+ * Meshes a client chunk: copies its blocks and light and the border of its neighbours into padded
+ * per-thread caches, lets the headless {@link ChunkMeshBuilder} emit the vertex data and uploads
+ * the result into static geometry, one per section and layer.
+ */
 public class ChunkMesher {
 
-  private static final int TOP = 0;
-
-  private static final int BOTTOM = 1;
-
-  private static final int FRONT = 2;
-
-  private static final int BACK = 3;
-
-  private static final int RIGHT = 4;
-
-  private static final int LEFT = 5;
-
-  private static final float radius = 0.5f;
-
   private final Chunk chunk;
 
   private final ChunkManager chunkManager;
 
-  private BufferedShape decorShape;
-
-  private BufferedShape currentShape;
-
   public static final Material sharedMaterial;
 
   private static final TextureAtlas textureAtlas;
 
-  private short[] localCache;
-
-  private static final int P_WIDTH = Chunk.WIDTH + 2;
+  private static final AtlasLayout atlasLayout;
 
-  private static final int P_DEPTH = Chunk.DEPTH + 2;
+  private static final int P_DEPTH = ChunkMeshBuilder.PADDED_DEPTH;
 
   private static final ThreadLocal<short[]> CACHE_HOLDER =
-      new ThreadLocal<short[]>() {
-        @Override
-        protected short[] initialValue() {
-          return new short[P_WIDTH * Chunk.HEIGHT * P_DEPTH];
-        }
-      };
+      ThreadLocal.withInitial(() -> new short[ChunkMeshBuilder.PADDED_SIZE]);
+
+  private static final ThreadLocal<byte[]> LIGHT_HOLDER =
+      ThreadLocal.withInitial(() -> new byte[ChunkMeshBuilder.PADDED_SIZE]);
+
+  /** Light outside of lit chunks: full sky light, no block light. */
+  private static final byte UNKNOWN_LIGHT = (byte) (Chunk.MAX_LIGHT << 4);
+
+  private static final ThreadLocal<ChunkMeshLayers> LAYERS_HOLDER =
+      ThreadLocal.withInitial(ChunkMeshLayers::new);
+
+  private static final ThreadLocal<SectionVisibility> VISIBILITY_HOLDER =
+      ThreadLocal.withInitial(SectionVisibility::new);
 
   static {
     sharedMaterial = new Material();
     textureAtlas = GameTextures.TEXTURE_ATLAS;
+    atlasLayout = textureAtlas.getLayout();
     Texture texture = textureAtlas.getTexture();
     texture.setFilterMode(FilterMode.POINT);
     texture.setTextureWrapMode(TextureWrapMode.CLAMP);
     sharedMaterial.setDiffuseTexture(texture);
   }
 
+  private static final ThreadLocal<ChunkMeshBuilder> BUILDER_HOLDER =
+      ThreadLocal.withInitial(() -> new ChunkMeshBuilder(atlasLayout));
+
+  /** Returns the layout of the block texture atlas. */
+  public static AtlasLayout getAtlasLayout() {
+    return atlasLayout;
+  }
+
   public ChunkMesher(Chunk chunk, ChunkManager chunkManager) {
     this.chunk = chunk;
     this.chunkManager = chunkManager;
   }
 
+  /**
+   * Geometry of the rebuilt sections. Entries of sections outside of {@link #sections}, and of
+   * sections without faces in a layer, are null.
+   */
   public static class MeshResult {
 
-    public final StaticGeometry opaque;
+    /** The sections that were rebuilt, bit {@code s} for section {@code s}. */
+    public final int sections;
 
-    public final StaticGeometry water;
+    public final StaticGeometry[] opaque = new StaticGeometry[Chunk.SECTION_COUNT];
 
-    public final StaticGeometry decor;
+    public final StaticGeometry[] water = new StaticGeometry[Chunk.SECTION_COUNT];
 
-    public MeshResult(StaticGeometry o, StaticGeometry w, StaticGeometry d) {
-      this.opaque = o;
-      this.water = w;
-      this.decor = d;
+    public final StaticGeometry[] decor = new StaticGeometry[Chunk.SECTION_COUNT];
+
+    /** Face connectivity per section, see {@link SectionVisibility}. */
+    public final long[] visibility = new long[Chunk.SECTION_COUNT];
+
+    public MeshResult(int sections) {
+      this.sections = sections;
     }
   }
 
+  /** Meshes every section of the chunk. */
   public MeshResult createMesh() {
-//    long startTime = System.nanoTime();
-
-    fillCache();
-
-    BufferedShape opaqueShape = new BufferedShape(sharedMaterial);
-    BufferedShape waterShape = new BufferedShape(sharedMaterial);
-    decorShape = new BufferedShape(sharedMaterial);
-
-    opaqueShape.begin(BufferedShape.QUADS);
-    waterShape.begin(BufferedShape.QUADS);
-    decorShape.begin(BufferedShape.QUADS);
-
-    for (int x = 0; x < Chunk.WIDTH; x++) {
-      for (int y = 0; y < Chunk.HEIGHT; y++) {
-        for (int z = 0; z < Chunk.DEPTH; z++) {
-          short blockId = chunk.getBlockId(x, y, z);
-          if (blockId == Blocks.AIR.getId()) continue;
-          if (BlockRegistry.getTypeUnsafe(blockId).getShape() == BlockShape.CROSS) continue;
-
-          currentShape = (blockId == Blocks.WATER.getId()) ? waterShape : opaqueShape;
+    return createMesh(Chunk.ALL_SECTIONS);
+  }
 
-          for (int face = 0; face < 6; face++) {
-            if (shouldRender(blockId, x, y, z, face)) {
-              addSingleFace(x, y, z, blockId, face);
-            }
-          }
-        }
+  /** Meshes the sections set in {@code sections}, bit {@code s} for section {@code s}. */
+  public MeshResult createMesh(int sections) {
+    MeshResult result = new MeshResult(sections);
+    short[] localCache = CACHE_HOLDER.get();
+    int maxY = chunk.getMaxY();
+    int skipped = findSkippedSections(maxY);
+    for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+      if ((skipped & (1 << section)) != 0) {
+        // Übersprungen heißt entweder leer oder komplett opak
+        result.visibility[section] =
+            chunk.isSectionEmpty(section) ? SectionVisibility.ALL : SectionVisibility.NONE;
       }
     }
-
-    generateDecor();
-    opaqueShape.end();
-    waterShape.end();
-    decorShape.end();
-
-//    long endTime = System.nanoTime();
-//    double durationMs = (endTime - startTime) / 1_000_000.0;
-//
-//    System.out.format(
-//        "Chunk [%d, %d] meshed in: %.3f ms%n", chunk.getChunkX(), chunk.getChunkZ(), durationMs);
-
-    return new MeshResult(
-        new StaticGeometry(opaqueShape.getVBO(), sharedMaterial),
-        new StaticGeometry(waterShape.getVBO(), sharedMaterial),
-        new StaticGeometry(decorShape.getVBO(), sharedMaterial));
+    if ((sections & ~skipped) == 0) return result;
+
+    // Ohne berechnetes Licht bleibt der Chunk voll beleuchtet statt schwarz
+    byte[] lightCache = chunk.hasLight() ? LIGHT_HOLDER.get() : null;
+    fillCache(localCache, lightCache, maxY);
+
+    ChunkMeshLayers layers = LAYERS_HOLDER.get();
+    ChunkMeshBuilder builder = BUILDER_HOLDER.get();
+    SectionVisibility visibility = VISIBILITY_HOLDER.get();
+    builder.setGreedy(GameSettings.greedyMeshing);
+    builder.setLight(lightCache);
+
+    for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+      int bit = 1 << section;
+      if ((sections & bit) == 0 || (skipped & bit) != 0) continue;
+
+      builder.buildSection(localCache, section, maxY, layers);
+      result.opaque[section] = MeshUploader.upload(layers.getOpaque(), sharedMaterial);
+      result.water[section] = MeshUploader.upload(layers.getWater(), sharedMaterial);
+      result.decor[section] = MeshUploader.upload(layers.getDecor(), sharedMaterial);
+      result.visibility[section] = visibility.compute(localCache, section);
+    }
+    return result;
   }
 
   /**
-   * AO calculation taking into account the inverted Y-axis in rendering. If rendering uses -Y as
-   * up, we need to adjust how we query world data (+Y as up).
+   * Returns the sections that cannot produce any face: empty ones, and fully opaque ones whose six
+   * neighbouring sections are fully opaque as well. The world floor counts as opaque, missing
+   * neighbour chunks do not.
    */
-  private float getAO(
-      int sx1, int sy1, int sz1, int sx2, int sy2, int sz2, int cx, int cy, int cz) {
-    int s1 = isSolidFast(sx1, sy1, sz1) ? 1 : 0;
-    int s2 = isSolidFast(sx2, sy2, sz2) ? 1 : 0;
-    int c = isSolidFast(cx, cy, cz) ? 1 : 0;
-
-    if (s1 == 1 && s2 == 1) return 0.45f;
-    return 1.0f - (s1 + s2 + c) * 0.18f;
-  }
-
-  private void addSingleFace(int x, int y, int z, short blockId, int face) {
-    Vector2f[] uv = textureAtlas.getUVCoordinates(blockId, face);
-    float baseLight;
-    switch (face) {
-      case FRONT:
-      case BACK:
-        baseLight = 0.85f;
-        break;
-      case LEFT:
-      case RIGHT:
-        baseLight = 0.7f;
-        break;
-      case BOTTOM:
-        baseLight = 0.5f;
-        break;
-      default:
-        baseLight = 1.0f;
-        break;
+  private int findSkippedSections(int maxY) {
+    Chunk north = getReadyChunk(0, -1);
+    Chunk south = getReadyChunk(0, 1);
+    Chunk west = getReadyChunk(-1, 0);
+    Chunk east = getReadyChunk(1, 0);
+
+    int skipped = 0;
+    for (int section = 0; section < Chunk.SECTION_COUNT; section++) {
+      if (chunk.isSectionEmpty(section)) {
+        skipped |= 1 << section;
+        continue;
+      }
+      boolean occluded =
+          chunk.isSectionFullyOpaque(section)
+              && (section == 0 || chunk.isSectionFullyOpaque(section - 1))
+              && section + 1 < Chunk.SECTION_COUNT
+              && chunk.isSectionFullyOpaque(section + 1)
+              && isFullyOpaque(north, section)
+              && isFullyOpaque(south, section)
+              && isFullyOpaque(west, section)
+              && isFullyOpaque(east, section);
+      if (occluded) {
+        skipped |= 1 << section;
+      }
     }
+    return skipped;
+  }
 
-    float xf = x - radius, yf = y - radius, zf = z - radius;
-    float a0, a1, a2, a3;
-
-    switch (face) {
-      case TOP:
-        yf += 1.0f;
-        a0 = getAO(x - 1, y + 1, z, x, y + 1, z - 1, x - 1, y + 1, z - 1) * baseLight;
-        a1 = getAO(x - 1, y + 1, z, x, y + 1, z + 1, x - 1, y + 1, z + 1) * baseLight;
-        a2 = getAO(x + 1, y + 1, z, x, y + 1, z + 1, x + 1, y + 1, z + 1) * baseLight;
-        a3 = getAO(x + 1, y + 1, z, x, y + 1, z - 1, x + 1, y + 1, z - 1) * baseLight;
-        drawFace(
-            xf, -yf, zf, xf, -yf, zf + 1, xf + 1, -yf, zf + 1, xf + 1, -yf, zf, a0, a1, a2, a3, uv);
-        break;
-
-      case BOTTOM:
-        a0 = getAO(x - 1, y - 1, z, x, y - 1, z - 1, x - 1, y - 1, z - 1) * baseLight;
-        a1 = getAO(x + 1, y - 1, z, x, y - 1, z - 1, x + 1, y - 1, z - 1) * baseLight;
-        a2 = getAO(x + 1, y - 1, z, x, y - 1, z + 1, x + 1, y - 1, z + 1) * baseLight;
-        a3 = getAO(x - 1, y - 1, z, x, y - 1, z + 1, x - 1, y - 1, z + 1) * baseLight;
-        drawFace(
-            xf, -yf, zf, xf + 1, -yf, zf, xf + 1, -yf, zf + 1, xf, -yf, zf + 1, a0, a1, a2, a3, uv);
-        break;
-
-      case FRONT:
-        zf += 1.0f;
-        a0 = getAO(x - 1, y, z + 1, x, y - 1, z + 1, x - 1, y - 1, z + 1) * baseLight;
-        a1 = getAO(x + 1, y, z + 1, x, y - 1, z + 1, x + 1, y - 1, z + 1) * baseLight;
-        a2 = getAO(x + 1, y, z + 1, x, y + 1, z + 1, x + 1, y + 1, z + 1) * baseLight;
-        a3 = getAO(x - 1, y, z + 1, x, y + 1, z + 1, x - 1, y + 1, z + 1) * baseLight;
-        drawFace(
-            xf, -yf, zf, xf + 1, -yf, zf, xf + 1, -yf - 1, zf, xf, -yf - 1, zf, a0, a1, a2, a3, uv);
-        break;
-
-      case BACK:
-        a0 = getAO(x + 1, y, z - 1, x, y - 1, z - 1, x + 1, y - 1, z - 1) * baseLight;
-        a1 = getAO(x - 1, y, z - 1, x, y - 1, z - 1, x - 1, y - 1, z - 1) * baseLight;
-        a2 = getAO(x - 1, y, z - 1, x, y + 1, z - 1, x - 1, y + 1, z - 1) * baseLight;
-        a3 = getAO(x + 1, y, z - 1, x, y + 1, z - 1, x + 1, y + 1, z - 1) * baseLight;
-        drawFace(
-            xf + 1, -yf, zf, xf, -yf, zf, xf, -yf - 1, zf, xf + 1, -yf - 1, zf, a0, a1, a2, a3, uv);
-        break;
-
-      case RIGHT:
-        xf += 1.0f;
-        a0 = getAO(x + 1, y, z + 1, x + 1, y - 1, z, x + 1, y - 1, z + 1) * baseLight;
-        a1 = getAO(x + 1, y, z - 1, x + 1, y - 1, z, x + 1, y - 1, z - 1) * baseLight;
-        a2 = getAO(x + 1, y, z - 1, x + 1, y + 1, z, x + 1, y + 1, z - 1) * baseLight;
-        a3 = getAO(x + 1, y, z + 1, x + 1, y + 1, z, x + 1, y + 1, z + 1) * baseLight;
-        drawFace(
-            xf, -yf, zf + 1, xf, -yf, zf, xf, -yf - 1, zf, xf, -yf - 1, zf + 1, a0, a1, a2, a3, uv);
-        break;
-
-      case LEFT:
-        a0 = getAO(x - 1, y, z - 1, x - 1, y - 1, z, x - 1, y - 1, z - 1) * baseLight;
-        a1 = getAO(x - 1, y, z + 1, x - 1, y - 1, z, x - 1, y - 1, z + 1) * baseLight;
-        a2 = getAO(x - 1, y, z + 1, x - 1, y + 1, z, x - 1, y + 1, z + 1) * baseLight;
-        a3 = getAO(x - 1, y, z - 1, x - 1, y + 1, z, x - 1, y + 1, z - 1) * baseLight;
-        drawFace(
-            xf, -yf, zf, xf, -yf, zf + 1, xf, -yf - 1, zf + 1, xf, -yf - 1, zf, a0, a1, a2, a3, uv);
-        break;
-    }
+  private static boolean isFullyOpaque(Chunk neighbor, int section) {
+    return neighbor != null && neighbor.isSectionFullyOpaque(section);
   }
 
-  private void drawFace(
-      float x1,
-      float y1,
-      float z1,
-      float x2,
-      float y2,
-      float z2,
-      float x3,
-      float y3,
-      float z3,
-      float x4,
-      float y4,
-      float z4,
-      float a0,
-      float a1,
-      float a2,
-      float a3,
-      Vector2f[] uv) {
-
-    if (a0 + a2 < a1 + a3) {
-      currentShape.color(a1, a1, a1);
-      currentShape.vertex(x2, y2, z2, uv[0].x, uv[1].y);
-      currentShape.color(a2, a2, a2);
-      currentShape.vertex(x3, y3, z3, uv[0].x, uv[2].y);
-      currentShape.color(a3, a3, a3);
-      currentShape.vertex(x4, y4, z4, uv[1].x, uv[2].y);
-      currentShape.color(a0, a0, a0);
-      currentShape.vertex(x1, y1, z1, uv[1].x, uv[1].y);
-    } else {
-      currentShape.color(a0, a0, a0);
-      currentShape.vertex(x1, y1, z1, uv[1].x, uv[1].y);
-      currentShape.color(a1, a1, a1);
-      currentShape.vertex(x2, y2, z2, uv[0].x, uv[1].y);
-      currentShape.color(a2, a2, a2);
-      currentShape.vertex(x3, y3, z3, uv[0].x, uv[2].y);
-      currentShape.color(a3, a3, a3);
-      currentShape.vertex(x4, y4, z4, uv[1].x, uv[2].y);
-    }
+  private Chunk getReadyChunk(int offsetX, int offsetZ) {
+    Chunk neighbor =
+        chunkManager.getChunk(chunk.getChunkX() + offsetX, chunk.getChunkZ() + offsetZ);
+    return neighbor != null && neighbor.isDataReady() ? neighbor : null;
   }
 
-  public boolean shouldRender(int myId, int x, int y, int z, int face) {
-    int nx = x, ny = y, nz = z;
-    switch (face) {
-      case TOP:
-        ny++;
-        break;
-      case BOTTOM:
-        ny--;
-        break;
-      case FRONT:
-        nz++;
-        break;
-      case BACK:
-        nz--;
-        break;
-      case RIGHT:
-        nx++;
-        break;
-      case LEFT:
-        nx--;
-        break;
+  /**
+   * Copies the chunk and the adjacent border columns of its loaded neighbours into {@code cache},
+   * and their light into {@code lightCache} unless it is null. Blocks more than one above {@code
+   * maxY} cannot influence any face and are left as air.
+   */
+  private void fillCache(short[] cache, byte[] lightCache, int maxY) {
+    short air = Blocks.AIR.getId();
+    Arrays.fill(cache, air);
+    if (lightCache != null) {
+      Arrays.fill(lightCache, UNKNOWN_LIGHT);
     }
-    if (ny < 0) return false;
-    if (ny >= Chunk.HEIGHT) return true;
-    int neighborId = getBlockDataFast(nx, ny, nz);
-    if (myId == Blocks.WATER.getId()) return neighborId == Blocks.AIR.getId();
-    if (neighborId == Blocks.WATER.getId()) return true;
-    return !isSolidFast(nx, ny, nz);
-  }
+    int height = Math.min(maxY + 2, Chunk.HEIGHT);
 
-  private void fillCache() {
-    this.localCache = CACHE_HOLDER.get();
-    Arrays.fill(localCache, (short) 0);
     for (int ox = -1; ox <= 1; ox++) {
       for (int oz = -1; oz <= 1; oz++) {
-        Chunk neighbor = chunkManager.getChunk(chunk.getChunkX() + ox, chunk.getChunkZ() + oz);
-        if (neighbor == null || !neighbor.isDataReady()) continue;
-        for (int x = 0; x < Chunk.WIDTH; x++) {
-          for (int z = 0; z < Chunk.DEPTH; z++) {
-            for (int y = 0; y < Chunk.HEIGHT; y++) {
-              int cx = x + 1 + (ox * Chunk.WIDTH);
-              int cz = z + 1 + (oz * Chunk.DEPTH);
-              if (cx >= 0 && cx < P_WIDTH && cz >= 0 && cz < P_DEPTH) {
-                localCache[(cx * Chunk.HEIGHT * P_DEPTH) + (y * P_DEPTH) + cz] =
-                    neighbor.getBlockId(x, y, z);
-              }
+        Chunk neighbor = getReadyChunk(ox, oz);
+        if (neighbor == null) continue;
+        short[] data = neighbor.getRawBlockData();
+
+        // Only the column next to this chunk is needed from side neighbours
+        int minX = ox < 0 ? Chunk.WIDTH - 1 : 0;
+        int maxX = ox > 0 ? 0 : Chunk.WIDTH - 1;
+        int minZ = oz < 0 ? Chunk.DEPTH - 1 : 0;
+        int maxZ = oz > 0 ? 0 : Chunk.DEPTH - 1;
+
+        for (int x = minX; x <= maxX; x++) {
+          for (int z = minZ; z <= maxZ; z++) {
+            int source = x + Chunk.WIDTH * Chunk.HEIGHT * z;
+            int target =
+                ChunkMeshBuilder.paddedIndex(x + ox * Chunk.WIDTH, 0, z + oz * Chunk.DEPTH);
+            for (int y = 0; y < height; y++) {
+              cache[target + y * P_DEPTH] = data[source + y * Chunk.WIDTH];
+            }
+            if (lightCache != null && neighbor.hasLight()) {
+              copyLight(neighbor, source, target, height, lightCache);
             }
           }
         }
@@ -323,42 +226,13 @@ public class ChunkMesher {
     }
   }
 
-  private int getBlockDataFast(int x, int y, int z) {
-    if (y < 0 || y >= Chunk.HEIGHT) return 0;
-    int idx = ((x + 1) * Chunk.HEIGHT * P_DEPTH) + (y * P_DEPTH) + (z + 1);
-    return (idx < 0 || idx >= localCache.length) ? 0 : localCache[idx];
-  }
-
-  private boolean isSolidFast(int x, int y, int z) {
-    int id = getBlockDataFast(x, y, z);
-    return id != 0 && BlockRegistry.getTypeUnsafe((short) id).isSolid();
-  }
-
-  private void generateDecor() {
-    for (int x = 0; x < Chunk.WIDTH; x++) {
-      for (int z = 0; z < Chunk.DEPTH; z++) {
-        for (int y = 0; y < Chunk.HEIGHT; y++) {
-          short id = chunk.getBlockId(x, y, z);
-          if (id != 0 && BlockRegistry.getTypeUnsafe(id).getShape() == BlockShape.CROSS)
-            createBillBoard(x, y, z);
-        }
-      }
+  /** Copies one column of light, sky light into the high nibble and block light into the low. */
+  private static void copyLight(Chunk from, int source, int target, int height, byte[] lightCache) {
+    NibbleArray sky = from.getSkyLightArray();
+    NibbleArray block = from.getBlockLightArray();
+    for (int y = 0; y < height; y++) {
+      int index = source + y * Chunk.WIDTH;
+      lightCache[target + y * P_DEPTH] = (byte) ((sky.get(index) << 4) | block.get(index));
     }
   }
-
-  private void createBillBoard(int x, int y, int z) {
-    currentShape = decorShape;
-    short blockId = chunk.getBlockId(x, y, z);
-    Vector2f[] uv = textureAtlas.getUVCoordinates(blockId, 0);
-    float cx = x, cy = y, cz = z, h = 1.0f, off = 0.5f;
-    currentShape.color(1, 1, 1);
-    currentShape.vertex(cx - off, -cy + radius, cz - off, uv[1].x, uv[1].y);
-    currentShape.vertex(cx + off, -cy + radius, cz + off, uv[0].x, uv[1].y);
-    currentShape.vertex(cx + off, -cy - h + radius, cz + off, uv[0].x, uv[2].y);
-    currentShape.vertex(cx - off, -cy - h + radius, cz - off, uv[1].x, uv[2].y);
-    currentShape.vertex(cx - off, -cy + radius, cz + off, uv[1].x, uv[1].y);
-    currentShape.vertex(cx + off, -cy + radius, cz - off, uv[0].x, uv[1].y);
-    currentShape.vertex(cx + off, -cy - h + radius, cz - off, uv[0].x, uv[2].y);
-    currentShape.vertex(cx - off, -cy - h + radius, cz + off, uv[1].x, uv[2].y);
-  }
 }
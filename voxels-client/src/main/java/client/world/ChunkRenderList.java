@@ -0,0 +1,254 @@
+package client.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import engine.scene.camera.Frustum;
+import math.Plane;
+import math.Vector3f;
+
+/**
+ * Builds the sorted draw lists of the chunk renderer.
+ *
+ * <p>The cached mesh bounds of the candidate chunks are copied into one flat array, one block of
+ * {@code capacity} floats per box component, and the frustum and distance tests run as plain loops
+ * over that array. Every plane is tested against all boxes at once with the corner that lies
+ * farthest along its normal, which the JIT can turn into vector instructions.
+ *
+ * <p>The visible chunks are sorted by the distance of their bounds center to the camera. The opaque
+ * list is ordered front to back, so near terrain fills the depth buffer first and hides what lies
+ * behind it, the transparent list back to front, so water blends correctly. While the camera moves
+ * less than {@link #RESORT_DISTANCE} blocks, the order of the previous frame is kept and only
+ * repaired by an insertion sort, which is almost free because it is nearly sorted already.
+ *
+ * <p>Only used from the main thread.
+ */
+public class ChunkRenderList {
+
+  /** Extends the tested boxes, so geometry at the border is not culled too early. */
+  public static final float PADDING = 1f;
+
+  /** Camera movement in blocks after which the lists are sorted from scratch. */
+  private static final float RESORT_DISTANCE = 4f;
+
+  // Flaches Array der Boxen relativ zur Kamera, ein Block pro Komponente
+  private static final int MIN_X = 0;
+
+  private static final int MIN_Y = 1;
+
+  private static final int MIN_Z = 2;
+
+  private static final int MAX_X = 3;
+
+  private static final int MAX_Y = 4;
+
+  private static final int MAX_Z = 5;
+
+  private int capacity = 256;
+
+  private float[] bounds = new float[capacity * 6];
+
+  // Kleinster Abstand über alle Tests, sichtbar solange >= 0
+  private float[] margins = new float[capacity];
+
+  private Chunk[] candidates = new Chunk[capacity];
+
+  private long[] sortKeys = new long[capacity];
+
+  private final List<Chunk> opaque = new ArrayList<>();
+
+  private final List<Chunk> transparent = new ArrayList<>();
+
+  private final Vector3f sortPosition = new Vector3f();
+
+  private boolean sorted;
+
+  private int frame;
+
+  /**
+   * Culls the candidates and rebuilds the draw lists. Chunks without geometry are skipped.
+   *
+   * @param chunks candidate chunks
+   * @param cameraPos camera position in world space
+   * @param frustum camera relative frustum, or null to skip the frustum test
+   * @param maxDistance horizontal distance in blocks beyond which chunks are culled
+   */
+  public void build(
+      Collection<Chunk> chunks, Vector3f cameraPos, Frustum frustum, float maxDistance) {
+    frame++;
+    int count = gather(chunks, cameraPos);
+
+    cullDistance(count, maxDistance);
+    if (frustum != null) {
+      cullPlane(frustum.left, count);
+      cullPlane(frustum.right, count);
+      cullPlane(frustum.bottom, count);
+      cullPlane(frustum.top, count);
+      cullPlane(frustum.near, count);
+      cullPlane(frustum.far, count);
+    }
+
+    for (int i = 0; i < count; i++) {
+      Chunk chunk = candidates[i];
+      candidates[i] = null;
+      if (margins[i] < 0) continue;
+      chunk.renderFrame = frame;
+      chunk.renderDistance = centerDistanceSquared(i);
+    }
+
+    if (sorted && cameraPos.distanceSquared(sortPosition) < RESORT_DISTANCE * RESORT_DISTANCE) {
+      repairOrder(chunks);
+    } else {
+      sortOrder(chunks);
+      sortPosition.set(cameraPos);
+      sorted = true;
+    }
+
+    transparent.clear();
+    for (int i = opaque.size() - 1; i >= 0; i--) {
+      Chunk chunk = opaque.get(i);
+      if ((chunk.getMeshLayers() & Chunk.WATER_LAYER) != 0) {
+        transparent.add(chunk);
+      }
+    }
+  }
+
+  /** Visible chunks of the last {@link #build}, front to back. */
+  public List<Chunk> getOpaque() {
+    return opaque;
+  }
+
+  /** Visible chunks with water of the last {@link #build}, back to front. */
+  public List<Chunk> getTransparent() {
+    return transparent;
+  }
+
+  /** Returns whether the chunk passed the tests of the last {@link #build}. */
+  public boolean isVisible(Chunk chunk) {
+    return chunk.renderFrame == frame;
+  }
+
+  private int gather(Collection<Chunk> chunks, Vector3f cameraPos) {
+    ensureCapacity(chunks.size());
+    int count = 0;
+    for (Chunk chunk : chunks) {
+      if (chunk.getMeshLayers() == 0) continue;
+      Vector3f pos = chunk.getWorldPosition();
+      float[] box = chunk.meshBounds;
+      float x = pos.x - cameraPos.x;
+      float y = pos.y - cameraPos.y;
+      float z = pos.z - cameraPos.z;
+      bounds[MIN_X * capacity + count] = x + box[0] - PADDING;
+      bounds[MIN_Y * capacity + count] = y + box[1] - PADDING;
+      bounds[MIN_Z * capacity + count] = z + box[2] - PADDING;
+      bounds[MAX_X * capacity + count] = x + box[3] + PADDING;
+      bounds[MAX_Y * capacity + count] = y + box[4] + PADDING;
+      bounds[MAX_Z * capacity + count] = z + box[5] + PADDING;
+      candidates[count++] = chunk;
+    }
+    return count;
+  }
+
+  private void ensureCapacity(int size) {
+    if (size <= capacity) return;
+    capacity = Math.max(size, capacity * 2);
+    bounds = new float[capacity * 6];
+    margins = new float[capacity];
+    candidates = new Chunk[capacity];
+    sortKeys = new long[capacity];
+  }
+
+  /** Starts the margins with the horizontal distance test, the camera is at the origin. */
+  private void cullDistance(int count, float maxDistance) {
+    float maxSquared = maxDistance * maxDistance;
+    int minX = MIN_X * capacity;
+    int minZ = MIN_Z * capacity;
+    int maxX = MAX_X * capacity;
+    int maxZ = MAX_Z * capacity;
+    for (int i = 0; i < count; i++) {
+      float dx = Math.max(0, Math.max(bounds[minX + i], -bounds[maxX + i]));
+      float dz = Math.max(0, Math.max(bounds[minZ + i], -bounds[maxZ + i]));
+      margins[i] = maxSquared - (dx * dx + dz * dz);
+    }
+  }
+
+  /** Tests all boxes against one plane with the corner farthest along its normal. */
+  private void cullPlane(Plane plane, int count) {
+    Vector3f n = plane.getNormal();
+    float d = plane.getDistance();
+    int x = (n.x >= 0 ? MAX_X : MIN_X) * capacity;
+    int y = (n.y >= 0 ? MAX_Y : MIN_Y) * capacity;
+    int z = (n.z >= 0 ? MAX_Z : MIN_Z) * capacity;
+    for (int i = 0; i < count; i++) {
+      float distance = n.x * bounds[x + i] + n.y * bounds[y + i] + n.z * bounds[z + i] + d;
+      margins[i] = Math.min(margins[i], distance);
+    }
+  }
+
+  private float centerDistanceSquared(int i) {
+    float x = (bounds[MIN_X * capacity + i] + bounds[MAX_X * capacity + i]) * 0.5f;
+    float y = (bounds[MIN_Y * capacity + i] + bounds[MAX_Y * capacity + i]) * 0.5f;
+    float z = (bounds[MIN_Z * capacity + i] + bounds[MAX_Z * capacity + i]) * 0.5f;
+    return x * x + y * y + z * z;
+  }
+
+  /** Sorts the visible chunks from scratch. */
+  private void sortOrder(Collection<Chunk> chunks) {
+    for (Chunk chunk : opaque) {
+      chunk.renderSorted = false;
+    }
+    opaque.clear();
+    for (Chunk chunk : chunks) {
+      if (chunk.renderFrame == frame) {
+        opaque.add(chunk);
+      }
+    }
+    int count = opaque.size();
+    // Nicht-negative Floats sortieren wie ihre Bits, der Index steht im unteren Teil
+    for (int i = 0; i < count; i++) {
+      long bits = Float.floatToRawIntBits(opaque.get(i).renderDistance);
+      sortKeys[i] = bits << 32 | i;
+    }
+    Arrays.sort(sortKeys, 0, count);
+    for (int i = 0; i < count; i++) {
+      candidates[i] = opaque.get((int) sortKeys[i]);
+    }
+    for (int i = 0; i < count; i++) {
+      opaque.set(i, candidates[i]);
+      candidates[i].renderSorted = true;
+      candidates[i] = null;
+    }
+  }
+
+  /** Keeps the previous order of the chunks that are still visible and inserts the new ones. */
+  private void repairOrder(Collection<Chunk> chunks) {
+    int kept = 0;
+    for (int i = 0; i < opaque.size(); i++) {
+      Chunk chunk = opaque.get(i);
+      if (chunk.renderFrame == frame) {
+        opaque.set(kept++, chunk);
+      } else {
+        chunk.renderSorted = false;
+      }
+    }
+    opaque.subList(kept, opaque.size()).clear();
+    for (Chunk chunk : chunks) {
+      if (chunk.renderFrame == frame && !chunk.renderSorted) {
+        chunk.renderSorted = true;
+        opaque.add(chunk);
+      }
+    }
+
+    for (int i = 1; i < opaque.size(); i++) {
+      Chunk chunk = opaque.get(i);
+      int j = i - 1;
+      while (j >= 0 && opaque.get(j).renderDistance > chunk.renderDistance) {
+        opaque.set(j + 1, opaque.get(j));
+        j--;
+      }
+      opaque.set(j + 1, chunk);
+    }
+  }
+}
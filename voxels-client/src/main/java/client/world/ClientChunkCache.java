@@ -0,0 +1,318 @@
+package client.world;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import common.network.packets.ChunkDataPacket;
+import common.util.ConcurrentLong2ObjectMap;
+import common.world.World;
+
+/**
+ * On-disk cache of the chunks received from one server.
+ *
+ * <p>Every chunk is stored compressed, exactly as it arrived, in a file named after its
+ * coordinates and the content hash the server sent with it. The index of cached chunks is
+ * therefore just the directory listing. Writes happen on a background thread; until a write
+ * finished, the chunk is served from memory.
+ *
+ * <p>The cache holds at most a fixed number of chunks per server. Once it grows beyond that, the
+ * least recently stored or loaded chunks are deleted. The last use of a chunk is the modification
+ * time of its file, so the order survives restarts.
+ *
+ * <p>The cache is safe to use from several threads.
+ */
+public class ClientChunkCache {
+
+  /** Notified when a chunk the server expects to be cached cannot be loaded. */
+  @FunctionalInterface
+  public interface MissListener {
+    void onMiss(int chunkX, int chunkZ);
+  }
+
+  private static final String PREFIX = "c.";
+
+  private static final String SUFFIX = ".dat";
+
+  /** Number of chunks kept per server by default, roughly 100 MB of typical terrain. */
+  public static final int DEFAULT_MAX_ENTRIES = 16384;
+
+  /** How long {@link #close()} waits for pending writes. */
+  private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+  /** A cached chunk: its content hash and the time of its last store or load. */
+  private static final class Entry {
+
+    private final long key;
+
+    private final long hash;
+
+    /** In milliseconds. */
+    private volatile long lastUsed;
+
+    private Entry(long key, long hash, long lastUsed) {
+      this.key = key;
+      this.hash = hash;
+      this.lastUsed = lastUsed;
+    }
+  }
+
+  /** An entry with its last use at the moment eviction looked at it. */
+  private record Use(Entry entry, long time) {}
+
+  private final File directory;
+
+  /** Every cached chunk by chunk key. */
+  private final ConcurrentLong2ObjectMap<Entry> index = new ConcurrentLong2ObjectMap<>();
+
+  /** Last handed out use time, keeps them unique when several uses fall into one millisecond. */
+  private final AtomicLong clock = new AtomicLong();
+
+  private final int maxEntries;
+
+  /** Chunks whose file is not written yet. */
+  private final ConcurrentLong2ObjectMap<ChunkDataPacket> pendingWrites =
+      new ConcurrentLong2ObjectMap<>();
+
+  private volatile MissListener missListener;
+
+  private final ExecutorService writer =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "Chunk-Cache-Writer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Opens the cache of a server inside {@code root}, creating its directory if needed.
+   *
+   * @param root directory holding the caches of all servers
+   * @param serverId identifies the server, for example its address and port
+   */
+  public ClientChunkCache(File root, String serverId) {
+    this(root, serverId, DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Opens the cache of a server inside {@code root}, creating its directory if needed.
+   *
+   * @param root directory holding the caches of all servers
+   * @param serverId identifies the server, for example its address and port
+   * @param maxEntries number of chunks kept before the least recently used ones are deleted
+   */
+  public ClientChunkCache(File root, String serverId, int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Cache must hold at least one chunk.");
+    }
+    this.maxEntries = maxEntries;
+    this.directory = new File(root, serverId.replaceAll("[^A-Za-z0-9._-]", "_"));
+    if (!directory.exists() && !directory.mkdirs()) {
+      System.err.println("[Client] Could not create chunk cache " + directory);
+    }
+    loadIndex();
+  }
+
+  /** Returns the default cache root in the user's home directory. */
+  public static File getDefaultRoot() {
+    return new File(System.getProperty("user.home"), ".voxels/chunk-cache");
+  }
+
+  private void loadIndex() {
+    String[] names = directory.list();
+    if (names == null) return;
+    for (String name : names) {
+      if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) continue;
+      String body = name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+      String[] parts = body.split("\\.");
+      if (parts.length != 3) continue;
+      try {
+        int x = Integer.parseInt(parts[0]);
+        int z = Integer.parseInt(parts[1]);
+        long hash = Long.parseUnsignedLong(parts[2], 16);
+        long key = World.getChunkKey(x, z);
+        long modified = new File(directory, name).lastModified();
+        index.put(key, new Entry(key, hash, modified));
+        clock.accumulateAndGet(modified, Math::max);
+      } catch (NumberFormatException e) {
+        // Fremde Datei, ignorieren
+      }
+    }
+  }
+
+  public void setMissListener(MissListener missListener) {
+    this.missListener = missListener;
+  }
+
+  /** Returns a snapshot of the cached chunk keys and their content hashes. */
+  public Map<Long, Long> getEntries() {
+    Map<Long, Long> entries = new HashMap<>();
+    index.forEach((key, entry) -> entries.put(key, entry.hash));
+    return Map.copyOf(entries);
+  }
+
+  public int size() {
+    return index.size();
+  }
+
+  /** Stores a received chunk, replacing an older version. Packets without a hash are ignored. */
+  public void store(ChunkDataPacket packet) {
+    long hash = packet.getContentHash();
+    if (hash == 0 || writer.isShutdown()) return;
+    long key = World.getChunkKey(packet.getChunkX(), packet.getChunkZ());
+    Entry entry = new Entry(key, hash, nextUseTime());
+    Entry previous = index.put(key, entry);
+    pendingWrites.put(key, packet);
+
+    writer.execute(
+        () -> {
+          if (pendingWrites.get(key) != packet) return; // Schon von einer neueren Version ersetzt
+          try {
+            write(packet);
+            if (previous != null && previous.hash != hash) {
+              getFile(packet.getChunkX(), packet.getChunkZ(), previous.hash).delete();
+            }
+          } catch (IOException e) {
+            System.err.println("[Client] Failed to cache chunk: " + e.getMessage());
+            index.remove(key, entry);
+          } finally {
+            pendingWrites.remove(key, packet);
+          }
+          evictIfFull();
+        });
+  }
+
+  /**
+   * Loads a cached chunk. On a miss the chunk is forgotten and the {@link MissListener} notified.
+   *
+   * @return the chunk as it was received, or {@code null} if no copy with this hash is cached
+   */
+  public ChunkDataPacket load(int chunkX, int chunkZ, long hash) {
+    ChunkDataPacket packet = read(chunkX, chunkZ, hash);
+    if (packet == null) {
+      remove(chunkX, chunkZ);
+      MissListener listener = missListener;
+      if (listener != null) listener.onMiss(chunkX, chunkZ);
+    } else {
+      touch(chunkX, chunkZ, hash);
+    }
+    return packet;
+  }
+
+  /** Marks a chunk as just used, in memory and on disk. */
+  private void touch(int chunkX, int chunkZ, long hash) {
+    long now = nextUseTime();
+    Entry entry = index.get(World.getChunkKey(chunkX, chunkZ));
+    if (entry != null) {
+      entry.lastUsed = now;
+    }
+    if (!writer.isShutdown()) {
+      writer.execute(() -> getFile(chunkX, chunkZ, hash).setLastModified(now));
+    }
+  }
+
+  private long nextUseTime() {
+    return clock.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+  }
+
+  /**
+   * Deletes the least recently used chunks once the cache holds more than its limit. Runs on the
+   * writer thread and clears a tenth of the limit at once, so the sort is not repeated for every
+   * further chunk.
+   */
+  private void evictIfFull() {
+    if (index.size() <= maxEntries) return;
+    int target = maxEntries - maxEntries / 10;
+
+    // Zeiten vorher festhalten, sie können sich während des Sortierens ändern
+    List<Use> uses = new ArrayList<>(index.size());
+    for (Entry entry : index.values()) {
+      uses.add(new Use(entry, entry.lastUsed));
+    }
+    uses.sort(Comparator.comparingLong(Use::time));
+    for (int i = 0; i < uses.size() && index.size() > target; i++) {
+      Entry entry = uses.get(i).entry();
+      if (pendingWrites.containsKey(entry.key)) continue;
+      // Nur diese Version entfernen, eine gerade neu abgelegte bleibt
+      if (index.remove(entry.key, entry)) {
+        getFile(World.unpackChunkX(entry.key), World.unpackChunkZ(entry.key), entry.hash).delete();
+      }
+    }
+  }
+
+  private ChunkDataPacket read(int chunkX, int chunkZ, long hash) {
+    ChunkDataPacket pending = pendingWrites.get(World.getChunkKey(chunkX, chunkZ));
+    if (pending != null) {
+      return pending.getContentHash() == hash ? pending : null;
+    }
+
+    File file = getFile(chunkX, chunkZ, hash);
+    if (!file.exists()) return null;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      byte[] compressed = new byte[in.readInt()];
+      in.readFully(compressed);
+      return new ChunkDataPacket(chunkX, chunkZ, compressed, hash);
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /** Forgets a cached chunk and deletes its file. */
+  public void remove(int chunkX, int chunkZ) {
+    long key = World.getChunkKey(chunkX, chunkZ);
+    Entry entry = index.remove(key);
+    if (entry != null && !writer.isShutdown()) {
+      writer.execute(() -> getFile(chunkX, chunkZ, entry.hash).delete());
+    }
+  }
+
+  /**
+   * Stops accepting chunks and waits until the pending writes reached the disk, at most a few
+   * seconds. A cache opened on the same directory afterwards sees every stored chunk.
+   */
+  public void close() {
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        System.err.println("[Client] Chunk cache writes did not finish in time.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(ChunkDataPacket packet) throws IOException {
+    File file = getFile(packet.getChunkX(), packet.getChunkZ(), packet.getContentHash());
+    File temp = new File(directory, file.getName() + ".tmp");
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+      byte[] compressed = packet.getCompressedData();
+      out.writeInt(compressed.length);
+      out.write(compressed);
+    }
+    if (!temp.renameTo(file)) {
+      temp.delete();
+      throw new IOException("Could not move " + temp + " into place.");
+    }
+  }
+
+  private File getFile(int chunkX, int chunkZ, long hash) {
+    String name = PREFIX + chunkX + "." + chunkZ + "." + Long.toHexString(hash) + SUFFIX;
+    return new File(directory, name);
+  }
+}
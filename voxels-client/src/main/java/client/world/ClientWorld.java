@@ -1,7 +1,11 @@
 package client.world;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
-
+import common.network.packets.BlockUpdateBatchPacket;
+import common.network.packets.ChunkDataPacket;
+import common.util.Long2LongMap;
+import common.world.ChunkData;
+import common.world.ChunkSummary;
+import common.world.LightEngine;
 import common.world.World;
 
 public class ClientWorld extends World {
@@ -12,37 +16,141 @@ public class ClientWorld extends World {
 
   private ChunkManager chunkManager;
 
-  private final ConcurrentLinkedQueue<ChunkDataPacket> incomingPackets =
-      new ConcurrentLinkedQueue<>();
+  /** Inflating is cheap compared to meshing, two threads keep up with fast flight. */
+  private static final int DECODE_THREADS = 2;
+
+  private final ChunkDataDecoder decoder = new ChunkDataDecoder(DECODE_THREADS);
+
+  private volatile ClientChunkCache chunkCache;
+
+  /** Starts decoding the chunk data in the background, and caches it if a cache is set. */
+  public void applyChunkData(ChunkDataPacket packet) {
+    ClientChunkCache cache = chunkCache;
+    if (cache != null) {
+      cache.store(packet);
+    }
+    decoder.submit(packet);
+  }
+
+  /** Loads a chunk the server reported as unchanged from the cache, in the background. */
+  public void applyCachedChunk(int cx, int cz, long contentHash) {
+    ClientChunkCache cache = chunkCache;
+    if (cache != null) {
+      decoder.submitCached(cx, cz, contentHash, cache);
+    }
+  }
+
+  /** Keeps the summary of a distant chunk for the distant terrain. */
+  public void applyChunkSummary(ChunkSummary summary) {
+    chunkManager.getLodTerrain().addSummary(summary);
+  }
 
-  private record ChunkDataPacket(int cx, int cz, short[] blocks) {}
+  /** Sets the cache of the connected server, or null to disable caching. */
+  public void setChunkCache(ClientChunkCache chunkCache) {
+    ClientChunkCache previous = this.chunkCache;
+    this.chunkCache = chunkCache;
+    if (previous != null && previous != chunkCache) {
+      previous.close();
+    }
+  }
 
-  public void applyChunkData(int cx, int cz, short[] blocks) {
-    incomingPackets.offer(new ChunkDataPacket(cx, cz, blocks));
+  public ClientChunkCache getChunkCache() {
+    return chunkCache;
   }
 
+  /** Publishes decoded chunks. Only swaps arrays, the decoding happened on worker threads. */
   public void processIncomingPackets(long budgetInNanos) {
     long startTime = System.nanoTime();
 
-    while (!incomingPackets.isEmpty()) {
-      if (System.nanoTime() - startTime > budgetInNanos) break;
-
-      ChunkDataPacket packet = incomingPackets.poll();
-      if (packet == null) continue;
+    ChunkDataDecoder.Decoded decoded;
+    while (System.nanoTime() - startTime <= budgetInNanos && (decoded = decoder.poll()) != null) {
+      int cx = decoded.getChunkX();
+      int cz = decoded.getChunkZ();
 
-      Chunk chunk = chunkManager.getOrCreateChunk(packet.cx, packet.cz);
-      chunk.setBlockData(packet.blocks);
+      Chunk chunk = chunkManager.getOrCreateChunk(cx, cz);
+      // Die alten Arrays des Chunks landen im Staging-Chunk und werden wiederverwendet
+      chunk.swapContents(decoded.getData());
+      decoder.release(decoded);
       chunk.setDataReady();
       chunk.markDirty();
       addChunk(chunk);
+      // Der Decoder kennt die Nachbarn nicht, erst hier fließt Licht über die Chunkgrenzen
+      lightEngine.stitchChunk(chunk);
+      markLightChangesDirty();
+      // Auch geladene Chunks brauchen eine Fernansicht, für die Ränder der Ringe
+      chunkManager.getLodTerrain().addSummary(ChunkSummary.of(chunk));
 
-      chunkManager.notifyNeighborsOfDataReady(packet.cx, packet.cz);
+      chunkManager.notifyNeighborsOfDataReady(cx, cz);
     }
   }
 
   public void onServerBlockUpdate(int x, int y, int z, short blockId) {
     chunkManager.setBlockAt(x, y, z, blockId);
     setBlock(x, y, z, blockId);
+    markLightChangesDirty();
+  }
+
+  /**
+   * Applies a batch of block updates from the server. A batch holds the changes of the whole world,
+   * so every block only marks its own sections like a single update, and the entries are grouped
+   * per chunk: the light is updated once per chunk, which keeps its changed box local.
+   */
+  public void onServerBlockUpdates(BlockUpdateBatchPacket packet) {
+    int count = packet.getEntryCount();
+    // Einträge je Chunk als verkettete Liste in Paketreihenfolge
+    Long2LongMap lastEntries = new Long2LongMap();
+    int[] nextEntries = new int[count];
+    int[] firstEntries = new int[count];
+    int chunkCount = 0;
+    for (int i = 0; i < count; i++) {
+      long key =
+          getChunkKey(
+              Math.floorDiv(packet.getX(i), ChunkData.WIDTH),
+              Math.floorDiv(packet.getZ(i), ChunkData.DEPTH));
+      int last = (int) lastEntries.get(key, -1);
+      if (last < 0) {
+        firstEntries[chunkCount++] = i;
+      } else {
+        nextEntries[last] = i;
+      }
+      nextEntries[i] = -1;
+      lastEntries.put(key, i);
+    }
+
+    for (int c = 0; c < chunkCount; c++) {
+      ChunkData chunk = getChunkAt(packet.getX(firstEntries[c]), 0, packet.getZ(firstEntries[c]));
+      if (chunk == null) continue;
+      for (int i = firstEntries[c]; i >= 0; i = nextEntries[i]) {
+        int x = packet.getX(i);
+        int y = packet.getY(i);
+        int z = packet.getZ(i);
+        if (y < 0 || y >= ChunkData.HEIGHT) continue;
+        // Wie bei einzelnen Updates: der Chunk-Manager markiert nur die betroffenen Sections
+        chunkManager.setBlockAt(x, y, z, packet.getBlockId(i));
+        int lx = Math.floorMod(x, ChunkData.WIDTH);
+        int lz = Math.floorMod(z, ChunkData.DEPTH);
+        chunk.setBlockId(packet.getBlockId(i), lx, y, lz);
+        if (chunk.hasLight()) {
+          lightEngine.markBlockChanged(x, y, z);
+        }
+      }
+      lightEngine.propagate();
+      markLightChangesDirty();
+    }
+  }
+
+  /** Remeshes the sections whose light the last stitch or propagation of the engine changed. */
+  private void markLightChangesDirty() {
+    LightEngine light = getLightEngine();
+    if (light.hasChanges()) {
+      chunkManager.markBoxDirty(
+          light.getChangedMinX(),
+          light.getChangedMinY(),
+          light.getChangedMinZ(),
+          light.getChangedMaxX(),
+          light.getChangedMaxY(),
+          light.getChangedMaxZ());
+    }
   }
 
   public void setChunkManager(ChunkManager chunkManager) {
@@ -0,0 +1,383 @@
+package client.world;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import client.world.mesh.LodMeshBuilder;
+import client.world.mesh.MeshBuffer;
+import client.world.mesh.MeshUploader;
+import common.logging.Log;
+import common.util.ConcurrentLong2ObjectMap;
+import common.util.Long2ObjectMap;
+import common.world.ChunkSummary;
+import common.world.World;
+import engine.components.StaticGeometry;
+import engine.rendering.Graphics;
+import engine.scene.camera.Frustum;
+import math.Bounds;
+import math.Vector3f;
+
+/**
+ * Low detail terrain drawn in rings beyond the loaded chunks.
+ *
+ * <p>Only a {@link ChunkSummary} is kept per distant chunk: the server streams them for the ring
+ * outside its view distance, and loaded chunks leave theirs behind when they are recycled. The
+ * summaries are meshed by {@link LodMeshBuilder} in regions of {@link
+ * LodMeshBuilder#REGION_CHUNKS} x {@link LodMeshBuilder#REGION_CHUNKS} chunks, so the whole ring
+ * costs a few hundred draw calls. Regions up to twice the detail radius use cells of {@link
+ * #NEAR_CELL_SIZE} blocks, regions further out {@link #FAR_CELL_SIZE}. Chunks inside the detail
+ * radius are left out of the regions, the full chunk meshes cover them.
+ *
+ * <p>Regions are meshed on a background thread. All other methods must be called from the main
+ * thread.
+ */
+public class LodTerrain {
+
+  /** Cell size of the near ring, in blocks. */
+  public static final int NEAR_CELL_SIZE = 2;
+
+  /** Cell size of the far ring, in blocks. */
+  public static final int FAR_CELL_SIZE = 4;
+
+  /** Summaries are kept a little beyond the LOD distance, so turning back does not lose them. */
+  private static final int EVICT_MARGIN = 4;
+
+  private static final int MAX_RUNNING_JOBS = 2;
+
+  private static final int REGION_CHUNKS = LodMeshBuilder.REGION_CHUNKS;
+
+  /** A region of distant chunks and its current mesh. */
+  private static final class Region {
+
+    private final int regionX;
+
+    private final int regionZ;
+
+    private StaticGeometry geometry;
+
+    // Stand des aktuellen Meshes
+    private int builtMask;
+
+    private int builtCellSize;
+
+    // Gewünschter Stand, neu berechnet bei jeder Änderung
+    private int wantedMask;
+
+    private int wantedCellSize;
+
+    private boolean dirty;
+
+    private boolean building;
+
+    /** Incremented on every change, so outdated meshes are recognized. */
+    private int version;
+
+    private Region(int regionX, int regionZ) {
+      this.regionX = regionX;
+      this.regionZ = regionZ;
+    }
+  }
+
+  /** Result of a region mesh job. */
+  private record Job(Region region, int version, int mask, int cellSize, StaticGeometry geometry) {}
+
+  private static final ThreadLocal<MeshBuffer> BUFFER_HOLDER =
+      ThreadLocal.withInitial(MeshBuffer::new);
+
+  private static final ThreadLocal<LodMeshBuilder> BUILDER_HOLDER =
+      ThreadLocal.withInitial(() -> new LodMeshBuilder(ChunkMesher.getAtlasLayout()));
+
+  /** Summaries by chunk key, also read by the mesh worker. */
+  private final ConcurrentLong2ObjectMap<ChunkSummary> summaries =
+      new ConcurrentLong2ObjectMap<>();
+
+  private final Long2ObjectMap<Region> regions = new Long2ObjectMap<>();
+
+  private final ConcurrentLinkedQueue<Job> completed = new ConcurrentLinkedQueue<>();
+
+  private final ExecutorService workers;
+
+  private final Bounds bounds = new Bounds(new Vector3f(), new Vector3f());
+
+  private final Vector3f tempMin = new Vector3f();
+
+  private final Vector3f tempMax = new Vector3f();
+
+  private int centerChunkX = Integer.MIN_VALUE;
+
+  private int centerChunkZ = Integer.MIN_VALUE;
+
+  private int detailRadius;
+
+  private int lodRadius;
+
+  private int runningJobs;
+
+  public LodTerrain() {
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.workers =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "Lod-Mesh-Worker-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** Stores or replaces the summary of a chunk. */
+  public void addSummary(ChunkSummary summary) {
+    int chunkX = summary.getChunkX();
+    int chunkZ = summary.getChunkZ();
+    summaries.put(World.getChunkKey(chunkX, chunkZ), summary);
+    onSummaryChanged(chunkX, chunkZ);
+  }
+
+  /** Returns the summary of a chunk, or null. */
+  public ChunkSummary getSummary(int chunkX, int chunkZ) {
+    return summaries.get(World.getChunkKey(chunkX, chunkZ));
+  }
+
+  public int getSummaryCount() {
+    return summaries.size();
+  }
+
+  public int getRegionCount() {
+    return regions.size();
+  }
+
+  /**
+   * Follows the player and hands outdated regions to the mesh worker.
+   *
+   * @param chunkX chunk of the player
+   * @param chunkZ chunk of the player
+   * @param detailRadius radius in chunks covered by full chunk meshes
+   * @param lodRadius radius in chunks up to which distant terrain is drawn
+   */
+  public void update(int chunkX, int chunkZ, int detailRadius, int lodRadius) {
+    boolean moved =
+        chunkX != centerChunkX
+            || chunkZ != centerChunkZ
+            || detailRadius != this.detailRadius
+            || lodRadius != this.lodRadius;
+    if (moved) {
+      centerChunkX = chunkX;
+      centerChunkZ = chunkZ;
+      this.detailRadius = detailRadius;
+      this.lodRadius = lodRadius;
+      evictDistantSummaries();
+      refreshRegions();
+    }
+
+    applyCompleted();
+    dispatch();
+  }
+
+  /**
+   * Draws the meshed regions relative to the camera.
+   *
+   * @param frustum camera relative frustum, or null to skip the visibility test
+   */
+  public void render(Graphics g, Vector3f cameraPos, Frustum frustum) {
+    for (Region region : regions.values()) {
+      StaticGeometry geometry = region.geometry;
+      if (geometry == null) continue;
+
+      float originX = region.regionX * LodMeshBuilder.REGION_SIZE;
+      float originZ = region.regionZ * LodMeshBuilder.REGION_SIZE;
+      if (frustum != null) {
+        Bounds local = geometry.getLocalBounds();
+        tempMin.set(local.getMin()).addLocal(originX, 0, originZ).subtractLocal(cameraPos);
+        tempMax.set(local.getMax()).addLocal(originX, 0, originZ).subtractLocal(cameraPos);
+        bounds.setMinMax(tempMin, tempMax);
+        if (!frustum.intersectsAABB(bounds)) continue;
+      }
+
+      g.pushMatrix();
+      g.translate(originX - cameraPos.x, -cameraPos.y, originZ - cameraPos.z);
+      geometry.render(g);
+      g.popMatrix();
+    }
+  }
+
+  /** Stops the mesh worker and forgets all summaries and regions. */
+  public void shutdown() {
+    workers.shutdownNow();
+    summaries.clear();
+    regions.clear();
+  }
+
+  private void onSummaryChanged(int chunkX, int chunkZ) {
+    // Nur gezeichnete Chunks und die Wände ihrer Nachbarn hängen an der Zusammenfassung
+    if (!isDrawn(chunkX, chunkZ)
+        && !isDrawn(chunkX - 1, chunkZ)
+        && !isDrawn(chunkX + 1, chunkZ)
+        && !isDrawn(chunkX, chunkZ - 1)
+        && !isDrawn(chunkX, chunkZ + 1)) {
+      return;
+    }
+    int regionX = Math.floorDiv(chunkX, REGION_CHUNKS);
+    int regionZ = Math.floorDiv(chunkZ, REGION_CHUNKS);
+    refreshRegion(regionX, regionZ, true);
+
+    // Die Wände der Nachbarregion hängen an den Randspalten dieses Chunks
+    int localX = Math.floorMod(chunkX, REGION_CHUNKS);
+    int localZ = Math.floorMod(chunkZ, REGION_CHUNKS);
+    if (localX == 0) refreshRegion(regionX - 1, regionZ, true);
+    if (localX == REGION_CHUNKS - 1) refreshRegion(regionX + 1, regionZ, true);
+    if (localZ == 0) refreshRegion(regionX, regionZ - 1, true);
+    if (localZ == REGION_CHUNKS - 1) refreshRegion(regionX, regionZ + 1, true);
+  }
+
+  /** Returns whether a chunk lies in the ring between the detail and the distant radius. */
+  private boolean isDrawn(int chunkX, int chunkZ) {
+    if (centerChunkX == Integer.MIN_VALUE) return false;
+    int dx = chunkX - centerChunkX;
+    int dz = chunkZ - centerChunkZ;
+    int distanceSq = dx * dx + dz * dz;
+    return distanceSq > detailRadius * detailRadius && distanceSq <= lodRadius * lodRadius;
+  }
+
+  private void evictDistantSummaries() {
+    int maxDistance = lodRadius + EVICT_MARGIN;
+    int maxDistanceSq = maxDistance * maxDistance;
+    summaries.removeIf(
+        (key, summary) -> {
+          int dx = World.unpackChunkX(key) - centerChunkX;
+          int dz = World.unpackChunkZ(key) - centerChunkZ;
+          return dx * dx + dz * dz > maxDistanceSq;
+        });
+  }
+
+  /** Recomputes every region in range and drops the regions out of range. */
+  private void refreshRegions() {
+    int minRegionX = Math.floorDiv(centerChunkX - lodRadius, REGION_CHUNKS);
+    int maxRegionX = Math.floorDiv(centerChunkX + lodRadius, REGION_CHUNKS);
+    int minRegionZ = Math.floorDiv(centerChunkZ - lodRadius, REGION_CHUNKS);
+    int maxRegionZ = Math.floorDiv(centerChunkZ + lodRadius, REGION_CHUNKS);
+
+    regions.removeIf(
+        (key, region) ->
+            region.regionX < minRegionX
+                || region.regionX > maxRegionX
+                || region.regionZ < minRegionZ
+                || region.regionZ > maxRegionZ);
+
+    for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+      for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+        refreshRegion(regionX, regionZ, false);
+      }
+    }
+  }
+
+  /**
+   * Recomputes which chunks of a region are drawn and at which cell size, and marks the region
+   * dirty if that changed or {@code contentChanged} is set.
+   */
+  private void refreshRegion(int regionX, int regionZ, boolean contentChanged) {
+    if (centerChunkX == Integer.MIN_VALUE) return;
+    long key = World.getChunkKey(regionX, regionZ);
+    Region region = regions.get(key);
+
+    int mask = 0;
+    for (int z = 0; z < REGION_CHUNKS; z++) {
+      for (int x = 0; x < REGION_CHUNKS; x++) {
+        int chunkX = regionX * REGION_CHUNKS + x;
+        int chunkZ = regionZ * REGION_CHUNKS + z;
+        if (!isDrawn(chunkX, chunkZ)) continue;
+        if (summaries.containsKey(World.getChunkKey(chunkX, chunkZ))) {
+          mask |= 1 << (x + z * REGION_CHUNKS);
+        }
+      }
+    }
+
+    if (region == null) {
+      if (mask == 0) return;
+      region = new Region(regionX, regionZ);
+      regions.put(key, region);
+    }
+
+    int cellSize = getCellSize(regionX, regionZ);
+    if (contentChanged || mask != region.wantedMask || cellSize != region.wantedCellSize) {
+      region.wantedMask = mask;
+      region.wantedCellSize = cellSize;
+      region.version++;
+      region.dirty |=
+          contentChanged || mask != region.builtMask || cellSize != region.builtCellSize;
+    }
+  }
+
+  private int getCellSize(int regionX, int regionZ) {
+    float centerX = (regionX + 0.5f) * REGION_CHUNKS;
+    float centerZ = (regionZ + 0.5f) * REGION_CHUNKS;
+    float dx = centerX - centerChunkX;
+    float dz = centerZ - centerChunkZ;
+    float nearRadius = detailRadius * 2f;
+    return dx * dx + dz * dz <= nearRadius * nearRadius ? NEAR_CELL_SIZE : FAR_CELL_SIZE;
+  }
+
+  private void applyCompleted() {
+    Job job;
+    while ((job = completed.poll()) != null) {
+      runningJobs--;
+      Region region = job.region();
+      region.building = false;
+      if (regions.get(World.getChunkKey(region.regionX, region.regionZ)) != region) continue;
+
+      region.geometry = job.geometry();
+      region.builtMask = job.mask();
+      region.builtCellSize = job.cellSize();
+      if (job.version() == region.version) {
+        region.dirty = false;
+      }
+    }
+  }
+
+  /** Hands the dirty regions closest to the player to the worker. */
+  private void dispatch() {
+    while (runningJobs < MAX_RUNNING_JOBS) {
+      Region next = null;
+      long nextDistance = Long.MAX_VALUE;
+      for (Region region : regions.values()) {
+        if (!region.dirty || region.building) continue;
+        long dx = region.regionX * REGION_CHUNKS - centerChunkX;
+        long dz = region.regionZ * REGION_CHUNKS - centerChunkZ;
+        long distance = dx * dx + dz * dz;
+        if (distance < nextDistance) {
+          next = region;
+          nextDistance = distance;
+        }
+      }
+      if (next == null) return;
+      submit(next);
+    }
+  }
+
+  private void submit(Region region) {
+    region.building = true;
+    runningJobs++;
+    int version = region.version;
+    int mask = region.wantedMask;
+    int cellSize = region.wantedCellSize;
+    int regionX = region.regionX;
+    int regionZ = region.regionZ;
+    workers.execute(
+        () -> {
+          StaticGeometry geometry = null;
+          if (mask != 0) {
+            try {
+              MeshBuffer buffer = BUFFER_HOLDER.get();
+              BUILDER_HOLDER
+                  .get()
+                  .build(regionX, regionZ, mask, cellSize, this::getSummary, buffer);
+              geometry = MeshUploader.upload(buffer, ChunkMesher.sharedMaterial);
+            } catch (RuntimeException e) {
+              Log.error("Failed to mesh distant terrain region " + regionX + ", " + regionZ, e);
+            }
+          }
+          completed.offer(new Job(region, version, mask, cellSize, geometry));
+        });
+  }
+}
@@ -0,0 +1,267 @@
+package client.world;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import math.Vector3f;
+
+/**
+ * Schedules chunk meshing on a pool of worker threads.
+ *
+ * <p>Dirty chunks wait in a {@link ChunkMeshQueue} keyed by their horizontal distance to the
+ * player. Chunks outside of a view cone around the camera direction are pushed back, so what the
+ * player looks at is meshed first. The queue is re-keyed when the player enters another chunk or
+ * turns noticeably. Only a few jobs per worker are handed to the pool at a time, which keeps the
+ * priority order meaningful instead of draining everything into a FIFO executor.
+ *
+ * <p>Every job carries the generation of its chunk. Results of chunks that were recycled in the
+ * meantime are dropped, and workers skip meshing them altogether. All methods except the worker
+ * tasks run on the main thread.
+ */
+public class MeshScheduler {
+
+  private static final int JOBS_PER_WORKER = 2;
+
+  /** Chunks closer than this, squared and in blocks, always count as visible. */
+  private static final float NEAR_DISTANCE_SQ = 32 * 32;
+
+  /** Cosine of the horizontal half angle of the view cone. */
+  private static final float VIEW_CONE_COS = 0.5f;
+
+  private static final float OUT_OF_VIEW_PENALTY = 4f;
+
+  /** The queue is re-keyed when the view direction turned further than this cosine. */
+  private static final float REKEY_TURN_COS = 0.95f;
+
+  // Glättung der Statistik-Mittelwerte
+  private static final float AVERAGE_WEIGHT = 0.1f;
+
+  /** Result of a job handed back from a worker. */
+  private static final class Job {
+
+    private final Chunk chunk;
+
+    private final int generation;
+
+    private final int sections;
+
+    private final long queuedAt;
+
+    private ChunkMesher.MeshResult result;
+
+    private RuntimeException error;
+
+    private long buildNanos;
+
+    private Job(Chunk chunk, int sections) {
+      this.chunk = chunk;
+      this.generation = chunk.getGeneration();
+      this.sections = sections;
+      this.queuedAt = chunk.meshQueuedAt;
+    }
+  }
+
+  private final ExecutorService workers;
+
+  private final int workerCount;
+
+  private final int maxJobs;
+
+  private final ChunkMeshQueue queue = new ChunkMeshQueue();
+
+  private final ConcurrentLinkedQueue<Job> completed = new ConcurrentLinkedQueue<>();
+
+  private final Vector3f viewPosition = new Vector3f();
+
+  private float viewX;
+
+  private float viewZ = -1;
+
+  private int viewChunkX = Integer.MIN_VALUE;
+
+  private int viewChunkZ = Integer.MIN_VALUE;
+
+  private int runningJobs;
+
+  private long meshedCount;
+
+  private long droppedCount;
+
+  private float averageLatencyMillis;
+
+  private float averageBuildMillis;
+
+  /** Returns one worker per core, leaving a core to the main thread. */
+  public static int getDefaultWorkerCount() {
+    return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+  }
+
+  public MeshScheduler(int workerThreads) {
+    if (workerThreads <= 0) {
+      throw new IllegalArgumentException("Worker thread count must be greater than zero.");
+    }
+    this.workerCount = workerThreads;
+    this.maxJobs = workerThreads * JOBS_PER_WORKER;
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            workerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "Chunk-Mesh-Worker-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Updates the point of view used for priorities. Re-keys the queue when the player entered
+   * another chunk or turned far enough to change what is in view.
+   */
+  public void setView(Vector3f position, Vector3f direction) {
+    viewPosition.set(position);
+    float length = (float) Math.sqrt(direction.x * direction.x + direction.z * direction.z);
+    float dirX = length > 0 ? direction.x / length : 0;
+    float dirZ = length > 0 ? direction.z / length : 0;
+
+    int chunkX = Math.floorDiv((int) Math.floor(position.x), Chunk.WIDTH);
+    int chunkZ = Math.floorDiv((int) Math.floor(position.z), Chunk.DEPTH);
+    boolean moved = chunkX != viewChunkX || chunkZ != viewChunkZ;
+    boolean turned = dirX * viewX + dirZ * viewZ < REKEY_TURN_COS;
+    if (!moved && !turned) return;
+
+    viewChunkX = chunkX;
+    viewChunkZ = chunkZ;
+    viewX = dirX;
+    viewZ = dirZ;
+    queue.rekey(this::getPriority);
+  }
+
+  /** Queues the chunk for meshing, if it is not queued already. */
+  public void enqueue(Chunk chunk) {
+    if (queue.contains(chunk)) return;
+    chunk.meshQueuedAt = System.nanoTime();
+    queue.add(chunk, getPriority(chunk));
+  }
+
+  public void remove(Chunk chunk) {
+    queue.remove(chunk);
+  }
+
+  /**
+   * Applies finished meshes and hands the most urgent queued chunks to the workers. Chunks that
+   * are no longer active are dropped; chunks whose neighbours are missing leave the queue and are
+   * queued again by the chunk manager once it finds them dirty.
+   */
+  public void update(ChunkManager manager) {
+    applyCompleted();
+
+    while (runningJobs < maxJobs && !queue.isEmpty()) {
+      Chunk chunk = queue.poll();
+      if (!manager.isActive(chunk)) {
+        droppedCount++;
+        continue;
+      }
+      if (!manager.neighborsReady(chunk.getChunkX(), chunk.getChunkZ())) continue;
+
+      int sections = chunk.beginMeshGeneration();
+      if (sections == 0) continue;
+      submit(new Job(chunk, sections), manager);
+    }
+  }
+
+  private void submit(Job job, ChunkManager manager) {
+    runningJobs++;
+    workers.execute(
+        () -> {
+          // Recycelte Chunks gar nicht erst meshen
+          if (job.generation == job.chunk.getGeneration()) {
+            long start = System.nanoTime();
+            try {
+              job.result = new ChunkMesher(job.chunk, manager).createMesh(job.sections);
+            } catch (RuntimeException e) {
+              job.error = e;
+            }
+            job.buildNanos = System.nanoTime() - start;
+          }
+          completed.offer(job);
+        });
+  }
+
+  private void applyCompleted() {
+    Job job;
+    while ((job = completed.poll()) != null) {
+      runningJobs--;
+      if (job.generation != job.chunk.getGeneration()) {
+        droppedCount++;
+        continue;
+      }
+      if (job.error != null) {
+        job.error.printStackTrace();
+        job.chunk.failMeshGeneration();
+        continue;
+      }
+      job.chunk.applyMesh(job.result);
+
+      meshedCount++;
+      float latency = (System.nanoTime() - job.queuedAt) / 1_000_000f;
+      float build = job.buildNanos / 1_000_000f;
+      averageLatencyMillis += (latency - averageLatencyMillis) * AVERAGE_WEIGHT;
+      averageBuildMillis += (build - averageBuildMillis) * AVERAGE_WEIGHT;
+    }
+  }
+
+  /** Lower values are meshed first. */
+  private float getPriority(Chunk chunk) {
+    float dx = chunk.getWorldPosition().x + Chunk.WIDTH * 0.5f - viewPosition.x;
+    float dz = chunk.getWorldPosition().z + Chunk.DEPTH * 0.5f - viewPosition.z;
+    float distanceSq = dx * dx + dz * dz;
+    if (distanceSq <= NEAR_DISTANCE_SQ) return distanceSq;
+
+    float along = dx * viewX + dz * viewZ;
+    boolean inView = along > 0 && along * along >= VIEW_CONE_COS * VIEW_CONE_COS * distanceSq;
+    return inView ? distanceSq : distanceSq * OUT_OF_VIEW_PENALTY;
+  }
+
+  /** Stops the workers. Running jobs finish, queued chunks are discarded. */
+  public void shutdown() {
+    queue.clear();
+    workers.shutdownNow();
+  }
+
+  /** Number of chunks waiting to be meshed. */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /** Number of jobs handed to the workers whose result was not applied yet. */
+  public int getRunningJobs() {
+    return runningJobs;
+  }
+
+  public int getWorkerCount() {
+    return workerCount;
+  }
+
+  public long getMeshedCount() {
+    return meshedCount;
+  }
+
+  /** Number of jobs discarded because their chunk was recycled or unloaded. */
+  public long getDroppedCount() {
+    return droppedCount;
+  }
+
+  /** Smoothed time from queueing a chunk until its mesh is applied. */
+  public float getAverageLatencyMillis() {
+    return averageLatencyMillis;
+  }
+
+  /** Smoothed time a worker spends meshing a chunk. */
+  public float getAverageBuildMillis() {
+    return averageBuildMillis;
+  }
+}
@@ -0,0 +1,165 @@
+package client.world;
+
+import java.util.Arrays;
+import java.util.List;
+
+import client.world.mesh.SectionVisibility;
+import engine.scene.camera.Frustum;
+import math.Bounds;
+import math.Vector3f;
+
+/**
+ * Finds the chunk sections the camera can possibly see by walking the section visibility graph.
+ *
+ * <p>The walk is a breadth first search that starts in the section containing the camera. From a
+ * section it only continues through a face that is connected to the face it entered by, according
+ * to the {@link SectionVisibility} computed while meshing. It never turns back against a direction
+ * it already moved in, so the walk spreads away from the camera, and it does not enter sections
+ * outside of the frustum. Sections it cannot reach are hidden behind opaque terrain, for example
+ * caves below the player or valleys behind a mountain, and are skipped by the renderer.
+ *
+ * <p>Chunks that are not loaded stop the walk, chunks without a mesh yet count as see-through.
+ * Only used from the main thread.
+ */
+public class SectionOcclusionCuller {
+
+  private static final int[] OFFSET_X = {0, 0, 0, 0, -1, 1};
+
+  private static final int[] OFFSET_Y = {-1, 1, 0, 0, 0, 0};
+
+  private static final int[] OFFSET_Z = {0, 0, -1, 1, 0, 0};
+
+  /** Extends the tested section boxes, like the chunk bounds padding of the renderer. */
+  private static final float PADDING = 1f;
+
+  // Warteschlange der Suche: Chunk und gepackt Section, Eintritts-Face und Richtungen
+  private Chunk[] queueChunks = new Chunk[1024];
+
+  private int[] queueStates = new int[1024];
+
+  private final Bounds sectionBounds = new Bounds(new Vector3f(), new Vector3f());
+
+  private final Vector3f tempMin = new Vector3f();
+
+  private final Vector3f tempMax = new Vector3f();
+
+  private int frame;
+
+  private int visitedSections;
+
+  /**
+   * Collects the chunks with at least one reachable section into {@code out}. Their sections are
+   * returned by {@link #getVisibleSections(Chunk)} until the next call.
+   *
+   * @param chunks the loaded chunks
+   * @param cameraPos camera position in world space
+   * @param frustum camera relative frustum, or null to walk without frustum test
+   * @param out receives the visible chunks, it is cleared first
+   * @return false if the camera is not inside a loaded section; {@code out} is left empty and the
+   *     caller has to fall back to drawing everything
+   */
+  public boolean cull(ChunkManager chunks, Vector3f cameraPos, Frustum frustum, List<Chunk> out) {
+    out.clear();
+    frame++;
+    visitedSections = 0;
+
+    int blockY = (int) Math.floor(cameraPos.y);
+    if (blockY < 0 || blockY >= Chunk.HEIGHT) return false;
+    Chunk start =
+        chunks.getChunk(
+            Math.floorDiv((int) Math.floor(cameraPos.x), Chunk.WIDTH),
+            Math.floorDiv((int) Math.floor(cameraPos.z), Chunk.DEPTH));
+    if (start == null || !start.isDataReady()) return false;
+
+    int head = 0;
+    int tail = 0;
+    int startSection = blockY / Chunk.SECTION_SIZE;
+    markVisible(start, startSection, out);
+    tail = push(tail, start, pack(startSection, -1, 0));
+
+    while (head < tail) {
+      Chunk chunk = queueChunks[head];
+      int state = queueStates[head];
+      queueChunks[head++] = null;
+
+      int section = state & 0x1F;
+      int entry = ((state >>> 5) & 0x7) - 1;
+      int directions = state >>> 8;
+      long visibility = chunk.getSectionVisibility(section);
+
+      for (int face = 0; face < SectionVisibility.FACE_COUNT; face++) {
+        // Nie gegen eine schon gegangene Richtung zurück
+        if ((directions & (1 << SectionVisibility.opposite(face))) != 0) continue;
+        if (entry >= 0 && !SectionVisibility.connects(visibility, entry, face)) continue;
+
+        int nextSection = section + OFFSET_Y[face];
+        if (nextSection < 0 || nextSection >= Chunk.SECTION_COUNT) continue;
+        Chunk next = chunk;
+        if (OFFSET_X[face] != 0 || OFFSET_Z[face] != 0) {
+          next =
+              chunks.getChunk(
+                  chunk.getChunkX() + OFFSET_X[face], chunk.getChunkZ() + OFFSET_Z[face]);
+          if (next == null || !next.isDataReady()) continue;
+        }
+        if (isVisible(next, nextSection)) continue;
+        if (frustum != null && !intersects(frustum, next, nextSection, cameraPos)) continue;
+
+        markVisible(next, nextSection, out);
+        int nextState = pack(nextSection, SectionVisibility.opposite(face), directions | 1 << face);
+        tail = push(tail, next, nextState);
+      }
+    }
+    return true;
+  }
+
+  /** Returns the reachable sections of the chunk found by the last {@link #cull} call. */
+  public int getVisibleSections(Chunk chunk) {
+    return chunk.cullFrame == frame ? chunk.cullVisibleSections : 0;
+  }
+
+  /** Number of sections reached by the last walk. */
+  public int getVisitedSections() {
+    return visitedSections;
+  }
+
+  private static int pack(int section, int entry, int directions) {
+    return section | (entry + 1) << 5 | directions << 8;
+  }
+
+  private int push(int tail, Chunk chunk, int state) {
+    if (tail == queueChunks.length) {
+      queueChunks = Arrays.copyOf(queueChunks, tail * 2);
+      queueStates = Arrays.copyOf(queueStates, tail * 2);
+    }
+    queueChunks[tail] = chunk;
+    queueStates[tail] = state;
+    return tail + 1;
+  }
+
+  private boolean isVisible(Chunk chunk, int section) {
+    return chunk.cullFrame == frame && (chunk.cullVisibleSections & (1 << section)) != 0;
+  }
+
+  private void markVisible(Chunk chunk, int section, List<Chunk> out) {
+    if (chunk.cullFrame != frame) {
+      chunk.cullFrame = frame;
+      chunk.cullVisibleSections = 0;
+      out.add(chunk);
+    }
+    chunk.cullVisibleSections |= 1 << section;
+    visitedSections++;
+  }
+
+  private boolean intersects(Frustum frustum, Chunk chunk, int section, Vector3f cameraPos) {
+    Vector3f pos = chunk.getWorldPosition();
+    float minY = section * Chunk.SECTION_SIZE;
+    tempMin.set(
+        pos.x - cameraPos.x - PADDING, minY - cameraPos.y - PADDING, pos.z - cameraPos.z - PADDING);
+    tempMax.set(
+        pos.x + Chunk.WIDTH - cameraPos.x + PADDING,
+        minY + Chunk.SECTION_SIZE - cameraPos.y + PADDING,
+        pos.z + Chunk.DEPTH - cameraPos.z + PADDING);
+    sectionBounds.setMinMax(tempMin, tempMax);
+    return frustum.intersectsAABB(sectionBounds);
+  }
+}
@@ -0,0 +1,74 @@
+package client.world.mesh;
+
+import math.Vector3f;
+
+/**
+ * Texture coordinates of the block atlas without the atlas image itself.
+ *
+ * <p>The atlas has one row per block id and one column per face. Keeping only the grid layout
+ * lets the mesher compute UVs with a few multiplications instead of allocating coordinate arrays,
+ * and without needing a graphics context.
+ *
+ * <p>Meshes do not store atlas UVs but tile coordinates: the tile of a face and block id starts at
+ * {@code (face * TILE_STRIDE, blockId * TILE_STRIDE)}, and a quad covering n blocks spans n units
+ * from there. {@code voxel.frag} maps the integer part back to the tile and repeats the fraction
+ * inside it, so a merged quad shows one texture per block instead of one stretched texture.
+ */
+public final class AtlasLayout {
+
+  /** Largest number of blocks a quad may cover along one axis and still repeat its tile. */
+  public static final int MAX_REPEAT = 16;
+
+  /** Distance of neighbouring tiles in tile coordinates, must match {@code voxel.frag}. */
+  public static final int TILE_STRIDE = 2 * MAX_REPEAT;
+
+  private final float tileU;
+
+  private final float tileV;
+
+  private final float epsilon;
+
+  /**
+   * @param columns number of tile columns (faces)
+   * @param rows number of tile rows (block ids)
+   * @param epsilon margin trimmed from every tile edge to prevent texture bleeding
+   */
+  public AtlasLayout(int columns, int rows, float epsilon) {
+    if (columns <= 0 || rows <= 0) {
+      throw new IllegalArgumentException("Atlas must have at least one column and row.");
+    }
+    this.tileU = 1f / columns;
+    this.tileV = 1f / rows;
+    this.epsilon = epsilon;
+  }
+
+  /** Returns the tile coordinate where the tiles of {@code face} start. */
+  public float getU0(int face) {
+    return face * TILE_STRIDE;
+  }
+
+  /** Returns the tile coordinate one block after {@link #getU0(int)}. */
+  public float getU1(int face) {
+    return getU0(face) + 1;
+  }
+
+  /** Returns the tile coordinate where the tiles of {@code blockId} start. */
+  public float getV0(int blockId) {
+    return blockId * TILE_STRIDE;
+  }
+
+  /** Returns the tile coordinate one block after {@link #getV0(int)}. */
+  public float getV1(int blockId) {
+    return getV0(blockId) + 1;
+  }
+
+  /**
+   * Stores the values {@code voxel.frag} needs to turn tile coordinates into atlas UVs: the tile
+   * width and height in UV units and the edge margin.
+   *
+   * @return {@code store}
+   */
+  public Vector3f getShaderParameters(Vector3f store) {
+    return store.set(tileU, tileV, epsilon);
+  }
+}
@@ -0,0 +1,639 @@
+package client.world.mesh;
+
+import java.util.Arrays;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockShape;
+import common.game.block.Blocks;
+import common.world.ChunkData;
+
+/**
+ * Builds the vertex data of a chunk from a padded copy of its blocks.
+ *
+ * <p>The builder does not touch any graphics API: it reads block ids from a plain {@code short[]}
+ * that contains the chunk plus a one block border of its neighbours, and writes quads into the
+ * {@link MeshBuffer}s of a {@link ChunkMeshLayers}. It can therefore run on any thread and be
+ * tested without a window. A builder keeps no state between calls, but it is not thread-safe while
+ * building; use one instance per thread.
+ *
+ * <p>Faces are shaded by a fixed brightness per direction, ambient occlusion and, if a padded light
+ * volume is set, the light level of the block in front of them.
+ *
+ * <p>Positions are relative to the chunk origin with the y-axis pointing down, as the renderer
+ * expects.
+ */
+public final class ChunkMeshBuilder {
+
+  public static final int TOP = 0;
+
+  public static final int BOTTOM = 1;
+
+  public static final int FRONT = 2;
+
+  public static final int BACK = 3;
+
+  public static final int RIGHT = 4;
+
+  public static final int LEFT = 5;
+
+  /** Width of the padded block volume, including the border on both sides. */
+  public static final int PADDED_WIDTH = ChunkData.WIDTH + 2;
+
+  /** Depth of the padded block volume, including the border on both sides. */
+  public static final int PADDED_DEPTH = ChunkData.DEPTH + 2;
+
+  /** Number of entries in a padded block volume. */
+  public static final int PADDED_SIZE = PADDED_WIDTH * ChunkData.HEIGHT * PADDED_DEPTH;
+
+  private static final float RADIUS = 0.5f;
+
+  /** Corner brightness per occlusion level, from both sides occluded to fully open. */
+  private static final float[] AO_VALUES = {0.45f, 1.0f - 2 * 0.18f, 1.0f - 0.18f, 1.0f};
+
+  /** Brightness per light level, each level 80% of the next one, never fully black. */
+  private static final float[] LIGHT_VALUES = new float[ChunkData.MAX_LIGHT + 1];
+
+  private static final float MIN_BRIGHTNESS = 0.08f;
+
+  static {
+    for (int level = 0; level <= ChunkData.MAX_LIGHT; level++) {
+      float falloff = (float) Math.pow(0.8, ChunkData.MAX_LIGHT - level);
+      LIGHT_VALUES[level] = MIN_BRIGHTNESS + (1 - MIN_BRIGHTNESS) * falloff;
+    }
+  }
+
+  private static final short AIR = Blocks.AIR.getId();
+
+  private static final short WATER = Blocks.WATER.getId();
+
+  private final AtlasLayout atlas;
+
+  private short[] blocks;
+
+  /** Light per padded block, sky light in the high nibble, block light in the low one. */
+  private byte[] light;
+
+  private MeshBuffer target;
+
+  private boolean greedy;
+
+  private int skippedSections;
+
+  /** Lowest y being meshed, the greedy planes of the side faces start here. */
+  private int minY;
+
+  /** Face keys of the slice being merged, allocated on the first greedy build. */
+  private int[] mask;
+
+  // Texture rectangle of the face being emitted
+  private float u0, u1, v0, v1;
+
+  public ChunkMeshBuilder(AtlasLayout atlas) {
+    this.atlas = atlas;
+  }
+
+  /**
+   * Enables greedy meshing: coplanar faces with the same block id and the same uniform ambient
+   * occlusion are merged into one quad. Faces whose corners are occluded differently are never
+   * merged, so the lighting matches the per-face mesh.
+   *
+   * <p>A merged quad spans one tile per block in its texture coordinates, see {@link AtlasLayout},
+   * so the shader repeats the block texture across it. Quads are at most {@link
+   * AtlasLayout#MAX_REPEAT} blocks long.
+   */
+  public void setGreedy(boolean greedy) {
+    this.greedy = greedy;
+  }
+
+  public boolean isGreedy() {
+    return greedy;
+  }
+
+  /**
+   * Sets the light used by the following builds, indexed like the padded blocks with the sky light
+   * in the high nibble and the block light in the low nibble. A face takes the brighter of both
+   * from the block in front of it. With null, the default, every face is fully lit.
+   */
+  public void setLight(byte[] paddedLight) {
+    if (paddedLight != null && paddedLight.length < PADDED_SIZE) {
+      throw new IllegalArgumentException("Padded light volume must hold " + PADDED_SIZE + ".");
+    }
+    this.light = paddedLight;
+  }
+
+  /**
+   * Returns the index of a block in a padded volume. {@code x} and {@code z} range from -1 to the
+   * chunk size inclusive, so the border columns of the neighbours are addressable.
+   */
+  public static int paddedIndex(int x, int y, int z) {
+    return ((x + 1) * ChunkData.HEIGHT * PADDED_DEPTH) + (y * PADDED_DEPTH) + (z + 1);
+  }
+
+  /** Meshes every section of the center chunk. */
+  public void build(short[] paddedBlocks, int maxY, ChunkMeshLayers out) {
+    build(paddedBlocks, 0, maxY, 0, out);
+  }
+
+  /** Meshes the single section {@code section} of the center chunk. */
+  public void buildSection(short[] paddedBlocks, int section, int maxY, ChunkMeshLayers out) {
+    int minY = section * ChunkData.SECTION_SIZE;
+    build(paddedBlocks, minY, Math.min(maxY, minY + ChunkData.SECTION_SIZE - 1), 0, out);
+  }
+
+  /**
+   * Meshes the blocks from {@code minY} to {@code maxY} of the center chunk of {@code
+   * paddedBlocks} into {@code out}, which is cleared first. Faces towards blocks outside of the
+   * range are still culled against them.
+   *
+   * @param paddedBlocks block ids indexed by {@link #paddedIndex(int, int, int)}
+   * @param minY lowest y to mesh
+   * @param maxY highest y to mesh, at most the highest non-air block of the center chunk
+   * @param skippedSections bit {@code s} set if section {@code s} produces no faces, because it is
+   *     empty or enclosed by fully opaque sections
+   * @param out receives the opaque, water and decoration quads
+   */
+  public void build(
+      short[] paddedBlocks, int minY, int maxY, int skippedSections, ChunkMeshLayers out) {
+    if (paddedBlocks.length < PADDED_SIZE) {
+      throw new IllegalArgumentException("Padded block volume must hold " + PADDED_SIZE + ".");
+    }
+    out.clear();
+    this.blocks = paddedBlocks;
+    this.skippedSections = skippedSections;
+    this.minY = Math.max(minY, 0);
+    int topY = Math.min(maxY, ChunkData.HEIGHT - 1);
+    if (topY < this.minY) {
+      this.blocks = null;
+      return;
+    }
+
+    try {
+      if (greedy) {
+        meshGreedy(topY, out);
+      } else {
+        meshFaces(topY, out);
+      }
+      meshDecor(topY, out);
+    } finally {
+      this.blocks = null;
+      this.target = null;
+    }
+  }
+
+  private void meshFaces(int topY, ChunkMeshLayers out) {
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      for (int y = minY; y <= topY; y++) {
+        if (isSkipped(y)) {
+          y += ChunkData.SECTION_SIZE - 1 - y % ChunkData.SECTION_SIZE;
+          continue;
+        }
+        for (int z = 0; z < ChunkData.DEPTH; z++) {
+          short blockId = blocks[paddedIndex(x, y, z)];
+          if (blockId == AIR) continue;
+          if (BlockRegistry.getTypeUnsafe(blockId).getShape() == BlockShape.CROSS) continue;
+
+          target = (blockId == WATER) ? out.getWater() : out.getOpaque();
+
+          for (int face = 0; face < 6; face++) {
+            if (shouldRender(blockId, x, y, z, face)) {
+              int ao = getFaceAO(x, y, z, face);
+              addFace(x, y, z, 1, 1, 1, blockId, face, ao, getFaceLight(x, y, z, face));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void meshGreedy(int topY, ChunkMeshLayers out) {
+    if (mask == null) {
+      mask = new int[ChunkData.WIDTH * ChunkData.HEIGHT];
+    }
+    int height = topY - minY + 1;
+
+    for (int face = 0; face < 6; face++) {
+      // Slices run along the face normal, the mask covers the plane of the face
+      int slices;
+      int planeWidth;
+      int planeHeight;
+      switch (face) {
+        case TOP:
+        case BOTTOM:
+          slices = height;
+          planeWidth = ChunkData.WIDTH;
+          planeHeight = ChunkData.DEPTH;
+          break;
+        case FRONT:
+        case BACK:
+          slices = ChunkData.DEPTH;
+          planeWidth = ChunkData.WIDTH;
+          planeHeight = height;
+          break;
+        default:
+          slices = ChunkData.WIDTH;
+          planeWidth = ChunkData.DEPTH;
+          planeHeight = height;
+          break;
+      }
+
+      // Horizontal faces are sliced by height, so their slices start at the range bottom
+      int first = (face == TOP || face == BOTTOM) ? minY : 0;
+      for (int slice = first; slice < first + slices; slice++) {
+        if ((face == TOP || face == BOTTOM) && isSkipped(slice)) continue;
+        if (fillMask(face, slice, planeWidth, planeHeight)) {
+          mergeMask(face, slice, planeWidth, planeHeight, out);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stores a key for every visible face of the slice: block id in the low 12 bits, corner
+   * occlusion levels in the next 8 and the light level above. Returns whether any face is visible.
+   */
+  private boolean fillMask(int face, int slice, int planeWidth, int planeHeight) {
+    boolean visible = false;
+    for (int j = 0; j < planeHeight; j++) {
+      for (int i = 0; i < planeWidth; i++) {
+        int x, y, z;
+        switch (face) {
+          case TOP:
+          case BOTTOM:
+            x = i;
+            y = slice;
+            z = j;
+            break;
+          case FRONT:
+          case BACK:
+            x = i;
+            y = minY + j;
+            z = slice;
+            break;
+          default:
+            x = slice;
+            y = minY + j;
+            z = i;
+            break;
+        }
+
+        int key = 0;
+        short blockId = blocks[paddedIndex(x, y, z)];
+        if (blockId != AIR
+            && !isSkipped(y)
+            && BlockRegistry.getTypeUnsafe(blockId).getShape() != BlockShape.CROSS
+            && shouldRender(blockId, x, y, z, face)) {
+          key = (getFaceLight(x, y, z, face) << 20) | (getFaceAO(x, y, z, face) << 12) | blockId;
+          visible = true;
+        }
+        mask[i + j * planeWidth] = key;
+      }
+    }
+    return visible;
+  }
+
+  private void mergeMask(
+      int face, int slice, int planeWidth, int planeHeight, ChunkMeshLayers out) {
+    for (int j = 0; j < planeHeight; j++) {
+      for (int i = 0; i < planeWidth; ) {
+        int key = mask[i + j * planeWidth];
+        if (key == 0) {
+          i++;
+          continue;
+        }
+
+        int ao = (key >>> 12) & 0xFF;
+        int level = key >>> 20;
+        int w = 1;
+        int h = 1;
+        // Only faces lit the same in all four corners can be stretched without changing the AO
+        if ((ao & 3) * 0x55 == ao) {
+          while (i + w < planeWidth
+              && w < AtlasLayout.MAX_REPEAT
+              && mask[i + w + j * planeWidth] == key) {
+            w++;
+          }
+          grow:
+          while (j + h < planeHeight && h < AtlasLayout.MAX_REPEAT) {
+            int row = i + (j + h) * planeWidth;
+            for (int k = 0; k < w; k++) {
+              if (mask[row + k] != key) break grow;
+            }
+            h++;
+          }
+        }
+
+        for (int dj = 0; dj < h; dj++) {
+          int row = i + (j + dj) * planeWidth;
+          Arrays.fill(mask, row, row + w, 0);
+        }
+
+        short blockId = (short) (key & 0xFFF);
+        target = (blockId == WATER) ? out.getWater() : out.getOpaque();
+        switch (face) {
+          case TOP:
+          case BOTTOM:
+            addFace(i, slice, j, w, 1, h, blockId, face, ao, level);
+            break;
+          case FRONT:
+          case BACK:
+            addFace(i, minY + j, slice, w, h, 1, blockId, face, ao, level);
+            break;
+          default:
+            addFace(slice, minY + j, i, 1, h, w, blockId, face, ao, level);
+            break;
+        }
+        i += w;
+      }
+    }
+  }
+
+  private void meshDecor(int topY, ChunkMeshLayers out) {
+    target = out.getDecor();
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        for (int y = minY; y <= topY; y++) {
+          short blockId = blocks[paddedIndex(x, y, z)];
+          if (blockId != AIR
+              && !isSkipped(y)
+              && BlockRegistry.getTypeUnsafe(blockId).getShape() == BlockShape.CROSS) {
+            addBillboard(x, y, z, blockId);
+          }
+        }
+      }
+    }
+  }
+
+  /** Returns the light level of the block in front of the given face. */
+  private int getFaceLight(int x, int y, int z, int face) {
+    if (light == null) return ChunkData.MAX_LIGHT;
+    switch (face) {
+      case TOP:
+        return getLight(x, y + 1, z);
+      case BOTTOM:
+        return getLight(x, y - 1, z);
+      case FRONT:
+        return getLight(x, y, z + 1);
+      case BACK:
+        return getLight(x, y, z - 1);
+      case RIGHT:
+        return getLight(x + 1, y, z);
+      default:
+        return getLight(x - 1, y, z);
+    }
+  }
+
+  /** Returns the brighter of sky and block light at a padded position. */
+  private int getLight(int x, int y, int z) {
+    if (light == null || y >= ChunkData.HEIGHT) return ChunkData.MAX_LIGHT;
+    if (y < 0) return 0;
+    int packed = light[paddedIndex(x, y, z)];
+    return Math.max((packed >> 4) & 0xF, packed & 0xF);
+  }
+
+  /** Returns whether the given face of a block at a center chunk position is visible. */
+  public boolean shouldRender(int myId, int x, int y, int z, int face) {
+    int nx = x, ny = y, nz = z;
+    switch (face) {
+      case TOP:
+        ny++;
+        break;
+      case BOTTOM:
+        ny--;
+        break;
+      case FRONT:
+        nz++;
+        break;
+      case BACK:
+        nz--;
+        break;
+      case RIGHT:
+        nx++;
+        break;
+      case LEFT:
+        nx--;
+        break;
+    }
+    if (ny < 0) return false;
+    if (ny >= ChunkData.HEIGHT) return true;
+    int neighborId = getBlockId(nx, ny, nz);
+    if (myId == WATER) return neighborId == AIR;
+    if (neighborId == WATER) return true;
+    return !isSolid(nx, ny, nz);
+  }
+
+  /**
+   * AO calculation taking into account the inverted Y-axis in rendering. If rendering uses -Y as
+   * up, we need to adjust how we query world data (+Y as up).
+   *
+   * @return the occlusion level of the corner, an index into {@link #AO_VALUES}
+   */
+  private int getAO(int sx1, int sy1, int sz1, int sx2, int sy2, int sz2, int cx, int cy, int cz) {
+    int s1 = isSolid(sx1, sy1, sz1) ? 1 : 0;
+    int s2 = isSolid(sx2, sy2, sz2) ? 1 : 0;
+    int c = isSolid(cx, cy, cz) ? 1 : 0;
+
+    if (s1 == 1 && s2 == 1) return 0;
+    return 3 - (s1 + s2 + c);
+  }
+
+  /** Returns the occlusion levels of the four face corners, two bits each, corner 0 lowest. */
+  private int getFaceAO(int x, int y, int z, int face) {
+    int a0, a1, a2, a3;
+    switch (face) {
+      case TOP:
+        a0 = getAO(x - 1, y + 1, z, x, y + 1, z - 1, x - 1, y + 1, z - 1);
+        a1 = getAO(x - 1, y + 1, z, x, y + 1, z + 1, x - 1, y + 1, z + 1);
+        a2 = getAO(x + 1, y + 1, z, x, y + 1, z + 1, x + 1, y + 1, z + 1);
+        a3 = getAO(x + 1, y + 1, z, x, y + 1, z - 1, x + 1, y + 1, z - 1);
+        break;
+      case BOTTOM:
+        a0 = getAO(x - 1, y - 1, z, x, y - 1, z - 1, x - 1, y - 1, z - 1);
+        a1 = getAO(x + 1, y - 1, z, x, y - 1, z - 1, x + 1, y - 1, z - 1);
+        a2 = getAO(x + 1, y - 1, z, x, y - 1, z + 1, x + 1, y - 1, z + 1);
+        a3 = getAO(x - 1, y - 1, z, x, y - 1, z + 1, x - 1, y - 1, z + 1);
+        break;
+      case FRONT:
+        a0 = getAO(x - 1, y, z + 1, x, y - 1, z + 1, x - 1, y - 1, z + 1);
+        a1 = getAO(x + 1, y, z + 1, x, y - 1, z + 1, x + 1, y - 1, z + 1);
+        a2 = getAO(x + 1, y, z + 1, x, y + 1, z + 1, x + 1, y + 1, z + 1);
+        a3 = getAO(x - 1, y, z + 1, x, y + 1, z + 1, x - 1, y + 1, z + 1);
+        break;
+      case BACK:
+        a0 = getAO(x + 1, y, z - 1, x, y - 1, z - 1, x + 1, y - 1, z - 1);
+        a1 = getAO(x - 1, y, z - 1, x, y - 1, z - 1, x - 1, y - 1, z - 1);
+        a2 = getAO(x - 1, y, z - 1, x, y + 1, z - 1, x - 1, y + 1, z - 1);
+        a3 = getAO(x + 1, y, z - 1, x, y + 1, z - 1, x + 1, y + 1, z - 1);
+        break;
+      case RIGHT:
+        a0 = getAO(x + 1, y, z + 1, x + 1, y - 1, z, x + 1, y - 1, z + 1);
+        a1 = getAO(x + 1, y, z - 1, x + 1, y - 1, z, x + 1, y - 1, z - 1);
+        a2 = getAO(x + 1, y, z - 1, x + 1, y + 1, z, x + 1, y + 1, z - 1);
+        a3 = getAO(x + 1, y, z + 1, x + 1, y + 1, z, x + 1, y + 1, z + 1);
+        break;
+      default:
+        a0 = getAO(x - 1, y, z - 1, x - 1, y - 1, z, x - 1, y - 1, z - 1);
+        a1 = getAO(x - 1, y, z + 1, x - 1, y - 1, z, x - 1, y - 1, z + 1);
+        a2 = getAO(x - 1, y, z + 1, x - 1, y + 1, z, x - 1, y + 1, z + 1);
+        a3 = getAO(x - 1, y, z - 1, x - 1, y + 1, z, x - 1, y + 1, z - 1);
+        break;
+    }
+    return a0 | (a1 << 2) | (a2 << 4) | (a3 << 6);
+  }
+
+  private static float getBaseLight(int face) {
+    switch (face) {
+      case FRONT:
+      case BACK:
+        return 0.85f;
+      case LEFT:
+      case RIGHT:
+        return 0.7f;
+      case BOTTOM:
+        return 0.5f;
+      default:
+        return 1.0f;
+    }
+  }
+
+  /**
+   * Emits a face covering {@code ex} x {@code ey} x {@code ez} blocks starting at the given block.
+   * The extent along the face normal is ignored; single faces pass 1 for every axis. The texture
+   * coordinates span one tile per block, see {@link AtlasLayout}.
+   */
+  private void addFace(
+      int x, int y, int z, int ex, int ey, int ez, short blockId, int face, int ao, int level) {
+    // drawFace läuft u vom ersten zum zweiten und v vom zweiten zum dritten Eckpunkt entlang
+    int repeatU;
+    int repeatV;
+    switch (face) {
+      case TOP:
+        repeatU = ez;
+        repeatV = ex;
+        break;
+      case BOTTOM:
+        repeatU = ex;
+        repeatV = ez;
+        break;
+      case FRONT:
+      case BACK:
+        repeatU = ex;
+        repeatV = ey;
+        break;
+      default:
+        repeatU = ez;
+        repeatV = ey;
+        break;
+    }
+    u0 = atlas.getU0(face);
+    u1 = u0 + repeatU;
+    v0 = atlas.getV0(blockId);
+    v1 = v0 + repeatV;
+
+    float baseLight = getBaseLight(face) * LIGHT_VALUES[level];
+    float a0 = AO_VALUES[ao & 3] * baseLight;
+    float a1 = AO_VALUES[(ao >> 2) & 3] * baseLight;
+    float a2 = AO_VALUES[(ao >> 4) & 3] * baseLight;
+    float a3 = AO_VALUES[(ao >> 6) & 3] * baseLight;
+
+    float xf = x - RADIUS, yf = y - RADIUS, zf = z - RADIUS;
+
+    switch (face) {
+      case TOP:
+        yf += 1.0f;
+        drawFace(
+            xf, -yf, zf, xf, -yf, zf + ez, xf + ex, -yf, zf + ez, xf + ex, -yf, zf, a0, a1, a2, a3);
+        break;
+
+      case BOTTOM:
+        drawFace(
+            xf, -yf, zf, xf + ex, -yf, zf, xf + ex, -yf, zf + ez, xf, -yf, zf + ez, a0, a1, a2, a3);
+        break;
+
+      case FRONT:
+        zf += 1.0f;
+        drawFace(
+            xf, -yf, zf, xf + ex, -yf, zf, xf + ex, -yf - ey, zf, xf, -yf - ey, zf, a0, a1, a2, a3);
+        break;
+
+      case BACK:
+        drawFace(
+            xf + ex, -yf, zf, xf, -yf, zf, xf, -yf - ey, zf, xf + ex, -yf - ey, zf, a0, a1, a2, a3);
+        break;
+
+      case RIGHT:
+        xf += 1.0f;
+        drawFace(
+            xf, -yf, zf + ez, xf, -yf, zf, xf, -yf - ey, zf, xf, -yf - ey, zf + ez, a0, a1, a2, a3);
+        break;
+
+      case LEFT:
+        drawFace(
+            xf, -yf, zf, xf, -yf, zf + ez, xf, -yf - ey, zf + ez, xf, -yf - ey, zf, a0, a1, a2, a3);
+        break;
+    }
+  }
+
+  private void drawFace(
+      float x1,
+      float y1,
+      float z1,
+      float x2,
+      float y2,
+      float z2,
+      float x3,
+      float y3,
+      float z3,
+      float x4,
+      float y4,
+      float z4,
+      float a0,
+      float a1,
+      float a2,
+      float a3) {
+
+    // Flip the quad diagonal so the AO gradient is interpolated along the brighter diagonal
+    if (a0 + a2 < a1 + a3) {
+      target.vertex(x2, y2, z2, u1, v1, a1);
+      target.vertex(x3, y3, z3, u1, v0, a2);
+      target.vertex(x4, y4, z4, u0, v0, a3);
+      target.vertex(x1, y1, z1, u0, v1, a0);
+    } else {
+      target.vertex(x1, y1, z1, u0, v1, a0);
+      target.vertex(x2, y2, z2, u1, v1, a1);
+      target.vertex(x3, y3, z3, u1, v0, a2);
+      target.vertex(x4, y4, z4, u0, v0, a3);
+    }
+  }
+
+  private void addBillboard(int x, int y, int z, short blockId) {
+    float u0 = atlas.getU0(0);
+    float u1 = atlas.getU1(0);
+    float v0 = atlas.getV0(blockId);
+    float v1 = atlas.getV1(blockId);
+    float cx = x, cy = y, cz = z, h = 1.0f, off = 0.5f;
+    float b = LIGHT_VALUES[getLight(x, y, z)];
+    target.vertex(cx - off, -cy + RADIUS, cz - off, u0, v1, b);
+    target.vertex(cx + off, -cy + RADIUS, cz + off, u1, v1, b);
+    target.vertex(cx + off, -cy - h + RADIUS, cz + off, u1, v0, b);
+    target.vertex(cx - off, -cy - h + RADIUS, cz - off, u0, v0, b);
+    target.vertex(cx - off, -cy + RADIUS, cz + off, u0, v1, b);
+    target.vertex(cx + off, -cy + RADIUS, cz - off, u1, v1, b);
+    target.vertex(cx + off, -cy - h + RADIUS, cz - off, u1, v0, b);
+    target.vertex(cx - off, -cy - h + RADIUS, cz + off, u0, v0, b);
+  }
+
+  private boolean isSkipped(int y) {
+    return (skippedSections & (1 << (y / ChunkData.SECTION_SIZE))) != 0;
+  }
+
+  private int getBlockId(int x, int y, int z) {
+    if (y < 0 || y >= ChunkData.HEIGHT) return AIR;
+    int idx = paddedIndex(x, y, z);
+    return (idx < 0 || idx >= blocks.length) ? AIR : blocks[idx];
+  }
+
+  private boolean isSolid(int x, int y, int z) {
+    int id = getBlockId(x, y, z);
+    return id != AIR && BlockRegistry.getTypeUnsafe((short) id).isSolid();
+  }
+}
@@ -0,0 +1,29 @@
+package client.world.mesh;
+
+/** The vertex buffers of the three render layers of a chunk mesh. */
+public final class ChunkMeshLayers {
+
+  private final MeshBuffer opaque = new MeshBuffer();
+
+  private final MeshBuffer water = new MeshBuffer();
+
+  private final MeshBuffer decor = new MeshBuffer();
+
+  public void clear() {
+    opaque.clear();
+    water.clear();
+    decor.clear();
+  }
+
+  public MeshBuffer getOpaque() {
+    return opaque;
+  }
+
+  public MeshBuffer getWater() {
+    return water;
+  }
+
+  public MeshBuffer getDecor() {
+    return decor;
+  }
+}
@@ -0,0 +1,233 @@
+package client.world.mesh;
+
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import common.world.ChunkSummary;
+
+/**
+ * Builds the low detail mesh of a region of distant chunks from their {@link ChunkSummary}s.
+ *
+ * <p>The surface is sampled in square cells of {@code cellSize} blocks. Every cell becomes a flat
+ * top quad at the height of its highest column, textured like the top of that column's block, plus
+ * walls down to the neighbouring cells that are lower. Neighbours without a summary get a short
+ * skirt instead, which hides the cracks between rings of different cell sizes. The quads use the
+ * same layout and texture atlas as the {@link ChunkMeshBuilder}, positions are relative to the
+ * region origin.
+ *
+ * <p>Not thread-safe while building, use one instance per thread.
+ */
+public final class LodMeshBuilder {
+
+  /** Provides the summary of a chunk, or null if none is known. */
+  @FunctionalInterface
+  public interface SummarySource {
+    ChunkSummary getSummary(int chunkX, int chunkZ);
+  }
+
+  /** Edge length of a region in chunks. */
+  public static final int REGION_CHUNKS = 4;
+
+  /** Edge length of a region in blocks. */
+  public static final int REGION_SIZE = REGION_CHUNKS * ChunkData.WIDTH;
+
+  /** Depth of the wall below cells whose neighbour is unknown. */
+  private static final int SKIRT_DEPTH = 8;
+
+  private static final float RADIUS = 0.5f;
+
+  private static final int UNKNOWN = -1;
+
+  /** The side faces and the direction of their neighbour cell. */
+  private static final int[] SIDES = {
+    ChunkMeshBuilder.FRONT, ChunkMeshBuilder.BACK, ChunkMeshBuilder.RIGHT, ChunkMeshBuilder.LEFT
+  };
+
+  private static final int[] SIDE_X = {0, 0, 1, -1};
+
+  private static final int[] SIDE_Z = {1, -1, 0, 0};
+
+  private final AtlasLayout atlas;
+
+  private MeshBuffer target;
+
+  // Ergebnis des letzten sample()-Aufrufs
+  private short sampledBlock;
+
+  // Textur und Licht der Face, die gerade ausgegeben wird
+  private float u0, u1, v0, v1, light;
+
+  public LodMeshBuilder(AtlasLayout atlas) {
+    this.atlas = atlas;
+  }
+
+  /**
+   * Meshes the chunks of a region into {@code out}, which is cleared first.
+   *
+   * @param regionX region x coordinate, in units of {@link #REGION_CHUNKS} chunks
+   * @param regionZ region z coordinate
+   * @param chunkMask chunks to mesh, bit {@code x + z * REGION_CHUNKS} for the chunk at local
+   *     coordinates x and z; chunks without a summary are skipped
+   * @param cellSize edge length of a cell in blocks, must divide the chunk size
+   * @param source summaries of the region and its neighbours
+   */
+  public void build(
+      int regionX, int regionZ, int chunkMask, int cellSize, SummarySource source, MeshBuffer out) {
+    if (cellSize <= 0 || ChunkData.WIDTH % cellSize != 0) {
+      throw new IllegalArgumentException("Cell size must divide " + ChunkData.WIDTH + ".");
+    }
+    out.clear();
+    this.target = out;
+    try {
+      for (int cz = 0; cz < REGION_CHUNKS; cz++) {
+        for (int cx = 0; cx < REGION_CHUNKS; cx++) {
+          if ((chunkMask & (1 << (cx + cz * REGION_CHUNKS))) == 0) continue;
+          int chunkX = regionX * REGION_CHUNKS + cx;
+          int chunkZ = regionZ * REGION_CHUNKS + cz;
+          ChunkSummary summary = source.getSummary(chunkX, chunkZ);
+          if (summary != null) {
+            buildChunk(summary, cx * ChunkData.WIDTH, cz * ChunkData.DEPTH, cellSize, source);
+          }
+        }
+      }
+    } finally {
+      this.target = null;
+    }
+  }
+
+  private void buildChunk(
+      ChunkSummary summary, int offsetX, int offsetZ, int cellSize, SummarySource source) {
+    int worldX = summary.getChunkX() * ChunkData.WIDTH;
+    int worldZ = summary.getChunkZ() * ChunkData.DEPTH;
+
+    for (int z = 0; z < ChunkData.DEPTH; z += cellSize) {
+      for (int x = 0; x < ChunkData.WIDTH; x += cellSize) {
+        int height = sample(summary, x, z, cellSize);
+        short blockId = sampledBlock;
+        if (blockId == Blocks.AIR.getId()) continue;
+
+        int lx = offsetX + x;
+        int lz = offsetZ + z;
+        addFace(lx, height, lz, cellSize, 1, cellSize, blockId, ChunkMeshBuilder.TOP);
+
+        for (int side = 0; side < SIDES.length; side++) {
+          int neighborX = worldX + x + SIDE_X[side] * cellSize;
+          int neighborZ = worldZ + z + SIDE_Z[side] * cellSize;
+          int neighborHeight = sample(source, neighborX, neighborZ, cellSize);
+          addWall(lx, lz, height, cellSize, blockId, SIDES[side], neighborHeight);
+        }
+      }
+    }
+  }
+
+  /** Emits the wall of a cell towards a lower neighbour of height {@code neighborHeight}. */
+  private void addWall(
+      int x, int z, int height, int cellSize, short blockId, int face, int neighborHeight) {
+    int bottom = neighborHeight == UNKNOWN ? height - SKIRT_DEPTH : neighborHeight;
+    bottom = Math.max(bottom, -1);
+    if (bottom >= height) return;
+    int wallHeight = height - bottom;
+    addFace(x, bottom + 1, z, cellSize, wallHeight, cellSize, blockId, face);
+  }
+
+  /** Samples the cell starting at a world column, or returns {@link #UNKNOWN}. */
+  private int sample(SummarySource source, int worldX, int worldZ, int cellSize) {
+    ChunkSummary summary =
+        source.getSummary(
+            Math.floorDiv(worldX, ChunkData.WIDTH), Math.floorDiv(worldZ, ChunkData.DEPTH));
+    if (summary == null) return UNKNOWN;
+    int x = Math.floorMod(worldX, ChunkData.WIDTH);
+    int z = Math.floorMod(worldZ, ChunkData.DEPTH);
+    return sample(summary, x, z, cellSize);
+  }
+
+  /**
+   * Returns the height of the highest column of a cell and stores its block in {@link
+   * #sampledBlock}. Empty cells report air at height -1.
+   */
+  private int sample(ChunkSummary summary, int x0, int z0, int cellSize) {
+    int best = -1;
+    short block = Blocks.AIR.getId();
+    for (int z = z0; z < z0 + cellSize; z++) {
+      for (int x = x0; x < x0 + cellSize; x++) {
+        short id = summary.getTopBlock(x, z);
+        if (id == Blocks.AIR.getId()) continue;
+        int height = summary.getHeight(x, z);
+        if (height > best) {
+          best = height;
+          block = id;
+        }
+      }
+    }
+    sampledBlock = block;
+    return best;
+  }
+
+  private static float getBaseLight(int face) {
+    switch (face) {
+      case ChunkMeshBuilder.FRONT:
+      case ChunkMeshBuilder.BACK:
+        return 0.85f;
+      case ChunkMeshBuilder.LEFT:
+      case ChunkMeshBuilder.RIGHT:
+        return 0.7f;
+      default:
+        return 1.0f;
+    }
+  }
+
+  /**
+   * Emits a face covering {@code ex} x {@code ey} x {@code ez} blocks starting at the given block,
+   * with the same winding as {@link ChunkMeshBuilder}. The extent along the face normal is only
+   * used to place the far faces.
+   */
+  private void addFace(int x, int y, int z, int ex, int ey, int ez, short blockId, int face) {
+    u0 = atlas.getU0(face);
+    u1 = atlas.getU1(face);
+    v0 = atlas.getV0(blockId);
+    v1 = atlas.getV1(blockId);
+    light = getBaseLight(face);
+
+    float xf = x - RADIUS, yf = y - RADIUS, zf = z - RADIUS;
+    switch (face) {
+      case ChunkMeshBuilder.TOP:
+        yf += ey;
+        quad(xf, -yf, zf, xf, -yf, zf + ez, xf + ex, -yf, zf + ez, xf + ex, -yf, zf);
+        break;
+      case ChunkMeshBuilder.FRONT:
+        zf += ez;
+        quad(xf, -yf, zf, xf + ex, -yf, zf, xf + ex, -yf - ey, zf, xf, -yf - ey, zf);
+        break;
+      case ChunkMeshBuilder.BACK:
+        quad(xf + ex, -yf, zf, xf, -yf, zf, xf, -yf - ey, zf, xf + ex, -yf - ey, zf);
+        break;
+      case ChunkMeshBuilder.RIGHT:
+        xf += ex;
+        quad(xf, -yf, zf + ez, xf, -yf, zf, xf, -yf - ey, zf, xf, -yf - ey, zf + ez);
+        break;
+      case ChunkMeshBuilder.LEFT:
+        quad(xf, -yf, zf, xf, -yf, zf + ez, xf, -yf - ey, zf + ez, xf, -yf - ey, zf);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void quad(
+      float x1,
+      float y1,
+      float z1,
+      float x2,
+      float y2,
+      float z2,
+      float x3,
+      float y3,
+      float z3,
+      float x4,
+      float y4,
+      float z4) {
+    target.vertex(x1, y1, z1, u0, v1, light);
+    target.vertex(x2, y2, z2, u1, v1, light);
+    target.vertex(x3, y3, z3, u1, v0, light);
+    target.vertex(x4, y4, z4, u0, v0, light);
+  }
+}
@@ -0,0 +1,67 @@
+package client.world.mesh;
+
+import java.util.Arrays;
+
+/**
+ * Growable, reusable buffer of interleaved quad vertices.
+ *
+ * <p>Every vertex occupies {@link #STRIDE} floats: position (x, y, z), tile coordinates (u, v),
+ * see {@link AtlasLayout}, and a shade factor combining face lighting and ambient occlusion. Four
+ * consecutive vertices form a quad. {@link #clear()} keeps the backing array, so a buffer reused
+ * across meshes stops allocating once it reached the size of the largest mesh.
+ */
+public final class MeshBuffer {
+
+  public static final int STRIDE = 6;
+
+  private float[] data;
+
+  private int size;
+
+  public MeshBuffer() {
+    this(1024);
+  }
+
+  public MeshBuffer(int initialVertices) {
+    this.data = new float[Math.max(1, initialVertices) * STRIDE];
+  }
+
+  public void vertex(float x, float y, float z, float u, float v, float shade) {
+    if (size + STRIDE > data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[size] = x;
+    data[size + 1] = y;
+    data[size + 2] = z;
+    data[size + 3] = u;
+    data[size + 4] = v;
+    data[size + 5] = shade;
+    size += STRIDE;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the number of used floats in {@link #getData()}. */
+  public int size() {
+    return size;
+  }
+
+  public int getVertexCount() {
+    return size / STRIDE;
+  }
+
+  public int getQuadCount() {
+    return getVertexCount() / 4;
+  }
+
+  /** Returns the backing array. Only the first {@link #size()} floats are valid. */
+  public float[] getData() {
+    return data;
+  }
+}
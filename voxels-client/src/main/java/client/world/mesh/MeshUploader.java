@@ -0,0 +1,33 @@
+package client.world.mesh;
+
+import engine.backend.processing.BufferedShape;
+import engine.components.StaticGeometry;
+import engine.rendering.Material;
+
+/** Copies the quads of a {@link MeshBuffer} into a {@link BufferedShape}. */
+public final class MeshUploader {
+
+  private MeshUploader() {}
+
+  /**
+   * Creates the static geometry for a buffer.
+   *
+   * @return the geometry, or {@code null} if the buffer holds no quads
+   */
+  public static StaticGeometry upload(MeshBuffer buffer, Material material) {
+    if (buffer.isEmpty()) return null;
+
+    BufferedShape shape = new BufferedShape(material);
+    shape.begin(BufferedShape.QUADS);
+
+    float[] data = buffer.getData();
+    for (int i = 0; i < buffer.size(); i += MeshBuffer.STRIDE) {
+      float shade = data[i + 5];
+      shape.color(shade, shade, shade);
+      shape.vertex(data[i], data[i + 1], data[i + 2], data[i + 3], data[i + 4]);
+    }
+
+    shape.end();
+    return new StaticGeometry(shape.getVBO(), material);
+  }
+}
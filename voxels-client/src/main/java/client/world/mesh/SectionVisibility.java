@@ -0,0 +1,177 @@
+package client.world.mesh;
+
+import java.util.Arrays;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
+import common.world.ChunkData;
+
+/**
+ * Computes which faces of a 16x16x16 section can see each other through blocks that are not solid
+ * and opaque.
+ *
+ * <p>The result is a bit set over face pairs: bit {@code from * 6 + to} is set when a path of
+ * see-through blocks connects face {@code from} to face {@code to}. It is computed with one flood
+ * fill per connected region of see-through blocks, every region connects all faces it touches. The
+ * renderer walks these connections from the camera section to find the sections that can be seen
+ * at all, see {@link client.world.SectionOcclusionCuller}.
+ *
+ * <p>Reads the padded block volume of the {@link ChunkMeshBuilder}. Not thread-safe, use one
+ * instance per thread.
+ */
+public final class SectionVisibility {
+
+  public static final int DOWN = 0;
+
+  public static final int UP = 1;
+
+  public static final int NORTH = 2;
+
+  public static final int SOUTH = 3;
+
+  public static final int WEST = 4;
+
+  public static final int EAST = 5;
+
+  public static final int FACE_COUNT = 6;
+
+  /** Every face sees every other face, the visibility of an empty section. */
+  public static final long ALL = (1L << (FACE_COUNT * FACE_COUNT)) - 1;
+
+  /** No face sees another, the visibility of a fully opaque section. */
+  public static final long NONE = 0;
+
+  private static final int SIZE = ChunkData.SECTION_SIZE;
+
+  private static final int VOLUME = SIZE * SIZE * SIZE;
+
+  // Zellindex innerhalb der Section: x + SIZE * (y + SIZE * z)
+  private static final int STEP_Y = SIZE;
+
+  private static final int STEP_Z = SIZE * SIZE;
+
+  private static final int PADDED_STEP_X = ChunkData.HEIGHT * ChunkMeshBuilder.PADDED_DEPTH;
+
+  private final long[] visited = new long[VOLUME / 64];
+
+  private final int[] queue = new int[VOLUME];
+
+  /** Returns the face opposite to {@code face}. */
+  public static int opposite(int face) {
+    return face ^ 1;
+  }
+
+  /** Returns whether {@code visibility} connects face {@code from} to face {@code to}. */
+  public static boolean connects(long visibility, int from, int to) {
+    return (visibility & (1L << (from * FACE_COUNT + to))) != 0;
+  }
+
+  /**
+   * Computes the visibility of section {@code section} of the center chunk of {@code paddedBlocks}.
+   *
+   * @param paddedBlocks block ids indexed by {@link ChunkMeshBuilder#paddedIndex(int, int, int)}
+   */
+  public long compute(short[] paddedBlocks, int section) {
+    int baseY = section * SIZE;
+    Arrays.fill(visited, 0);
+
+    // Opake Blöcke gelten als schon besucht
+    int open = 0;
+    for (int z = 0; z < SIZE; z++) {
+      for (int y = 0; y < SIZE; y++) {
+        int start = ChunkMeshBuilder.paddedIndex(0, baseY + y, z);
+        int cell = y * STEP_Y + z * STEP_Z;
+        for (int x = 0; x < SIZE; x++, cell++) {
+          short id = paddedBlocks[start + x * PADDED_STEP_X];
+          if (isOpaque(id)) {
+            visited[cell >>> 6] |= 1L << cell;
+          } else {
+            open++;
+          }
+        }
+      }
+    }
+    if (open == 0) return NONE;
+    if (open == VOLUME) return ALL;
+
+    long visibility = NONE;
+    for (int cell = 0; cell < VOLUME; cell++) {
+      // Nur Regionen, die den Rand berühren, können Faces verbinden
+      if (isVisited(cell) || !isOnBorder(cell)) continue;
+      int faces = fill(cell);
+      visibility |= connectAll(faces);
+      if (visibility == ALL) break;
+    }
+    return visibility;
+  }
+
+  /** Flood fills the region of {@code start} and returns the faces it touches as a bit mask. */
+  private int fill(int start) {
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    markVisited(start);
+    int faces = 0;
+
+    while (head < tail) {
+      int cell = queue[head++];
+      int x = cell & (SIZE - 1);
+      int y = (cell / STEP_Y) & (SIZE - 1);
+      int z = cell / STEP_Z;
+
+      if (x == 0) faces |= 1 << WEST;
+      else tail = visit(cell - 1, tail);
+      if (x == SIZE - 1) faces |= 1 << EAST;
+      else tail = visit(cell + 1, tail);
+      if (y == 0) faces |= 1 << DOWN;
+      else tail = visit(cell - STEP_Y, tail);
+      if (y == SIZE - 1) faces |= 1 << UP;
+      else tail = visit(cell + STEP_Y, tail);
+      if (z == 0) faces |= 1 << NORTH;
+      else tail = visit(cell - STEP_Z, tail);
+      if (z == SIZE - 1) faces |= 1 << SOUTH;
+      else tail = visit(cell + STEP_Z, tail);
+    }
+    return faces;
+  }
+
+  private int visit(int cell, int tail) {
+    if (isVisited(cell)) return tail;
+    markVisited(cell);
+    queue[tail] = cell;
+    return tail + 1;
+  }
+
+  private static long connectAll(int faces) {
+    long result = 0;
+    for (int from = 0; from < FACE_COUNT; from++) {
+      if ((faces & (1 << from)) == 0) continue;
+      for (int to = 0; to < FACE_COUNT; to++) {
+        if ((faces & (1 << to)) != 0) {
+          result |= 1L << (from * FACE_COUNT + to);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static boolean isOnBorder(int cell) {
+    int x = cell & (SIZE - 1);
+    int y = (cell / STEP_Y) & (SIZE - 1);
+    int z = cell / STEP_Z;
+    return x == 0 || x == SIZE - 1 || y == 0 || y == SIZE - 1 || z == 0 || z == SIZE - 1;
+  }
+
+  private boolean isVisited(int cell) {
+    return (visited[cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  private void markVisited(int cell) {
+    visited[cell >>> 6] |= 1L << cell;
+  }
+
+  private static boolean isOpaque(short id) {
+    BlockType type = BlockRegistry.getTypeUnsafe(id);
+    return type != null && type.isSolid() && type.isOpaque();
+  }
+}
@@ -2,6 +2,12 @@ precision mediump float;
 
 uniform sampler2D texture;
 
+// Kachelbreite, Kachelhöhe und Rand im Atlas, siehe AtlasLayout
+uniform vec3 u_atlas;
+
+// Muss AtlasLayout.TILE_STRIDE entsprechen
+const float TILE_STRIDE = 32.0;
+
 uniform vec3 u_fogColor;
 uniform float u_fogDensity;
 
@@ -11,15 +17,22 @@ uniform float u_ambient;
 
 uniform vec3 u_cameraPos;
 
-varying vec2 vTexCoord;
+varying highp vec2 vTexCoord;
 varying float vDist;
 varying vec4 vColor;
 varying vec3 vNormal;
 varying vec3 vWorldPos;
 
+// Ganzzahliger Teil wählt die Kachel, der Bruchteil wiederholt sie pro Block
+vec2 atlasUV(highp vec2 tileCoord) {
+    highp vec2 tile = floor(tileCoord / TILE_STRIDE);
+    vec2 local = fract(tileCoord - tile * TILE_STRIDE);
+    return tile * u_atlas.xy + u_atlas.z + local * (u_atlas.xy - 2.0 * u_atlas.z);
+}
+
 void main() {
 
-    vec4 texCol = texture2D(texture, vTexCoord);
+    vec4 texCol = texture2D(texture, atlasUV(vTexCoord));
     if(texCol.a < 0.1) discard;
 
     vec4 blockCol = texCol * vColor;
@@ -8,7 +8,8 @@ attribute vec2 texCoord;
 attribute vec4 color;
 attribute vec3 normal;
 
-varying vec2 vTexCoord;
+// Kachel-Koordinaten, siehe AtlasLayout; brauchen die volle Genauigkeit
+varying highp vec2 vTexCoord;
 varying float vDist;
 varying vec4 vColor;
 varying vec3 vNormal;
@@ -0,0 +1,95 @@
+package client.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ChunkMeshQueueTest {
+
+  private final ChunkMeshQueue queue = new ChunkMeshQueue();
+
+  @Test
+  public void testPollsInPriorityOrder() {
+    Random random = new Random(7);
+    for (int i = 0; i < 200; i++) {
+      queue.add(new Chunk(i, 0), random.nextFloat() * 100);
+    }
+
+    float previous = Float.NEGATIVE_INFINITY;
+    int polled = 0;
+    Chunk chunk;
+    while ((chunk = queue.poll()) != null) {
+      assertTrue(chunk.meshPriority >= previous);
+      assertFalse(queue.contains(chunk));
+      previous = chunk.meshPriority;
+      polled++;
+    }
+    assertEquals(200, polled);
+  }
+
+  @Test
+  public void testAddingTwiceUpdatesPriority() {
+    Chunk a = new Chunk(0, 0);
+    Chunk b = new Chunk(1, 0);
+    queue.add(a, 1);
+    queue.add(b, 2);
+    queue.add(b, 0);
+
+    assertEquals(2, queue.size());
+    assertSame(b, queue.poll());
+    assertSame(a, queue.poll());
+  }
+
+  @Test
+  public void testRemoveKeepsHeapOrder() {
+    List<Chunk> chunks = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Chunk chunk = new Chunk(i, 0);
+      chunks.add(chunk);
+      queue.add(chunk, (i * 37) % 50);
+    }
+    for (int i = 0; i < 50; i += 3) {
+      assertTrue(queue.remove(chunks.get(i)));
+      assertFalse(queue.remove(chunks.get(i)));
+    }
+
+    float previous = -1;
+    while (!queue.isEmpty()) {
+      Chunk chunk = queue.poll();
+      assertTrue(chunks.indexOf(chunk) % 3 != 0);
+      assertTrue(chunk.meshPriority >= previous);
+      previous = chunk.meshPriority;
+    }
+  }
+
+  @Test
+  public void testRekeyReordersQueue() {
+    for (int i = 0; i < 20; i++) {
+      queue.add(new Chunk(i, 0), i);
+    }
+    queue.rekey(chunk -> -chunk.getChunkX());
+
+    for (int i = 19; i >= 0; i--) {
+      assertEquals(i, queue.poll().getChunkX());
+    }
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testClearForgetsChunks() {
+    Chunk chunk = new Chunk(0, 0);
+    queue.add(chunk, 1);
+    queue.clear();
+
+    assertTrue(queue.isEmpty());
+    assertFalse(queue.contains(chunk));
+  }
+}
@@ -0,0 +1,117 @@
+package client.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import engine.scene.camera.Frustum;
+import math.Vector3f;
+
+public class ChunkRenderListTest {
+
+  private static final float FAR = Float.POSITIVE_INFINITY;
+
+  private final ChunkRenderList renderList = new ChunkRenderList();
+
+  private final List<Chunk> chunks = new ArrayList<>();
+
+  private Chunk addChunk(int x, int z, int layers) {
+    Chunk chunk = new Chunk(x, z);
+    chunk.setMeshBounds(0, -64, 0, 16, 0, 16, layers);
+    chunks.add(chunk);
+    return chunk;
+  }
+
+  /** A frustum that only keeps boxes reaching into positive z. */
+  private static Frustum lookingAlongZ() {
+    Frustum frustum = new Frustum();
+    frustum.left.set(0, 1, 0, 1e6f);
+    frustum.right.set(0, 1, 0, 1e6f);
+    frustum.bottom.set(0, 1, 0, 1e6f);
+    frustum.top.set(0, 1, 0, 1e6f);
+    frustum.far.set(0, 1, 0, 1e6f);
+    frustum.near.set(0, 0, 1, 0);
+    return frustum;
+  }
+
+  @Test
+  public void testOpaqueFrontToBackAndWaterBackToFront() {
+    Chunk far = addChunk(5, 0, Chunk.OPAQUE_LAYER | Chunk.WATER_LAYER);
+    Chunk near = addChunk(0, 0, Chunk.OPAQUE_LAYER | Chunk.WATER_LAYER);
+    Chunk middle = addChunk(2, 0, Chunk.OPAQUE_LAYER);
+
+    renderList.build(chunks, new Vector3f(8, 0, 8), null, FAR);
+
+    assertEquals(List.of(near, middle, far), renderList.getOpaque());
+    assertEquals(List.of(far, near), renderList.getTransparent());
+  }
+
+  @Test
+  public void testSkipsChunksWithoutGeometry() {
+    Chunk empty = addChunk(0, 0, 0);
+    Chunk solid = addChunk(1, 0, Chunk.OPAQUE_LAYER);
+
+    renderList.build(chunks, new Vector3f(), null, FAR);
+
+    assertEquals(List.of(solid), renderList.getOpaque());
+    assertFalse(renderList.isVisible(empty));
+  }
+
+  @Test
+  public void testFrustumCullsChunksBehindTheCamera() {
+    Chunk behind = addChunk(0, -3, Chunk.OPAQUE_LAYER);
+    Chunk ahead = addChunk(0, 3, Chunk.OPAQUE_LAYER);
+    Chunk around = addChunk(0, 0, Chunk.OPAQUE_LAYER);
+
+    renderList.build(chunks, new Vector3f(8, 0, 8), lookingAlongZ(), FAR);
+
+    assertEquals(List.of(around, ahead), renderList.getOpaque());
+    assertFalse(renderList.isVisible(behind));
+  }
+
+  @Test
+  public void testDistanceCullsFarChunks() {
+    Chunk near = addChunk(1, 1, Chunk.OPAQUE_LAYER);
+    Chunk far = addChunk(10, 0, Chunk.OPAQUE_LAYER);
+
+    renderList.build(chunks, new Vector3f(8, 0, 8), null, 64);
+
+    assertTrue(renderList.isVisible(near));
+    assertFalse(renderList.isVisible(far));
+  }
+
+  @Test
+  public void testSmallMovesKeepTheListSorted() {
+    Chunk a = addChunk(0, 0, Chunk.OPAQUE_LAYER);
+    Chunk b = addChunk(1, 0, Chunk.OPAQUE_LAYER);
+    renderList.build(chunks, new Vector3f(1, 0, 8), null, FAR);
+    assertEquals(List.of(a, b), renderList.getOpaque());
+
+    // Unter der Schwelle wird nur repariert, neue Chunks müssen trotzdem einsortiert werden
+    Chunk c = addChunk(-1, 0, Chunk.OPAQUE_LAYER);
+    renderList.build(chunks, new Vector3f(-1, 0, 8), null, FAR);
+    assertEquals(List.of(c, a, b), renderList.getOpaque());
+
+    renderList.build(chunks, new Vector3f(23, 0, 8), null, FAR);
+    assertEquals(List.of(b, a, c), renderList.getOpaque());
+  }
+
+  @Test
+  public void testChunksReturnAfterBeingCulled() {
+    Chunk a = addChunk(0, 0, Chunk.OPAQUE_LAYER);
+    Chunk b = addChunk(0, 3, Chunk.OPAQUE_LAYER);
+    Vector3f camera = new Vector3f(8, 0, 8);
+
+    renderList.build(chunks, camera, null, FAR);
+    renderList.build(chunks, camera, null, 16);
+    assertEquals(List.of(a), renderList.getOpaque());
+
+    renderList.build(chunks, camera, null, FAR);
+    assertEquals(List.of(a, b), renderList.getOpaque());
+  }
+}
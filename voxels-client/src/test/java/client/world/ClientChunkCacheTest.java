@@ -0,0 +1,130 @@
+package client.world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import common.game.block.Blocks;
+import common.network.packets.ChunkDataPacket;
+import common.world.ChunkData;
+import common.world.World;
+
+public class ClientChunkCacheTest {
+
+  @TempDir File root;
+
+  private static ChunkDataPacket packet(int x, int z, int stoneHeight) {
+    ChunkData chunk = new ChunkData(x, z);
+    for (int y = 0; y < stoneHeight; y++) {
+      chunk.setBlockAt(Blocks.STONE, 3, y, 4);
+    }
+    return new ChunkDataPacket(chunk);
+  }
+
+  private static Map<Long, Long> entry(ChunkDataPacket packet) {
+    long key = World.getChunkKey(packet.getChunkX(), packet.getChunkZ());
+    return Map.of(key, packet.getContentHash());
+  }
+
+  /** Closes the cache, which waits for its writes, and opens the same directory again. */
+  private ClientChunkCache reopen(ClientChunkCache cache, String serverId) {
+    cache.close();
+    return new ClientChunkCache(root, serverId);
+  }
+
+  @Test
+  public void testStoredChunkSurvivesReopening() {
+    ClientChunkCache cache = new ClientChunkCache(root, "localhost:25565");
+    ChunkDataPacket stored = packet(-3, 7, 10);
+    cache.store(stored);
+
+    ClientChunkCache reopened = reopen(cache, "localhost:25565");
+    assertEquals(entry(stored), reopened.getEntries());
+
+    ChunkDataPacket loaded = reopened.load(-3, 7, stored.getContentHash());
+    assertNotNull(loaded);
+    assertArrayEquals(stored.decompress(), loaded.decompress());
+  }
+
+  @Test
+  public void testServersAreKeptApart() {
+    ClientChunkCache cache = new ClientChunkCache(root, "a:1");
+    ChunkDataPacket stored = packet(0, 0, 5);
+    cache.store(stored);
+    assertEquals(entry(stored), reopen(cache, "a:1").getEntries());
+
+    assertEquals(0, new ClientChunkCache(root, "b:1").size());
+  }
+
+  @Test
+  public void testNewerVersionReplacesOlder() {
+    ClientChunkCache cache = new ClientChunkCache(root, "server");
+    ChunkDataPacket first = packet(1, 1, 5);
+    ChunkDataPacket second = packet(1, 1, 9);
+    cache.store(first);
+    cache.store(second);
+
+    ClientChunkCache reopened = reopen(cache, "server");
+    assertEquals(entry(second), reopened.getEntries());
+    assertNotNull(reopened.load(1, 1, second.getContentHash()));
+  }
+
+  @Test
+  public void testMissNotifiesListenerAndForgetsChunk() {
+    ClientChunkCache cache = new ClientChunkCache(root, "server");
+    ChunkDataPacket stored = packet(2, 2, 5);
+    cache.store(stored);
+
+    List<Long> misses = new ArrayList<>();
+    cache.setMissListener((x, z) -> misses.add(World.getChunkKey(x, z)));
+
+    assertNull(cache.load(2, 2, stored.getContentHash() + 1));
+    assertEquals(List.of(World.getChunkKey(2, 2)), misses);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedChunksAreEvicted() {
+    ClientChunkCache cache = new ClientChunkCache(root, "server", 10);
+    List<ChunkDataPacket> stored = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ChunkDataPacket packet = packet(i, 0, 5);
+      stored.add(packet);
+      cache.store(packet);
+    }
+    // Der älteste Chunk wird geladen und damit wieder frisch
+    assertNotNull(cache.load(0, 0, stored.get(0).getContentHash()));
+    cache.store(packet(10, 0, 5));
+
+    ClientChunkCache reopened = reopen(cache, "server");
+    // Auf 90 % geräumt: neun Chunks bleiben, die am längsten ungenutzten sind weg
+    assertEquals(9, reopened.size());
+    assertTrue(reopened.getEntries().containsKey(World.getChunkKey(0, 0)));
+    assertTrue(reopened.getEntries().containsKey(World.getChunkKey(10, 0)));
+    assertFalse(reopened.getEntries().containsKey(World.getChunkKey(1, 0)));
+    assertFalse(reopened.getEntries().containsKey(World.getChunkKey(2, 0)));
+    assertEquals(9, root.listFiles()[0].list().length, "Evicted files are deleted.");
+  }
+
+  @Test
+  public void testCloseWaitsForPendingWrites() {
+    ClientChunkCache cache = new ClientChunkCache(root, "server");
+    for (int i = 0; i < 50; i++) {
+      cache.store(packet(i, i, 3 + i % 7));
+    }
+    cache.close();
+
+    assertEquals(50, new ClientChunkCache(root, "server").size());
+  }
+}
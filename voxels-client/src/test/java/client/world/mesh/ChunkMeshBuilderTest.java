@@ -0,0 +1,419 @@
+package client.world.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+
+public class ChunkMeshBuilderTest {
+
+  private static final float EPSILON = 1e-6f;
+
+  private final AtlasLayout atlas = new AtlasLayout(6, 32, 0.002f);
+
+  private final ChunkMeshBuilder builder = new ChunkMeshBuilder(atlas);
+
+  private final ChunkMeshLayers layers = new ChunkMeshLayers();
+
+  private short[] blocks;
+
+  private int maxY;
+
+  @BeforeEach
+  public void setUp() {
+    blocks = new short[ChunkMeshBuilder.PADDED_SIZE];
+    maxY = -1;
+  }
+
+  private void set(BlockType type, int x, int y, int z) {
+    blocks[ChunkMeshBuilder.paddedIndex(x, y, z)] = type.getId();
+    if (x >= 0 && x < 16 && z >= 0 && z < 16) {
+      maxY = Math.max(maxY, y);
+    }
+  }
+
+  private void build() {
+    builder.build(blocks, maxY, layers);
+  }
+
+  @Test
+  public void testSingleBlockHasSixFaces() {
+    set(Blocks.STONE, 4, 20, 7);
+    build();
+
+    assertEquals(6, layers.getOpaque().getQuadCount());
+    assertTrue(layers.getWater().isEmpty());
+    assertTrue(layers.getDecor().isEmpty());
+  }
+
+  @Test
+  public void testSharedFaceIsCulled() {
+    set(Blocks.STONE, 4, 20, 7);
+    set(Blocks.STONE, 5, 20, 7);
+    build();
+
+    assertEquals(10, layers.getOpaque().getQuadCount());
+  }
+
+  @Test
+  public void testNeighborBorderCullsEdgeFace() {
+    set(Blocks.STONE, 0, 20, 15);
+    set(Blocks.STONE, -1, 20, 15);
+    set(Blocks.STONE, 0, 20, 16);
+    build();
+
+    assertEquals(4, layers.getOpaque().getQuadCount(), "Border blocks are never meshed.");
+  }
+
+  @Test
+  public void testBottomFaceAtWorldFloorIsSkipped() {
+    set(Blocks.STONE, 3, 0, 3);
+    build();
+
+    assertEquals(5, layers.getOpaque().getQuadCount());
+  }
+
+  @Test
+  public void testWaterGoesToWaterLayerAndOnlyFacesAir() {
+    set(Blocks.WATER, 2, 10, 2);
+    set(Blocks.STONE, 2, 9, 2);
+    build();
+
+    assertEquals(5, layers.getWater().getQuadCount());
+    assertEquals(6, layers.getOpaque().getQuadCount(), "Stone faces water, so all faces stay.");
+  }
+
+  @Test
+  public void testCrossBlocksBecomeBillboards() {
+    set(Blocks.GRASS, 8, 30, 8);
+    build();
+
+    assertTrue(layers.getOpaque().isEmpty());
+    assertEquals(2, layers.getDecor().getQuadCount());
+  }
+
+  @Test
+  public void testTopFaceUsesAtlasTile() {
+    set(Blocks.STONE, 0, 0, 0);
+    set(Blocks.STONE, 0, 0, 1);
+    set(Blocks.STONE, 1, 0, 0);
+    set(Blocks.STONE, 1, 0, 1);
+    builder.build(blocks, maxY, layers);
+
+    MeshBuffer opaque = layers.getOpaque();
+    float[] data = opaque.getData();
+    short stone = Blocks.STONE.getId();
+    for (int i = 0; i < opaque.size(); i += MeshBuffer.STRIDE) {
+      float u = data[i + 3];
+      float v = data[i + 4];
+      assertTrue(u >= atlas.getU0(0) - EPSILON && u <= atlas.getU1(5) + EPSILON);
+      assertTrue(v >= atlas.getV0(stone) - EPSILON && v <= atlas.getV1(stone) + EPSILON);
+    }
+  }
+
+  @Test
+  public void testRebuildReusesClearedBuffers() {
+    set(Blocks.STONE, 4, 20, 7);
+    build();
+    float[] backing = layers.getOpaque().getData();
+    build();
+
+    assertEquals(6, layers.getOpaque().getQuadCount());
+    assertEquals(backing, layers.getOpaque().getData());
+  }
+
+  /** Sums the area of all quads, each quad being a rectangle. */
+  private static float totalArea(MeshBuffer buffer) {
+    float[] d = buffer.getData();
+    float area = 0;
+    for (int q = 0; q < buffer.size(); q += 4 * MeshBuffer.STRIDE) {
+      int b = q + MeshBuffer.STRIDE;
+      int c = q + 3 * MeshBuffer.STRIDE;
+      float ux = d[b] - d[q], uy = d[b + 1] - d[q + 1], uz = d[b + 2] - d[q + 2];
+      float vx = d[c] - d[q], vy = d[c + 1] - d[q + 1], vz = d[c + 2] - d[q + 2];
+      float cx = uy * vz - uz * vy;
+      float cy = uz * vx - ux * vz;
+      float cz = ux * vy - uy * vx;
+      area += (float) Math.sqrt(cx * cx + cy * cy + cz * cz);
+    }
+    return area;
+  }
+
+  private void fillPlane(BlockType type, int y) {
+    for (int x = 0; x < 16; x++) {
+      for (int z = 0; z < 16; z++) {
+        set(type, x, y, z);
+      }
+    }
+  }
+
+  @Test
+  public void testGreedyMergesFlatPlane() {
+    fillPlane(Blocks.STONE, 10);
+    builder.setGreedy(true);
+    build();
+
+    assertEquals(6, layers.getOpaque().getQuadCount());
+    assertEquals(16 * 16 * 2 + 16 * 4, totalArea(layers.getOpaque()), EPSILON);
+  }
+
+  @Test
+  public void testGreedyCoversSameAreaAsPerFaceMesh() {
+    fillPlane(Blocks.STONE, 10);
+    set(Blocks.DIRT, 3, 11, 4);
+    set(Blocks.STONE, 9, 11, 12);
+    set(Blocks.WATER, 12, 11, 2);
+    build();
+    int faces = layers.getOpaque().getQuadCount();
+    int waterFaces = layers.getWater().getQuadCount();
+
+    builder.setGreedy(true);
+    build();
+
+    assertTrue(layers.getOpaque().getQuadCount() < faces);
+    assertEquals(faces, totalArea(layers.getOpaque()), EPSILON);
+    assertEquals(waterFaces, totalArea(layers.getWater()), EPSILON);
+  }
+
+  @Test
+  public void testGreedyKeepsDifferentBlocksApart() {
+    fillPlane(Blocks.STONE, 10);
+    for (int z = 0; z < 16; z++) {
+      set(Blocks.DIRT, 15, 10, z);
+    }
+    builder.setGreedy(true);
+    build();
+
+    short dirt = Blocks.DIRT.getId();
+    MeshBuffer opaque = layers.getOpaque();
+    float[] data = opaque.getData();
+    for (int i = 0; i < opaque.size(); i += 4 * MeshBuffer.STRIDE) {
+      boolean isDirt = tileOf(data[i + 4]) == dirt;
+      for (int k = 1; k < 4; k++) {
+        assertEquals(isDirt, tileOf(data[i + k * MeshBuffer.STRIDE + 4]) == dirt);
+      }
+    }
+  }
+
+  private static int tileOf(float coordinate) {
+    return (int) Math.floor(coordinate / AtlasLayout.TILE_STRIDE);
+  }
+
+  @Test
+  public void testGreedyQuadsRepeatTheTilePerBlock() {
+    fillPlane(Blocks.STONE, 10);
+    builder.setGreedy(true);
+    build();
+
+    short stone = Blocks.STONE.getId();
+    MeshBuffer opaque = layers.getOpaque();
+    float[] data = opaque.getData();
+    for (int i = 0; i < opaque.size(); i += 4 * MeshBuffer.STRIDE) {
+      float minU = Float.MAX_VALUE, maxU = -Float.MAX_VALUE;
+      float minV = Float.MAX_VALUE, maxV = -Float.MAX_VALUE;
+      for (int k = 0; k < 4; k++) {
+        int vertex = i + k * MeshBuffer.STRIDE;
+        minU = Math.min(minU, data[vertex + 3]);
+        maxU = Math.max(maxU, data[vertex + 3]);
+        minV = Math.min(minV, data[vertex + 4]);
+        maxV = Math.max(maxV, data[vertex + 4]);
+      }
+      // Eine Kachel pro Block: die UV-Fläche entspricht der Fläche der Face
+      assertEquals(totalAreaOfQuad(data, i), (maxU - minU) * (maxV - minV), EPSILON);
+      assertEquals(0, minU % AtlasLayout.TILE_STRIDE, EPSILON);
+      assertEquals(atlas.getV0(stone), minV, EPSILON);
+      assertTrue(maxV - minV <= AtlasLayout.MAX_REPEAT);
+    }
+  }
+
+  @Test
+  public void testGreedyQuadsAreCappedAtMaxRepeat() {
+    for (int y = 0; y < 40; y++) {
+      set(Blocks.STONE, 5, y, 5);
+    }
+    builder.setGreedy(true);
+    build();
+
+    // Vier Seiten zu je drei Quads (16 + 16 + 8), dazu die Deckfläche
+    assertEquals(4 * 3 + 1, layers.getOpaque().getQuadCount());
+    assertEquals(4 * 40 + 1, totalArea(layers.getOpaque()), EPSILON);
+  }
+
+  @Test
+  public void testGreedyDoesNotStretchOcclusionGradients() {
+    fillPlane(Blocks.STONE, 10);
+    set(Blocks.STONE, 8, 11, 8);
+    builder.setGreedy(true);
+    build();
+
+    MeshBuffer opaque = layers.getOpaque();
+    float[] data = opaque.getData();
+    for (int i = 0; i < opaque.size(); i += 4 * MeshBuffer.STRIDE) {
+      float shade = data[i + 5];
+      boolean uniform = true;
+      for (int k = 1; k < 4; k++) {
+        uniform &= data[i + k * MeshBuffer.STRIDE + 5] == shade;
+      }
+      if (!uniform) {
+        assertEquals(1, totalAreaOfQuad(data, i), EPSILON, "Shaded faces must stay single.");
+      }
+    }
+  }
+
+  private static float totalAreaOfQuad(float[] data, int offset) {
+    MeshBuffer quad = new MeshBuffer(4);
+    for (int k = 0; k < 4; k++) {
+      int v = offset + k * MeshBuffer.STRIDE;
+      quad.vertex(data[v], data[v + 1], data[v + 2], data[v + 3], data[v + 4], data[v + 5]);
+    }
+    return totalArea(quad);
+  }
+
+  @Test
+  public void testSkippedSectionsEmitNothing() {
+    set(Blocks.STONE, 4, 20, 7);
+    set(Blocks.GRASS, 5, 21, 7);
+    set(Blocks.STONE, 4, 40, 7);
+    builder.build(blocks, 0, maxY, 1 << 1, layers);
+
+    assertEquals(6, layers.getOpaque().getQuadCount(), "Only the block in section 2 remains.");
+    assertTrue(layers.getDecor().isEmpty());
+
+    builder.setGreedy(true);
+    builder.build(blocks, 0, maxY, 1 << 1, layers);
+    assertEquals(6, layers.getOpaque().getQuadCount());
+  }
+
+  private int countSectionQuads() {
+    int quads = 0;
+    for (int section = 0; section < 24; section++) {
+      builder.buildSection(blocks, section, maxY, layers);
+      quads += layers.getOpaque().getQuadCount() + layers.getWater().getQuadCount();
+      quads += layers.getDecor().getQuadCount();
+    }
+    return quads;
+  }
+
+  @Test
+  public void testSectionsTogetherMatchFullMesh() {
+    fillPlane(Blocks.STONE, 15);
+    fillPlane(Blocks.STONE, 16);
+    set(Blocks.DIRT, 3, 17, 4);
+    set(Blocks.GRASS, 9, 17, 12);
+    set(Blocks.WATER, 12, 14, 2);
+    set(Blocks.STONE, 0, 31, 0);
+    set(Blocks.STONE, 0, 32, 0);
+
+    for (boolean greedy : new boolean[] {false, true}) {
+      builder.setGreedy(greedy);
+      build();
+      int full = layers.getOpaque().getQuadCount() + layers.getWater().getQuadCount();
+      full += layers.getDecor().getQuadCount();
+
+      if (greedy) {
+        // Merged quads are split at section borders, so only the covered area has to match
+        float area = totalArea(layers.getOpaque());
+        float sectionArea = 0;
+        for (int section = 0; section < 24; section++) {
+          builder.buildSection(blocks, section, maxY, layers);
+          sectionArea += totalArea(layers.getOpaque());
+        }
+        assertEquals(area, sectionArea, EPSILON);
+      } else {
+        assertEquals(full, countSectionQuads());
+      }
+    }
+  }
+
+  @Test
+  public void testSectionOnlyContainsItsOwnBlocks() {
+    set(Blocks.STONE, 4, 15, 7);
+    set(Blocks.STONE, 4, 16, 7);
+    builder.buildSection(blocks, 1, maxY, layers);
+
+    assertEquals(5, layers.getOpaque().getQuadCount(), "The face towards section 0 is culled.");
+    float[] data = layers.getOpaque().getData();
+    for (int i = 0; i < layers.getOpaque().size(); i += MeshBuffer.STRIDE) {
+      assertTrue(-data[i + 1] >= 15.5f - EPSILON, "Vertices must lie within section 1.");
+    }
+  }
+
+  @Test
+  public void testSectionAboveMaxYIsEmpty() {
+    set(Blocks.STONE, 4, 20, 7);
+    builder.buildSection(blocks, 3, maxY, layers);
+
+    assertTrue(layers.getOpaque().isEmpty());
+  }
+
+  /** Returns the shade of the first vertex of the only top face of the opaque layer. */
+  private float topShade() {
+    MeshBuffer opaque = layers.getOpaque();
+    float[] data = opaque.getData();
+    for (int i = 0; i < opaque.size(); i += 4 * MeshBuffer.STRIDE) {
+      // Deckflächen liegen flach, alle vier Ecken haben dasselbe y
+      if (data[i + 1] == data[i + MeshBuffer.STRIDE + 1]
+          && data[i + 1] == data[i + 2 * MeshBuffer.STRIDE + 1]
+          && data[i + 1] < -20) {
+        return data[i + 5];
+      }
+    }
+    throw new AssertionError("No top face found.");
+  }
+
+  @Test
+  public void testFacesAreShadedByTheLightInFrontOfThem() {
+    set(Blocks.STONE, 4, 20, 7);
+    build();
+    float lit = topShade();
+
+    byte[] light = new byte[ChunkMeshBuilder.PADDED_SIZE];
+    light[ChunkMeshBuilder.paddedIndex(4, 21, 7)] = 0x03;
+    builder.setLight(light);
+    build();
+    float dark = topShade();
+
+    light[ChunkMeshBuilder.paddedIndex(4, 21, 7)] = (byte) 0xF3;
+    build();
+    builder.setLight(null);
+
+    assertTrue(dark < lit * 0.2f, "Light level 3 must be much darker than full light.");
+    assertEquals(lit, topShade(), EPSILON, "The brighter of sky and block light counts.");
+  }
+
+  @Test
+  public void testGreedyKeepsDifferentLightApart() {
+    fillPlane(Blocks.STONE, 10);
+    byte[] light = new byte[ChunkMeshBuilder.PADDED_SIZE];
+    Arrays.fill(light, (byte) 0xF0);
+    for (int x = 0; x < 16; x++) {
+      for (int z = 0; z < 8; z++) {
+        light[ChunkMeshBuilder.paddedIndex(x, 11, z)] = 0x05;
+      }
+    }
+    builder.setGreedy(true);
+    builder.setLight(light);
+    build();
+    builder.setLight(null);
+
+    assertEquals(7, layers.getOpaque().getQuadCount(), "The top plane splits into two quads.");
+    assertEquals(16 * 16 * 2 + 16 * 4, totalArea(layers.getOpaque()), EPSILON);
+  }
+
+  @Test
+  public void testRejectsTooSmallLightVolume() {
+    assertThrows(IllegalArgumentException.class, () -> builder.setLight(new byte[16]));
+  }
+
+  @Test
+  public void testRejectsTooSmallVolume() {
+    assertThrows(IllegalArgumentException.class, () -> builder.build(new short[16], 0, layers));
+  }
+}
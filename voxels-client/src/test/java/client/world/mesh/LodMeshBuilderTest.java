@@ -0,0 +1,127 @@
+package client.world.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+import common.world.ChunkSummary;
+import common.world.World;
+
+public class LodMeshBuilderTest {
+
+  private static final float EPSILON = 1e-6f;
+
+  private final LodMeshBuilder builder = new LodMeshBuilder(new AtlasLayout(6, 32, 0.002f));
+
+  private final MeshBuffer buffer = new MeshBuffer();
+
+  private final Map<Long, ChunkSummary> summaries = new HashMap<>();
+
+  private void flat(int chunkX, int chunkZ, int height, BlockType top) {
+    short[] heights = new short[ChunkSummary.COLUMNS];
+    short[] topBlocks = new short[ChunkSummary.COLUMNS];
+    Arrays.fill(heights, (short) height);
+    Arrays.fill(topBlocks, top.getId());
+    summaries.put(
+        World.getChunkKey(chunkX, chunkZ),
+        new ChunkSummary(chunkX, chunkZ, heights, topBlocks));
+  }
+
+  private void build(int chunkMask, int cellSize) {
+    builder.build(
+        0, 0, chunkMask, cellSize, (x, z) -> summaries.get(World.getChunkKey(x, z)), buffer);
+  }
+
+  @Test
+  public void testFlatChunkSurroundedByEqualChunksHasOnlyTopQuads() {
+    for (int x = -1; x <= 1; x++) {
+      for (int z = -1; z <= 1; z++) {
+        flat(x, z, 20, Blocks.GRASS_BLOCK);
+      }
+    }
+    build(1, 4);
+
+    assertEquals(16, buffer.getQuadCount());
+    float[] data = buffer.getData();
+    for (int i = 0; i < buffer.size(); i += MeshBuffer.STRIDE) {
+      // Oberkante des Blocks 20, die y-Achse zeigt nach unten
+      assertEquals(-20.5f, data[i + 1], EPSILON);
+    }
+  }
+
+  @Test
+  public void testCellSizeControlsResolution() {
+    for (int x = -1; x <= 1; x++) {
+      for (int z = -1; z <= 1; z++) {
+        flat(x, z, 20, Blocks.GRASS_BLOCK);
+      }
+    }
+    build(1, 2);
+    assertEquals(64, buffer.getQuadCount());
+
+    build(1, 16);
+    assertEquals(1, buffer.getQuadCount());
+  }
+
+  @Test
+  public void testStepGetsAWallDownToTheLowerNeighbour() {
+    flat(0, 0, 30, Blocks.STONE);
+    flat(1, 0, 20, Blocks.STONE);
+    flat(-1, 0, 30, Blocks.STONE);
+    flat(0, 1, 30, Blocks.STONE);
+    flat(0, -1, 30, Blocks.STONE);
+    build(1, 16);
+
+    // Deckel plus eine Wand nach +x
+    assertEquals(2, buffer.getQuadCount());
+    float minY = Float.MAX_VALUE;
+    float maxY = -Float.MAX_VALUE;
+    float[] data = buffer.getData();
+    for (int i = 4 * MeshBuffer.STRIDE; i < buffer.size(); i += MeshBuffer.STRIDE) {
+      assertEquals(15.5f, data[i], EPSILON);
+      minY = Math.min(minY, data[i + 1]);
+      maxY = Math.max(maxY, data[i + 1]);
+    }
+    assertEquals(-30.5f, minY, EPSILON);
+    assertEquals(-20.5f, maxY, EPSILON);
+  }
+
+  @Test
+  public void testUnknownNeighboursGetSkirts() {
+    flat(0, 0, 30, Blocks.STONE);
+    build(1, 16);
+
+    assertEquals(5, buffer.getQuadCount());
+  }
+
+  @Test
+  public void testChunkMaskSelectsChunks() {
+    flat(0, 0, 10, Blocks.SAND);
+    flat(1, 0, 10, Blocks.SAND);
+    build(1 << 1, 16);
+
+    assertEquals(4, buffer.getQuadCount());
+    assertTrue(buffer.getData()[0] >= 15.5f);
+  }
+
+  @Test
+  public void testEmptyColumnsProduceNothing() {
+    flat(0, 0, 0, Blocks.AIR);
+    build(1, 4);
+
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  public void testRejectsCellSizesNotDividingTheChunk() {
+    assertThrows(IllegalArgumentException.class, () -> build(1, 3));
+  }
+}
@@ -0,0 +1,110 @@
+package client.world.mesh;
+
+import static client.world.mesh.SectionVisibility.DOWN;
+import static client.world.mesh.SectionVisibility.EAST;
+import static client.world.mesh.SectionVisibility.NORTH;
+import static client.world.mesh.SectionVisibility.SOUTH;
+import static client.world.mesh.SectionVisibility.UP;
+import static client.world.mesh.SectionVisibility.WEST;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+
+public class SectionVisibilityTest {
+
+  private static final int SECTION = 2;
+
+  private static final int BASE_Y = SECTION * 16;
+
+  private final SectionVisibility visibility = new SectionVisibility();
+
+  private short[] blocks;
+
+  @BeforeEach
+  public void setUp() {
+    blocks = new short[ChunkMeshBuilder.PADDED_SIZE];
+  }
+
+  private void fill(BlockType type, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+    for (int x = minX; x <= maxX; x++) {
+      for (int y = minY; y <= maxY; y++) {
+        for (int z = minZ; z <= maxZ; z++) {
+          blocks[ChunkMeshBuilder.paddedIndex(x, BASE_Y + y, z)] = type.getId();
+        }
+      }
+    }
+  }
+
+  private long compute() {
+    return visibility.compute(blocks, SECTION);
+  }
+
+  @Test
+  public void testEmptySectionConnectsEverything() {
+    assertEquals(SectionVisibility.ALL, compute());
+  }
+
+  @Test
+  public void testFullSectionConnectsNothing() {
+    fill(Blocks.STONE, 0, 0, 0, 15, 15, 15);
+    assertEquals(SectionVisibility.NONE, compute());
+  }
+
+  @Test
+  public void testFloorSeparatesTopFromBottom() {
+    fill(Blocks.STONE, 0, 7, 0, 15, 7, 15);
+    long result = compute();
+
+    assertFalse(SectionVisibility.connects(result, DOWN, UP));
+    assertTrue(SectionVisibility.connects(result, UP, NORTH));
+    assertTrue(SectionVisibility.connects(result, DOWN, EAST));
+    assertTrue(SectionVisibility.connects(result, WEST, EAST));
+  }
+
+  @Test
+  public void testHoleInFloorConnectsTopAndBottom() {
+    fill(Blocks.STONE, 0, 7, 0, 15, 7, 15);
+    fill(Blocks.AIR, 5, 7, 5, 5, 7, 5);
+
+    assertTrue(SectionVisibility.connects(compute(), DOWN, UP));
+    assertTrue(SectionVisibility.connects(compute(), UP, DOWN));
+  }
+
+  @Test
+  public void testGlassDoesNotBlockSight() {
+    fill(Blocks.GLASS, 0, 7, 0, 15, 7, 15);
+    assertEquals(SectionVisibility.ALL, compute());
+  }
+
+  @Test
+  public void testEnclosedCaveConnectsNothing() {
+    fill(Blocks.STONE, 0, 0, 0, 15, 15, 15);
+    fill(Blocks.AIR, 4, 4, 4, 10, 10, 10);
+    assertEquals(SectionVisibility.NONE, compute());
+  }
+
+  @Test
+  public void testTunnelConnectsOnlyItsEnds() {
+    fill(Blocks.STONE, 0, 0, 0, 15, 15, 15);
+    fill(Blocks.AIR, 7, 7, 0, 8, 8, 15);
+    long result = compute();
+
+    assertTrue(SectionVisibility.connects(result, NORTH, SOUTH));
+    assertFalse(SectionVisibility.connects(result, NORTH, UP));
+    assertFalse(SectionVisibility.connects(result, WEST, EAST));
+  }
+
+  @Test
+  public void testNeighbourBlocksAreIgnored() {
+    fill(Blocks.STONE, 0, 0, 0, 15, 15, 15);
+    fill(Blocks.AIR, -1, 0, 0, -1, 15, 15);
+    fill(Blocks.AIR, 0, -1, 0, 15, -1, 15);
+    assertEquals(SectionVisibility.NONE, compute());
+  }
+}
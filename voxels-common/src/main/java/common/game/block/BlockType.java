@@ -18,6 +18,8 @@ public final class BlockType {
 
   private int lightEmission = 0;
 
+  private boolean randomTicking = false;
+
   private int r = 255;
 
   private int g = 0;
@@ -36,6 +38,10 @@ public final class BlockType {
 
   public <T> BlockType withBehavior(Class<T> type, T behavior) {
     behaviors.put(type, behavior);
+    // Als Flag gespiegelt, Chunks zählen zufällig tickende Blöcke pro Section
+    if (behavior instanceof RandomTickBehavior) {
+      randomTicking = true;
+    }
     return this;
   }
 
@@ -110,6 +116,11 @@ public final class BlockType {
     return lightEmission;
   }
 
+  /** Returns whether the block has a {@link RandomTickBehavior}. */
+  public boolean isRandomTicking() {
+    return randomTicking;
+  }
+
   public BlockType setShape(BlockShape shape) {
     this.shape = shape;
     return this;
@@ -0,0 +1,25 @@
+package common.game.block;
+
+import java.util.random.RandomGenerator;
+
+import common.world.BlockAccessor;
+
+/**
+ * Behavior of blocks that change over time, such as grass spreading or leaves decaying. Attached
+ * with {@link BlockType#withBehavior(Class, Object)}, the server then picks random blocks of every
+ * section that contains such blocks and asks their behavior what they turn into.
+ *
+ * <p>Called on worker threads, for several regions of the world at once. Implementations must only
+ * read through the given accessor and never change the world themselves.
+ */
+@FunctionalInterface
+public interface RandomTickBehavior {
+
+  /**
+   * Returns the id of the block the ticked block turns into, or its own id to keep it.
+   *
+   * @param blocks read access to the world around the block
+   * @param random the random source of the calling worker
+   */
+  short onRandomTick(BlockAccessor blocks, int x, int y, int z, RandomGenerator random);
+}
@@ -4,9 +4,13 @@ import common.network.packets.ActionBarPacket;
 import common.network.packets.BlockBreakPacket;
 import common.network.packets.BlockPickPacket;
 import common.network.packets.BlockPlacePacket;
+import common.network.packets.BlockUpdateBatchPacket;
 import common.network.packets.BlockUpdatePacket;
 import common.network.packets.ChatMessagePacket;
+import common.network.packets.ChunkCacheStatePacket;
+import common.network.packets.ChunkCachedPacket;
 import common.network.packets.ChunkDataPacket;
+import common.network.packets.ChunkSummaryPacket;
 import common.network.packets.DisconnectPacket;
 import common.network.packets.EntityDestroyPacket;
 import common.network.packets.GameModeUpdatePacket;
@@ -62,7 +66,11 @@ public class NetworkPackets {
 
     // World & Blocks
     PacketRegistry.register(BlockUpdatePacket::new);
+    PacketRegistry.register(BlockUpdateBatchPacket::new);
     PacketRegistry.register(ChunkDataPacket::new);
+    PacketRegistry.register(ChunkCachedPacket::new);
+    PacketRegistry.register(ChunkCacheStatePacket::new);
+    PacketRegistry.register(ChunkSummaryPacket::new);
     PacketRegistry.register(BlockPlacePacket::new);
     PacketRegistry.register(BlockBreakPacket::new);
     PacketRegistry.register(BlockPickPacket::new);
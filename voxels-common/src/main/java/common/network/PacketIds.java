@@ -71,4 +71,12 @@ public class PacketIds {
   public static final int PONG = 34;
 
   public static final int DISCONNECT = 35;
+
+  public static final int CHUNK_CACHE_STATE = 36;
+
+  public static final int CHUNK_CACHED = 37;
+
+  public static final int CHUNK_SUMMARY = 38;
+
+  public static final int BLOCK_UPDATE_BATCH = 39;
 }
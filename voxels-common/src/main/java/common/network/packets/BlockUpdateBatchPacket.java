@@ -0,0 +1,89 @@
+package common.network.packets;
+
+import java.io.IOException;
+
+import common.network.Packet;
+import common.network.PacketBuffer;
+import common.network.PacketIds;
+
+/**
+ * Several block updates in one packet, for changes the server makes on its own, such as flowing
+ * water. Entry {@code i} sets the block at {@code positions[3i]}, {@code positions[3i + 1]}, {@code
+ * positions[3i + 2]} to {@code blockIds[i]}; the client applies them like single {@link
+ * BlockUpdatePacket}s, in order.
+ */
+public class BlockUpdateBatchPacket implements Packet {
+
+  /** Upper bound of entries per packet, larger batches are sent in several packets. */
+  public static final int MAX_ENTRIES = 4096;
+
+  private int[] positions;
+
+  private short[] blockIds;
+
+  /** Required empty constructor for reflection-based packet instantiation. */
+  public BlockUpdateBatchPacket() {}
+
+  public BlockUpdateBatchPacket(int[] positions, short[] blockIds) {
+    if (positions.length != blockIds.length * 3) {
+      throw new IllegalArgumentException("Every block id needs an x, y and z coordinate.");
+    }
+    if (blockIds.length > MAX_ENTRIES) {
+      throw new IllegalArgumentException("At most " + MAX_ENTRIES + " entries per packet.");
+    }
+    this.positions = positions;
+    this.blockIds = blockIds;
+  }
+
+  @Override
+  public void write(PacketBuffer out) throws IOException {
+    out.writeInt(blockIds.length);
+    for (int i = 0; i < blockIds.length; i++) {
+      out.writeInt(positions[i * 3]);
+      out.writeInt(positions[i * 3 + 1]);
+      out.writeInt(positions[i * 3 + 2]);
+      out.writeShort(blockIds[i]);
+    }
+  }
+
+  @Override
+  public void read(PacketBuffer in) throws IOException {
+    int count = in.readInt();
+    if (count < 0 || count > MAX_ENTRIES) {
+      throw new IOException("Invalid block update count: " + count);
+    }
+    this.positions = new int[count * 3];
+    this.blockIds = new short[count];
+    for (int i = 0; i < count; i++) {
+      positions[i * 3] = in.readInt();
+      positions[i * 3 + 1] = in.readInt();
+      positions[i * 3 + 2] = in.readInt();
+      blockIds[i] = in.readShort();
+    }
+  }
+
+  @Override
+  public int getId() {
+    return PacketIds.BLOCK_UPDATE_BATCH;
+  }
+
+  public int getEntryCount() {
+    return blockIds.length;
+  }
+
+  public int getX(int index) {
+    return positions[index * 3];
+  }
+
+  public int getY(int index) {
+    return positions[index * 3 + 1];
+  }
+
+  public int getZ(int index) {
+    return positions[index * 3 + 2];
+  }
+
+  public short getBlockId(int index) {
+    return blockIds[index];
+  }
+}
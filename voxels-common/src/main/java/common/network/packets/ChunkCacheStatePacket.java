@@ -0,0 +1,79 @@
+package common.network.packets;
+
+import java.io.IOException;
+
+import common.network.Packet;
+import common.network.PacketBuffer;
+import common.network.PacketIds;
+
+/**
+ * Sent by the client to report the chunks it has cached for this server, as chunk keys with their
+ * content hashes. A hash of 0 withdraws a chunk, for example because the cached copy could not be
+ * read; the server then sends the full chunk again.
+ *
+ * <p>Sending this packet at all tells the server that the client caches chunks, so the server
+ * remembers the hash of every chunk it sends from then on.
+ */
+public class ChunkCacheStatePacket implements Packet {
+
+  /** Upper bound of entries per packet, larger caches are reported in several packets. */
+  public static final int MAX_ENTRIES = 16384;
+
+  private long[] chunkKeys;
+
+  private long[] contentHashes;
+
+  /** Required empty constructor for reflection-based packet instantiation. */
+  public ChunkCacheStatePacket() {}
+
+  public ChunkCacheStatePacket(long[] chunkKeys, long[] contentHashes) {
+    if (chunkKeys.length != contentHashes.length) {
+      throw new IllegalArgumentException("Every chunk key needs a content hash.");
+    }
+    if (chunkKeys.length > MAX_ENTRIES) {
+      throw new IllegalArgumentException("At most " + MAX_ENTRIES + " entries per packet.");
+    }
+    this.chunkKeys = chunkKeys;
+    this.contentHashes = contentHashes;
+  }
+
+  @Override
+  public void write(PacketBuffer out) throws IOException {
+    out.writeInt(chunkKeys.length);
+    for (int i = 0; i < chunkKeys.length; i++) {
+      out.writeLong(chunkKeys[i]);
+      out.writeLong(contentHashes[i]);
+    }
+  }
+
+  @Override
+  public void read(PacketBuffer in) throws IOException {
+    int count = in.readInt();
+    if (count < 0 || count > MAX_ENTRIES) {
+      throw new IOException("Invalid chunk cache entry count: " + count);
+    }
+    this.chunkKeys = new long[count];
+    this.contentHashes = new long[count];
+    for (int i = 0; i < count; i++) {
+      chunkKeys[i] = in.readLong();
+      contentHashes[i] = in.readLong();
+    }
+  }
+
+  @Override
+  public int getId() {
+    return PacketIds.CHUNK_CACHE_STATE;
+  }
+
+  public int getEntryCount() {
+    return chunkKeys.length;
+  }
+
+  public long getChunkKey(int index) {
+    return chunkKeys[index];
+  }
+
+  public long getContentHash(int index) {
+    return contentHashes[index];
+  }
+}
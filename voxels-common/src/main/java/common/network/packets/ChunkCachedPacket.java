@@ -0,0 +1,60 @@
+package common.network.packets;
+
+import java.io.IOException;
+
+import common.network.Packet;
+import common.network.PacketBuffer;
+import common.network.PacketIds;
+
+/**
+ * Sent by the server instead of a {@link ChunkDataPacket} when the client reported a cached copy of
+ * the chunk with the same content hash. The client loads the chunk from its cache.
+ */
+public class ChunkCachedPacket implements Packet {
+
+  private int chunkX;
+
+  private int chunkZ;
+
+  private long contentHash;
+
+  /** Required empty constructor for reflection-based packet instantiation. */
+  public ChunkCachedPacket() {}
+
+  public ChunkCachedPacket(int chunkX, int chunkZ, long contentHash) {
+    this.chunkX = chunkX;
+    this.chunkZ = chunkZ;
+    this.contentHash = contentHash;
+  }
+
+  @Override
+  public void write(PacketBuffer out) throws IOException {
+    out.writeInt(chunkX);
+    out.writeInt(chunkZ);
+    out.writeLong(contentHash);
+  }
+
+  @Override
+  public void read(PacketBuffer in) throws IOException {
+    this.chunkX = in.readInt();
+    this.chunkZ = in.readInt();
+    this.contentHash = in.readLong();
+  }
+
+  @Override
+  public int getId() {
+    return PacketIds.CHUNK_CACHED;
+  }
+
+  public int getChunkX() {
+    return chunkX;
+  }
+
+  public int getChunkZ() {
+    return chunkZ;
+  }
+
+  public long getContentHash() {
+    return contentHash;
+  }
+}
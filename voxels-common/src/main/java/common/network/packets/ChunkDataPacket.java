@@ -2,6 +2,7 @@ package common.network.packets;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
@@ -15,11 +16,23 @@ import common.world.ChunkData;
  *
  * <p>The chunk block array is compressed before sending to reduce bandwidth usage. On the client
  * side the data can be decompressed back into a short[] block array.
+ *
+ * <p>If the chunk's light was computed, its sky and block light travel along, compressed
+ * separately, so the client does not have to light the chunk again. Packets rebuilt from stored
+ * block data carry no light.
  */
 public class ChunkDataPacket implements Packet {
 
   private static final int COMPRESSION_BUFFER_SIZE = 1024;
 
+  private static final int DECOMPRESSION_BUFFER_SIZE = 8192;
+
+  private static final int BLOCK_COUNT = ChunkData.WIDTH * ChunkData.DEPTH * ChunkData.HEIGHT;
+
+  // Kleiner Zwischenpuffer pro Thread statt eines 196 KB Arrays pro Chunk
+  private static final ThreadLocal<byte[]> INFLATE_BUFFER =
+      ThreadLocal.withInitial(() -> new byte[DECOMPRESSION_BUFFER_SIZE]);
+
   private int x;
 
   private int z;
@@ -27,6 +40,12 @@ public class ChunkDataPacket implements Packet {
   /** Compressed block data */
   private byte[] data;
 
+  /** Hash of the uncompressed blocks, see {@link ChunkData#computeContentHash()}, 0 if unknown. */
+  private long contentHash;
+
+  /** Compressed sky light followed by block light, empty if the packet carries no light. */
+  private byte[] lightData = new byte[0];
+
   public ChunkDataPacket() {}
 
   /**
@@ -35,9 +54,23 @@ public class ChunkDataPacket implements Packet {
    * @param chunk source chunk
    */
   public ChunkDataPacket(ChunkData chunk) {
+    this(chunk, chunk.computeContentHash());
+  }
+
+  /**
+   * Creates a packet from chunk data whose content hash is already known.
+   *
+   * @param chunk source chunk
+   * @param contentHash the result of {@link ChunkData#computeContentHash()} for the chunk
+   */
+  public ChunkDataPacket(ChunkData chunk, long contentHash) {
     this.x = chunk.getChunkX();
     this.z = chunk.getChunkZ();
     this.data = compress(chunk.getRawBlockData());
+    this.contentHash = contentHash;
+    if (chunk.hasLight()) {
+      this.lightData = compressLight(chunk);
+    }
   }
 
   /**
@@ -45,9 +78,15 @@ public class ChunkDataPacket implements Packet {
    * a network stream.
    */
   public ChunkDataPacket(int x, int z, byte[] compressedData) {
+    this(x, z, compressedData, 0);
+  }
+
+  /** Reconstructs a packet, for example from a client-side cache, including its content hash. */
+  public ChunkDataPacket(int x, int z, byte[] compressedData, long contentHash) {
     this.x = x;
     this.z = z;
     this.data = compressedData;
+    this.contentHash = contentHash;
   }
 
   @Override
@@ -57,6 +96,10 @@ public class ChunkDataPacket implements Packet {
 
     out.writeInt(data.length);
     out.writeBytes(data);
+    out.writeLong(contentHash);
+
+    out.writeInt(lightData.length);
+    out.writeBytes(lightData);
   }
 
   @Override
@@ -68,6 +111,10 @@ public class ChunkDataPacket implements Packet {
     this.data = new byte[len];
 
     in.readBytes(this.data);
+    this.contentHash = in.readLong();
+
+    this.lightData = new byte[in.readInt()];
+    in.readBytes(this.lightData);
   }
 
   @Override
@@ -85,7 +132,20 @@ public class ChunkDataPacket implements Packet {
       rawBytes[i * 2] = (byte) (rawShorts[i] >> 8);
       rawBytes[i * 2 + 1] = (byte) rawShorts[i];
     }
+    return deflate(rawBytes);
+  }
 
+  /** Compresses the sky light nibbles followed by the block light nibbles. */
+  private byte[] compressLight(ChunkData chunk) {
+    byte[] sky = chunk.getSkyLightArray().getRawData();
+    byte[] block = chunk.getBlockLightArray().getRawData();
+    byte[] rawBytes = new byte[sky.length + block.length];
+    System.arraycopy(sky, 0, rawBytes, 0, sky.length);
+    System.arraycopy(block, 0, rawBytes, sky.length, block.length);
+    return deflate(rawBytes);
+  }
+
+  private byte[] deflate(byte[] rawBytes) {
     Deflater deflater = new Deflater();
     deflater.setInput(rawBytes);
     deflater.finish();
@@ -108,33 +168,99 @@ public class ChunkDataPacket implements Packet {
    * @return decompressed block array
    */
   public short[] decompress() {
-
+    Inflater inflater = new Inflater();
     try {
-
-      Inflater inflater = new Inflater();
-      inflater.setInput(this.data);
-
-      int expectedSize = ChunkData.WIDTH * ChunkData.DEPTH * ChunkData.HEIGHT * 2;
-
-      byte[] raw = new byte[expectedSize];
-
-      int resultLength = inflater.inflate(raw);
+      short[] result = new short[BLOCK_COUNT];
+      decompress(result, inflater);
+      return result;
+    } catch (Exception e) {
+      e.printStackTrace();
+      return new short[0];
+    } finally {
       inflater.end();
+    }
+  }
 
-      short[] result = new short[resultLength / 2];
-
-      for (int i = 0; i < result.length; i++) {
-        result[i] = (short) (((raw[i * 2] & 0xFF) << 8) | (raw[i * 2 + 1] & 0xFF));
+  /**
+   * Decompresses the chunk block data into an existing block array, without allocating. The
+   * inflater is reset first, so pooled inflaters can be passed in; it is not ended.
+   *
+   * @param target receives the blocks, must hold a full chunk
+   * @param inflater inflater to use
+   * @throws DataFormatException if the data is corrupt or does not contain a full chunk
+   */
+  public void decompress(short[] target, Inflater inflater) throws DataFormatException {
+    if (target.length != BLOCK_COUNT) {
+      throw new IllegalArgumentException("Block array length must be " + BLOCK_COUNT + ".");
+    }
+    byte[] buffer = INFLATE_BUFFER.get();
+    inflater.reset();
+    inflater.setInput(data);
+
+    int written = 0;
+    int high = -1; // Erstes Byte eines Shorts, das am Pufferende abgeschnitten wurde
+    while (!inflater.finished()) {
+      int count = inflater.inflate(buffer);
+      if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+      int i = 0;
+      if (high >= 0 && count > 0) {
+        if (written == BLOCK_COUNT) break;
+        target[written++] = (short) ((high << 8) | (buffer[0] & 0xFF));
+        high = -1;
+        i = 1;
+      }
+      for (; i + 1 < count && written < BLOCK_COUNT; i += 2) {
+        target[written++] = (short) (((buffer[i] & 0xFF) << 8) | (buffer[i + 1] & 0xFF));
       }
+      if (i < count) {
+        if (written == BLOCK_COUNT) break;
+        high = buffer[i] & 0xFF;
+      }
+    }
+    if (written != BLOCK_COUNT || high >= 0 || !inflater.finished()) {
+      throw new DataFormatException("Chunk data does not contain exactly one chunk.");
+    }
+  }
 
-      return result;
+  /**
+   * Decompresses the light into the light arrays of {@code target} and marks its light as ready.
+   * Like {@link #decompress(short[], Inflater)} the inflater is reset first and not ended.
+   *
+   * @param target receives the light
+   * @param inflater inflater to use
+   * @return false, leaving {@code target} untouched, if the packet carries no light
+   * @throws DataFormatException if the data is corrupt or does not contain the light of one chunk
+   */
+  public boolean decompressLight(ChunkData target, Inflater inflater) throws DataFormatException {
+    if (lightData.length == 0) return false;
+    inflater.reset();
+    inflater.setInput(lightData);
+    inflateFully(inflater, target.getSkyLightArray().getRawData());
+    inflateFully(inflater, target.getBlockLightArray().getRawData());
+    if (!inflater.finished() && inflater.inflate(INFLATE_BUFFER.get()) > 0) {
+      throw new DataFormatException("Light data does not contain exactly one chunk.");
+    }
+    target.setLightReady(true);
+    return true;
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
-      return new short[0];
+  private static void inflateFully(Inflater inflater, byte[] target) throws DataFormatException {
+    int written = 0;
+    while (written < target.length) {
+      int count = inflater.inflate(target, written, target.length - written);
+      boolean stuck = inflater.finished() || inflater.needsInput() || inflater.needsDictionary();
+      if (count == 0 && stuck) {
+        throw new DataFormatException("Light data does not contain exactly one chunk.");
+      }
+      written += count;
     }
   }
 
+  /** Returns whether the packet carries the chunk's light. */
+  public boolean hasLight() {
+    return lightData.length > 0;
+  }
+
   /**
    * Gets the raw compressed block data. Useful for direct file persistence without re-compression.
    * * @return The compressed byte array.
@@ -143,6 +269,11 @@ public class ChunkDataPacket implements Packet {
     return data;
   }
 
+  /** Returns the hash of the uncompressed blocks, or 0 if it is unknown. */
+  public long getContentHash() {
+    return contentHash;
+  }
+
   public int getChunkX() {
     return x;
   }
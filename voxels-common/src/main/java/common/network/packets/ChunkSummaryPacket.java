@@ -0,0 +1,60 @@
+package common.network.packets;
+
+import java.io.IOException;
+
+import common.network.Packet;
+import common.network.PacketBuffer;
+import common.network.PacketIds;
+import common.world.ChunkSummary;
+
+/**
+ * Sends the {@link ChunkSummary} of a chunk beyond the view distance, which the client draws as
+ * distant terrain.
+ */
+public class ChunkSummaryPacket implements Packet {
+
+  private ChunkSummary summary;
+
+  /** Required empty constructor for reflection-based packet instantiation. */
+  public ChunkSummaryPacket() {}
+
+  public ChunkSummaryPacket(ChunkSummary summary) {
+    this.summary = summary;
+  }
+
+  @Override
+  public void write(PacketBuffer out) throws IOException {
+    out.writeInt(summary.getChunkX());
+    out.writeInt(summary.getChunkZ());
+    for (short height : summary.getHeights()) {
+      out.writeShort(height);
+    }
+    for (short id : summary.getTopBlocks()) {
+      out.writeShort(id);
+    }
+  }
+
+  @Override
+  public void read(PacketBuffer in) throws IOException {
+    int chunkX = in.readInt();
+    int chunkZ = in.readInt();
+    short[] heights = new short[ChunkSummary.COLUMNS];
+    short[] topBlocks = new short[ChunkSummary.COLUMNS];
+    for (int i = 0; i < heights.length; i++) {
+      heights[i] = in.readShort();
+    }
+    for (int i = 0; i < topBlocks.length; i++) {
+      topBlocks[i] = in.readShort();
+    }
+    this.summary = new ChunkSummary(chunkX, chunkZ, heights, topBlocks);
+  }
+
+  @Override
+  public int getId() {
+    return PacketIds.CHUNK_SUMMARY;
+  }
+
+  public ChunkSummary getSummary() {
+    return summary;
+  }
+}
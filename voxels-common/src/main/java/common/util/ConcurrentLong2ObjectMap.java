@@ -0,0 +1,311 @@
+package common.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Thread-safe map from primitive {@code long} keys to objects, for registries that are read far
+ * more often than changed, like the loaded chunks of a world.
+ *
+ * <p>Reads never lock. Writes are serialized on the map. A slot of the table is bound to its key
+ * for the lifetime of the table: the value is published before the key, and removing an entry
+ * only clears its value. A reader that finds a key therefore always reads that key's value, or
+ * null if it was removed. Removed slots are reclaimed when the table is rebuilt, which also
+ * happens when too many of them pile up. Iteration is weakly consistent, like the iterators of
+ * {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * <p>Null values are not allowed, {@link #get} returns null for missing keys.
+ *
+ * @param <V> the value type
+ */
+public class ConcurrentLong2ObjectMap<V> {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private static final class Table<V> {
+
+    private final AtomicLongArray keys;
+
+    private final AtomicReferenceArray<V> values;
+
+    private final int mask;
+
+    private Table(int capacity) {
+      keys = new AtomicLongArray(capacity);
+      values = new AtomicReferenceArray<>(capacity);
+      mask = capacity - 1;
+    }
+
+    private int capacity() {
+      return mask + 1;
+    }
+  }
+
+  private volatile Table<V> table;
+
+  // Schlüssel 0 markiert freie Plätze und wird getrennt gehalten
+  private volatile V zeroValue;
+
+  private volatile int size;
+
+  /** Slots with a key, including those whose value was removed. Guarded by {@code this}. */
+  private int usedSlots;
+
+  private final Collection<V> valuesView = new ValuesView();
+
+  public ConcurrentLong2ObjectMap() {
+    this(16);
+  }
+
+  public ConcurrentLong2ObjectMap(int expectedSize) {
+    table = new Table<>(LongSet.tableSizeFor(expectedSize));
+  }
+
+  public V get(long key) {
+    if (key == 0) return zeroValue;
+    Table<V> t = table;
+    int slot = LongSet.mix(key) & t.mask;
+    while (true) {
+      long current = t.keys.get(slot);
+      if (current == key) return t.values.get(slot);
+      if (current == 0) return null;
+      slot = (slot + 1) & t.mask;
+    }
+  }
+
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  /** Associates {@code value} with {@code key} and returns the previous value or null. */
+  public synchronized V put(long key, V value) {
+    return put(key, value, false);
+  }
+
+  /** Adds the entry only if {@code key} has no value yet, returns the existing value or null. */
+  public synchronized V putIfAbsent(long key, V value) {
+    return put(key, value, true);
+  }
+
+  /** Returns the value of {@code key}, creating and adding it first if it is missing. */
+  public V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+    V value = get(key);
+    if (value != null) return value;
+
+    synchronized (this) {
+      value = get(key);
+      if (value == null) {
+        value = factory.apply(key);
+        put(key, value, false);
+      }
+      return value;
+    }
+  }
+
+  private V put(long key, V value, boolean onlyIfAbsent) {
+    if (value == null) throw new NullPointerException("Null values are not supported.");
+    if (key == 0) {
+      V previous = zeroValue;
+      if (previous == null || !onlyIfAbsent) zeroValue = value;
+      if (previous == null) size++;
+      return previous;
+    }
+
+    Table<V> t = table;
+    int slot = findSlot(t, key);
+    if (t.keys.get(slot) == key) {
+      V previous = t.values.get(slot);
+      if (previous == null || !onlyIfAbsent) t.values.set(slot, value);
+      if (previous == null) size++;
+      return previous;
+    }
+
+    if (usedSlots + 1 > t.capacity() * LOAD_FACTOR) {
+      t = rebuild(size + 1);
+      slot = findSlot(t, key);
+    }
+    // Wert vor dem Schlüssel veröffentlichen
+    t.values.set(slot, value);
+    t.keys.set(slot, key);
+    usedSlots++;
+    size++;
+    return null;
+  }
+
+  /** Removes the entry of {@code key} and returns its value, or null if there was none. */
+  public synchronized V remove(long key) {
+    if (key == 0) {
+      V previous = zeroValue;
+      if (previous != null) {
+        zeroValue = null;
+        size--;
+      }
+      return previous;
+    }
+
+    Table<V> t = table;
+    int slot = findSlot(t, key);
+    if (t.keys.get(slot) != key) return null;
+
+    V previous = t.values.getAndSet(slot, null);
+    if (previous != null) size--;
+    return previous;
+  }
+
+  /**
+   * Removes the entry of {@code key} only if its value equals {@code value}, returns whether it
+   * was removed.
+   */
+  public synchronized boolean remove(long key, V value) {
+    V current = get(key);
+    if (current == null || !current.equals(value)) return false;
+    remove(key);
+    return true;
+  }
+
+  /**
+   * Removes every entry accepted by {@code filter}. The filter must not change this map.
+   *
+   * @return the number of removed entries
+   */
+  public synchronized int removeIf(Long2ObjectMap.EntryFilter<? super V> filter) {
+    int removed = 0;
+    V zero = zeroValue;
+    if (zero != null && filter.test(0, zero)) {
+      zeroValue = null;
+      size--;
+      removed++;
+    }
+
+    Table<V> t = table;
+    for (int i = 0; i < t.capacity(); i++) {
+      V value = t.values.get(i);
+      if (value != null && filter.test(t.keys.get(i), value)) {
+        t.values.set(i, null);
+        size--;
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public synchronized void clear() {
+    table = new Table<>(LongSet.tableSizeFor(16));
+    zeroValue = null;
+    usedSlots = 0;
+    size = 0;
+  }
+
+  /**
+   * Calls {@code visitor} for every entry, in no particular order. The map may change meanwhile,
+   * the visitor can for example remove the entry it is given.
+   */
+  public void forEach(Long2ObjectMap.EntryVisitor<? super V> visitor) {
+    V zero = zeroValue;
+    if (zero != null) visitor.accept(0, zero);
+
+    Table<V> t = table;
+    for (int i = 0; i < t.capacity(); i++) {
+      long key = t.keys.get(i);
+      if (key == 0) continue;
+      V value = t.values.get(i);
+      if (value != null) visitor.accept(key, value);
+    }
+  }
+
+  /** Weakly consistent live view of the values. */
+  public Collection<V> values() {
+    return valuesView;
+  }
+
+  private static int findSlot(Table<?> t, long key) {
+    int slot = LongSet.mix(key) & t.mask;
+    while (true) {
+      long current = t.keys.get(slot);
+      if (current == key || current == 0) return slot;
+      slot = (slot + 1) & t.mask;
+    }
+  }
+
+  /** Copies the live entries into a new table sized for {@code expectedSize} and publishes it. */
+  private Table<V> rebuild(int expectedSize) {
+    Table<V> old = table;
+    // Doppelte Größe lässt Platz für weitere Einträge und entfernte Plätze
+    Table<V> rebuilt = new Table<>(LongSet.tableSizeFor(expectedSize * 2));
+    int used = 0;
+    for (int i = 0; i < old.capacity(); i++) {
+      V value = old.values.get(i);
+      if (value == null) continue;
+      long key = old.keys.get(i);
+      int slot = findSlot(rebuilt, key);
+      rebuilt.values.set(slot, value);
+      rebuilt.keys.set(slot, key);
+      used++;
+    }
+    usedSlots = used;
+    table = rebuilt;
+    return rebuilt;
+  }
+
+  private class ValuesView extends AbstractCollection<V> {
+
+    @Override
+    public Iterator<V> iterator() {
+      return new Iterator<V>() {
+
+        private final Table<V> snapshot = table;
+
+        private int slot = -1;
+
+        private V next = zeroValue;
+
+        {
+          if (next == null) advance();
+        }
+
+        private void advance() {
+          next = null;
+          while (++slot < snapshot.capacity()) {
+            if (snapshot.keys.get(slot) == 0) continue;
+            V value = snapshot.values.get(slot);
+            if (value != null) {
+              next = value;
+              return;
+            }
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        @Override
+        public V next() {
+          if (next == null) throw new NoSuchElementException();
+          V value = next;
+          advance();
+          return value;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package common.util;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Thread-safe set of primitive {@code long} values, backed by a {@link ConcurrentLong2ObjectMap}.
+ * Lookups never lock, changes are serialized.
+ */
+public class ConcurrentLongSet {
+
+  private final ConcurrentLong2ObjectMap<Boolean> map;
+
+  public ConcurrentLongSet() {
+    this(16);
+  }
+
+  public ConcurrentLongSet(int expectedSize) {
+    map = new ConcurrentLong2ObjectMap<>(expectedSize);
+  }
+
+  /** Adds a value, returns false if it was already present. */
+  public boolean add(long value) {
+    return map.putIfAbsent(value, Boolean.TRUE) == null;
+  }
+
+  /** Removes a value, returns false if it was not present. */
+  public boolean remove(long value) {
+    return map.remove(value) != null;
+  }
+
+  public boolean contains(long value) {
+    return map.containsKey(value);
+  }
+
+  /**
+   * Removes every value accepted by {@code filter}. The filter must not change this set.
+   *
+   * @return the number of removed values
+   */
+  public int removeIf(LongPredicate filter) {
+    return map.removeIf((key, present) -> filter.test(key));
+  }
+
+  public int size() {
+    return map.size();
+  }
+
+  public boolean isEmpty() {
+    return map.isEmpty();
+  }
+
+  public void clear() {
+    map.clear();
+  }
+
+  /** Calls {@code action} for every value, in no particular order. */
+  public void forEach(LongConsumer action) {
+    map.forEach((key, present) -> action.accept(key));
+  }
+}
@@ -0,0 +1,155 @@
+package common.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive {@code long} keys to primitive {@code long} values, for example timestamps
+ * per chunk key, without boxing either side.
+ *
+ * <p>Keys and values are kept in two parallel arrays with the same open addressing and backward
+ * shift removal as {@link LongSet}. Every long is a valid value, so lookups take the value to
+ * return for missing keys.
+ *
+ * <p>Not thread-safe.
+ */
+public class Long2LongMap {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+
+  private long[] values;
+
+  private int mask;
+
+  private int size;
+
+  // Schlüssel 0 markiert freie Plätze und wird getrennt gehalten
+  private boolean containsZero;
+
+  private long zeroValue;
+
+  public Long2LongMap() {
+    this(16);
+  }
+
+  public Long2LongMap(int expectedSize) {
+    int capacity = LongSet.tableSizeFor(expectedSize);
+    keys = new long[capacity];
+    values = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /** Returns the value of {@code key}, or {@code missingValue} if there is none. */
+  public long get(long key, long missingValue) {
+    if (key == 0) return containsZero ? zeroValue : missingValue;
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) return values[slot];
+      slot = (slot + 1) & mask;
+    }
+    return missingValue;
+  }
+
+  public boolean containsKey(long key) {
+    if (key == 0) return containsZero;
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) return true;
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  /** Associates {@code value} with {@code key}, returns false if the key was already present. */
+  public boolean put(long key, long value) {
+    if (key == 0) {
+      zeroValue = value;
+      if (containsZero) return false;
+      containsZero = true;
+      size++;
+      return true;
+    }
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > keys.length * LOAD_FACTOR) {
+      rehash(keys.length * 2);
+    }
+    return true;
+  }
+
+  /** Removes the entry of {@code key}, returns false if there was none. */
+  public boolean remove(long key) {
+    if (key == 0) {
+      if (!containsZero) return false;
+      containsZero = false;
+      size--;
+      return true;
+    }
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        shiftBack(slot);
+        size--;
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    if (size == 0) return;
+    Arrays.fill(keys, 0);
+    containsZero = false;
+    size = 0;
+  }
+
+  private void shiftBack(int slot) {
+    int free = slot;
+    int next = (free + 1) & mask;
+    while (keys[next] != 0) {
+      int home = LongSet.mix(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        values[free] = values[next];
+        free = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[free] = 0;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    keys = new long[capacity];
+    values = new long[capacity];
+    mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] == 0) continue;
+      int slot = LongSet.mix(oldKeys[i]) & mask;
+      while (keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = oldKeys[i];
+      values[slot] = oldValues[i];
+    }
+  }
+}
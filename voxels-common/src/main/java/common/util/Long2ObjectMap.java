@@ -0,0 +1,283 @@
+package common.util;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+
+/**
+ * Map from primitive {@code long} keys, for example chunk keys, to objects without boxing.
+ *
+ * <p>Keys and values are kept in two parallel arrays with the same open addressing and backward
+ * shift removal as {@link LongSet}. Null values are not allowed, {@link #get} returns null for
+ * missing keys.
+ *
+ * <p>Not thread-safe, see {@link ConcurrentLong2ObjectMap} for a map shared between threads.
+ *
+ * @param <V> the value type
+ */
+public class Long2ObjectMap<V> {
+
+  /** Receives the entries of a map. */
+  public interface EntryVisitor<V> {
+
+    void accept(long key, V value);
+  }
+
+  /** Decides for an entry of a map, used to remove entries. */
+  public interface EntryFilter<V> {
+
+    boolean test(long key, V value);
+  }
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+
+  private Object[] values;
+
+  private int mask;
+
+  private int size;
+
+  // Schlüssel 0 markiert freie Plätze und wird getrennt gehalten
+  private V zeroValue;
+
+  private final Collection<V> valuesView = new ValuesView();
+
+  public Long2ObjectMap() {
+    this(16);
+  }
+
+  public Long2ObjectMap(int expectedSize) {
+    int capacity = LongSet.tableSizeFor(expectedSize);
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    if (key == 0) return zeroValue;
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) return (V) values[slot];
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  /** Associates {@code value} with {@code key} and returns the previous value or null. */
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null) throw new NullPointerException("Null values are not supported.");
+    if (key == 0) {
+      V previous = zeroValue;
+      zeroValue = value;
+      if (previous == null) size++;
+      return previous;
+    }
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > keys.length * LOAD_FACTOR) {
+      rehash(keys.length * 2);
+    }
+    return null;
+  }
+
+  /** Returns the value of {@code key}, creating and adding it first if it is missing. */
+  public V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+    V value = get(key);
+    if (value == null) {
+      value = factory.apply(key);
+      put(key, value);
+    }
+    return value;
+  }
+
+  /** Removes the entry of {@code key} and returns its value, or null if there was none. */
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    if (key == 0) {
+      V previous = zeroValue;
+      if (previous != null) {
+        zeroValue = null;
+        size--;
+      }
+      return previous;
+    }
+    int slot = LongSet.mix(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        V previous = (V) values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Removes every entry accepted by {@code filter}. The filter must not change this map.
+   *
+   * @return the number of removed entries
+   */
+  @SuppressWarnings("unchecked")
+  public int removeIf(EntryFilter<? super V> filter) {
+    int removed = 0;
+    if (zeroValue != null && filter.test(0, zeroValue)) {
+      zeroValue = null;
+      size--;
+      removed++;
+    }
+
+    // Hinter einem freien Platz beginnen: Entfernen verschiebt dann nur noch nicht besuchte
+    // Einträge auf den aktuellen Platz, der deshalb erneut geprüft wird
+    int start = 0;
+    while (keys[start] != 0) {
+      start++;
+    }
+    int slot = (start + 1) & mask;
+    while (slot != start) {
+      if (keys[slot] != 0 && filter.test(keys[slot], (V) values[slot])) {
+        shiftBack(slot);
+        size--;
+        removed++;
+        continue;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return removed;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    if (size == 0) return;
+    Arrays.fill(keys, 0);
+    Arrays.fill(values, null);
+    zeroValue = null;
+    size = 0;
+  }
+
+  /** Calls {@code visitor} for every entry, in no particular order. The map must not change. */
+  @SuppressWarnings("unchecked")
+  public void forEach(EntryVisitor<? super V> visitor) {
+    if (zeroValue != null) visitor.accept(0, zeroValue);
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0) visitor.accept(keys[i], (V) values[i]);
+    }
+  }
+
+  /** Live view of the values. Iteration fails if the map changes while iterating. */
+  public Collection<V> values() {
+    return valuesView;
+  }
+
+  private void shiftBack(int slot) {
+    int free = slot;
+    int next = (free + 1) & mask;
+    while (keys[next] != 0) {
+      int home = LongSet.mix(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        values[free] = values[next];
+        free = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[free] = 0;
+    values[free] = null;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] == 0) continue;
+      int slot = LongSet.mix(oldKeys[i]) & mask;
+      while (keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = oldKeys[i];
+      values[slot] = oldValues[i];
+    }
+  }
+
+  private class ValuesView extends AbstractCollection<V> {
+
+    @Override
+    public Iterator<V> iterator() {
+      return new Iterator<V>() {
+
+        private final long[] table = keys;
+
+        private final int expectedSize = size;
+
+        private boolean zeroPending = zeroValue != null;
+
+        private int slot = nextSlot(0);
+
+        private int nextSlot(int from) {
+          while (from < table.length && table[from] == 0) {
+            from++;
+          }
+          return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return zeroPending || slot < table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+          if (table != keys || expectedSize != size) {
+            throw new ConcurrentModificationException();
+          }
+          if (zeroPending) {
+            zeroPending = false;
+            return zeroValue;
+          }
+          if (slot >= table.length) throw new NoSuchElementException();
+          V value = (V) values[slot];
+          slot = nextSlot(slot + 1);
+          return value;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
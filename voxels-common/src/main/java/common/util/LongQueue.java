@@ -0,0 +1,70 @@
+package common.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * First in, first out queue of primitive {@code long} values backed by a growing ring buffer.
+ *
+ * <p>Not thread-safe.
+ */
+public class LongQueue {
+
+  private long[] elements;
+
+  private int head;
+
+  private int size;
+
+  public LongQueue() {
+    this(16);
+  }
+
+  public LongQueue(int initialCapacity) {
+    elements = new long[Math.max(2, initialCapacity)];
+  }
+
+  public void addLast(long value) {
+    if (size == elements.length) {
+      grow();
+    }
+    elements[(head + size) % elements.length] = value;
+    size++;
+  }
+
+  /** Removes and returns the oldest value. */
+  public long removeFirst() {
+    if (size == 0) throw new NoSuchElementException("Queue is empty.");
+    long value = elements[head];
+    head = (head + 1) % elements.length;
+    size--;
+    return value;
+  }
+
+  /** Returns the oldest value without removing it. */
+  public long peekFirst() {
+    if (size == 0) throw new NoSuchElementException("Queue is empty.");
+    return elements[head];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  private void grow() {
+    long[] grown = new long[elements.length * 2];
+    for (int i = 0; i < size; i++) {
+      grown[i] = elements[(head + i) % elements.length];
+    }
+    elements = grown;
+    head = 0;
+  }
+}
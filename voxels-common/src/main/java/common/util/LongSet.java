@@ -0,0 +1,149 @@
+package common.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive {@code long} values, for example chunk keys, without boxing.
+ *
+ * <p>Open addressing with linear probing in a power of two table. Removal shifts the following
+ * entries back instead of leaving tombstones, so lookups never slow down after many removals. The
+ * value 0 marks free slots and is tracked separately.
+ *
+ * <p>Not thread-safe.
+ */
+public class LongSet {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+
+  private int mask;
+
+  private int size;
+
+  private boolean containsZero;
+
+  public LongSet() {
+    this(16);
+  }
+
+  public LongSet(int expectedSize) {
+    int capacity = tableSizeFor(expectedSize);
+    keys = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /** Adds a value, returns false if it was already present. */
+  public boolean add(long value) {
+    if (value == 0) {
+      if (containsZero) return false;
+      containsZero = true;
+      size++;
+      return true;
+    }
+    int slot = mix(value) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) return false;
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = value;
+    if (++size > keys.length * LOAD_FACTOR) {
+      rehash(keys.length * 2);
+    }
+    return true;
+  }
+
+  /** Removes a value, returns false if it was not present. */
+  public boolean remove(long value) {
+    if (value == 0) {
+      if (!containsZero) return false;
+      containsZero = false;
+      size--;
+      return true;
+    }
+    int slot = mix(value) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) {
+        shiftBack(slot);
+        size--;
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public boolean contains(long value) {
+    if (value == 0) return containsZero;
+    int slot = mix(value) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == value) return true;
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    if (size == 0) return;
+    Arrays.fill(keys, 0);
+    containsZero = false;
+    size = 0;
+  }
+
+  /** Calls {@code action} for every value, in no particular order. The set must not change. */
+  public void forEach(LongConsumer action) {
+    if (containsZero) action.accept(0);
+    for (long key : keys) {
+      if (key != 0) action.accept(key);
+    }
+  }
+
+  /** Moves the entries after a freed slot back so that no probe sequence is interrupted. */
+  private void shiftBack(int slot) {
+    int free = slot;
+    int next = (free + 1) & mask;
+    while (keys[next] != 0) {
+      int home = mix(keys[next]) & mask;
+      // Nur verschieben, wenn der freie Platz zwischen Heimat und aktueller Position liegt
+      if (((next - home) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        free = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[free] = 0;
+  }
+
+  private void rehash(int capacity) {
+    long[] old = keys;
+    keys = new long[capacity];
+    mask = capacity - 1;
+    for (long key : old) {
+      if (key == 0) continue;
+      int slot = mix(key) & mask;
+      while (keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+    }
+  }
+
+  static int mix(long value) {
+    long h = value * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  static int tableSizeFor(int expectedSize) {
+    int needed = (int) Math.ceil(Math.max(2, expectedSize) / LOAD_FACTOR);
+    return Integer.highestOneBit(needed - 1) << 1;
+  }
+}
@@ -0,0 +1,134 @@
+package common.world;
+
+import java.util.Arrays;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+
+/**
+ * Cursor for many block queries in a row, for example one raycast, a collision sweep or a
+ * neighbourhood scan.
+ *
+ * <p>{@link World#getBlock(int, int, int)} looks the chunk up in the world map for every block. A
+ * cursor remembers the last chunk it read and the 3x3 chunks around it, so queries in the same or a
+ * neighbouring chunk read the block array directly without touching the map. Moving further away
+ * recentres the cache on the new chunk.
+ *
+ * <p>Missing chunks are remembered as well. A cursor is meant to be short-lived; call {@link
+ * #invalidate()} before reusing one after chunks were loaded or unloaded. Cached chunks are checked
+ * against their coordinates on every hit, so pooled chunks that were reused for another position
+ * are looked up again.
+ *
+ * <p>Not thread-safe, every thread uses its own cursor. Block arrays are read without locking, like
+ * {@link World#getBlock(int, int, int)} does.
+ */
+public final class BlockAccessor {
+
+  // WIDTH und DEPTH sind 16, Division und Modulo werden zu Shift und Maske
+  private static final int CHUNK_SHIFT = 4;
+
+  private static final int LOCAL_MASK = ChunkData.WIDTH - 1;
+
+  private static final short AIR = Blocks.AIR.getId();
+
+  private final World world;
+
+  private final ChunkData[] neighbourhood = new ChunkData[9];
+
+  /** Bit per neighbourhood slot that was already looked up, the chunk may still be null. */
+  private int lookedUp;
+
+  private int centerX;
+
+  private int centerZ;
+
+  private ChunkData lastChunk;
+
+  private int lastChunkX;
+
+  private int lastChunkZ;
+
+  private boolean hasLast;
+
+  public BlockAccessor(World world) {
+    this.world = world;
+  }
+
+  /** Forgets all cached chunks. */
+  public void invalidate() {
+    hasLast = false;
+    lastChunk = null;
+    lookedUp = 0;
+    Arrays.fill(neighbourhood, null);
+  }
+
+  /** Returns the block id at the given world coordinates, air outside loaded chunks. */
+  public short getBlockId(int x, int y, int z) {
+    if (y < 0 || y >= ChunkData.HEIGHT) return AIR;
+
+    ChunkData chunk = getChunk(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+    if (chunk == null) return AIR;
+
+    int localX = x & LOCAL_MASK;
+    int localZ = z & LOCAL_MASK;
+    return chunk.blockData[localX + ChunkData.WIDTH * (y + ChunkData.HEIGHT * localZ)];
+  }
+
+  /** Returns the block type at the given world coordinates, air outside loaded chunks. */
+  public BlockType getBlock(int x, int y, int z) {
+    BlockType type = BlockRegistry.get(getBlockId(x, y, z));
+    return type != null ? type : Blocks.AIR;
+  }
+
+  public boolean isSolid(int x, int y, int z) {
+    short id = getBlockId(x, y, z);
+    if (id == AIR) return false;
+    BlockType type = BlockRegistry.get(id);
+    return type != null && type.isSolid();
+  }
+
+  /** Returns the chunk at the given chunk coordinates, or null if it is not loaded. */
+  public ChunkData getChunk(int chunkX, int chunkZ) {
+    if (hasLast
+        && chunkX == lastChunkX
+        && chunkZ == lastChunkZ
+        && isAt(lastChunk, chunkX, chunkZ)) {
+      return lastChunk;
+    }
+
+    int dx = chunkX - centerX + 1;
+    int dz = chunkZ - centerZ + 1;
+    if (dx < 0 || dx > 2 || dz < 0 || dz > 2) {
+      recenter(chunkX, chunkZ);
+      dx = 1;
+      dz = 1;
+    }
+
+    int slot = dx + dz * 3;
+    ChunkData chunk = neighbourhood[slot];
+    if ((lookedUp & (1 << slot)) == 0 || !isAt(chunk, chunkX, chunkZ)) {
+      chunk = world.getChunk(chunkX, chunkZ);
+      neighbourhood[slot] = chunk;
+      lookedUp |= 1 << slot;
+    }
+
+    lastChunk = chunk;
+    lastChunkX = chunkX;
+    lastChunkZ = chunkZ;
+    hasLast = true;
+    return chunk;
+  }
+
+  private void recenter(int chunkX, int chunkZ) {
+    centerX = chunkX;
+    centerZ = chunkZ;
+    lookedUp = 0;
+    Arrays.fill(neighbourhood, null);
+  }
+
+  /** A missing chunk stays valid, a present one must still be the chunk at that position. */
+  private static boolean isAt(ChunkData chunk, int chunkX, int chunkZ) {
+    return chunk == null || (chunk.chunkX == chunkX && chunk.chunkZ == chunkZ);
+  }
+}
@@ -20,9 +20,21 @@ public class ChunkData {
 
   public static final int HEIGHT = 384;
 
+  /** Edge length of the cubic sections a chunk column is summarized in. */
+  public static final int SECTION_SIZE = 16;
+
+  public static final int SECTION_COUNT = HEIGHT / SECTION_SIZE;
+
+  public static final int SECTION_VOLUME = WIDTH * SECTION_SIZE * DEPTH;
+
+  /** Highest block and sky light level. */
+  public static final int MAX_LIGHT = 15;
+
+  private static final int VOLUME = WIDTH * HEIGHT * DEPTH;
+
   protected short[] blockData;
 
-  protected final int[] heightMap;
+  protected int[] heightMap;
 
   protected int chunkX;
 
@@ -30,11 +42,28 @@ public class ChunkData {
 
   protected boolean dirty = false;
 
+  // Lichtwerte mit demselben Index wie blockData, berechnet von der LightEngine
+  protected NibbleArray skyLight = new NibbleArray(VOLUME);
+
+  protected NibbleArray blockLight = new NibbleArray(VOLUME);
+
+  protected boolean lightReady;
+
+  // Per-section occupancy summaries, kept in sync by setBlockId
+  private int[] sectionAirCount = new int[SECTION_COUNT];
+
+  private int[] sectionOpaqueCount = new int[SECTION_COUNT];
+
+  private int[] sectionMaxY = new int[SECTION_COUNT];
+
+  private int[] sectionTickableCount = new int[SECTION_COUNT];
+
   public ChunkData(int chunkX, int chunkZ) {
     this.chunkX = chunkX;
     this.chunkZ = chunkZ;
     this.blockData = new short[WIDTH * DEPTH * HEIGHT];
     this.heightMap = new int[WIDTH * DEPTH];
+    resetSections();
   }
 
   public ChunkData(int chunkX, int chunkZ, short[] blockData, int[] heightMap) {
@@ -43,6 +72,7 @@ public class ChunkData {
     this.blockData = blockData;
     this.heightMap = heightMap;
     this.dirty = false;
+    recalculateSections();
   }
 
   public short getBlockId(int x, int y, int z) {
@@ -54,7 +84,11 @@ public class ChunkData {
     if (!isInside(x, y, z)) return;
 
     int index = getIndex(x, y, z);
+    short previous = blockData[index];
     blockData[index] = id;
+    if (previous != id) {
+      updateSection(x, y, z, previous, id);
+    }
     updateHeightMap(x, y, z, id);
     dirty = true;
   }
@@ -136,6 +170,10 @@ public class ChunkData {
   public void clear() {
     Arrays.fill(blockData, Blocks.AIR.getId());
     Arrays.fill(heightMap, 0);
+    resetSections();
+    skyLight.fill(0);
+    blockLight.fill(0);
+    lightReady = false;
   }
 
   public void setBlockData(short[] blockData) {
@@ -144,6 +182,219 @@ public class ChunkData {
       throw new IllegalArgumentException("Block data length must be " + validLength + ".");
     }
     this.blockData = blockData;
+    this.lightReady = false;
+    recalculateSections();
+  }
+
+  /**
+   * Exchanges the blocks, light, height map and section summaries with {@code other} without
+   * copying.
+   * The chunk coordinates stay as they are. Lets chunk data that was prepared on another thread be
+   * published at once, while the previous arrays go back to the preparing side for reuse.
+   */
+  public void swapContents(ChunkData other) {
+    short[] blocks = blockData;
+    blockData = other.blockData;
+    other.blockData = blocks;
+
+    int[] heights = heightMap;
+    heightMap = other.heightMap;
+    other.heightMap = heights;
+
+    int[] air = sectionAirCount;
+    sectionAirCount = other.sectionAirCount;
+    other.sectionAirCount = air;
+
+    int[] opaque = sectionOpaqueCount;
+    sectionOpaqueCount = other.sectionOpaqueCount;
+    other.sectionOpaqueCount = opaque;
+
+    int[] maxY = sectionMaxY;
+    sectionMaxY = other.sectionMaxY;
+    other.sectionMaxY = maxY;
+
+    int[] tickable = sectionTickableCount;
+    sectionTickableCount = other.sectionTickableCount;
+    other.sectionTickableCount = tickable;
+
+    NibbleArray sky = skyLight;
+    skyLight = other.skyLight;
+    other.skyLight = sky;
+
+    NibbleArray block = blockLight;
+    blockLight = other.blockLight;
+    other.blockLight = block;
+
+    boolean ready = lightReady;
+    lightReady = other.lightReady;
+    other.lightReady = ready;
+  }
+
+  /**
+   * Returns a 64-bit hash of the block data. Clients use it to recognize chunks they have cached
+   * already. Never returns 0, which marks an unknown hash.
+   */
+  public long computeContentHash() {
+    // FNV-1a über die Block-IDs
+    long hash = 0xcbf29ce484222325L;
+    for (short id : blockData) {
+      hash = (hash ^ (id & 0xFFFF)) * 0x100000001b3L;
+    }
+    return hash != 0 ? hash : 1;
+  }
+
+  /** Returns the number of air blocks in the section. */
+  public int getSectionAirCount(int section) {
+    return sectionAirCount[section];
+  }
+
+  /** Returns whether the section contains only air. */
+  public boolean isSectionEmpty(int section) {
+    return sectionAirCount[section] == SECTION_VOLUME;
+  }
+
+  /**
+   * Returns whether every block of the section is solid and opaque, so it hides all faces that
+   * touch it.
+   */
+  public boolean isSectionFullyOpaque(int section) {
+    return sectionOpaqueCount[section] == SECTION_VOLUME;
+  }
+
+  /** Returns the highest y of a non-air block in the section, or -1 if the section is empty. */
+  public int getSectionMaxY(int section) {
+    return sectionMaxY[section];
+  }
+
+  /** Returns the number of blocks in the section that take random ticks. */
+  public int getSectionTickableCount(int section) {
+    return sectionTickableCount[section];
+  }
+
+  /** Returns whether any section contains blocks that take random ticks. */
+  public boolean hasTickableBlocks() {
+    for (int count : sectionTickableCount) {
+      if (count > 0) return true;
+    }
+    return false;
+  }
+
+  /** Returns the highest y of a non-air block in the chunk, or -1 if the chunk is empty. */
+  public int getMaxY() {
+    for (int section = SECTION_COUNT - 1; section >= 0; section--) {
+      if (sectionMaxY[section] >= 0) return sectionMaxY[section];
+    }
+    return -1;
+  }
+
+  /**
+   * Fully recalculates the section summaries. Only needed after writing to the raw block data
+   * directly, {@link #setBlockId(short, int, int, int)} keeps them up to date.
+   */
+  public void recalculateSections() {
+    resetSections();
+    short air = Blocks.AIR.getId();
+    for (int z = 0; z < DEPTH; z++) {
+      for (int y = 0; y < HEIGHT; y++) {
+        int section = y / SECTION_SIZE;
+        for (int x = 0; x < WIDTH; x++) {
+          short id = blockData[getIndex(x, y, z)];
+          if (id == air) continue;
+          sectionAirCount[section]--;
+          if (isOpaqueBlock(id)) sectionOpaqueCount[section]++;
+          if (isTickableBlock(id)) sectionTickableCount[section]++;
+          if (y > sectionMaxY[section]) sectionMaxY[section] = y;
+        }
+      }
+    }
+  }
+
+  private void resetSections() {
+    Arrays.fill(sectionAirCount, SECTION_VOLUME);
+    Arrays.fill(sectionOpaqueCount, 0);
+    Arrays.fill(sectionMaxY, -1);
+    Arrays.fill(sectionTickableCount, 0);
+  }
+
+  private void updateSection(int x, int y, int z, short previous, short id) {
+    short air = Blocks.AIR.getId();
+    int section = y / SECTION_SIZE;
+
+    if (previous == air) sectionAirCount[section]--;
+    if (id == air) sectionAirCount[section]++;
+    if (isOpaqueBlock(previous)) sectionOpaqueCount[section]--;
+    if (isOpaqueBlock(id)) sectionOpaqueCount[section]++;
+    if (isTickableBlock(previous)) sectionTickableCount[section]--;
+    if (isTickableBlock(id)) sectionTickableCount[section]++;
+
+    if (id != air) {
+      if (y > sectionMaxY[section]) sectionMaxY[section] = y;
+    } else if (y == sectionMaxY[section]) {
+      sectionMaxY[section] = findSectionMaxY(section, y);
+    }
+  }
+
+  /** Scans the section downwards from {@code fromY}, the former highest block, which is now air. */
+  private int findSectionMaxY(int section, int fromY) {
+    short air = Blocks.AIR.getId();
+    int bottom = section * SECTION_SIZE;
+    for (int y = fromY; y >= bottom; y--) {
+      for (int z = 0; z < DEPTH; z++) {
+        for (int x = 0; x < WIDTH; x++) {
+          if (blockData[getIndex(x, y, z)] != air) return y;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isOpaqueBlock(short id) {
+    BlockType type = BlockRegistry.get(id);
+    return type != null && type.isSolid() && type.isOpaque();
+  }
+
+  private static boolean isTickableBlock(short id) {
+    BlockType type = BlockRegistry.get(id);
+    return type != null && type.isRandomTicking();
+  }
+
+  /** Returns the sky light level, 15 above the world and 0 below it or outside the chunk. */
+  public int getSkyLight(int x, int y, int z) {
+    if (y >= HEIGHT) return MAX_LIGHT;
+    if (!isInside(x, y, z)) return 0;
+    return skyLight.get(getIndex(x, y, z));
+  }
+
+  /** Returns the block light level, 0 outside the chunk. */
+  public int getBlockLight(int x, int y, int z) {
+    if (!isInside(x, y, z)) return 0;
+    return blockLight.get(getIndex(x, y, z));
+  }
+
+  /**
+   * Returns whether the light of this chunk was computed, see {@link LightEngine}. Chunks without
+   * light read 0 everywhere.
+   */
+  public boolean hasLight() {
+    return lightReady;
+  }
+
+  /**
+   * Marks the light arrays as filled, after they were written directly, for example from a
+   * received packet.
+   */
+  public void setLightReady(boolean lightReady) {
+    this.lightReady = lightReady;
+  }
+
+  /** Returns the sky light levels, indexed like the raw block data. */
+  public NibbleArray getSkyLightArray() {
+    return skyLight;
+  }
+
+  /** Returns the block light levels, indexed like the raw block data. */
+  public NibbleArray getBlockLightArray() {
+    return blockLight;
   }
 
   public int getHeightValue(int x, int z) {
@@ -0,0 +1,74 @@
+package common.world;
+
+/**
+ * Lightweight description of a chunk's surface: the height and the id of the highest block of
+ * every column. Enough to draw the chunk as distant terrain without its block data.
+ *
+ * <p>Columns are indexed {@code x + z * ChunkData.WIDTH} with chunk-local coordinates. The arrays
+ * are shared, not copied, and must not be modified once the summary is created.
+ */
+public final class ChunkSummary {
+
+  /** Number of columns of a chunk. */
+  public static final int COLUMNS = ChunkData.WIDTH * ChunkData.DEPTH;
+
+  private final int chunkX;
+
+  private final int chunkZ;
+
+  private final short[] heights;
+
+  private final short[] topBlocks;
+
+  public ChunkSummary(int chunkX, int chunkZ, short[] heights, short[] topBlocks) {
+    if (heights.length != COLUMNS || topBlocks.length != COLUMNS) {
+      throw new IllegalArgumentException("Summary must contain exactly " + COLUMNS + " columns.");
+    }
+    this.chunkX = chunkX;
+    this.chunkZ = chunkZ;
+    this.heights = heights;
+    this.topBlocks = topBlocks;
+  }
+
+  /** Summarizes a chunk from its height map. */
+  public static ChunkSummary of(ChunkData chunk) {
+    short[] heights = new short[COLUMNS];
+    short[] topBlocks = new short[COLUMNS];
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int height = chunk.getHeightValue(x, z);
+        heights[x + z * ChunkData.WIDTH] = (short) height;
+        topBlocks[x + z * ChunkData.WIDTH] = chunk.getBlockId(x, height, z);
+      }
+    }
+    return new ChunkSummary(chunk.getChunkX(), chunk.getChunkZ(), heights, topBlocks);
+  }
+
+  public int getChunkX() {
+    return chunkX;
+  }
+
+  public int getChunkZ() {
+    return chunkZ;
+  }
+
+  /** Returns the y of the highest block of a column, 0 for an empty column. */
+  public int getHeight(int x, int z) {
+    return heights[x + z * ChunkData.WIDTH];
+  }
+
+  /** Returns the id of the highest block of a column, air for an empty column. */
+  public short getTopBlock(int x, int z) {
+    return topBlocks[x + z * ChunkData.WIDTH];
+  }
+
+  /** Returns the raw heights, do not modify. */
+  public short[] getHeights() {
+    return heights;
+  }
+
+  /** Returns the raw top block ids, do not modify. */
+  public short[] getTopBlocks() {
+    return topBlocks;
+  }
+}
@@ -0,0 +1,506 @@
+package common.world;
+
+import java.util.Arrays;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
+
+/**
+ * Computes the sky and block light of chunks with breadth-first flood fills.
+ *
+ * <p>Sky light enters from above at level 15 and travels straight down through non-opaque blocks
+ * without getting weaker; every other step, and every step of block light, loses one level. Block
+ * light starts at blocks with a {@link BlockType#getLightEmission() light emission}. Solid opaque
+ * blocks stop both.
+ *
+ * <p>Light is computed in three steps:
+ *
+ * <ul>
+ *   <li>{@link #lightChunk(ChunkData)} lights a single chunk as if it had no neighbours. It needs
+ *       no world, so generation and decoding workers can run it with their own engine.
+ *   <li>{@link #stitchChunk(ChunkData)} lets the light of a chunk that was just added to the world
+ *       flow across its borders into the loaded neighbours and back.
+ *   <li>{@link #markBlockChanged(int, int, int)} and {@link #propagate()} update the light around
+ *       changed blocks incrementally: light that depended on a changed block is removed with one
+ *       queue, and the gaps are refilled from the remaining light with another.
+ * </ul>
+ *
+ * <p>Only chunks whose light was computed take part, others count as missing. The bounds of the
+ * blocks whose light changed in the last call are available afterwards, see {@link
+ * #hasChanges()}, so callers can remesh or resend what was affected.
+ *
+ * <p>Not thread-safe, every thread uses its own engine. An engine bound to a world must only be
+ * used from the thread that changes the world.
+ */
+public final class LightEngine {
+
+  private static final int MAX_LIGHT = ChunkData.MAX_LIGHT;
+
+  private static final int COLUMN_COUNT = ChunkData.WIDTH * ChunkData.DEPTH;
+
+  // Nachbarn in der Reihenfolge oben, unten, Norden, Süden, Westen, Osten
+  private static final int[] DX = {0, 0, 0, 0, -1, 1};
+
+  private static final int[] DY = {1, -1, 0, 0, 0, 0};
+
+  private static final int[] DZ = {0, 0, -1, 1, 0, 0};
+
+  private static final int DOWN = 1;
+
+  /** Flood fill queue of cells in world coordinates, four ints per entry. */
+  private static final class CellQueue {
+
+    private int[] data = new int[4 * 1024];
+
+    private int head;
+
+    private int tail;
+
+    private void push(int x, int y, int z, int level) {
+      if (tail + 4 > data.length) {
+        if (head > 0) {
+          System.arraycopy(data, head, data, 0, tail - head);
+          tail -= head;
+          head = 0;
+        } else {
+          data = Arrays.copyOf(data, data.length * 2);
+        }
+      }
+      data[tail] = x;
+      data[tail + 1] = y;
+      data[tail + 2] = z;
+      data[tail + 3] = level;
+      tail += 4;
+    }
+
+    private boolean isEmpty() {
+      return head == tail;
+    }
+
+    private void clear() {
+      head = 0;
+      tail = 0;
+    }
+  }
+
+  private final World world;
+
+  private final BlockAccessor chunks;
+
+  /** The chunk {@link #lightChunk(ChunkData)} works on, null otherwise. */
+  private ChunkData single;
+
+  private final CellQueue addQueue = new CellQueue();
+
+  private final CellQueue removeQueue = new CellQueue();
+
+  /** Changed blocks waiting for {@link #propagate()}, three ints per block. */
+  private int[] pending = new int[3 * 64];
+
+  private int pendingCount;
+
+  /** Lowest y with full sky light per column, used while lighting a single chunk. */
+  private final int[] skyBottom = new int[COLUMN_COUNT];
+
+  private boolean changed;
+
+  private int changedMinX, changedMinY, changedMinZ;
+
+  private int changedMaxX, changedMaxY, changedMaxZ;
+
+  /**
+   * Creates an engine for the given world, or with a null world an engine that can only light
+   * single chunks.
+   */
+  public LightEngine(World world) {
+    this.world = world;
+    this.chunks = world != null ? new BlockAccessor(world) : null;
+  }
+
+  /**
+   * Computes the light of {@code chunk} from its blocks alone, as if every neighbour was missing,
+   * and marks the light as ready. Changes are not tracked.
+   */
+  public void lightChunk(ChunkData chunk) {
+    single = chunk;
+    try {
+      chunk.skyLight.fill(0);
+      chunk.blockLight.fill(0);
+      addQueue.clear();
+      seedSkyColumns(chunk);
+      runAdd(true);
+      seedEmitters(chunk);
+      runAdd(false);
+      chunk.lightReady = true;
+    } finally {
+      single = null;
+      addQueue.clear();
+    }
+  }
+
+  /**
+   * Exchanges light between a lit chunk that was just added to the world and its loaded, lit
+   * neighbours, in both directions.
+   */
+  public void stitchChunk(ChunkData chunk) {
+    requireWorld();
+    resetChanges();
+    chunks.invalidate();
+    if (!chunk.lightReady) return;
+
+    for (int channel = 0; channel < 2; channel++) {
+      boolean sky = channel == 0;
+      addQueue.clear();
+      for (int side = 2; side < 6; side++) {
+        ChunkData neighbor = chunkAt(chunk.chunkX + DX[side], chunk.chunkZ + DZ[side]);
+        if (neighbor != null) {
+          seedBorder(chunk, neighbor, side, sky);
+        }
+      }
+      runAdd(sky);
+    }
+  }
+
+  /** Records a block whose id changed, its light is updated by the next {@link #propagate()}. */
+  public void markBlockChanged(int x, int y, int z) {
+    if (y < 0 || y >= ChunkData.HEIGHT) return;
+    if (pendingCount * 3 + 3 > pending.length) {
+      pending = Arrays.copyOf(pending, pending.length * 2);
+    }
+    int i = pendingCount * 3;
+    pending[i] = x;
+    pending[i + 1] = y;
+    pending[i + 2] = z;
+    pendingCount++;
+  }
+
+  /** Updates the light around every block recorded since the last call. */
+  public void propagate() {
+    requireWorld();
+    resetChanges();
+    if (pendingCount == 0) return;
+    chunks.invalidate();
+
+    try {
+      for (int channel = 0; channel < 2; channel++) {
+        boolean sky = channel == 0;
+        addQueue.clear();
+        removeQueue.clear();
+        for (int i = 0; i < pendingCount * 3; i += 3) {
+          seedChangedBlock(pending[i], pending[i + 1], pending[i + 2], sky);
+        }
+        // Erst alles entfernen, was von den Änderungen abhing, dann die Lücken auffüllen
+        runRemove(sky);
+        runAdd(sky);
+      }
+    } finally {
+      pendingCount = 0;
+    }
+  }
+
+  /** Returns whether the last {@link #stitchChunk} or {@link #propagate()} changed any light. */
+  public boolean hasChanges() {
+    return changed;
+  }
+
+  public int getChangedMinX() {
+    return changedMinX;
+  }
+
+  public int getChangedMinY() {
+    return changedMinY;
+  }
+
+  public int getChangedMinZ() {
+    return changedMinZ;
+  }
+
+  public int getChangedMaxX() {
+    return changedMaxX;
+  }
+
+  public int getChangedMaxY() {
+    return changedMaxY;
+  }
+
+  public int getChangedMaxZ() {
+    return changedMaxZ;
+  }
+
+  private void requireWorld() {
+    if (world == null) {
+      throw new IllegalStateException("This light engine is not bound to a world.");
+    }
+  }
+
+  private void seedSkyColumns(ChunkData chunk) {
+    int baseX = chunk.chunkX * ChunkData.WIDTH;
+    int baseZ = chunk.chunkZ * ChunkData.DEPTH;
+    int top = chunk.getMaxY();
+
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int bottom = ChunkData.HEIGHT;
+        for (int y = ChunkData.HEIGHT - 1; y >= 0; y--) {
+          int index = chunk.getIndex(x, y, z);
+          // Oberhalb des höchsten Blocks ist nur Luft
+          if (y <= top && isOpaque(chunk.blockData[index])) break;
+          chunk.skyLight.set(index, MAX_LIGHT);
+          bottom = y;
+        }
+        skyBottom[x + z * ChunkData.WIDTH] = bottom;
+      }
+    }
+
+    // Nur Zellen, neben denen eine Spalte früher endet, können seitlich Licht abgeben
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int bottom = skyBottom[x + z * ChunkData.WIDTH];
+        int highest = bottom;
+        if (x > 0) highest = Math.max(highest, skyBottom[x - 1 + z * ChunkData.WIDTH]);
+        if (x < ChunkData.WIDTH - 1) {
+          highest = Math.max(highest, skyBottom[x + 1 + z * ChunkData.WIDTH]);
+        }
+        if (z > 0) highest = Math.max(highest, skyBottom[x + (z - 1) * ChunkData.WIDTH]);
+        if (z < ChunkData.DEPTH - 1) {
+          highest = Math.max(highest, skyBottom[x + (z + 1) * ChunkData.WIDTH]);
+        }
+        for (int y = bottom; y < highest; y++) {
+          addQueue.push(baseX + x, y, baseZ + z, 0);
+        }
+      }
+    }
+  }
+
+  private void seedEmitters(ChunkData chunk) {
+    int baseX = chunk.chunkX * ChunkData.WIDTH;
+    int baseZ = chunk.chunkZ * ChunkData.DEPTH;
+    for (int section = 0; section < ChunkData.SECTION_COUNT; section++) {
+      if (chunk.isSectionEmpty(section)) continue;
+      int minY = section * ChunkData.SECTION_SIZE;
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        for (int y = minY; y < minY + ChunkData.SECTION_SIZE; y++) {
+          for (int x = 0; x < ChunkData.WIDTH; x++) {
+            int index = chunk.getIndex(x, y, z);
+            int emission = getEmission(chunk.blockData[index]);
+            if (emission > 0) {
+              chunk.blockLight.set(index, emission);
+              addQueue.push(baseX + x, y, baseZ + z, 0);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** Queues the border cells on both sides of a chunk border whose light can cross it. */
+  private void seedBorder(ChunkData chunk, ChunkData neighbor, int side, boolean sky) {
+    int top =
+        Math.min(
+            ChunkData.HEIGHT - 1, Math.max(chunk.getMaxY(), neighbor.getMaxY()) + MAX_LIGHT);
+    NibbleArray own = sky ? chunk.skyLight : chunk.blockLight;
+    NibbleArray other = sky ? neighbor.skyLight : neighbor.blockLight;
+    int baseX = chunk.chunkX * ChunkData.WIDTH;
+    int baseZ = chunk.chunkZ * ChunkData.DEPTH;
+    int neighborBaseX = neighbor.chunkX * ChunkData.WIDTH;
+    int neighborBaseZ = neighbor.chunkZ * ChunkData.DEPTH;
+
+    for (int k = 0; k < ChunkData.WIDTH; k++) {
+      int x, z, nx, nz;
+      switch (side) {
+        case 2: // Norden
+          x = k;
+          z = 0;
+          nx = k;
+          nz = ChunkData.DEPTH - 1;
+          break;
+        case 3: // Süden
+          x = k;
+          z = ChunkData.DEPTH - 1;
+          nx = k;
+          nz = 0;
+          break;
+        case 4: // Westen
+          x = 0;
+          z = k;
+          nx = ChunkData.WIDTH - 1;
+          nz = k;
+          break;
+        default: // Osten
+          x = ChunkData.WIDTH - 1;
+          z = k;
+          nx = 0;
+          nz = k;
+          break;
+      }
+      for (int y = 0; y <= top; y++) {
+        int index = chunk.getIndex(x, y, z);
+        int neighborIndex = neighbor.getIndex(nx, y, nz);
+        int level = own.get(index);
+        int neighborLevel = other.get(neighborIndex);
+        if (level > neighborLevel + 1 && !isOpaque(neighbor.blockData[neighborIndex])) {
+          addQueue.push(baseX + x, y, baseZ + z, 0);
+        } else if (neighborLevel > level + 1 && !isOpaque(chunk.blockData[index])) {
+          addQueue.push(neighborBaseX + nx, y, neighborBaseZ + nz, 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * Clears the light of a changed block and queues everything that has to be recomputed: the light
+   * it held for removal, its own emission and its neighbours for refilling.
+   */
+  private void seedChangedBlock(int x, int y, int z, boolean sky) {
+    ChunkData chunk = chunkAt(x >> 4, z >> 4);
+    if (chunk == null) return;
+
+    int index = chunk.getIndex(x & 15, y, z & 15);
+    NibbleArray light = sky ? chunk.skyLight : chunk.blockLight;
+    short id = chunk.blockData[index];
+
+    int previous = light.get(index);
+    if (previous > 0) {
+      set(light, index, 0, x, y, z);
+      removeQueue.push(x, y, z, previous);
+    }
+
+    int own = sky ? 0 : getEmission(id);
+    if (sky && y == ChunkData.HEIGHT - 1 && !isOpaque(id)) {
+      own = MAX_LIGHT;
+    }
+    if (own > 0) {
+      set(light, index, own, x, y, z);
+      addQueue.push(x, y, z, 0);
+    }
+
+    if (!isOpaque(id)) {
+      for (int dir = 0; dir < 6; dir++) {
+        int ny = y + DY[dir];
+        if (ny >= 0 && ny < ChunkData.HEIGHT) {
+          addQueue.push(x + DX[dir], ny, z + DZ[dir], 0);
+        }
+      }
+    }
+  }
+
+  private void runRemove(boolean sky) {
+    CellQueue queue = removeQueue;
+    while (!queue.isEmpty()) {
+      int x = queue.data[queue.head];
+      int y = queue.data[queue.head + 1];
+      int z = queue.data[queue.head + 2];
+      int level = queue.data[queue.head + 3];
+      queue.head += 4;
+
+      for (int dir = 0; dir < 6; dir++) {
+        int ny = y + DY[dir];
+        if (ny < 0 || ny >= ChunkData.HEIGHT) continue;
+        int nx = x + DX[dir];
+        int nz = z + DZ[dir];
+        ChunkData neighbor = chunkAt(nx >> 4, nz >> 4);
+        if (neighbor == null) continue;
+
+        int index = neighbor.getIndex(nx & 15, ny, nz & 15);
+        NibbleArray light = sky ? neighbor.skyLight : neighbor.blockLight;
+        int neighborLevel = light.get(index);
+        if (neighborLevel == 0) continue;
+
+        boolean dependent =
+            neighborLevel < level
+                || (sky && dir == DOWN && level == MAX_LIGHT && neighborLevel == MAX_LIGHT);
+        if (dependent) {
+          set(light, index, 0, nx, ny, nz);
+          removeQueue.push(nx, ny, nz, neighborLevel);
+          int emission = sky ? 0 : getEmission(neighbor.blockData[index]);
+          if (emission > 0) {
+            set(light, index, emission, nx, ny, nz);
+            addQueue.push(nx, ny, nz, 0);
+          }
+        } else {
+          // Heller aus einer anderen Quelle, füllt die entstandene Lücke wieder auf
+          addQueue.push(nx, ny, nz, 0);
+        }
+      }
+    }
+    queue.clear();
+  }
+
+  private void runAdd(boolean sky) {
+    CellQueue queue = addQueue;
+    while (!queue.isEmpty()) {
+      int x = queue.data[queue.head];
+      int y = queue.data[queue.head + 1];
+      int z = queue.data[queue.head + 2];
+      queue.head += 4;
+
+      ChunkData chunk = chunkAt(x >> 4, z >> 4);
+      if (chunk == null) continue;
+      NibbleArray source = sky ? chunk.skyLight : chunk.blockLight;
+      int level = source.get(chunk.getIndex(x & 15, y, z & 15));
+      if (level <= 1) continue;
+
+      for (int dir = 0; dir < 6; dir++) {
+        int ny = y + DY[dir];
+        if (ny < 0 || ny >= ChunkData.HEIGHT) continue;
+        int nx = x + DX[dir];
+        int nz = z + DZ[dir];
+        ChunkData neighbor = chunkAt(nx >> 4, nz >> 4);
+        if (neighbor == null) continue;
+
+        int index = neighbor.getIndex(nx & 15, ny, nz & 15);
+        if (isOpaque(neighbor.blockData[index])) continue;
+
+        int target = (sky && dir == DOWN && level == MAX_LIGHT) ? MAX_LIGHT : level - 1;
+        NibbleArray light = sky ? neighbor.skyLight : neighbor.blockLight;
+        if (light.get(index) < target) {
+          set(light, index, target, nx, ny, nz);
+          queue.push(nx, ny, nz, 0);
+        }
+      }
+    }
+    queue.clear();
+  }
+
+  private void set(NibbleArray light, int index, int level, int x, int y, int z) {
+    light.set(index, level);
+    if (single != null) return;
+
+    if (!changed) {
+      changed = true;
+      changedMinX = changedMaxX = x;
+      changedMinY = changedMaxY = y;
+      changedMinZ = changedMaxZ = z;
+      return;
+    }
+    if (x < changedMinX) changedMinX = x;
+    if (x > changedMaxX) changedMaxX = x;
+    if (y < changedMinY) changedMinY = y;
+    if (y > changedMaxY) changedMaxY = y;
+    if (z < changedMinZ) changedMinZ = z;
+    if (z > changedMaxZ) changedMaxZ = z;
+  }
+
+  private void resetChanges() {
+    changed = false;
+  }
+
+  /** Returns the lit chunk at the given chunk coordinates, or null. */
+  private ChunkData chunkAt(int chunkX, int chunkZ) {
+    if (single != null) {
+      return single.chunkX == chunkX && single.chunkZ == chunkZ ? single : null;
+    }
+    ChunkData chunk = chunks.getChunk(chunkX, chunkZ);
+    return chunk != null && chunk.lightReady ? chunk : null;
+  }
+
+  private static boolean isOpaque(short id) {
+    BlockType type = BlockRegistry.get(id);
+    return type != null && type.isSolid() && type.isOpaque();
+  }
+
+  private static int getEmission(short id) {
+    BlockType type = BlockRegistry.get(id);
+    return type != null ? Math.min(MAX_LIGHT, Math.max(0, type.getLightEmission())) : 0;
+  }
+}
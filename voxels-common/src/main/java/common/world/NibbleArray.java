@@ -0,0 +1,54 @@
+package common.world;
+
+import java.util.Arrays;
+
+/**
+ * Array of 4-bit values packed two per byte, for light levels from 0 to 15. Entry {@code i} lives
+ * in the low nibble of byte {@code i / 2} if {@code i} is even, in the high nibble otherwise.
+ */
+public final class NibbleArray {
+
+  private final byte[] data;
+
+  /** Creates an array of {@code size} zero entries; {@code size} must be even. */
+  public NibbleArray(int size) {
+    if ((size & 1) != 0) {
+      throw new IllegalArgumentException("Nibble array size must be even.");
+    }
+    this.data = new byte[size / 2];
+  }
+
+  public int get(int index) {
+    return (data[index >> 1] >> ((index & 1) << 2)) & 0xF;
+  }
+
+  public void set(int index, int value) {
+    int shift = (index & 1) << 2;
+    int i = index >> 1;
+    data[i] = (byte) ((data[i] & ~(0xF << shift)) | ((value & 0xF) << shift));
+  }
+
+  /** Sets every entry to {@code value}. */
+  public void fill(int value) {
+    int nibble = value & 0xF;
+    Arrays.fill(data, (byte) (nibble | (nibble << 4)));
+  }
+
+  /** Returns whether every entry is 0. */
+  public boolean isZero() {
+    for (byte b : data) {
+      if (b != 0) return false;
+    }
+    return true;
+  }
+
+  /** Number of entries. */
+  public int size() {
+    return data.length * 2;
+  }
+
+  /** Returns the packed bytes, for serialization. Changes write through. */
+  public byte[] getRawData() {
+    return data;
+  }
+}
@@ -1,10 +1,8 @@
 package common.world;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 import common.game.block.BlockType;
 import common.game.block.Blocks;
+import common.util.ConcurrentLong2ObjectMap;
 
 /**
  * Common World logic used by both Server and Client. Manages ChunkData and provides
@@ -28,20 +26,20 @@ public class World {
 
   protected String name = "";
 
-  // Thread-safe map to store chunks by a single long key (packed X/Z)
-  protected final Map<Long, ChunkData> chunks = new ConcurrentHashMap<>();
+  // Thread-safe map to store chunks by a single long key (packed X/Z), lock-free reads
+  protected final ConcurrentLong2ObjectMap<ChunkData> chunks = new ConcurrentLong2ObjectMap<>();
+
+  // Inkrementelle Lichtupdates für setBlock, nur vom Thread benutzt, der die Welt ändert
+  protected final LightEngine lightEngine = new LightEngine(this);
 
   // --- World update ---
 
+  /**
+   * Advances the world time. Block updates are not driven from here; the server schedules them only
+   * where something can change, instead of visiting every loaded chunk.
+   */
   public void tick() {
     worldTime.tick();
-    for (ChunkData chunk : chunks.values()) {
-      tickChunk(chunk);
-    }
-  }
-
-  protected void tickChunk(ChunkData chunk) {
-    // placeholder for future logic
   }
 
   // --- Chunk Management ---
@@ -104,9 +102,22 @@ public class World {
       int lz = Math.floorMod(z, ChunkData.DEPTH);
 
       chunk.setBlockId(blockId, lx, y, lz);
+
+      if (chunk.hasLight()) {
+        lightEngine.markBlockChanged(x, y, z);
+        lightEngine.propagate();
+      }
     }
   }
 
+  /**
+   * Returns the light engine of this world. Its change bounds describe the light changed by the
+   * last {@link #setBlock(int, int, int, short)}.
+   */
+  public LightEngine getLightEngine() {
+    return lightEngine;
+  }
+
   /** Returns the highest non-air block Y-coordinate at the given world coordinates. */
   public int getHeightAt(int x, int z) {
     ChunkData chunk = getChunkAt(x, 0, z); // Y is irrelevant for chunk finding here
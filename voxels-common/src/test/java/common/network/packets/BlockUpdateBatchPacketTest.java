@@ -0,0 +1,52 @@
+package common.network.packets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import common.network.PacketBuffer;
+
+class BlockUpdateBatchPacketTest {
+
+  @Test
+  void testWriteReadRoundTrip() throws IOException {
+    BlockUpdateBatchPacket original =
+        new BlockUpdateBatchPacket(new int[] {1, 2, 3, -40, 383, -7}, new short[] {8, 0});
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PacketBuffer writeBuffer =
+        new PacketBuffer(
+            new DataInputStream(new ByteArrayInputStream(new byte[0])), new DataOutputStream(baos));
+    original.write(writeBuffer);
+
+    PacketBuffer readBuffer =
+        new PacketBuffer(
+            new DataInputStream(new ByteArrayInputStream(baos.toByteArray())),
+            new DataOutputStream(new ByteArrayOutputStream()));
+    BlockUpdateBatchPacket read = new BlockUpdateBatchPacket();
+    read.read(readBuffer);
+
+    assertEquals(2, read.getEntryCount());
+    assertEquals(1, read.getX(0));
+    assertEquals(3, read.getZ(0));
+    assertEquals(8, read.getBlockId(0));
+    assertEquals(-40, read.getX(1));
+    assertEquals(383, read.getY(1));
+    assertEquals(-7, read.getZ(1));
+    assertEquals(0, read.getBlockId(1));
+  }
+
+  @Test
+  void testRejectsMismatchedArrays() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new BlockUpdateBatchPacket(new int[4], new short[1]));
+  }
+}
@@ -0,0 +1,71 @@
+package common.network.packets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import common.network.Packet;
+import common.network.PacketBuffer;
+import common.world.ChunkData;
+
+class ChunkCacheStatePacketTest {
+
+  private static <T extends Packet> T roundTrip(Packet original, T target) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PacketBuffer writeBuffer =
+        new PacketBuffer(
+            new DataInputStream(new ByteArrayInputStream(new byte[0])), new DataOutputStream(baos));
+    original.write(writeBuffer);
+
+    PacketBuffer readBuffer =
+        new PacketBuffer(
+            new DataInputStream(new ByteArrayInputStream(baos.toByteArray())),
+            new DataOutputStream(new ByteArrayOutputStream()));
+    target.read(readBuffer);
+    return target;
+  }
+
+  @Test
+  void testWriteReadRoundTrip() throws IOException {
+    ChunkCacheStatePacket original =
+        new ChunkCacheStatePacket(new long[] {1L, -5L, 42L}, new long[] {7L, 0L, -9L});
+
+    ChunkCacheStatePacket read = roundTrip(original, new ChunkCacheStatePacket());
+
+    assertEquals(3, read.getEntryCount());
+    assertEquals(-5L, read.getChunkKey(1));
+    assertEquals(0L, read.getContentHash(1));
+    assertEquals(-9L, read.getContentHash(2));
+  }
+
+  @Test
+  void testRejectsMismatchedArrays() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ChunkCacheStatePacket(new long[2], new long[1]));
+  }
+
+  @Test
+  void testCachedPacketRoundTrip() throws IOException {
+    ChunkCachedPacket read = roundTrip(new ChunkCachedPacket(-2, 9, 123L), new ChunkCachedPacket());
+
+    assertEquals(-2, read.getChunkX());
+    assertEquals(9, read.getChunkZ());
+    assertEquals(123L, read.getContentHash());
+  }
+
+  @Test
+  void testChunkDataPacketCarriesContentHash() throws IOException {
+    ChunkData chunk = new ChunkData(4, 5);
+    ChunkDataPacket read = roundTrip(new ChunkDataPacket(chunk), new ChunkDataPacket());
+
+    assertEquals(chunk.computeContentHash(), read.getContentHash());
+  }
+}
@@ -0,0 +1,98 @@
+package common.network.packets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.junit.jupiter.api.Test;
+
+import common.world.ChunkData;
+import common.world.LightEngine;
+
+class ChunkDataPacketTest {
+
+  private static ChunkData randomChunk(long seed) {
+    ChunkData chunk = new ChunkData(3, -4);
+    Random random = new Random(seed);
+    short[] blocks = chunk.getRawBlockData();
+    for (int i = 0; i < blocks.length; i++) {
+      // Großteils Luft, damit die Daten komprimierbar bleiben
+      blocks[i] = random.nextInt(4) == 0 ? (short) random.nextInt(4096) : 0;
+    }
+    return chunk;
+  }
+
+  @Test
+  void testDecompressRoundTrip() {
+    ChunkData chunk = randomChunk(1);
+    ChunkDataPacket packet = new ChunkDataPacket(chunk);
+
+    assertArrayEquals(chunk.getRawBlockData(), packet.decompress());
+  }
+
+  @Test
+  void testDecompressIntoReusedArrayWithPooledInflater() throws DataFormatException {
+    Inflater inflater = new Inflater();
+    short[] target = new short[ChunkData.WIDTH * ChunkData.HEIGHT * ChunkData.DEPTH];
+
+    for (long seed = 1; seed <= 3; seed++) {
+      ChunkData chunk = randomChunk(seed);
+      Arrays.fill(target, (short) 7);
+      new ChunkDataPacket(chunk).decompress(target, inflater);
+      assertArrayEquals(chunk.getRawBlockData(), target);
+    }
+    inflater.end();
+  }
+
+  @Test
+  void testLightRoundTrip() throws DataFormatException {
+    ChunkData chunk = randomChunk(4);
+    new LightEngine(null).lightChunk(chunk);
+    ChunkData target = new ChunkData(3, -4);
+    Inflater inflater = new Inflater();
+
+    assertTrue(new ChunkDataPacket(chunk).decompressLight(target, inflater));
+    assertTrue(target.hasLight());
+    assertArrayEquals(
+        chunk.getSkyLightArray().getRawData(), target.getSkyLightArray().getRawData());
+    assertArrayEquals(
+        chunk.getBlockLightArray().getRawData(), target.getBlockLightArray().getRawData());
+    inflater.end();
+  }
+
+  @Test
+  void testUnlitChunkSendsNoLight() throws DataFormatException {
+    ChunkDataPacket packet = new ChunkDataPacket(new ChunkData(0, 0));
+    ChunkData target = new ChunkData(0, 0);
+
+    assertFalse(packet.hasLight());
+    assertFalse(packet.decompressLight(target, new Inflater()));
+    assertFalse(target.hasLight());
+  }
+
+  @Test
+  void testCorruptDataIsRejected() {
+    ChunkDataPacket packet = new ChunkDataPacket(0, 0, new byte[] {1, 2, 3, 4});
+    short[] target = new short[ChunkData.WIDTH * ChunkData.HEIGHT * ChunkData.DEPTH];
+    Inflater inflater = new Inflater();
+
+    assertThrows(DataFormatException.class, () -> packet.decompress(target, inflater));
+    assertEquals(0, packet.decompress().length);
+    inflater.end();
+  }
+
+  @Test
+  void testRejectsWrongTargetSize() {
+    ChunkDataPacket packet = new ChunkDataPacket(new ChunkData(0, 0));
+
+    assertThrows(
+        IllegalArgumentException.class, () -> packet.decompress(new short[16], new Inflater()));
+  }
+}
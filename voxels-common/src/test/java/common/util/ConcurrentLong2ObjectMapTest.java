@@ -0,0 +1,141 @@
+package common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLong2ObjectMapTest {
+
+  @Test
+  @DisplayName("Should match HashMap under random puts and removes")
+  void testMatchesHashMap() {
+    Random random = new Random(5);
+    ConcurrentLong2ObjectMap<Integer> map = new ConcurrentLong2ObjectMap<>(2);
+    Map<Long, Integer> expected = new HashMap<>();
+
+    for (int i = 0; i < 20_000; i++) {
+      long key = random.nextInt(64) - 32;
+      int action = random.nextInt(5);
+      if (action == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else if (action == 1) {
+        assertEquals(expected.putIfAbsent(key, i), map.putIfAbsent(key, i));
+      } else if (action == 2) {
+        Integer value = random.nextBoolean() ? expected.get(key) : Integer.valueOf(-1);
+        assertEquals(expected.remove(key, value), map.remove(key, value));
+      } else {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+
+    Map<Long, Integer> visited = new HashMap<>();
+    map.forEach(visited::put);
+    assertEquals(expected, visited);
+    assertEquals(expected.size(), map.values().size());
+  }
+
+  @Test
+  @DisplayName("Should allow removing entries while visiting them")
+  void testRemoveDuringForEach() {
+    ConcurrentLong2ObjectMap<Long> map = new ConcurrentLong2ObjectMap<>();
+    for (long key = 0; key < 100; key++) {
+      map.put(key, key);
+    }
+
+    map.forEach(
+        (key, value) -> {
+          if (key % 2 == 0) map.remove(key);
+        });
+
+    assertEquals(50, map.size());
+    assertNull(map.get(0));
+    assertTrue(map.containsKey(1));
+  }
+
+  @Test
+  @DisplayName("Should keep stable entries visible to readers while others change")
+  void testConcurrentReaders() throws Exception {
+    ConcurrentLong2ObjectMap<Long> map = new ConcurrentLong2ObjectMap<>();
+    // Stabile Einträge mit geraden Schlüsseln, der Schreiber ändert nur ungerade
+    for (long key = 0; key < 1_000; key += 2) {
+      map.put(key, key);
+    }
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<String> failure = new AtomicReference<>();
+
+    Thread writer =
+        new Thread(
+            () -> {
+              Random random = new Random(1);
+              while (running.get()) {
+                long key = random.nextInt(5_000) * 2L + 1;
+                if (random.nextBoolean()) {
+                  map.put(key, key);
+                } else {
+                  map.remove(key);
+                }
+              }
+            });
+
+    Thread reader =
+        new Thread(
+            () -> {
+              for (int round = 0; round < 200 && failure.get() == null; round++) {
+                for (long key = 0; key < 1_000; key += 2) {
+                  Long value = map.get(key);
+                  if (value == null || value != key) {
+                    failure.set("Lost key " + key);
+                    return;
+                  }
+                }
+                for (long key = 1; key < 1_000; key += 2) {
+                  Long value = map.get(key);
+                  if (value != null && value != key) {
+                    failure.set("Wrong value for key " + key);
+                    return;
+                  }
+                }
+              }
+            });
+
+    writer.start();
+    reader.start();
+    reader.join(30_000);
+    running.set(false);
+    writer.join(30_000);
+
+    assertNull(failure.get(), failure.get());
+    assertFalse(reader.isAlive());
+  }
+
+  @Test
+  @DisplayName("Should support zero and removeIf in the set view")
+  void testConcurrentLongSet() {
+    ConcurrentLongSet set = new ConcurrentLongSet();
+
+    assertTrue(set.add(0));
+    assertFalse(set.add(0));
+    for (long value : List.of(1L, 2L, 3L, 4L)) {
+      set.add(value);
+    }
+
+    assertEquals(2, set.removeIf(value -> value % 2 == 0 && value != 0));
+    assertTrue(set.contains(0));
+    assertTrue(set.contains(3));
+    assertFalse(set.contains(4));
+    assertEquals(3, set.size());
+  }
+}
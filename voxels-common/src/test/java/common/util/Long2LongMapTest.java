@@ -0,0 +1,70 @@
+package common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class Long2LongMapTest {
+
+  @Test
+  @DisplayName("Should put, get and remove values including key zero")
+  void testPutGetRemove() {
+    Long2LongMap map = new Long2LongMap();
+
+    assertTrue(map.put(0, 10));
+    assertTrue(map.put(-5, -1));
+    assertFalse(map.put(0, 20));
+
+    assertEquals(20, map.get(0, -1));
+    assertEquals(-1, map.get(-5, 99));
+    assertEquals(99, map.get(5, 99));
+    assertTrue(map.containsKey(-5));
+    assertFalse(map.containsKey(5));
+    assertEquals(2, map.size());
+
+    assertTrue(map.remove(0));
+    assertFalse(map.remove(0));
+    assertFalse(map.containsKey(0));
+    assertEquals(7, map.get(0, 7));
+    assertEquals(1, map.size());
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(-5));
+  }
+
+  @Test
+  @DisplayName("Should match HashMap under random puts and removes")
+  void testMatchesHashMap() {
+    Random random = new Random(17);
+    Long2LongMap map = new Long2LongMap(2);
+    Map<Long, Long> expected = new HashMap<>();
+
+    for (int i = 0; i < 20_000; i++) {
+      long key = ((long) random.nextInt(32) << 32) | (random.nextInt(32) & 0xffffffffL);
+      if (random.nextInt(3) > 0) {
+        long value = random.nextLong();
+        assertEquals(expected.put(key, value) == null, map.put(key, value));
+      } else {
+        assertEquals(expected.remove(key) != null, map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+
+    for (long x = 0; x < 32; x++) {
+      for (long z = 0; z < 32; z++) {
+        long key = (x << 32) | z;
+        Long value = expected.get(key);
+        assertEquals(value != null, map.containsKey(key));
+        assertEquals(value != null ? value : Long.MIN_VALUE, map.get(key, Long.MIN_VALUE));
+      }
+    }
+  }
+}
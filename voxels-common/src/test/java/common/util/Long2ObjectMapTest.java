@@ -0,0 +1,122 @@
+package common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class Long2ObjectMapTest {
+
+  @Test
+  @DisplayName("Should put, get and remove values including key zero")
+  void testPutGetRemove() {
+    Long2ObjectMap<String> map = new Long2ObjectMap<>();
+
+    assertNull(map.put(0, "zero"));
+    assertNull(map.put(-5, "minus five"));
+    assertEquals("zero", map.put(0, "null"));
+
+    assertEquals("null", map.get(0));
+    assertEquals("minus five", map.get(-5));
+    assertNull(map.get(5));
+    assertEquals(2, map.size());
+
+    assertEquals("null", map.remove(0));
+    assertNull(map.remove(0));
+    assertFalse(map.containsKey(0));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  @DisplayName("Should match HashMap under random puts and removes")
+  void testMatchesHashMap() {
+    Random random = new Random(11);
+    Long2ObjectMap<Integer> map = new Long2ObjectMap<>(2);
+    Map<Long, Integer> expected = new HashMap<>();
+
+    for (int i = 0; i < 20_000; i++) {
+      long key = ((long) random.nextInt(32) << 32) | (random.nextInt(32) & 0xffffffffL);
+      if (random.nextInt(3) > 0) {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+
+    Map<Long, Integer> visited = new HashMap<>();
+    map.forEach(visited::put);
+    assertEquals(expected, visited);
+    assertEquals(expected.size(), map.values().size());
+  }
+
+  @Test
+  @DisplayName("Should visit every entry exactly once in removeIf")
+  void testRemoveIf() {
+    Long2ObjectMap<Long> map = new Long2ObjectMap<>();
+    Map<Long, Integer> visits = new HashMap<>();
+    for (long key = -200; key <= 200; key++) {
+      map.put(key, key);
+    }
+
+    int removed =
+        map.removeIf(
+            (key, value) -> {
+              visits.merge(key, 1, Integer::sum);
+              return key % 3 == 0;
+            });
+
+    assertEquals(401, visits.size());
+    assertTrue(visits.values().stream().allMatch(count -> count == 1));
+    assertEquals(133, removed);
+    assertEquals(401 - 133, map.size());
+    for (long key = -200; key <= 200; key++) {
+      assertEquals(key % 3 != 0, map.containsKey(key));
+    }
+  }
+
+  @Test
+  @DisplayName("Should compute missing values once")
+  void testComputeIfAbsent() {
+    Long2ObjectMap<Object> map = new Long2ObjectMap<>();
+
+    Object first = map.computeIfAbsent(7, key -> new Object());
+    Object second = map.computeIfAbsent(7, key -> new Object());
+
+    assertSame(first, second);
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  @DisplayName("Should fail fast when changed while iterating values")
+  void testValuesFailFast() {
+    Long2ObjectMap<String> map = new Long2ObjectMap<>();
+    map.put(1, "a");
+    map.put(2, "b");
+
+    Iterator<String> iterator = map.values().iterator();
+    iterator.next();
+    map.put(3, "c");
+
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+  }
+
+  @Test
+  @DisplayName("Should reject null values")
+  void testNullValue() {
+    Long2ObjectMap<String> map = new Long2ObjectMap<>();
+
+    assertThrows(NullPointerException.class, () -> map.put(1, null));
+  }
+}
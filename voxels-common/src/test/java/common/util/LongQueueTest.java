@@ -0,0 +1,57 @@
+package common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongQueueTest {
+
+  @Test
+  @DisplayName("Should return values in insertion order while growing")
+  void testOrderAcrossGrowth() {
+    LongQueue queue = new LongQueue(2);
+
+    // Kopf verschieben, damit das Wachsen über das Array-Ende hinweg kopiert
+    queue.addLast(-1);
+    queue.removeFirst();
+    for (long i = 0; i < 100; i++) {
+      queue.addLast(i);
+    }
+
+    assertEquals(100, queue.size());
+    for (long i = 0; i < 100; i++) {
+      assertEquals(i, queue.removeFirst());
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should throw when removing from an empty queue")
+  void testRemoveFromEmpty() {
+    LongQueue queue = new LongQueue();
+    queue.addLast(5);
+    queue.clear();
+
+    assertTrue(queue.isEmpty());
+    assertThrows(NoSuchElementException.class, queue::removeFirst);
+    assertThrows(NoSuchElementException.class, queue::peekFirst);
+  }
+
+  @Test
+  @DisplayName("Should peek at the oldest value without removing it")
+  void testPeekFirst() {
+    LongQueue queue = new LongQueue();
+    queue.addLast(7);
+    queue.addLast(8);
+
+    assertEquals(7, queue.peekFirst());
+    assertEquals(2, queue.size());
+    assertEquals(7, queue.removeFirst());
+    assertEquals(8, queue.peekFirst());
+  }
+}
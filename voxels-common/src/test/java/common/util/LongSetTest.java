@@ -0,0 +1,89 @@
+package common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongSetTest {
+
+  @Test
+  @DisplayName("Should add, find and remove values")
+  void testAddContainsRemove() {
+    LongSet set = new LongSet();
+
+    assertTrue(set.add(42));
+    assertFalse(set.add(42));
+    assertTrue(set.contains(42));
+    assertEquals(1, set.size());
+
+    assertTrue(set.remove(42));
+    assertFalse(set.remove(42));
+    assertFalse(set.contains(42));
+    assertTrue(set.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should treat zero like any other value")
+  void testZero() {
+    LongSet set = new LongSet();
+
+    assertFalse(set.contains(0));
+    assertTrue(set.add(0));
+    assertFalse(set.add(0));
+    assertTrue(set.contains(0));
+    assertEquals(1, set.size());
+
+    assertTrue(set.remove(0));
+    assertFalse(set.contains(0));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  @DisplayName("Should match HashSet under random adds and removes")
+  void testMatchesHashSet() {
+    Random random = new Random(7);
+    LongSet set = new LongSet(4);
+    Set<Long> expected = new HashSet<>();
+
+    for (int i = 0; i < 20_000; i++) {
+      // Kleiner Wertebereich erzwingt Kollisionen und Entfernen mitten in Ketten
+      long value = ((long) random.nextInt(64) << 32) | (random.nextInt(64) & 0xffffffffL);
+      if (random.nextBoolean()) {
+        assertEquals(expected.add(value), set.add(value));
+      } else {
+        assertEquals(expected.remove(value), set.remove(value));
+      }
+      assertEquals(expected.size(), set.size());
+    }
+
+    for (long value : expected) {
+      assertTrue(set.contains(value));
+    }
+    Set<Long> visited = new HashSet<>();
+    set.forEach(visited::add);
+    assertEquals(expected, visited);
+  }
+
+  @Test
+  @DisplayName("Should be empty after clear")
+  void testClear() {
+    LongSet set = new LongSet();
+    for (long i = -50; i < 50; i++) {
+      set.add(i);
+    }
+
+    set.clear();
+
+    assertTrue(set.isEmpty());
+    assertFalse(set.contains(0));
+    assertFalse(set.contains(-7));
+    assertTrue(set.add(-7));
+  }
+}
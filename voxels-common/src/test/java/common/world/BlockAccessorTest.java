@@ -0,0 +1,123 @@
+package common.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.Blocks;
+
+class BlockAccessorTest {
+
+  private World world;
+
+  private BlockAccessor accessor;
+
+  @BeforeEach
+  void setUp() {
+    world = new World();
+    accessor = new BlockAccessor(world);
+  }
+
+  @Test
+  @DisplayName("Should read blocks on both sides of chunk borders, including negative coordinates")
+  void testCrossBorder() {
+    world.addChunk(new ChunkData(0, 0));
+    world.addChunk(new ChunkData(-1, 0));
+    world.addChunk(new ChunkData(0, -1));
+    world.setBlock(0, 10, 0, Blocks.STONE.getId());
+    world.setBlock(-1, 10, 0, Blocks.DIRT.getId());
+    world.setBlock(0, 10, -1, Blocks.GLASS.getId());
+
+    assertEquals(Blocks.STONE.getId(), accessor.getBlockId(0, 10, 0));
+    assertEquals(Blocks.DIRT.getId(), accessor.getBlockId(-1, 10, 0));
+    assertEquals(Blocks.GLASS.getId(), accessor.getBlockId(0, 10, -1));
+    assertSame(Blocks.DIRT, accessor.getBlock(-1, 10, 0));
+    assertTrue(accessor.isSolid(0, 10, 0));
+    assertFalse(accessor.isSolid(1, 10, 0));
+  }
+
+  @Test
+  @DisplayName("Should return air outside the world height and in missing chunks")
+  void testOutside() {
+    world.addChunk(new ChunkData(0, 0));
+    world.setBlock(3, 0, 3, Blocks.STONE.getId());
+
+    assertSame(Blocks.AIR, accessor.getBlock(3, -1, 3));
+    assertSame(Blocks.AIR, accessor.getBlock(3, ChunkData.HEIGHT, 3));
+    assertSame(Blocks.AIR, accessor.getBlock(40, 0, 3));
+    assertNull(accessor.getChunk(2, 0));
+    assertFalse(accessor.isSolid(40, 0, 3));
+  }
+
+  @Test
+  @DisplayName("Should see chunks added after invalidate")
+  void testInvalidate() {
+    assertSame(Blocks.AIR, accessor.getBlock(5, 5, 5));
+
+    ChunkData chunk = new ChunkData(0, 0);
+    chunk.setBlockId(Blocks.STONE.getId(), 5, 5, 5);
+    world.addChunk(chunk);
+    accessor.invalidate();
+
+    assertSame(Blocks.STONE, accessor.getBlock(5, 5, 5));
+  }
+
+  @Test
+  @DisplayName("Should look a cached chunk up again once it was reused for another position")
+  void testPooledChunk() {
+    ChunkData pooled = new ChunkData(0, 0);
+    pooled.setBlockId(Blocks.STONE.getId(), 1, 1, 1);
+    world.addChunk(pooled);
+    assertSame(Blocks.STONE, accessor.getBlock(1, 1, 1));
+
+    // Wie ein Chunk aus dem Pool, der an neuer Position wiederverwendet wird
+    world.removeChunk(0, 0);
+    pooled.chunkX = 4;
+    world.addChunk(pooled);
+    ChunkData replacement = new ChunkData(0, 0);
+    world.addChunk(replacement);
+
+    assertSame(replacement, accessor.getChunk(0, 0));
+    assertSame(Blocks.AIR, accessor.getBlock(1, 1, 1));
+  }
+
+  @Test
+  @DisplayName("Should match World.getBlock along a random walk across many chunks")
+  void testMatchesWorld() {
+    Random random = new Random(3);
+    for (int cx = -3; cx <= 3; cx++) {
+      for (int cz = -3; cz <= 3; cz++) {
+        if (random.nextInt(5) == 0) continue;
+        world.addChunk(new ChunkData(cx, cz));
+      }
+    }
+    for (int i = 0; i < 5_000; i++) {
+      world.setBlock(
+          random.nextInt(112) - 56,
+          random.nextInt(20),
+          random.nextInt(112) - 56,
+          (short) (1 + random.nextInt(3)));
+    }
+
+    int x = 0;
+    int y = 10;
+    int z = 0;
+    for (int i = 0; i < 20_000; i++) {
+      x = Math.max(-60, Math.min(60, x + random.nextInt(5) - 2));
+      y = Math.max(-2, Math.min(22, y + random.nextInt(3) - 1));
+      z = Math.max(-60, Math.min(60, z + random.nextInt(5) - 2));
+      if (random.nextInt(500) == 0) x = -x;
+
+      assertSame(world.getBlock(x, y, z), accessor.getBlock(x, y, z));
+      assertEquals(world.isSolid(x, y, z), accessor.isSolid(x, y, z));
+    }
+  }
+}
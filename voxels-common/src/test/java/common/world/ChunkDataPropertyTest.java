@@ -47,6 +47,28 @@ class ChunkDataPropertyTest {
     }
   }
 
+  @Property(tries = 100)
+  void sectionSummariesMustMatchFullScan(@ForAll("blockOperations") java.util.List<BlockOp> ops) {
+
+    ChunkData chunk = new ChunkData(0, 0);
+
+    for (BlockOp op : ops) {
+      chunk.setBlockId(op.id, op.x, op.y, op.z);
+    }
+
+    ChunkData scanned =
+        new ChunkData(0, 0, chunk.getRawBlockData().clone(), chunk.getRawHeightMap().clone());
+
+    for (int section = 0; section < ChunkData.SECTION_COUNT; section++) {
+      Assertions.assertEquals(
+          scanned.getSectionAirCount(section), chunk.getSectionAirCount(section));
+      Assertions.assertEquals(
+          scanned.isSectionFullyOpaque(section), chunk.isSectionFullyOpaque(section));
+      Assertions.assertEquals(scanned.getSectionMaxY(section), chunk.getSectionMaxY(section));
+    }
+    Assertions.assertEquals(scanned.getMaxY(), chunk.getMaxY());
+  }
+
   @Provide
   Arbitrary<java.util.List<BlockOp>> blockOperations() {
 
@@ -12,8 +12,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import common.game.block.BlockRegistry;
 import common.game.block.BlockType;
 import common.game.block.Blocks;
+import common.game.block.RandomTickBehavior;
 import math.Bounds;
 
 class ChunkDataTest {
@@ -768,4 +770,124 @@ class ChunkDataTest {
     chunk.setDirty(true);
     assertTrue(chunk.isDirty());
   }
+
+  @Test
+  void testNewChunkSectionsAreEmpty() {
+    for (int section = 0; section < ChunkData.SECTION_COUNT; section++) {
+      assertTrue(chunk.isSectionEmpty(section));
+      assertFalse(chunk.isSectionFullyOpaque(section));
+      assertEquals(-1, chunk.getSectionMaxY(section));
+    }
+    assertEquals(-1, chunk.getMaxY());
+  }
+
+  @Test
+  void testSectionSummaryTracksPlacementAndRemoval() {
+    chunk.setBlockAt(Blocks.STONE, 3, 20, 4);
+    chunk.setBlockAt(Blocks.STONE, 3, 25, 4);
+
+    assertEquals(ChunkData.SECTION_VOLUME - 2, chunk.getSectionAirCount(1));
+    assertEquals(25, chunk.getSectionMaxY(1));
+    assertEquals(25, chunk.getMaxY());
+
+    chunk.setBlockAt(Blocks.AIR, 3, 25, 4);
+    assertEquals(20, chunk.getSectionMaxY(1));
+
+    chunk.setBlockAt(Blocks.AIR, 3, 20, 4);
+    assertTrue(chunk.isSectionEmpty(1));
+    assertEquals(-1, chunk.getMaxY());
+  }
+
+  @Test
+  void testFullyOpaqueSection() {
+    for (int y = 16; y < 32; y++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        for (int x = 0; x < ChunkData.WIDTH; x++) {
+          chunk.setBlockAt(Blocks.STONE, x, y, z);
+        }
+      }
+    }
+    assertTrue(chunk.isSectionFullyOpaque(1));
+    assertFalse(chunk.isSectionFullyOpaque(0));
+
+    chunk.setBlockAt(Blocks.GLASS, 7, 20, 7);
+    assertFalse(chunk.isSectionFullyOpaque(1), "Glass does not hide faces behind it.");
+    assertEquals(0, chunk.getSectionAirCount(1));
+  }
+
+  @Test
+  void testSetBlockDataRecalculatesSections() {
+    short[] data = new short[ChunkData.WIDTH * ChunkData.HEIGHT * ChunkData.DEPTH];
+    data[chunk.getIndex(0, 100, 0)] = Blocks.STONE.getId();
+
+    chunk.setBlockData(data);
+
+    assertEquals(ChunkData.SECTION_VOLUME - 1, chunk.getSectionAirCount(6));
+    assertEquals(100, chunk.getMaxY());
+
+    chunk.clear();
+    assertTrue(chunk.isSectionEmpty(6));
+  }
+
+  @Test
+  void testSwapContentsExchangesBlocksAndSummaries() {
+    ChunkData other = new ChunkData(5, 6);
+    other.setBlockAt(Blocks.STONE, 2, 40, 3);
+    chunk.setBlockAt(Blocks.DIRT, 1, 3, 1);
+
+    chunk.swapContents(other);
+
+    assertEquals(Blocks.STONE, chunk.getBlock(2, 40, 3));
+    assertEquals(Blocks.AIR, chunk.getBlock(1, 3, 1));
+    assertEquals(40, chunk.getMaxY());
+    assertEquals(40, chunk.getHeightValue(2, 3));
+    assertEquals(1, chunk.getChunkX(), "Coordinates must not be swapped.");
+
+    assertEquals(Blocks.DIRT, other.getBlock(1, 3, 1));
+    assertEquals(3, other.getMaxY());
+  }
+
+  @Test
+  void testTickableCountTracksPlacementAndRemoval() {
+    BlockType ticking = tickingBlock();
+    chunk.setBlockAt(ticking, 3, 20, 4);
+    chunk.setBlockAt(ticking, 3, 21, 4);
+    chunk.setBlockAt(Blocks.STONE, 5, 20, 5);
+
+    assertEquals(2, chunk.getSectionTickableCount(1));
+    assertEquals(0, chunk.getSectionTickableCount(0));
+    assertTrue(chunk.hasTickableBlocks());
+
+    chunk.setBlockAt(ticking, 3, 20, 4);
+    assertEquals(2, chunk.getSectionTickableCount(1), "The same block must not count twice.");
+
+    chunk.setBlockAt(Blocks.DIRT, 3, 20, 4);
+    chunk.setBlockAt(Blocks.AIR, 3, 21, 4);
+    assertEquals(0, chunk.getSectionTickableCount(1));
+    assertFalse(chunk.hasTickableBlocks());
+  }
+
+  @Test
+  void testTickableCountFollowsBulkData() {
+    short[] data = new short[ChunkData.WIDTH * ChunkData.HEIGHT * ChunkData.DEPTH];
+    data[chunk.getIndex(0, 100, 0)] = tickingBlock().getId();
+    chunk.setBlockData(data);
+    assertEquals(1, chunk.getSectionTickableCount(6));
+
+    ChunkData other = new ChunkData(5, 6);
+    chunk.swapContents(other);
+    assertFalse(chunk.hasTickableBlocks());
+    assertEquals(1, other.getSectionTickableCount(6));
+
+    other.clear();
+    assertFalse(other.hasTickableBlocks());
+  }
+
+  private static BlockType tickingBlock() {
+    BlockType existing = BlockRegistry.get((short) 4001);
+    if (existing != null) return existing;
+    RandomTickBehavior keep = (blocks, x, y, z, random) -> (short) 4001;
+    return BlockRegistry.register((short) 4001, "test:ticking")
+        .withBehavior(RandomTickBehavior.class, keep);
+  }
 }
@@ -0,0 +1,70 @@
+package common.world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import common.game.block.Blocks;
+import common.network.PacketBuffer;
+import common.network.packets.ChunkSummaryPacket;
+
+class ChunkSummaryTest {
+
+  @Test
+  void testSummarizesHighestBlockOfEachColumn() {
+    ChunkData chunk = new ChunkData(3, -2);
+    chunk.setBlockAt(Blocks.STONE, 1, 10, 2);
+    chunk.setBlockAt(Blocks.GRASS_BLOCK, 1, 11, 2);
+    chunk.setBlockAt(Blocks.SAND, 15, 0, 15);
+
+    ChunkSummary summary = ChunkSummary.of(chunk);
+
+    assertEquals(3, summary.getChunkX());
+    assertEquals(-2, summary.getChunkZ());
+    assertEquals(11, summary.getHeight(1, 2));
+    assertEquals(Blocks.GRASS_BLOCK.getId(), summary.getTopBlock(1, 2));
+    assertEquals(0, summary.getHeight(15, 15));
+    assertEquals(Blocks.SAND.getId(), summary.getTopBlock(15, 15));
+    assertEquals(Blocks.AIR.getId(), summary.getTopBlock(0, 0));
+  }
+
+  @Test
+  void testRejectsWrongColumnCount() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ChunkSummary(0, 0, new short[3], new short[ChunkSummary.COLUMNS]));
+  }
+
+  @Test
+  void testPacketRoundTrip() throws IOException {
+    ChunkData chunk = new ChunkData(-7, 9);
+    chunk.setBlockAt(Blocks.STONE, 4, 100, 5);
+    ChunkSummary original = ChunkSummary.of(chunk);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    new ChunkSummaryPacket(original)
+        .write(
+            new PacketBuffer(
+                new DataInputStream(new ByteArrayInputStream(new byte[0])),
+                new DataOutputStream(baos)));
+    ChunkSummaryPacket read = new ChunkSummaryPacket();
+    read.read(
+        new PacketBuffer(
+            new DataInputStream(new ByteArrayInputStream(baos.toByteArray())),
+            new DataOutputStream(new ByteArrayOutputStream())));
+
+    ChunkSummary summary = read.getSummary();
+    assertEquals(-7, summary.getChunkX());
+    assertEquals(9, summary.getChunkZ());
+    assertArrayEquals(original.getHeights(), summary.getHeights());
+    assertArrayEquals(original.getTopBlocks(), summary.getTopBlocks());
+  }
+}
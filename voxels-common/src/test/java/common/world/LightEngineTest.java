@@ -0,0 +1,219 @@
+package common.world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+
+class LightEngineTest {
+
+  private static final short STONE = Blocks.STONE.getId();
+
+  private static final short AIR = Blocks.AIR.getId();
+
+  // Eigene ID, damit kein echter Block eine Lichtquelle wird
+  private static final short LAMP = lamp().getId();
+
+  private static final int FLOOR_Y = 10;
+
+  private static BlockType lamp() {
+    BlockType existing = BlockRegistry.get((short) 4000);
+    return existing != null
+        ? existing
+        : BlockRegistry.register((short) 4000, "test:lamp").setLightEmission(14);
+  }
+
+  private static ChunkData floorChunk(int chunkX, int chunkZ) {
+    ChunkData chunk = new ChunkData(chunkX, chunkZ);
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        for (int y = 0; y <= FLOOR_Y; y++) {
+          chunk.setBlockId(STONE, x, y, z);
+        }
+      }
+    }
+    return chunk;
+  }
+
+  @Test
+  @DisplayName("Should fill open columns with full sky light down to the first opaque block")
+  void testSkyColumns() {
+    ChunkData chunk = floorChunk(0, 0);
+    new LightEngine(null).lightChunk(chunk);
+
+    assertTrue(chunk.hasLight());
+    assertEquals(15, chunk.getSkyLight(3, ChunkData.HEIGHT - 1, 3));
+    assertEquals(15, chunk.getSkyLight(3, FLOOR_Y + 1, 3));
+    assertEquals(0, chunk.getSkyLight(3, FLOOR_Y, 3));
+    assertEquals(0, chunk.getSkyLight(3, 0, 3));
+  }
+
+  @Test
+  @DisplayName("Should let sky light fall off by one per block under an overhang")
+  void testOverhang() {
+    ChunkData chunk = floorChunk(0, 0);
+    for (int x = 0; x < 8; x++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        chunk.setBlockId(STONE, x, 20, z);
+      }
+    }
+    new LightEngine(null).lightChunk(chunk);
+
+    assertEquals(15, chunk.getSkyLight(8, 15, 5));
+    assertEquals(14, chunk.getSkyLight(7, 15, 5));
+    assertEquals(13, chunk.getSkyLight(6, 15, 5));
+    assertEquals(8, chunk.getSkyLight(1, 15, 5));
+  }
+
+  @Test
+  @DisplayName("Should spread block light from emitters in a diamond")
+  void testEmitter() {
+    ChunkData chunk = floorChunk(0, 0);
+    chunk.setBlockId(LAMP, 8, FLOOR_Y + 1, 8);
+    new LightEngine(null).lightChunk(chunk);
+
+    assertEquals(14, chunk.getBlockLight(8, FLOOR_Y + 1, 8));
+    assertEquals(13, chunk.getBlockLight(9, FLOOR_Y + 1, 8));
+    assertEquals(10, chunk.getBlockLight(9, FLOOR_Y + 2, 10));
+    assertEquals(0, chunk.getBlockLight(8, FLOOR_Y, 8), "Stone below the lamp stays dark");
+  }
+
+  @Test
+  @DisplayName("Should carry light across chunk borders when stitching")
+  void testStitch() {
+    World world = new World();
+    ChunkData lit = floorChunk(0, 0);
+    lit.setBlockId(LAMP, 15, FLOOR_Y + 1, 4);
+    ChunkData dark = floorChunk(-1, 0);
+    // Dach über dem Nachbarn, damit nur Blocklicht hineinfällt
+    ChunkData roofed = floorChunk(1, 0);
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        roofed.setBlockId(STONE, x, FLOOR_Y + 5, z);
+      }
+    }
+
+    for (ChunkData chunk : new ChunkData[] {dark, roofed, lit}) {
+      world.getLightEngine().lightChunk(chunk);
+      world.addChunk(chunk);
+      world.getLightEngine().stitchChunk(chunk);
+    }
+
+    assertEquals(13, roofed.getBlockLight(0, FLOOR_Y + 1, 4));
+    assertEquals(14, roofed.getSkyLight(0, FLOOR_Y + 1, 8));
+    assertEquals(13, roofed.getSkyLight(1, FLOOR_Y + 1, 8));
+    assertTrue(world.getLightEngine().hasChanges());
+  }
+
+  @Test
+  @DisplayName("Should darken below a new roof and restore the light once it is removed")
+  void testSetBlockUpdatesLight() {
+    World world = lightWorld(0, 0);
+
+    world.setBlock(4, FLOOR_Y + 3, 4, STONE);
+    assertEquals(14, world.getChunk(0, 0).getSkyLight(4, FLOOR_Y + 2, 4));
+    LightEngine light = world.getLightEngine();
+    assertTrue(light.hasChanges());
+    assertEquals(FLOOR_Y + 1, light.getChangedMinY());
+    assertEquals(FLOOR_Y + 3, light.getChangedMaxY());
+
+    world.setBlock(4, FLOOR_Y + 3, 4, AIR);
+    assertEquals(15, world.getChunk(0, 0).getSkyLight(4, FLOOR_Y + 2, 4));
+  }
+
+  @Test
+  @DisplayName("Should match a full relight after random edits across chunk borders")
+  void testIncrementalMatchesFullRelight() {
+    World world = lightWorld(-1, 1);
+    Random random = new Random(12);
+    short[] palette = {STONE, AIR, AIR, LAMP};
+
+    for (int i = 0; i < 300; i++) {
+      int x = random.nextInt(48) - 16;
+      int z = random.nextInt(48) - 16;
+      int y = FLOOR_Y - 2 + random.nextInt(14);
+      world.setBlock(x, y, z, palette[random.nextInt(palette.length)]);
+    }
+
+    World expected = new World();
+    for (int cx = -1; cx <= 1; cx++) {
+      for (int cz = -1; cz <= 1; cz++) {
+        ChunkData source = world.getChunk(cx, cz);
+        ChunkData copy =
+            new ChunkData(
+                cx, cz, source.getRawBlockData().clone(), source.getRawHeightMap().clone());
+        expected.getLightEngine().lightChunk(copy);
+        expected.addChunk(copy);
+        expected.getLightEngine().stitchChunk(copy);
+      }
+    }
+
+    for (int cx = -1; cx <= 1; cx++) {
+      for (int cz = -1; cz <= 1; cz++) {
+        ChunkData actual = world.getChunk(cx, cz);
+        ChunkData reference = expected.getChunk(cx, cz);
+        assertArrayEquals(
+            reference.getSkyLightArray().getRawData(),
+            actual.getSkyLightArray().getRawData(),
+            "Sky light of chunk " + cx + ", " + cz);
+        assertArrayEquals(
+            reference.getBlockLightArray().getRawData(),
+            actual.getBlockLightArray().getRawData(),
+            "Block light of chunk " + cx + ", " + cz);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should leave chunks without computed light alone")
+  void testUnlitChunksAreSkipped() {
+    World world = new World();
+    ChunkData chunk = floorChunk(0, 0);
+    world.addChunk(chunk);
+
+    world.setBlock(1, FLOOR_Y + 1, 1, LAMP);
+
+    assertFalse(chunk.hasLight());
+    assertEquals(0, chunk.getBlockLight(1, FLOOR_Y + 1, 1));
+    assertFalse(world.getLightEngine().hasChanges());
+  }
+
+  @Test
+  @DisplayName("Should pack two entries per byte")
+  void testNibbleArray() {
+    NibbleArray array = new NibbleArray(4);
+    array.set(0, 3);
+    array.set(1, 15);
+    array.set(2, 7);
+    array.set(1, 9);
+
+    assertEquals(3, array.get(0));
+    assertEquals(9, array.get(1));
+    assertEquals(7, array.get(2));
+    assertEquals(0, array.get(3));
+    assertEquals(2, array.getRawData().length);
+  }
+
+  /** Returns a world of lit floor chunks from {@code min} to {@code max} on both axes. */
+  private static World lightWorld(int min, int max) {
+    World world = new World();
+    for (int cx = min; cx <= max; cx++) {
+      for (int cz = min; cz <= max; cz++) {
+        ChunkData chunk = floorChunk(cx, cz);
+        world.getLightEngine().lightChunk(chunk);
+        world.addChunk(chunk);
+        world.getLightEngine().stitchChunk(chunk);
+      }
+    }
+    return world;
+  }
+}
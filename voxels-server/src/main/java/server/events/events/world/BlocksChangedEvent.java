@@ -0,0 +1,47 @@
+package server.events.events.world;
+
+/**
+ * Event fired once per tick with the blocks the world changed on its own during that tick, for
+ * example by flowing water.
+ *
+ * <p>Changes made by players are not part of this event, they are sent by their use cases.
+ *
+ * <p>This event is not cancellable.
+ */
+public class BlocksChangedEvent extends WorldEvent {
+
+  /** Coordinates of the changed blocks, three per change. */
+  private final int[] positions;
+
+  /** The new block id per change. */
+  private final short[] blockIds;
+
+  /**
+   * Creates a new {@code BlocksChangedEvent}.
+   *
+   * @param positions x, y and z of every changed block, one after another.
+   * @param blockIds The new block ids, one per changed block.
+   */
+  public BlocksChangedEvent(int[] positions, short[] blockIds) {
+    this.positions = positions;
+    this.blockIds = blockIds;
+  }
+
+  /**
+   * Returns x, y and z of every changed block, one after another.
+   *
+   * @return The coordinates, three per change.
+   */
+  public int[] getPositions() {
+    return positions;
+  }
+
+  /**
+   * Returns the new block ids.
+   *
+   * @return One block id per change.
+   */
+  public short[] getBlockIds() {
+    return blockIds;
+  }
+}
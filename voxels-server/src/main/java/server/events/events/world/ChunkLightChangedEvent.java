@@ -0,0 +1,35 @@
+package server.events.events.world;
+
+import common.world.ChunkData;
+
+/**
+ * Event fired for a loaded chunk whose light changed without any of its blocks changing, because
+ * light of a newly loaded neighbour flowed into it.
+ *
+ * <p>Clients that already have the chunk hold its old light and need it again.
+ *
+ * <p>This event is not cancellable.
+ */
+public class ChunkLightChangedEvent extends WorldEvent {
+
+  /** The chunk whose light changed. */
+  private final ChunkData data;
+
+  /**
+   * Creates a new {@code ChunkLightChangedEvent}.
+   *
+   * @param data The chunk whose light changed.
+   */
+  public ChunkLightChangedEvent(ChunkData data) {
+    this.data = data;
+  }
+
+  /**
+   * Returns the chunk whose light changed.
+   *
+   * @return The chunk.
+   */
+  public ChunkData getData() {
+    return data;
+  }
+}
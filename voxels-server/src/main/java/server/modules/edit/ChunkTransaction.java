@@ -11,9 +11,11 @@ import java.util.concurrent.Executors;
 
 import common.network.packets.ChunkDataPacket;
 import common.world.ChunkData;
+import common.world.LightEngine;
 import common.world.WorldMath;
 import server.network.GameServer;
 import server.player.ServerPlayer;
+import server.world.FluidSimulation;
 import server.world.ServerWorld;
 
 public class ChunkTransaction {
@@ -41,6 +43,8 @@ public class ChunkTransaction {
   public void commit(ServerWorld world, GameServer server) {
 
     Set<ChunkData> touchedChunks = new HashSet<>();
+    LightEngine light = world.getLightEngine();
+    FluidSimulation fluids = world.getFluidSimulation();
 
     // =========================
     // 1. APPLY CHANGES (SYNC)
@@ -64,12 +68,26 @@ public class ChunkTransaction {
         if (by < 0 || by >= ChunkData.HEIGHT) continue;
 
         chunk.setBlockId(change.id(), bx, by, bz);
+        if (chunk.hasLight()) {
+          light.markBlockChanged(change.x(), by, change.z());
+        }
+        fluids.onBlockChanged(change.x(), by, change.z());
       }
 
       chunk.setDirty(true);
       touchedChunks.add(chunk);
     }
 
+    // Alle Änderungen in einem Durchlauf, statt die Lichtqueues pro Block zu füllen
+    light.propagate();
+
+    // Festhalten, bevor das Laden von Nachbarn unten die Grenzen der Engine überschreibt
+    boolean lightChanged = light.hasChanges();
+    int minCx = WorldMath.worldToChunk(light.getChangedMinX(), ChunkData.WIDTH);
+    int maxCx = WorldMath.worldToChunk(light.getChangedMaxX(), ChunkData.WIDTH);
+    int minCz = WorldMath.worldToChunk(light.getChangedMinZ(), ChunkData.DEPTH);
+    int maxCz = WorldMath.worldToChunk(light.getChangedMaxZ(), ChunkData.DEPTH);
+
     // 🔥 Player Snapshot (thread-safe)
     List<ServerPlayer> players = new ArrayList<>(server.getPlayerManager().getAllPlayers());
 
@@ -133,7 +151,47 @@ public class ChunkTransaction {
       }
     }
 
+    // =========================
+    // 4. LIGHT-ONLY UPDATES (ASYNC)
+    // =========================
+    if (lightChanged) {
+      for (int cx = minCx; cx <= maxCx; cx++) {
+        for (int cz = minCz; cz <= maxCz; cz++) {
+          ChunkData lit = world.getChunk(cx, cz);
+          // Geänderte Chunks und ihre direkten Nachbarn wurden oben schon verschickt
+          if (lit == null || isTouchedOrNeighbor(touchedChunks, cx, cz)) continue;
+
+          ChunkDataPacket packet = new ChunkDataPacket(lit);
+
+          NETWORK_EXECUTOR.submit(
+              () -> {
+                for (ServerPlayer player : players) {
+
+                  int dx = Math.abs(player.getChunkX() - lit.getChunkX());
+                  int dz = Math.abs(player.getChunkZ() - lit.getChunkZ());
+
+                  if (dx <= 8 && dz <= 8) {
+
+                    synchronized (player.getConnection()) {
+                      player.getConnection().send(packet);
+                    }
+                  }
+                }
+              });
+        }
+      }
+    }
+
     // optional: clear changes nach commit
     changes.clear();
   }
+
+  private static boolean isTouchedOrNeighbor(Set<ChunkData> touchedChunks, int cx, int cz) {
+    for (ChunkData chunk : touchedChunks) {
+      int dx = Math.abs(chunk.getChunkX() - cx);
+      int dz = Math.abs(chunk.getChunkZ() - cz);
+      if (dx + dz <= 1) return true;
+    }
+    return false;
+  }
 }
@@ -8,6 +8,7 @@ import java.util.UUID;
 
 import common.logging.Log;
 import common.network.Packet;
+import common.util.LongSet;
 import server.adapters.CommandAdapter;
 import server.adapters.ConfigAdapter;
 import server.adapters.EventAdapter;
@@ -331,10 +332,10 @@ public class GameServer {
 
   private void unloadUnusedChunks() {
     if (tick % 80 != 0) return;
-    java.util.Set<Long> allRequiredChunks = new java.util.HashSet<>();
+    LongSet allRequiredChunks = new LongSet();
     for (ServerPlayer player : playerManager.getAllPlayers()) {
-      allRequiredChunks.addAll(player.getLoadedChunks());
-      allRequiredChunks.addAll(player.getEnqueuedChunks());
+      player.getLoadedChunks().forEach(allRequiredChunks::add);
+      player.getEnqueuedChunks().forEach(allRequiredChunks::add);
     }
     //    Log.info("Start unload..." + allRequiredChunks.size());
     //    Log.info("Required chunks: " + allRequiredChunks.size());
@@ -377,6 +378,7 @@ public class GameServer {
     Log.info("Saving world before shutdown...");
     world.saveDirtyChunks();
     Log.info("World saved.");
+    world.shutdown();
 
     try {
       if (serverSocket != null && !serverSocket.isClosed()) {
@@ -10,11 +10,13 @@ import common.network.packets.BlockBreakPacket;
 import common.network.packets.BlockPickPacket;
 import common.network.packets.BlockPlacePacket;
 import common.network.packets.ChatMessagePacket;
+import common.network.packets.ChunkCacheStatePacket;
 import common.network.packets.InventoryActionPacket;
 import common.network.packets.PlayerDropItemPacket;
 import common.network.packets.PlayerJoinPacket;
 import common.network.packets.PlayerMovePacket;
 import server.gateways.GatewayContext;
+import server.network.handlers.ChunkCacheStateHandler;
 import server.network.handlers.InventoryActionHandler;
 import server.network.handlers.PlayerMoveHandler;
 import server.usecases.UseCaseRegistry;
@@ -56,6 +58,7 @@ public class ServerPacketDispatcher {
 
     register(PlayerDropItemPacket.class, new PlayerDropItemHandler(c, context)::handle);
     register(InventoryActionPacket.class, new InventoryActionHandler(c)::handle);
+    register(ChunkCacheStatePacket.class, new ChunkCacheStateHandler(c)::handle);
   }
 
   /**
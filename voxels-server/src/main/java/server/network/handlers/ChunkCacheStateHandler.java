@@ -0,0 +1,35 @@
+package server.network.handlers;
+
+import common.network.packets.ChunkCacheStatePacket;
+import server.network.ServerConnection;
+import server.player.ServerPlayer;
+
+/**
+ * Handles the chunk cache report of a client, so chunks the client already has are not sent
+ * again.
+ */
+public class ChunkCacheStateHandler {
+
+  private final ServerConnection connection;
+
+  public ChunkCacheStateHandler(ServerConnection connection) {
+    this.connection = connection;
+  }
+
+  public void handle(ChunkCacheStatePacket packet) {
+    ServerPlayer player = connection.getPlayer();
+
+    if (player == null) {
+      return;
+    }
+
+    int count = packet.getEntryCount();
+    long[] keys = new long[count];
+    long[] hashes = new long[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = packet.getChunkKey(i);
+      hashes[i] = packet.getContentHash(i);
+    }
+    player.updateClientChunkCache(keys, hashes);
+  }
+}
@@ -1,19 +1,22 @@
 package server.player;
 
-import java.util.Collections;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 import common.game.ItemStack;
+import common.network.Packet;
+import common.network.packets.ChunkCachedPacket;
 import common.network.packets.ChunkDataPacket;
+import common.network.packets.ChunkSummaryPacket;
 import common.network.packets.PlayerPositionPacket;
 import common.network.packets.TitlePacket;
 import common.player.PlayerData;
+import common.util.ConcurrentLongSet;
 import common.world.ChunkData;
+import common.world.ChunkSummary;
 import common.world.World;
 import server.network.PlayerManager;
 import server.network.ServerConnection;
+import server.util.LruCache;
 
 /**
  * Represents a player on the server side. Manages player state, inventory, and chunk streaming
@@ -39,15 +42,40 @@ public class ServerPlayer extends PlayerData {
   private final ServerConnection connection;
 
   /** Thread-safe set of chunks currently loaded on the client side */
-  private Set<Long> loadedChunks = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final ConcurrentLongSet loadedChunks = new ConcurrentLongSet();
 
-  private Set<Long> enqueuedChunks = ConcurrentHashMap.newKeySet();
+  private final ConcurrentLongSet enqueuedChunks = new ConcurrentLongSet();
 
   private final java.util.Queue<long[]> chunkLoadQueue =
       new java.util.concurrent.LinkedBlockingQueue<>();
 
   private int viewDistance = 14;
 
+  /** Chunks a client can hold in its cache before the server stops tracking the oldest. */
+  private static final int CLIENT_CACHE_CAPACITY = 65536;
+
+  /**
+   * Content hashes of the chunks the client has: every chunk sent so far plus the ones it reported
+   * as cached. Tracked from the start, because a caching client stores the chunks it receives
+   * before its report arrives as well.
+   */
+  private final LruCache<Long, Long> clientChunkHashes = new LruCache<>(CLIENT_CACHE_CAPACITY);
+
+  /** Whether the client reported a chunk cache, only then unchanged chunks are skipped. */
+  private volatile boolean clientCaches;
+
+  /** Distant terrain reaches this many times the view distance. */
+  private static final int LOD_DISTANCE_FACTOR = 4;
+
+  /** Summaries sent per tick, after the chunks of the view distance. */
+  private static final int SUMMARIES_PER_TICK = 8;
+
+  /** Chunks beyond the view distance the client received a summary of. */
+  private final ConcurrentLongSet summarizedChunks = new ConcurrentLongSet();
+
+  /** Summaries still to send, closest first. Rebuilt whenever the player enters another chunk. */
+  private final java.util.ArrayDeque<long[]> summaryQueue = new java.util.ArrayDeque<>();
+
   private boolean ignoreNextMovement = false;
 
   private int inventoryVersion = 0;
@@ -203,6 +231,8 @@ public class ServerPlayer extends PlayerData {
     // 3. NEU: In die Warteschlange einreihen statt sofort senden
     for (long[] chunkInfo : chunksToLoad) {
       chunkLoadQueue.add(chunkInfo);
+      // Generation läuft parallel im Hintergrund, processStreaming holt nur noch ab
+      connection.getServer().getWorld().prefetchChunk((int) chunkInfo[0], (int) chunkInfo[1]);
     }
 
     //  // 3. Send chunk data to client
@@ -217,6 +247,7 @@ public class ServerPlayer extends PlayerData {
     //  }
 
     // 4. Unload chunks that are out of range (using a small buffer to prevent flickering)
+    updateSummaryQueue(pChunkX, pChunkZ);
     int unloadDistanceSq = (viewDistance + 2) * (viewDistance + 2);
     loadedChunks.removeIf(
         key -> {
@@ -271,11 +302,127 @@ public class ServerPlayer extends PlayerData {
 
       ChunkData data = connection.getServer().getWorld().getOrCreateChunk(cx, cz);
       //      connection.send(new ChunkDataPacket(data));
-      connection.enqueueOutbound(new ChunkDataPacket(data));
+      connection.enqueueOutbound(createChunkPacket(data, key));
       loadedChunks.add(key);
 
       chunksThisTick--;
     }
+
+    processSummaries(pChunkX, pChunkZ);
+  }
+
+  /** Radius in chunks of the distant terrain sent to the client. */
+  public int getLodDistance() {
+    return viewDistance * LOD_DISTANCE_FACTOR;
+  }
+
+  /**
+   * Queues the summaries of the ring between the view distance and the LOD distance that the
+   * client does not have yet, closest first, and forgets the summaries that are far out of range.
+   */
+  private void updateSummaryQueue(int pChunkX, int pChunkZ) {
+    int lodDistance = getLodDistance();
+    int viewDistanceSq = viewDistance * viewDistance;
+    int lodDistanceSq = lodDistance * lodDistance;
+
+    java.util.List<long[]> ring = new java.util.ArrayList<>();
+    for (int dx = -lodDistance; dx <= lodDistance; dx++) {
+      for (int dz = -lodDistance; dz <= lodDistance; dz++) {
+        int distanceSq = dx * dx + dz * dz;
+        if (distanceSq <= viewDistanceSq || distanceSq > lodDistanceSq) continue;
+        long key = World.getChunkKey(pChunkX + dx, pChunkZ + dz);
+        if (!summarizedChunks.contains(key)) {
+          ring.add(new long[] {pChunkX + dx, pChunkZ + dz, distanceSq});
+        }
+      }
+    }
+    ring.sort(java.util.Comparator.comparingLong(a -> a[2]));
+    summaryQueue.clear();
+    summaryQueue.addAll(ring);
+
+    // Der Client behält Zusammenfassungen etwas länger, siehe LodTerrain
+    int forgetDistanceSq = (lodDistance + 2) * (lodDistance + 2);
+    summarizedChunks.removeIf(
+        key -> {
+          int dx = World.unpackChunkX(key) - pChunkX;
+          int dz = World.unpackChunkZ(key) - pChunkZ;
+          return dx * dx + dz * dz > forgetDistanceSq;
+        });
+  }
+
+  /** Sends a few summaries of the distant terrain, once the chunks in view are on their way. */
+  private void processSummaries(int pChunkX, int pChunkZ) {
+    if (!chunkLoadQueue.isEmpty()) return;
+
+    int viewDistanceSq = viewDistance * viewDistance;
+    int budget = SUMMARIES_PER_TICK;
+    while (budget > 0 && !summaryQueue.isEmpty()) {
+      long[] chunkInfo = summaryQueue.poll();
+      int cx = (int) chunkInfo[0];
+      int cz = (int) chunkInfo[1];
+      int dx = cx - pChunkX;
+      int dz = cz - pChunkZ;
+      // Inzwischen in Sichtweite, dort kommt der ganze Chunk
+      if (dx * dx + dz * dz <= viewDistanceSq) continue;
+
+      if (summarizedChunks.add(World.getChunkKey(cx, cz))) {
+        ChunkSummary summary = connection.getServer().getWorld().getChunkSummary(cx, cz);
+        // Ohne gestuften Generator gibt es für ungeladene Chunks keine Zusammenfassung
+        if (summary == null) continue;
+        connection.enqueueOutbound(new ChunkSummaryPacket(summary));
+        budget--;
+      }
+    }
+  }
+
+  /**
+   * Returns a packet telling the client to use its cached copy if that copy is up to date, and the
+   * full chunk data otherwise.
+   */
+  private Packet createChunkPacket(ChunkData data, long key) {
+    long hash = data.computeContentHash();
+    Long cached = clientChunkHashes.get(key);
+    if (clientCaches && cached != null && cached == hash) {
+      return new ChunkCachedPacket(data.getChunkX(), data.getChunkZ(), hash);
+    }
+    // Ein Client mit Cache legt jeden empfangenen Chunk darin ab
+    clientChunkHashes.put(key, hash);
+    return new ChunkDataPacket(data, hash);
+  }
+
+  /**
+   * Records chunks the client reported as cached and enables skipping unchanged chunks. A reported
+   * hash never replaces the hash of a chunk sent in this session, which is newer. A hash of 0
+   * withdraws a chunk; if the client currently has it loaded, it is sent again.
+   */
+  public void updateClientChunkCache(long[] chunkKeys, long[] contentHashes) {
+    clientCaches = true;
+    for (int i = 0; i < chunkKeys.length; i++) {
+      long key = chunkKeys[i];
+      long hash = contentHashes[i];
+      if (hash != 0) {
+        clientChunkHashes.computeIfAbsent(key, ignored -> hash);
+        continue;
+      }
+      clientChunkHashes.remove(key);
+      if (loadedChunks.contains(key) && enqueuedChunks.add(key)) {
+        chunkLoadQueue.add(new long[] {World.unpackChunkX(key), World.unpackChunkZ(key), 0});
+      }
+    }
+  }
+
+  /**
+   * Sends a chunk the client has loaded again with its full data, for changes its content hash
+   * does not cover, such as light. Does nothing for chunks the client does not have; a chunk that
+   * is already queued is sent once.
+   */
+  public void resendChunk(long key) {
+    if (!loadedChunks.contains(key)) return;
+    // Ohne bekannten Hash wird der Chunk vollständig statt als Cache-Verweis verschickt
+    clientChunkHashes.remove(key);
+    if (enqueuedChunks.add(key)) {
+      chunkLoadQueue.add(new long[] {World.unpackChunkX(key), World.unpackChunkZ(key), 0});
+    }
   }
 
   //  /** Broadcasts the player's current state to other nearby players. */
@@ -355,11 +502,11 @@ public class ServerPlayer extends PlayerData {
 
   // --- Getters / Setters ---
 
-  public Set<Long> getLoadedChunks() {
+  public ConcurrentLongSet getLoadedChunks() {
     return loadedChunks;
   }
 
-  public Set<Long> getEnqueuedChunks() {
+  public ConcurrentLongSet getEnqueuedChunks() {
     return enqueuedChunks;
   }
 
@@ -92,8 +92,8 @@ public class PlayerJoinHandler {
     // TODO Set world spawn location
     int spawnX = 0;
     int spawnZ = 0;
-    //    int spawnY = connection.getServer().getWorld().getHeightAt(spawnX, spawnZ);
-    int spawnY = 100;
+    // Surface height comes from the generator's column cache, the spawn chunk is not yet loaded
+    int spawnY = world.getHeightAt(spawnX, spawnZ) + 2;
 
     // Default join message
     String joinMessage = player.getName() + " joined the game!";
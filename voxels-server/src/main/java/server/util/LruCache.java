@@ -0,0 +1,84 @@
+package server.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe least-recently-used cache with a fixed capacity.
+ *
+ * <p>Once the capacity is exceeded, the entry that was accessed longest ago is evicted. Values are
+ * computed outside the lock in {@link #computeIfAbsent(Object, Function)}, so two threads may
+ * occasionally compute the same entry at the same time. This is intended for deterministic loaders
+ * (noise, world generation) where the duplicate result is simply discarded.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> {
+
+  private final int capacity;
+
+  private final LinkedHashMap<K, V> entries;
+
+  public LruCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be greater than zero.");
+    }
+    this.capacity = capacity;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > LruCache.this.capacity;
+          }
+        };
+  }
+
+  /** Returns the cached value or {@code null}, marking the entry as recently used. */
+  public synchronized V get(K key) {
+    return entries.get(key);
+  }
+
+  public synchronized void put(K key, V value) {
+    entries.put(key, value);
+  }
+
+  public synchronized V remove(K key) {
+    return entries.remove(key);
+  }
+
+  /**
+   * Returns the cached value for {@code key}, computing and caching it first if necessary.
+   *
+   * @param key the key to look up
+   * @param loader computes the value on a cache miss, must not return {@code null}
+   * @return the cached or freshly computed value
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+
+    V computed = loader.apply(key);
+    synchronized (this) {
+      V existing = entries.putIfAbsent(key, computed);
+      return existing != null ? existing : computed;
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+}
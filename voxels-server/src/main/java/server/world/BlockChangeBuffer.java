@@ -0,0 +1,48 @@
+package server.world;
+
+import java.util.Arrays;
+
+import server.events.events.world.BlocksChangedEvent;
+
+/**
+ * Collects the blocks the server changes on its own during a tick, so they reach the clients in one
+ * {@link BlocksChangedEvent} instead of one packet per block. Not thread-safe.
+ */
+public class BlockChangeBuffer {
+
+  private int[] positions = new int[3 * 64];
+
+  private short[] blockIds = new short[64];
+
+  private int count;
+
+  /** Records a changed block; later changes of the same block are kept after earlier ones. */
+  public void add(int x, int y, int z, short blockId) {
+    if (count == blockIds.length) {
+      blockIds = Arrays.copyOf(blockIds, count * 2);
+      positions = Arrays.copyOf(positions, count * 2 * 3);
+    }
+    positions[count * 3] = x;
+    positions[count * 3 + 1] = y;
+    positions[count * 3 + 2] = z;
+    blockIds[count] = blockId;
+    count++;
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  /** Number of recorded changes. */
+  public int size() {
+    return count;
+  }
+
+  /** Returns the recorded changes, in the order they were made, and forgets them. */
+  public BlocksChangedEvent drain() {
+    BlocksChangedEvent event =
+        new BlocksChangedEvent(Arrays.copyOf(positions, count * 3), Arrays.copyOf(blockIds, count));
+    count = 0;
+    return event;
+  }
+}
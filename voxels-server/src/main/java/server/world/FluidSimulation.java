@@ -0,0 +1,317 @@
+package server.world;
+
+import common.game.block.Blocks;
+import common.util.Long2ObjectMap;
+import common.util.LongQueue;
+import common.util.LongSet;
+import common.world.BlockAccessor;
+import common.world.ChunkData;
+import common.world.NibbleArray;
+import common.world.World;
+import server.util.LruCache;
+
+/**
+ * Flowing water, driven by scheduled ticks. Only water next to a changed block is scheduled, so
+ * chunks whose water never changes cost nothing; the pending ticks live in primitive queues per
+ * chunk and are worked off round robin, at most {@link #MAX_UPDATES_PER_TICK} per tick.
+ *
+ * <p>Water falls into air below it and otherwise spreads sideways into air, one block further per
+ * {@link #FLOW_DELAY} ticks and at most {@link #MAX_LEVEL} blocks from a source or from the bottom
+ * of a fall. Flowing water that is no longer fed by a source dries up again. Every water block that
+ * was not placed by the simulation counts as a source. Flow levels of an unloaded chunk are kept
+ * until it is loaded again, so its flowing water does not turn into sources, for at most {@link
+ * #MAX_UNLOADED_LEVELS} chunks; they are not saved with the chunk and do not survive a restart.
+ *
+ * <p>The world must report every block change through {@link #onBlockChanged(int, int, int)},
+ * including the ones made by this simulation. Not thread-safe, used by the server tick only.
+ */
+public class FluidSimulation {
+
+  /** Ticks between a change next to water and the water reacting to it. */
+  public static final int FLOW_DELAY = 5;
+
+  /** Farthest flowing water reaches sideways. */
+  public static final int MAX_LEVEL = 7;
+
+  /** Upper bound of water blocks updated per tick, the rest waits for the next tick. */
+  public static final int MAX_UPDATES_PER_TICK = 512;
+
+  /** Unloaded chunks whose flow levels are kept, the least recently unloaded are forgotten. */
+  public static final int MAX_UNLOADED_LEVELS = 256;
+
+  // Index im Chunk in den unteren Bits, Fälligkeitstick darüber
+  private static final int INDEX_BITS = 17;
+
+  private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+  private static final int VOLUME = ChunkData.WIDTH * ChunkData.HEIGHT * ChunkData.DEPTH;
+
+  private static final short WATER = Blocks.WATER.getId();
+
+  private static final short AIR = Blocks.AIR.getId();
+
+  private final World world;
+
+  private final BlockAccessor blocks;
+
+  private final Long2ObjectMap<ChunkTicks> chunks = new Long2ObjectMap<>();
+
+  // Chunks mit anstehenden Ticks, reihum abgearbeitet
+  private final LongQueue activeChunks = new LongQueue();
+
+  // Flusslevel entladener Chunks, beim erneuten Laden zurückgegeben
+  private final LruCache<Long, NibbleArray> unloadedLevels = new LruCache<>(MAX_UNLOADED_LEVELS);
+
+  private final BlockChangeBuffer changes;
+
+  private long currentTick;
+
+  /** Pending ticks and flow levels of one chunk. */
+  private static final class ChunkTicks {
+
+    /** Entries of {@code dueTick << INDEX_BITS | index}, in ascending order of their due tick. */
+    final LongQueue pending = new LongQueue();
+
+    /** Indices in {@link #pending}, a block is scheduled at most once. */
+    final LongSet scheduled = new LongSet();
+
+    /** Flow level per block, 0 for sources; created with the first flowing block. */
+    NibbleArray levels;
+
+    /** Whether the chunk is in {@link #activeChunks}. */
+    boolean active;
+  }
+
+  /**
+   * Creates a simulation without pending ticks.
+   *
+   * @param world the world the water flows in
+   * @param changes receives every block the simulation changes
+   */
+  public FluidSimulation(World world, BlockChangeBuffer changes) {
+    this.world = world;
+    this.changes = changes;
+    this.blocks = new BlockAccessor(world);
+  }
+
+  /**
+   * Reports a block change: the changed block and its six neighbours are scheduled if they are
+   * water. A block placed from outside the simulation is a source.
+   */
+  public void onBlockChanged(int x, int y, int z) {
+    if (y < 0 || y >= ChunkData.HEIGHT) return;
+    ChunkTicks ticks = chunks.get(chunkKey(x, z));
+    if (ticks != null && ticks.levels != null) {
+      ticks.levels.set(index(x, y, z), 0);
+    }
+    scheduleIfWater(x, y, z);
+    scheduleNeighbours(x, y, z);
+  }
+
+  /** Must be called once a chunk was added to the world; restores its flow levels. */
+  public void onChunkLoaded(int chunkX, int chunkZ) {
+    long key = World.getChunkKey(chunkX, chunkZ);
+    NibbleArray levels = unloadedLevels.remove(key);
+    if (levels != null) {
+      chunks.computeIfAbsent(key, k -> new ChunkTicks()).levels = levels;
+    }
+    blocks.invalidate();
+  }
+
+  /**
+   * Must be called once a chunk was removed from the world; drops its pending ticks and keeps its
+   * flow levels for {@link #onChunkLoaded(int, int)}.
+   */
+  public void onChunkUnloaded(int chunkX, int chunkZ) {
+    long key = World.getChunkKey(chunkX, chunkZ);
+    ChunkTicks ticks = chunks.remove(key);
+    if (ticks != null && ticks.levels != null && !ticks.levels.isZero()) {
+      unloadedLevels.put(key, ticks.levels);
+    }
+    blocks.invalidate();
+  }
+
+  /** Runs the ticks that are due, at most {@link #MAX_UPDATES_PER_TICK}. */
+  public void tick() {
+    currentTick++;
+    int budget = MAX_UPDATES_PER_TICK;
+    // Jeder Chunk kommt höchstens einmal pro Tick dran, neu aktive erst im nächsten
+    for (int remaining = activeChunks.size(); remaining > 0 && budget > 0; remaining--) {
+      long key = activeChunks.removeFirst();
+      ChunkTicks ticks = chunks.get(key);
+      if (ticks == null) continue;
+
+      budget = runDue(key, ticks, budget);
+
+      if (!ticks.pending.isEmpty()) {
+        activeChunks.addLast(key);
+      } else {
+        ticks.active = false;
+        // Ist das fließende Wasser ganz versiegt, braucht der Chunk keine Level mehr
+        if (ticks.levels != null && ticks.levels.isZero()) {
+          ticks.levels = null;
+        }
+        if (ticks.levels == null) {
+          chunks.remove(key);
+        }
+      }
+    }
+  }
+
+  /** Number of chunks with pending ticks. */
+  public int getActiveChunkCount() {
+    return activeChunks.size();
+  }
+
+  /** Number of chunks, loaded or not, whose flow levels are kept. */
+  public int getLevelChunkCount() {
+    int count = unloadedLevels.size();
+    for (ChunkTicks ticks : chunks.values()) {
+      if (ticks.levels != null) count++;
+    }
+    return count;
+  }
+
+  /** Returns the flow level of the water at the given position, 0 for sources. */
+  public int getLevel(int x, int y, int z) {
+    ChunkTicks ticks = chunks.get(chunkKey(x, z));
+    return ticks == null || ticks.levels == null ? 0 : ticks.levels.get(index(x, y, z));
+  }
+
+  private int runDue(long key, ChunkTicks ticks, int budget) {
+    int baseX = World.unpackChunkX(key) * ChunkData.WIDTH;
+    int baseZ = World.unpackChunkZ(key) * ChunkData.DEPTH;
+    while (budget > 0 && !ticks.pending.isEmpty()) {
+      long entry = ticks.pending.peekFirst();
+      if ((entry >>> INDEX_BITS) > currentTick) break;
+      ticks.pending.removeFirst();
+
+      int index = (int) (entry & INDEX_MASK);
+      ticks.scheduled.remove(index);
+      int x = index % ChunkData.WIDTH;
+      int y = (index / ChunkData.WIDTH) % ChunkData.HEIGHT;
+      int z = index / (ChunkData.WIDTH * ChunkData.HEIGHT);
+      update(baseX + x, y, baseZ + z);
+      budget--;
+    }
+    return budget;
+  }
+
+  private void update(int x, int y, int z) {
+    if (blocks.getBlockId(x, y, z) != WATER) return;
+
+    int level = getLevel(x, y, z);
+    if (level > 0) {
+      int fed = getFedLevel(x, y, z);
+      if (fed > MAX_LEVEL) {
+        setBlock(x, y, z, AIR, 0);
+        return;
+      }
+      if (fed != level) {
+        setLevel(x, y, z, fed);
+        scheduleNeighbours(x, y, z);
+        level = fed;
+      }
+    }
+
+    if (canFlowInto(x, y - 1, z)) {
+      setBlock(x, y - 1, z, WATER, 1);
+      return;
+    }
+    // Auf fließendem Wasser breitet sich Wasser nicht seitlich aus
+    if (level >= MAX_LEVEL || (isWater(x, y - 1, z) && getLevel(x, y - 1, z) > 0)) return;
+
+    spread(x + 1, y, z, level + 1);
+    spread(x - 1, y, z, level + 1);
+    spread(x, y, z + 1, level + 1);
+    spread(x, y, z - 1, level + 1);
+  }
+
+  /**
+   * Returns the level flowing water at the given position would have from its feeders: 1 below
+   * water, otherwise one more than the lowest level beside it, above {@link #MAX_LEVEL} if nothing
+   * feeds it.
+   */
+  private int getFedLevel(int x, int y, int z) {
+    if (isWater(x, y + 1, z)) return 1;
+    int lowest = MAX_LEVEL;
+    lowest = Math.min(lowest, getSideLevel(x + 1, y, z));
+    lowest = Math.min(lowest, getSideLevel(x - 1, y, z));
+    lowest = Math.min(lowest, getSideLevel(x, y, z + 1));
+    lowest = Math.min(lowest, getSideLevel(x, y, z - 1));
+    return lowest + 1;
+  }
+
+  private int getSideLevel(int x, int y, int z) {
+    return isWater(x, y, z) ? getLevel(x, y, z) : MAX_LEVEL;
+  }
+
+  private void spread(int x, int y, int z, int level) {
+    if (canFlowInto(x, y, z)) {
+      setBlock(x, y, z, WATER, level);
+    }
+  }
+
+  private boolean canFlowInto(int x, int y, int z) {
+    if (y < 0 || y >= ChunkData.HEIGHT) return false;
+    int chunkX = Math.floorDiv(x, ChunkData.WIDTH);
+    int chunkZ = Math.floorDiv(z, ChunkData.DEPTH);
+    return blocks.getChunk(chunkX, chunkZ) != null && blocks.getBlockId(x, y, z) == AIR;
+  }
+
+  private boolean isWater(int x, int y, int z) {
+    return blocks.getBlockId(x, y, z) == WATER;
+  }
+
+  /** Sets a block through the world, which reports back to {@link #onBlockChanged}. */
+  private void setBlock(int x, int y, int z, short id, int level) {
+    world.setBlock(x, y, z, id);
+    if (level > 0) {
+      setLevel(x, y, z, level);
+    }
+    changes.add(x, y, z, id);
+  }
+
+  private void setLevel(int x, int y, int z, int level) {
+    ChunkTicks ticks = chunks.computeIfAbsent(chunkKey(x, z), k -> new ChunkTicks());
+    if (ticks.levels == null) {
+      ticks.levels = new NibbleArray(VOLUME);
+    }
+    ticks.levels.set(index(x, y, z), level);
+  }
+
+  private void scheduleNeighbours(int x, int y, int z) {
+    scheduleIfWater(x + 1, y, z);
+    scheduleIfWater(x - 1, y, z);
+    scheduleIfWater(x, y + 1, z);
+    scheduleIfWater(x, y - 1, z);
+    scheduleIfWater(x, y, z + 1);
+    scheduleIfWater(x, y, z - 1);
+  }
+
+  private void scheduleIfWater(int x, int y, int z) {
+    // Außerhalb der Höhe und in fehlenden Chunks liefert der Accessor Luft
+    if (!isWater(x, y, z)) return;
+
+    long key = chunkKey(x, z);
+    ChunkTicks ticks = chunks.computeIfAbsent(key, k -> new ChunkTicks());
+    int index = index(x, y, z);
+    if (!ticks.scheduled.add(index)) return;
+
+    ticks.pending.addLast(((currentTick + FLOW_DELAY) << INDEX_BITS) | index);
+    if (!ticks.active) {
+      ticks.active = true;
+      activeChunks.addLast(key);
+    }
+  }
+
+  private static long chunkKey(int x, int z) {
+    return World.getChunkKey(Math.floorDiv(x, ChunkData.WIDTH), Math.floorDiv(z, ChunkData.DEPTH));
+  }
+
+  private static int index(int x, int y, int z) {
+    int localX = Math.floorMod(x, ChunkData.WIDTH);
+    int localZ = Math.floorMod(z, ChunkData.DEPTH);
+    return localX + ChunkData.WIDTH * (y + ChunkData.HEIGHT * localZ);
+  }
+}
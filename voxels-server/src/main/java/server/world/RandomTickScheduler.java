@@ -0,0 +1,236 @@
+package server.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
+import common.game.block.RandomTickBehavior;
+import common.util.Long2ObjectMap;
+import common.world.BlockAccessor;
+import common.world.ChunkData;
+import common.world.World;
+
+/**
+ * Random block ticks: every tick, a fixed number of random positions in each section that contains
+ * random-ticking blocks are handed to the {@link RandomTickBehavior} of the block found there.
+ * Sections without such blocks are skipped by their {@link ChunkData#getSectionTickableCount(int)},
+ * so a chunk of plain terrain costs a look at its section counters and nothing more.
+ *
+ * <p>Chunks are grouped into regions of {@value #REGION_SIZE} x {@value #REGION_SIZE} chunks. The
+ * regions are evaluated in parallel by workers that only read the world; their changes are applied
+ * afterwards on the calling thread, region by region, so behaviors see their surroundings as they
+ * were at the start of the tick. Every region draws from its own random source, seeded from the
+ * world seed, the tick and the region, which keeps the outcome independent of the worker count.
+ */
+public class RandomTickScheduler {
+
+  /** Random positions per section and tick, unless configured otherwise. */
+  public static final int DEFAULT_TICKS_PER_SECTION = 3;
+
+  /** Edge length of a region in chunks. */
+  public static final int REGION_SIZE = 4;
+
+  private static final int REGION_SHIFT = Integer.numberOfTrailingZeros(REGION_SIZE);
+
+  // Bei wenigen Regionen lohnt sich das Verteilen auf die Worker nicht
+  private static final int MIN_PARALLEL_REGIONS = 4;
+
+  private final World world;
+
+  private final BlockChangeBuffer changes;
+
+  private final long seed;
+
+  private final int ticksPerSection;
+
+  /** Workers for the evaluation, {@code null} to evaluate on the calling thread. */
+  private final ExecutorService workers;
+
+  private final Long2ObjectMap<Region> regions = new Long2ObjectMap<>();
+
+  private final List<Region> activeRegions = new ArrayList<>();
+
+  private long currentTick;
+
+  /** Chunks of one region with random-ticking blocks, and the changes they asked for. */
+  private final class Region {
+
+    final long key;
+
+    final List<ChunkData> chunks = new ArrayList<>();
+
+    // Jede Region liest über ihren eigenen Accessor, der ist nicht thread-safe
+    final BlockAccessor blocks = new BlockAccessor(world);
+
+    int[] positions = new int[3 * 16];
+
+    short[] blockIds = new short[16];
+
+    int count;
+
+    Region(long key) {
+      this.key = key;
+    }
+
+    void evaluate(long tick) {
+      count = 0;
+      blocks.invalidate();
+      SplittableRandom random =
+          new SplittableRandom(seed ^ key * 0x9E3779B97F4A7C15L ^ tick * 0xC2B2AE3D27D4EB4FL);
+
+      for (ChunkData chunk : chunks) {
+        int baseX = chunk.getChunkX() * ChunkData.WIDTH;
+        int baseZ = chunk.getChunkZ() * ChunkData.DEPTH;
+        for (int section = 0; section < ChunkData.SECTION_COUNT; section++) {
+          if (chunk.getSectionTickableCount(section) == 0) continue;
+          int baseY = section * ChunkData.SECTION_SIZE;
+
+          for (int i = 0; i < ticksPerSection; i++) {
+            int index = random.nextInt(ChunkData.SECTION_VOLUME);
+            int x = index % ChunkData.WIDTH;
+            int y = baseY + (index / ChunkData.WIDTH) % ChunkData.SECTION_SIZE;
+            int z = index / (ChunkData.WIDTH * ChunkData.SECTION_SIZE);
+
+            short id = chunk.getBlockId(x, y, z);
+            BlockType type = BlockRegistry.get(id);
+            if (type == null || !type.isRandomTicking()) continue;
+
+            RandomTickBehavior behavior = type.getBehavior(RandomTickBehavior.class);
+            short result = behavior.onRandomTick(blocks, baseX + x, y, baseZ + z, random);
+            if (result != id) {
+              add(baseX + x, y, baseZ + z, result);
+            }
+          }
+        }
+      }
+    }
+
+    private void add(int x, int y, int z, short blockId) {
+      if (count == blockIds.length) {
+        blockIds = Arrays.copyOf(blockIds, count * 2);
+        positions = Arrays.copyOf(positions, count * 2 * 3);
+      }
+      positions[count * 3] = x;
+      positions[count * 3 + 1] = y;
+      positions[count * 3 + 2] = z;
+      blockIds[count] = blockId;
+      count++;
+    }
+  }
+
+  /**
+   * Creates a new scheduler.
+   *
+   * @param world the world whose blocks are ticked
+   * @param changes receives every block changed by a random tick
+   * @param seed seed of the random sources
+   * @param ticksPerSection random positions per section and tick
+   * @param workerThreads number of evaluation threads, 1 to evaluate on the calling thread
+   */
+  public RandomTickScheduler(
+      World world, BlockChangeBuffer changes, long seed, int ticksPerSection, int workerThreads) {
+    if (workerThreads <= 0) {
+      throw new IllegalArgumentException("Worker thread count must be greater than zero.");
+    }
+    this.world = world;
+    this.changes = changes;
+    this.seed = seed;
+    this.ticksPerSection = ticksPerSection;
+
+    if (workerThreads > 1) {
+      AtomicInteger threadIndex = new AtomicInteger();
+      this.workers =
+          Executors.newFixedThreadPool(
+              workerThreads,
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "Random-Tick-Worker-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+    } else {
+      this.workers = null;
+    }
+  }
+
+  /**
+   * Runs one tick over the given loaded chunks and applies the resulting changes through {@link
+   * World#setBlock(int, int, int, short)}. Must be called from the thread that owns the world.
+   */
+  public void tick(Iterable<ChunkData> loadedChunks) {
+    currentTick++;
+    collectRegions(loadedChunks);
+    if (activeRegions.isEmpty()) return;
+
+    // Nach shutdown() läuft die Auswertung im aufrufenden Thread weiter
+    if (workers != null
+        && !workers.isShutdown()
+        && activeRegions.size() >= MIN_PARALLEL_REGIONS) {
+      CompletableFuture<?>[] running = new CompletableFuture<?>[activeRegions.size()];
+      for (int i = 0; i < running.length; i++) {
+        Region region = activeRegions.get(i);
+        long tick = currentTick;
+        running[i] = CompletableFuture.runAsync(() -> region.evaluate(tick), workers);
+      }
+      CompletableFuture.allOf(running).join();
+    } else {
+      for (Region region : activeRegions) {
+        region.evaluate(currentTick);
+      }
+    }
+
+    for (Region region : activeRegions) {
+      for (int i = 0; i < region.count; i++) {
+        int x = region.positions[i * 3];
+        int y = region.positions[i * 3 + 1];
+        int z = region.positions[i * 3 + 2];
+        world.setBlock(x, y, z, region.blockIds[i]);
+        changes.add(x, y, z, region.blockIds[i]);
+      }
+    }
+  }
+
+  /** Number of regions that had random-ticking blocks in the last tick. */
+  public int getActiveRegionCount() {
+    return activeRegions.size();
+  }
+
+  /** Stops the evaluation threads, later ticks evaluate on the calling thread. */
+  public void shutdown() {
+    if (workers != null) {
+      workers.shutdownNow();
+    }
+  }
+
+  private void collectRegions(Iterable<ChunkData> loadedChunks) {
+    for (Region region : activeRegions) {
+      region.chunks.clear();
+    }
+    activeRegions.clear();
+
+    for (ChunkData chunk : loadedChunks) {
+      if (!chunk.hasTickableBlocks()) continue;
+      long key =
+          World.getChunkKey(chunk.getChunkX() >> REGION_SHIFT, chunk.getChunkZ() >> REGION_SHIFT);
+      Region region = regions.get(key);
+      if (region == null) {
+        region = new Region(key);
+        regions.put(key, region);
+      }
+      if (region.chunks.isEmpty()) {
+        activeRegions.add(region);
+      }
+      region.chunks.add(chunk);
+    }
+
+    // Regionen ohne tickende Blöcke nicht ewig aufheben
+    regions.removeIf((key, region) -> region.chunks.isEmpty());
+  }
+}
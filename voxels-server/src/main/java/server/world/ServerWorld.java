@@ -1,18 +1,24 @@
 package server.world;
 
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import common.logging.Log;
+import common.util.LongSet;
 import common.world.ChunkData;
+import common.world.ChunkSummary;
 import common.world.World;
+import common.world.WorldMath;
+import server.events.events.world.BlocksChangedEvent;
+import server.events.events.world.ChunkLightChangedEvent;
 import server.events.events.world.ChunkLoadedEvent;
 import server.events.events.world.ChunkUnloadedEvent;
 import server.events.events.world.WorldSavedEvent;
 import server.events.events.world.WorldTimeChangedEvent;
 import server.gateways.EventGateway;
 import server.persistance.ChunkRepository;
+import server.world.generation.ChunkGenerationPipeline;
+import server.world.generation.StagedWorldGenerator;
 import server.world.generation.WorldGenerator;
 
 /**
@@ -27,10 +33,72 @@ public class ServerWorld extends World {
 
   private final EventGateway events;
 
+  /** Background generation for staged generators, {@code null} otherwise. */
+  private final ChunkGenerationPipeline pipeline;
+
+  // Selbst geänderte Blöcke eines Ticks, gesammelt für ein einziges Event
+  private final BlockChangeBuffer changes = new BlockChangeBuffer();
+
+  private final FluidSimulation fluids = new FluidSimulation(this, changes);
+
+  private final RandomTickScheduler randomTicks;
+
   public ServerWorld(WorldGenerator generator, ChunkRepository repository, EventGateway events) {
     this.generator = generator;
     this.repository = repository;
     this.events = events;
+
+    this.randomTicks =
+        new RandomTickScheduler(
+            this,
+            changes,
+            generator.getSeed(),
+            RandomTickScheduler.DEFAULT_TICKS_PER_SECTION,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    if (generator instanceof StagedWorldGenerator staged) {
+      int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+      this.pipeline = new ChunkGenerationPipeline(staged, workers);
+    } else {
+      this.pipeline = null;
+    }
+  }
+
+  /**
+   * Advances the world by one tick: runs the random block ticks and the water, and sends the blocks
+   * they changed batched into one {@link BlocksChangedEvent}.
+   */
+  @Override
+  public void tick() {
+    super.tick();
+    randomTicks.tick(chunks.values());
+    fluids.tick();
+    if (!changes.isEmpty()) {
+      events.fire(changes.drain());
+    }
+  }
+
+  /** Sets a block and schedules the water next to it. */
+  @Override
+  public void setBlock(int x, int y, int z, short blockId) {
+    super.setBlock(x, y, z, blockId);
+    fluids.onBlockChanged(x, y, z);
+  }
+
+  /** Returns the water simulation, to report block changes made without {@link #setBlock}. */
+  public FluidSimulation getFluidSimulation() {
+    return fluids;
+  }
+
+  /**
+   * Stops the worker threads of the random ticks and of the chunk generation. Ticks and chunk
+   * loads that still happen afterwards run in the calling thread.
+   */
+  public void shutdown() {
+    randomTicks.shutdown();
+    if (pipeline != null) {
+      pipeline.shutdown();
+    }
   }
 
   public void saveDirtyChunks() {
@@ -50,33 +118,38 @@ public class ServerWorld extends World {
     events.fire(new WorldSavedEvent(savedChunksCount));
   }
 
-  public void unloadUnusedChunks(Set<Long> requiredByPlayers) {
-    int savedInThisPass = 0;
+  public void unloadUnusedChunks(LongSet requiredByPlayers) {
+    int[] savedInThisPass = {0};
     int maxSavesPerPass = 20; // Etwas höher ansetzen
 
-    Iterator<Map.Entry<Long, ChunkData>> it = chunks.entrySet().iterator();
-    while (it.hasNext()) {
-      Map.Entry<Long, ChunkData> entry = it.next();
-      Long chunkKey = entry.getKey();
-      ChunkData chunk = entry.getValue();
-
-      if (!requiredByPlayers.contains(chunkKey)) {
-        if (chunk.isDirty()) {
-          // Nur löschen, wenn wir noch Speicherkapazität in diesem Tick haben
-          if (savedInThisPass < maxSavesPerPass) {
-            repository.save(chunk);
-            chunk.setDirty(false);
-            savedInThisPass++;
-          } else {
-            // Wenn dirty und Limit erreicht -> im RAM lassen
-            continue;
+    // Entfernen während forEach ist erlaubt, die Tabelle bleibt dabei bestehen
+    chunks.forEach(
+        (chunkKey, chunk) -> {
+          if (requiredByPlayers.contains(chunkKey)) {
+            return;
           }
-        }
 
-        // Event feuern und DEFINITIV entfernen
-        events.fire(new ChunkUnloadedEvent(chunk, getLoadedChunksCount()));
-        it.remove();
-      }
+          if (chunk.isDirty()) {
+            // Nur löschen, wenn wir noch Speicherkapazität in diesem Tick haben
+            if (savedInThisPass[0] < maxSavesPerPass) {
+              repository.save(chunk);
+              chunk.setDirty(false);
+              savedInThisPass[0]++;
+            } else {
+              // Wenn dirty und Limit erreicht -> im RAM lassen
+              return;
+            }
+          }
+
+          // Event feuern und DEFINITIV entfernen
+          events.fire(new ChunkUnloadedEvent(chunk, getLoadedChunksCount()));
+          chunks.remove(chunkKey);
+          fluids.onChunkUnloaded(chunk.getChunkX(), chunk.getChunkZ());
+        });
+
+    // Vorab generierte Chunks, die niemand mehr braucht, verwerfen
+    if (pipeline != null) {
+      pipeline.retainOnly(requiredByPlayers);
     }
   }
 
@@ -105,7 +178,8 @@ public class ServerWorld extends World {
   //  }
 
   /**
-   * Retrieves an existing chunk or generates a new one if it doesn't exist.
+   * Retrieves an existing chunk or generates a new one if it doesn't exist. New chunks are lit if
+   * they are not yet, and their light is exchanged with the loaded neighbours.
    *
    * @param cx Chunk X coordinate
    * @param cz Chunk Z coordinate
@@ -119,15 +193,15 @@ public class ServerWorld extends World {
       data =
           repository
               .load(cx, cz)
-              .orElseGet(
-                  () -> {
-                    ChunkData newChunk = new ChunkData(cx, cz);
-                    generator.generate(newChunk);
-                    newChunk.setDirty(false);
-                    return newChunk;
-                  });
+              .orElseGet(() -> generateChunk(cx, cz));
 
+      if (!data.hasLight()) {
+        lightEngine.lightChunk(data);
+      }
       addChunk(data);
+      lightEngine.stitchChunk(data);
+      fireNeighborLightChanged(cx, cz);
+      fluids.onChunkLoaded(cx, cz);
 
       events.fire(new ChunkLoadedEvent(data));
     }
@@ -135,6 +209,97 @@ public class ServerWorld extends World {
     return data;
   }
 
+  /**
+   * Fires a {@link ChunkLightChangedEvent} for every loaded chunk except the given one whose light
+   * the last {@link common.world.LightEngine#stitchChunk(ChunkData)} changed.
+   */
+  private void fireNeighborLightChanged(int cx, int cz) {
+    if (!lightEngine.hasChanges()) return;
+
+    int minCx = WorldMath.worldToChunk(lightEngine.getChangedMinX(), ChunkData.WIDTH);
+    int maxCx = WorldMath.worldToChunk(lightEngine.getChangedMaxX(), ChunkData.WIDTH);
+    int minCz = WorldMath.worldToChunk(lightEngine.getChangedMinZ(), ChunkData.DEPTH);
+    int maxCz = WorldMath.worldToChunk(lightEngine.getChangedMaxZ(), ChunkData.DEPTH);
+    for (int x = minCx; x <= maxCx; x++) {
+      for (int z = minCz; z <= maxCz; z++) {
+        if (x == cx && z == cz) continue;
+        ChunkData neighbor = getChunk(x, z);
+        if (neighbor != null) {
+          events.fire(new ChunkLightChangedEvent(neighbor));
+        }
+      }
+    }
+  }
+
+  /**
+   * Starts generating a chunk on the generation workers, so a later {@link #getOrCreateChunk(int,
+   * int)} can pick up the finished result instead of generating on the calling thread. Does nothing
+   * if the chunk is already loaded, stored on disk or the generator is not staged.
+   *
+   * @param cx Chunk X coordinate
+   * @param cz Chunk Z coordinate
+   */
+  public void prefetchChunk(int cx, int cz) {
+    if (pipeline == null || chunks.containsKey(getChunkKey(cx, cz))) return;
+    if (repository.exists(cx, cz)) return;
+    pipeline.submit(cx, cz);
+  }
+
+  /**
+   * Returns the highest block of a loaded chunk. For chunks that are not loaded, staged generators
+   * answer with the generated surface height from their column cache, without loading or
+   * generating the chunk. Player edits of unloaded chunks are not taken into account.
+   */
+  @Override
+  public int getHeightAt(int x, int z) {
+    if (getChunkAt(x, 0, z) == null && generator instanceof StagedWorldGenerator staged) {
+      return staged.getSurfaceHeight(x, z);
+    }
+    return super.getHeightAt(x, z);
+  }
+
+  /**
+   * Returns the summary of a chunk for distant terrain. Loaded chunks are summarized as they are.
+   * For other chunks, staged generators answer from their noise data without generating blocks,
+   * like {@link #getHeightAt(int, int)} player edits of unloaded chunks are not taken into account.
+   * Other generators cannot answer without generating the chunk, so there is no summary for them.
+   *
+   * @return the summary, or {@code null} if the chunk is not loaded and the generator not staged
+   */
+  public ChunkSummary getChunkSummary(int cx, int cz) {
+    ChunkData loaded = chunks.get(getChunkKey(cx, cz));
+    if (loaded != null) {
+      return ChunkSummary.of(loaded);
+    }
+    if (generator instanceof StagedWorldGenerator staged) {
+      return staged.generateSummary(cx, cz);
+    }
+    return null;
+  }
+
+  private ChunkData generateChunk(int cx, int cz) {
+    ChunkData newChunk;
+
+    if (pipeline != null) {
+      CompletableFuture<ChunkData> prefetched = pipeline.take(cx, cz);
+      if (prefetched != null) {
+        try {
+          return prefetched.join();
+        } catch (CompletionException e) {
+          Log.error("Background generation of chunk " + cx + ", " + cz + " failed, retrying.", e);
+        }
+      }
+      newChunk = new ChunkData(cx, cz);
+      pipeline.generateNow(newChunk);
+    } else {
+      newChunk = new ChunkData(cx, cz);
+      generator.generate(newChunk);
+    }
+
+    newChunk.setDirty(false);
+    return newChunk;
+  }
+
   public long getSeed() {
     return generator.getSeed();
   }
@@ -1,6 +1,14 @@
 package server.world;
 
+import java.util.Arrays;
+
+import common.network.packets.BlockUpdateBatchPacket;
 import common.network.packets.TimeUpdatePacket;
+import common.util.ConcurrentLongSet;
+import common.world.ChunkData;
+import common.world.World;
+import server.events.events.world.BlocksChangedEvent;
+import server.events.events.world.ChunkLightChangedEvent;
 import server.events.events.world.ChunkLoadedEvent;
 import server.events.events.world.ChunkUnloadedEvent;
 import server.events.events.world.WorldSavedEvent;
@@ -8,6 +16,8 @@ import server.events.events.world.WorldTimeChangedEvent;
 import server.gateways.EventGateway;
 import server.gateways.MessageGateway;
 import server.network.PlayerManager;
+import server.network.ServerConnection;
+import server.player.ServerPlayer;
 
 public class WorldNetworkSystem {
 
@@ -23,6 +33,8 @@ public class WorldNetworkSystem {
     events.register(WorldTimeChangedEvent.class, this::onWorldTimeChanged);
     events.register(ChunkLoadedEvent.class, this::onChunkLoaded);
     events.register(ChunkUnloadedEvent.class, this::onChunkUnload);
+    events.register(BlocksChangedEvent.class, this::onBlocksChanged);
+    events.register(ChunkLightChangedEvent.class, this::onChunkLightChanged);
   }
 
   private void onWorldSaved(WorldSavedEvent e) {
@@ -33,6 +45,49 @@ public class WorldNetworkSystem {
     playerManager.broadcast(new TimeUpdatePacket(e.getTime()));
   }
 
+  private void onBlocksChanged(BlocksChangedEvent e) {
+    int[] positions = e.getPositions();
+    short[] ids = e.getBlockIds();
+    long[] chunkKeys = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      chunkKeys[i] =
+          World.getChunkKey(
+              Math.floorDiv(positions[i * 3], ChunkData.WIDTH),
+              Math.floorDiv(positions[i * 3 + 2], ChunkData.DEPTH));
+    }
+
+    // Die Änderungen stammen aus der ganzen Welt, jeder Spieler bekommt nur seine Chunks
+    int[] playerPositions = new int[positions.length];
+    short[] playerIds = new short[ids.length];
+    for (ServerPlayer player : playerManager.getAllPlayers()) {
+      ServerConnection connection = player.getConnection();
+      if (connection == null || !connection.isRunning()) continue;
+
+      ConcurrentLongSet loaded = player.getLoadedChunks();
+      int count = 0;
+      for (int i = 0; i < ids.length; i++) {
+        if (!loaded.contains(chunkKeys[i])) continue;
+        System.arraycopy(positions, i * 3, playerPositions, count * 3, 3);
+        playerIds[count++] = ids[i];
+      }
+
+      for (int from = 0; from < count; from += BlockUpdateBatchPacket.MAX_ENTRIES) {
+        int to = Math.min(count, from + BlockUpdateBatchPacket.MAX_ENTRIES);
+        connection.send(
+            new BlockUpdateBatchPacket(
+                Arrays.copyOfRange(playerPositions, from * 3, to * 3),
+                Arrays.copyOfRange(playerIds, from, to)));
+      }
+    }
+  }
+
+  private void onChunkLightChanged(ChunkLightChangedEvent e) {
+    long key = World.getChunkKey(e.getData().getChunkX(), e.getData().getChunkZ());
+    for (ServerPlayer player : playerManager.getAllPlayers()) {
+      player.resendChunk(key);
+    }
+  }
+
   private void onChunkLoaded(ChunkLoadedEvent event) {
     //    int chunkX = event.getData().getChunkX();
     //    int chunkZ = event.getData().getChunkZ();
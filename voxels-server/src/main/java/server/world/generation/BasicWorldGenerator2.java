@@ -1,22 +1,28 @@
 package server.world.generation;
 
-import java.util.Random;
+import java.util.Arrays;
 
 import common.game.block.BlockIds;
 import common.game.block.BlockRegistry;
 import common.game.block.BlockType;
 import common.game.block.Blocks;
 import common.world.ChunkData;
+import common.world.ChunkSummary;
 import math.Mathf;
 import math.PerlinNoise;
-import math.PerlinNoise3;
-import math.Vector3f;
 import server.world.structures.StructureManager;
 import server.world.structures.fin.MeshStructureGenerator;
 import server.world.structures.fin.RockFormationStructure;
 import server.world.structures.fin.TreeStructureGenerator;
 
-public class BasicWorldGenerator2 implements WorldGenerator {
+public class BasicWorldGenerator2 implements StagedWorldGenerator {
+
+  private static final int COLUMNS = ChunkData.WIDTH * ChunkData.DEPTH;
+
+  private static final int CACHED_COLUMN_TILES = 64;
+
+  // Ab dieser Höhe ist die Oberfläche nackter Fels
+  private static final int ROCK_HEIGHT = 110;
 
   private int seaLevel = 80;
 
@@ -35,7 +41,7 @@ public class BasicWorldGenerator2 implements WorldGenerator {
 
   private PerlinNoise riverNoise;
 
-  private PerlinNoise3 caveNoise;
+  private CaveCarver caveCarver;
 
   // Terrain params
   private float terrainScale = 0.005f;
@@ -56,6 +62,8 @@ public class BasicWorldGenerator2 implements WorldGenerator {
 
   private StructureManager structureManager;
 
+  private final ColumnCache columns;
+
   public BasicWorldGenerator2(long seed) {
     this.seed = seed;
     continentNoise = new PerlinNoise(seed + 12345);
@@ -63,7 +71,8 @@ public class BasicWorldGenerator2 implements WorldGenerator {
     biomeNoise = new PerlinNoise(seed + 11111);
     treeNoise = new PerlinNoise(seed + 22222);
     riverNoise = new PerlinNoise(seed + 33333);
-    caveNoise = new PerlinNoise3(seed + 44444);
+    caveCarver = new CaveCarver(seed + 44444, seaLevel);
+    columns = new ColumnCache(this::sampleColumns, CACHED_COLUMN_TILES);
 
     structureManager = new StructureManager();
     // 1. Das Design erstellen (implementiert VoxelStructure)
@@ -71,162 +80,154 @@ public class BasicWorldGenerator2 implements WorldGenerator {
 
     // 2. Den Generator erstellen, der dieses Design nutzt (implementiert
     // StructureGenerator)
-    // Parameter: (Das Design, der maximale Radius, die Spawn-Chance)
-    MeshStructureGenerator rockGen = new MeshStructureGenerator(rockDesign, 20, 0.05f);
+    // Parameter: (Das Design, der maximale Radius, die Spawn-Chance, die Geländehöhe)
+    MeshStructureGenerator rockGen =
+        new MeshStructureGenerator(rockDesign, 20, 0.05f, columns::getHeight);
 
     // 3. Jetzt klappt das Registrieren!
     structureManager.register(rockGen);
 
-    structureManager.register(new TreeStructureGenerator());
+    structureManager.register(new TreeStructureGenerator(seaLevel + beachSize, ROCK_HEIGHT));
   }
 
   @Override
-  public void generate(ChunkData chunk) {
-    Vector3f pos = getPosition(chunk);
-    long chunkSeed = seed ^ ((long) (pos.x * 31 + pos.z * 17));
-    Random rng = new Random(chunkSeed);
+  public ChunkNoiseData generateNoise(int chunkX, int chunkZ) {
+    return columns.getChunk(chunkX, chunkZ);
+  }
 
-    for (int x = 0; x < ChunkData.WIDTH; x++) {
-      for (int z = 0; z < ChunkData.DEPTH; z++) {
-        float wx = pos.x + x;
-        float wz = pos.z + z;
+  @Override
+  public int getSurfaceHeight(int worldX, int worldZ) {
+    return columns.getHeight(worldX, worldZ);
+  }
 
-        // --- Biome Layer (Whittaker System) ---
-        // Wir nutzen unterschiedliche Offsets, damit Temp und Moist nicht identisch sind
-        float temp = generateOctaveNoise(biomeNoise, wx, wz, 0.001f, 2, 0.5f, 2.0f);
-        float moisture =
-            generateOctaveNoise(biomeNoise, wx + 5000, wz + 5000, 0.001f, 2, 0.5f, 2.0f);
+  @Override
+  public ChunkSummary generateSummary(int chunkX, int chunkZ) {
+    ChunkNoiseData noise = columns.getChunk(chunkX, chunkZ);
+    short[] heights = new short[COLUMNS];
+    short[] topBlocks = new short[COLUMNS];
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int column = x + z * ChunkData.WIDTH;
+        int height = noise.getHeight(x, z);
+        if (height < seaLevel - 1) {
+          // Wie createWater: bis unter den Meeresspiegel geflutet
+          heights[column] = (short) (seaLevel - 1);
+          topBlocks[column] = Blocks.WATER.getId();
+        } else {
+          heights[column] = (short) height;
+          topBlocks[column] = getBlockType(height, height, noise.getBiome(x, z), false).getId();
+        }
+      }
+    }
+    return new ChunkSummary(chunkX, chunkZ, heights, topBlocks);
+  }
+
+  private ChunkNoiseData sampleColumns(int chunkX, int chunkZ) {
+    int originX = chunkX * ChunkData.WIDTH;
+    int originZ = chunkZ * ChunkData.DEPTH;
+
+    // --- Noise grids (one pass per layer for the whole chunk) ---
+    float[] scratch = new float[COLUMNS];
+    float[] temperatures = new float[COLUMNS];
+    float[] moistures = new float[COLUMNS];
+    float[] continents = new float[COLUMNS];
+    float[] terrains = new float[COLUMNS];
+    float[] rivers = new float[COLUMNS];
+
+    // Wir nutzen unterschiedliche Offsets, damit Temp und Moist nicht identisch sind
+    fillOctaveNoise(biomeNoise, temperatures, scratch, originX, originZ, 0.001f, 2, 0.5f, 2.0f);
+    fillOctaveNoise(
+        biomeNoise, moistures, scratch, originX + 5000, originZ + 5000, 0.001f, 2, 0.5f, 2.0f);
+    fillOctaveNoise(continentNoise, continents, scratch, originX, originZ, 0.0005f, 3, 0.5f, 2f);
+    fillOctaveNoise(
+        terrainNoise,
+        terrains,
+        scratch,
+        originX,
+        originZ,
+        terrainScale,
+        octaves,
+        persistence,
+        lacunarity);
+    riverNoise.sampleGrid(
+        rivers, originX * 0.001f, originZ * 0.001f, 0.001f, ChunkData.WIDTH, ChunkData.DEPTH);
+
+    int[] heights = new int[COLUMNS];
+    BiomeType[] biomes = new BiomeType[COLUMNS];
+
+    for (int column = 0; column < COLUMNS; column++) {
+      // --- Biome Layer (Whittaker System) ---
+      BiomeType biome = BiomeProvider.getBiome(temperatures[column], moistures[column]);
+
+      // --- Terrain Generation ---
+      // Biome beeinflussen die Höhe (z.B. Wüste flacher, Wald hügeliger)
+      // Hier nutzen wir beispielhaft Biome-spezifische Multiplikatoren
+      float biomeHeightMod = (biome == BiomeType.DESERT) ? 0.6f : 1.0f;
+
+      float finalHeight = (continents[column] * 0.7f + terrains[column] * 0.3f) * biomeHeightMod;
+      int heightValue = (int) Mathf.map(finalHeight, 0, 1, 0, heightMultiplier);
+
+      // --- River Layer ---
+      float river = Mathf.abs(rivers[column]);
+      if (river < 0.02f) heightValue -= 10;
+
+      heights[column] = heightValue;
+      biomes[column] = biome;
+    }
 
-        BiomeType biome = BiomeProvider.getBiome(temp, moisture);
+    return new ChunkNoiseData(chunkX, chunkZ, heights, biomes, temperatures, moistures);
+  }
 
-        // --- Terrain Generation ---
-        float continent = generateOctaveNoise(continentNoise, wx, wz, 0.0005f, 3, 0.5f, 2f);
-        float terrain =
-            generateOctaveNoise(
-                terrainNoise, wx, wz, terrainScale, octaves, persistence, lacunarity);
+  @Override
+  public int getNeighborRadius(ChunkStatus stage) {
+    // Baumstämme eines Clusters stehen höchstens einen Chunk entfernt, Bäume lesen ihre Höhe
+    return stage == ChunkStatus.STRUCTURES ? 1 : 0;
+  }
 
-        // Biome beeinflussen die Höhe (z.B. Wüste flacher, Wald hügeliger)
-        // Hier nutzen wir beispielhaft Biome-spezifische Multiplikatoren
-        float biomeHeightMod = (biome == BiomeType.DESERT) ? 0.6f : 1.0f;
+  @Override
+  public void generateStage(ChunkStatus stage, GenerationContext context) {
+    ChunkData chunk = context.getChunk();
+    switch (stage) {
+      case TERRAIN -> createTerrain(chunk, context.getNoise());
+      case CARVERS -> caveCarver.carve(chunk, context.getNoise());
+      case STRUCTURES -> structureManager.generateStructures(context, seed);
+      case DECORATION -> {
+        // Hier könnte man nun auch Eis für SNOW-Biome einbauen
+        createWater(chunk, context.getNoise());
+        createGrass(chunk);
+      }
+      default -> throw new IllegalArgumentException("Not a block stage: " + stage);
+    }
+  }
 
-        float finalHeight = (continent * 0.7f + terrain * 0.3f) * biomeHeightMod;
-        int heightValue = (int) Mathf.map(finalHeight, 0, 1, 0, heightMultiplier);
+  private void createTerrain(ChunkData chunk, ChunkNoiseData noise) {
+    int originX = chunk.getChunkX() * ChunkData.WIDTH;
+    int originZ = chunk.getChunkZ() * ChunkData.DEPTH;
 
-        // --- River Layer ---
-        float river = Mathf.abs((float) riverNoise.noise(wx * 0.001f, wz * 0.001f));
-        if (river < 0.02f) heightValue -= 10;
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int heightValue = noise.getHeight(x, z);
+        BiomeType biome = noise.getBiome(x, z);
 
         chunk.setHeightValue(heightValue, x, z);
 
+        // Only columns reaching the mountain band need the rock pattern, and it does not depend
+        // on y, so it is sampled once per column instead of once per block.
+        boolean cobble =
+            heightValue > ROCK_HEIGHT
+                && terrainNoise.noise((originX + x) * 0.05f, (originZ + z) * 0.05f) >= 0.7f;
+
         // --- Block Layer ---
         for (int y = 0; y <= heightValue; y++) {
           // Wir übergeben das neue Whittaker-Biom an die Block-Logik
-          BlockType blockType = getBlockType(x, y, z, heightValue, biome, chunk);
+          BlockType blockType = getBlockType(y, heightValue, biome, cobble);
           chunk.setBlockAt(blockType, x, y, z);
         }
       }
     }
-
-    structureManager.generateStructures(chunk, seed);
-    createWater(chunk); // Hier könnte man nun auch Eis für SNOW-Biome einbauen
-    createGrass(chunk);
-  }
-
-  //  @Override
-  //  public void generate(ChunkData chunk) {
-  //    Vector3f pos = getPosition(chunk);
-  //    long chunkSeed = seed ^ ((long) (pos.x * 31 + pos.z * 17));
-  //    Random rng = new Random(chunkSeed);
-  //
-  //    for (int x = 0; x < ChunkData.WIDTH; x++) {
-  //      for (int z = 0; z < ChunkData.DEPTH; z++) {
-  //        float wx = pos.x + x;
-  //        float wz = pos.z + z;
-  //
-  //        // --- Biome Layer ---
-  //        BiomeType biome = getBiomeAt(wx, wz);
-  //
-  //        // --- Continent + Terrain Layer ---
-  //        float continent = generateOctaveNoise(continentNoise, wx, wz, 0.0005f, 3, 0.5f, 2f);
-  //        float terrain =
-  //            generateOctaveNoise(
-  //                terrainNoise, wx, wz, terrainScale, octaves, persistence, lacunarity);
-  //
-  //        float finalHeight = continent * 0.7f + terrain * 0.3f;
-  //        int heightValue = (int) Mathf.map(finalHeight, 0, 1, 0, heightMultiplier);
-  //
-  //        // --- River Layer ---
-  //        float river = Mathf.abs((float) riverNoise.noise(wx * 0.001f, wz * 0.001f));
-  //        if (river < 0.02f) heightValue -= 10; // river carve
-  //
-  //        // chunk.getHeightMap()[x + z * ChunkData.WIDTH] = heightValue;
-  //        chunk.setHeightValue(heightValue, x, z);
-  //
-  //        // --- Block Layer ---
-  //        for (int y = 0; y <= heightValue; y++) {
-  //          BlockType blockType = getBlockType(x, y, z, heightValue, biome, chunk);
-  //          chunk.setBlockAt(blockType, x, y, z);
-  //        }
-  //      }
-  //    }
-  //
-  //    // structures
-  //    structureManager.generateStructures(chunk, seed);
-  //
-  //    // --- Feature Layers ---
-  //    //    createTrees(chunk);
-  //    createWater(chunk);
-  //    //    createCaves(chunk);
-  //
-  //    createGrass(chunk);
-  //  }
-
-  private Vector3f getPosition(ChunkData chunk) {
-    float cwX = chunk.getChunkX() * ChunkData.WIDTH;
-    float cwZ = chunk.getChunkZ() * ChunkData.DEPTH;
-    float cwY = 0;
-    Vector3f pos = new Vector3f(cwX, cwY, cwZ);
-    return pos;
   }
 
-  private void createCaves(ChunkData chunk) {
-    Vector3f pos = getPosition(chunk);
-
-    for (int x = 0; x < ChunkData.WIDTH; x++) {
-      for (int z = 0; z < ChunkData.DEPTH; z++) {
-        //          int heightValue = chunk.getHeightValue(x, z);
-        int heightValue = 75;
-        for (int y = 0; y <= heightValue; y++) {
-          float wX = pos.x + x;
-          float wY = pos.y + y;
-          float wZ = pos.z + z;
-
-          float cave = (float) caveNoise.noise(wX * 0.05f, wY * 0.05f, wZ * 0.05f);
-          float depthFactor = 1.0f - ((float) y / 60f);
-          if (cave > 0.6f + depthFactor * 0.2f) {
-            if (chunk.getBlock(x, y, z) == Blocks.WATER) continue;
-            chunk.setBlockAt(Blocks.AIR, x, y, z);
-          }
-        }
-      }
-    }
-  }
-
-  private BiomeType getBiomeAt(float wx, float wz) {
-    float temp = (float) biomeNoise.noise(wx * 0.002f, wz * 0.002f);
-    float moisture = (float) biomeNoise.noise(wx * 0.002f + 1000, wz * 0.002f + 1000);
-
-    if (temp > 0.7 && moisture < 0.3f) return BiomeType.DESERT;
-    if (temp > 0.6 && moisture > 0.6f) return BiomeType.FOREST;
-    if (temp < 0.3f) return BiomeType.SNOW;
-    return BiomeType.PLAINS;
-  }
-
-  private BlockType getBlockType(
-      int x, int y, int z, int heightValue, BiomeType biome, ChunkData chunk) {
-    float wx = getPosition(chunk).x + x;
-    float wz = getPosition(chunk).z + z;
-
+  private BlockType getBlockType(int y, int heightValue, BiomeType biome, boolean cobble) {
     if (y == 0) return Blocks.BEDROCK;
 
     // Beaches
@@ -235,10 +236,8 @@ public class BasicWorldGenerator2 implements WorldGenerator {
 
     // Mountain tops
     if (y > 140) return Blocks.SNOW;
-    if (y > 110) {
-      return terrainNoise.noise(wx * 0.05f, wz * 0.05f) < 0.7f
-          ? BlockRegistry.get(BlockIds.STONE)
-          : Blocks.COBBLE_STONE;
+    if (y > ROCK_HEIGHT) {
+      return cobble ? Blocks.COBBLE_STONE : BlockRegistry.get(BlockIds.STONE);
     }
 
     // Layers: Grass, Dirt, Stone
@@ -253,109 +252,11 @@ public class BasicWorldGenerator2 implements WorldGenerator {
     return Blocks.GRASS_BLOCK;
   }
 
-  private void createTrees(ChunkData chunk, Random rng) {
-    Vector3f pos = getPosition(chunk);
-
-    boolean[][] treeMap = new boolean[ChunkData.WIDTH][ChunkData.DEPTH];
-
+  private void createWater(ChunkData chunk, ChunkNoiseData noise) {
     for (int x = 0; x < ChunkData.WIDTH; x++) {
       for (int z = 0; z < ChunkData.DEPTH; z++) {
-        int heightValue = chunk.getHeightValue(x, z);
-        if (heightValue <= seaLevel) continue;
-
-        BiomeType biome = getBiomeAt(pos.x + x, pos.z + z);
-        BlockType topBlock = chunk.getBlock(x, heightValue, z);
-        if (!(topBlock == Blocks.GRASS_BLOCK || topBlock == Blocks.SAND)) continue;
-
-        int hL = chunk.getHeightValue(Math.max(x - 1, 0), z);
-        int hR = chunk.getHeightValue(Math.min(x + 1, ChunkData.WIDTH - 1), z);
-        int hF = chunk.getHeightValue(x, Math.max(z - 1, 0));
-        int hB = chunk.getHeightValue(x, Math.min(z + 1, ChunkData.DEPTH - 1));
-        float slope = Math.abs(hL - hR) + Math.abs(hF - hB);
-
-        float baseChance = (float) treeNoise.noise((pos.x + x) * 0.01f, (pos.z + z) * 0.01f);
-        float slopeFactor = 1.0f - Mathf.clamp(slope / 5f, 0f, 1f);
-        float finalChance = baseChance * slopeFactor;
-
-        int minDistance = biome == BiomeType.FOREST ? 2 : 3;
-        if (finalChance > 0.65f && isAreaClear(treeMap, x, z, minDistance)) {
-          int treeHeight = biome == BiomeType.FOREST ? rng.nextInt(5) + 6 : rng.nextInt(4) + 4;
-          BlockType treeType = rng.nextFloat() < 0.08f ? Blocks.BIRCH_WOOD : Blocks.OAK_WOOD;
-
-          // new SpruceTreeGenerator().generate(new TreeContext(chunk, x, heightValue, z,
-          // rng));
-
-          for (int y = heightValue; y < heightValue + treeHeight; y++) {
-            chunk.setBlockAt(treeType, x, y, z);
-          }
-          generateLeafCluster(
-              chunk, x, heightValue + treeHeight, z, biome == BiomeType.FOREST ? 3 : 2);
-
-          treeMap[x][z] = true;
-        }
-      }
-    }
-  }
-
-  private boolean isAreaClear(boolean[][] treeMap, int x, int z, int radius) {
-    int startX = Math.max(x - radius, 0);
-    int endX = Math.min(x + radius, ChunkData.WIDTH - 1);
-    int startZ = Math.max(z - radius, 0);
-    int endZ = Math.min(z + radius, ChunkData.DEPTH - 1);
-
-    for (int i = startX; i <= endX; i++) {
-      for (int j = startZ; j <= endZ; j++) {
-        if (treeMap[i][j]) return false;
-      }
-    }
-    return true;
-  }
-
-  // private void generateLeafCluster(ChunkData chunk, int x, int baseHeight, int
-  // z, int radius) {
-  // for (int dx = -radius; dx <= radius; dx++) {
-  // for (int dz = -radius; dz <= radius; dz++) {
-  // for (int dy = -radius / 2; dy <= radius / 2; dy++) {
-  // int dist = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
-  // if (dist <= radius && chunk.isInside(x + dx, baseHeight + dy, z + dz)) {
-  // chunk.setBlockAt(BlockType.LEAF, x + dx, baseHeight + dy, z + dz);
-  // }
-  // }
-  // }
-  // }
-  // }
-
-  private void generateLeafCluster(ChunkData chunk, int x, int baseHeight, int z, int radius) {
-
-    for (int dx = -radius; dx <= radius; dx++) {
-      for (int dz = -radius; dz <= radius; dz++) {
-        for (int dy = -radius; dy <= radius; dy++) {
-
-          float dist = dx * dx + dy * dy + dz * dz;
-
-          if (dist <= radius * radius) {
-
-            int px = x + dx;
-            int py = baseHeight + dy;
-            int pz = z + dz;
-
-            if (!chunk.isInside(px, py, pz)) continue;
-
-            BlockType current = chunk.getBlock(px, py, pz);
-
-            if (current == Blocks.AIR) {
-              chunk.setBlockAt(Blocks.LEAF, px, py, pz);
-            }
-          }
-        }
-      }
-    }
-  }
-
-  private void createWater(ChunkData chunk) {
-    for (int x = 0; x < ChunkData.WIDTH; x++) {
-      for (int z = 0; z < ChunkData.DEPTH; z++) {
-        for (int y = 0; y < seaLevel; y++) {
+        // Nur oberhalb des Geländes fluten, Höhlen darunter bleiben trocken
+        for (int y = Math.max(0, noise.getHeight(x, z) + 1); y < seaLevel; y++) {
           BlockType type = chunk.getBlock(x, y, z);
           if (type == Blocks.AIR) {
             chunk.setBlockAt(Blocks.WATER, x, y, z);
@@ -365,27 +266,47 @@ public class BasicWorldGenerator2 implements WorldGenerator {
     }
   }
 
-  private float generateOctaveNoise(
+  /**
+   * Fills {@code out} with normalized octave noise for every column of a chunk.
+   *
+   * <p>Produces the same values as sampling each column separately, but lets the noise sample a
+   * whole 16x16 grid per octave so per-row and per-column work is shared.
+   *
+   * @param out destination grid, indexed {@code x + z * ChunkData.WIDTH}
+   * @param scratch temporary grid of the same size, overwritten
+   * @param x world x-coordinate of the first column
+   * @param z world z-coordinate of the first column
+   */
+  private void fillOctaveNoise(
       PerlinNoise noise,
+      float[] out,
+      float[] scratch,
       float x,
       float z,
       float baseScale,
       int octaves,
       float persistence,
       float lacunarity) {
-    float total = 0;
+    Arrays.fill(out, 0);
     float amplitude = 1;
     float frequency = baseScale;
     float max = 0;
 
     for (int i = 0; i < octaves; i++) {
-      total += noise.noise(x * frequency, z * frequency) * amplitude;
+      noise.sampleGrid(
+          scratch, x * frequency, z * frequency, frequency, ChunkData.WIDTH, ChunkData.DEPTH);
+      for (int j = 0; j < out.length; j++) {
+        out[j] += scratch[j] * amplitude;
+      }
       max += amplitude;
       amplitude *= persistence;
       frequency *= lacunarity;
     }
 
-    return total / max;
+    float invMax = 1f / max;
+    for (int j = 0; j < out.length; j++) {
+      out[j] *= invMax;
+    }
   }
 
   /**
@@ -400,7 +321,8 @@ public class BasicWorldGenerator2 implements WorldGenerator {
    * @param chunk The chunk data to modify.
    */
   private void createGrass(ChunkData chunk) {
-    Vector3f chunkPos = getPosition(chunk);
+    int originX = chunk.getChunkX() * ChunkData.WIDTH;
+    int originZ = chunk.getChunkZ() * ChunkData.DEPTH;
 
     for (int x = 0; x < ChunkData.WIDTH; x++) {
       for (int z = 0; z < ChunkData.DEPTH; z++) {
@@ -412,8 +334,8 @@ public class BasicWorldGenerator2 implements WorldGenerator {
         if (chunk.getBlock(x, y + 1, z) != Blocks.AIR) continue;
 
         // Absolute world coordinates
-        float wx = chunkPos.x + x;
-        float wz = chunkPos.z + z;
+        float wx = originX + x;
+        float wz = originZ + z;
 
         // 2. Large scale noise (Wiesen-Zonen)
         // Still 0.45, but you can lower it to 0.35 for even smaller patches
@@ -0,0 +1,160 @@
+package server.world.generation;
+
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import math.Mathf;
+import math.noise.base.FastGradientNoise3D;
+
+/**
+ * Carves caves and overhangs out of generated terrain using a 3D density field.
+ *
+ * <p>The density is only sampled on a coarse lattice of {@link #CELL_WIDTH} x {@link #CELL_HEIGHT}
+ * x {@link #CELL_WIDTH} block cells and interpolated trilinearly in between. For a chunk that is
+ * 5 x 5 noise samples per lattice layer instead of one sample per block, which makes carving cheap
+ * enough to run for every chunk.
+ *
+ * <p>Columns below sea level keep a sealed floor, so the ocean does not drain into the caves.
+ */
+public class CaveCarver {
+
+  /** Horizontal cell size of the sampling lattice in blocks. */
+  public static final int CELL_WIDTH = 4;
+
+  /** Vertical cell size of the sampling lattice in blocks. */
+  public static final int CELL_HEIGHT = 8;
+
+  private static final int LATTICE_WIDTH = ChunkData.WIDTH / CELL_WIDTH + 1;
+
+  private static final int LATTICE_DEPTH = ChunkData.DEPTH / CELL_WIDTH + 1;
+
+  /** Bedrock and a few layers above it are never carved. */
+  private static final int MIN_Y = 5;
+
+  /** Blocks of solid ground kept above caves in columns below sea level. */
+  private static final int SEA_FLOOR_MARGIN = 4;
+
+  /** Depth below the surface over which caves fade out, so fewer of them break through. */
+  private static final int SURFACE_FADE = 8;
+
+  private static final float HORIZONTAL_FREQUENCY = 0.05f;
+
+  // Etwas gestaucht, damit Höhlen eher in die Breite als in die Höhe gehen
+  private static final float VERTICAL_FREQUENCY = 0.04f;
+
+  /** Roughly the densest 10% of the field becomes air. */
+  private static final float THRESHOLD = 0.35f;
+
+  private static final float SURFACE_THRESHOLD_BOOST = 0.25f;
+
+  private final FastGradientNoise3D noise;
+
+  private final int seaLevel;
+
+  public CaveCarver(long seed, int seaLevel) {
+    this.noise = new FastGradientNoise3D(seed);
+    this.seaLevel = seaLevel;
+  }
+
+  /** Carves the chunk, using the generated surface heights of {@code columns}. */
+  public void carve(ChunkData chunk, ChunkNoiseData columns) {
+    int[] tops = new int[ChunkData.WIDTH * ChunkData.DEPTH];
+    int maxTop = 0;
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int surface = columns.getHeight(x, z);
+        int top = surface < seaLevel ? surface - SEA_FLOOR_MARGIN : surface;
+        top = Math.min(top, ChunkData.HEIGHT - 1);
+        tops[x + z * ChunkData.WIDTH] = top;
+        maxTop = Math.max(maxTop, top);
+      }
+    }
+    if (maxTop < MIN_Y) return;
+
+    int cellsY = maxTop / CELL_HEIGHT + 1;
+    int latticeHeight = cellsY + 1;
+    float[] lattice = sampleLattice(chunk, latticeHeight);
+
+    for (int cellZ = 0; cellZ < LATTICE_DEPTH - 1; cellZ++) {
+      for (int cellX = 0; cellX < LATTICE_WIDTH - 1; cellX++) {
+        for (int cellY = 0; cellY < cellsY; cellY++) {
+          carveCell(chunk, lattice, latticeHeight, tops, cellX, cellY, cellZ);
+        }
+      }
+    }
+  }
+
+  private void carveCell(
+      ChunkData chunk,
+      float[] lattice,
+      int latticeHeight,
+      int[] tops,
+      int cellX,
+      int cellY,
+      int cellZ) {
+    float d000 = lattice[latticeIndex(cellX, cellY, cellZ, latticeHeight)];
+    float d100 = lattice[latticeIndex(cellX + 1, cellY, cellZ, latticeHeight)];
+    float d010 = lattice[latticeIndex(cellX, cellY + 1, cellZ, latticeHeight)];
+    float d110 = lattice[latticeIndex(cellX + 1, cellY + 1, cellZ, latticeHeight)];
+    float d001 = lattice[latticeIndex(cellX, cellY, cellZ + 1, latticeHeight)];
+    float d101 = lattice[latticeIndex(cellX + 1, cellY, cellZ + 1, latticeHeight)];
+    float d011 = lattice[latticeIndex(cellX, cellY + 1, cellZ + 1, latticeHeight)];
+    float d111 = lattice[latticeIndex(cellX + 1, cellY + 1, cellZ + 1, latticeHeight)];
+
+    for (int ly = 0; ly < CELL_HEIGHT; ly++) {
+      int y = cellY * CELL_HEIGHT + ly;
+      if (y < MIN_Y) continue;
+
+      float ty = (float) ly / CELL_HEIGHT;
+      float d00 = Mathf.lerp(d000, d010, ty);
+      float d10 = Mathf.lerp(d100, d110, ty);
+      float d01 = Mathf.lerp(d001, d011, ty);
+      float d11 = Mathf.lerp(d101, d111, ty);
+
+      for (int lx = 0; lx < CELL_WIDTH; lx++) {
+        float tx = (float) lx / CELL_WIDTH;
+        float d0 = Mathf.lerp(d00, d10, tx);
+        float d1 = Mathf.lerp(d01, d11, tx);
+
+        for (int lz = 0; lz < CELL_WIDTH; lz++) {
+          int x = cellX * CELL_WIDTH + lx;
+          int z = cellZ * CELL_WIDTH + lz;
+          int top = tops[x + z * ChunkData.WIDTH];
+          if (y > top) continue;
+
+          float density = Mathf.lerp(d0, d1, (float) lz / CELL_WIDTH);
+          if (density > getThreshold(y, top)) {
+            chunk.setBlockAt(Blocks.AIR, x, y, z);
+          }
+        }
+      }
+    }
+  }
+
+  private float[] sampleLattice(ChunkData chunk, int latticeHeight) {
+    int originX = chunk.getChunkX() * ChunkData.WIDTH;
+    int originZ = chunk.getChunkZ() * ChunkData.DEPTH;
+    float[] lattice = new float[LATTICE_WIDTH * latticeHeight * LATTICE_DEPTH];
+
+    for (int k = 0; k < LATTICE_DEPTH; k++) {
+      float nz = (originZ + k * CELL_WIDTH) * HORIZONTAL_FREQUENCY;
+      for (int j = 0; j < latticeHeight; j++) {
+        float ny = j * CELL_HEIGHT * VERTICAL_FREQUENCY;
+        for (int i = 0; i < LATTICE_WIDTH; i++) {
+          float nx = (originX + i * CELL_WIDTH) * HORIZONTAL_FREQUENCY;
+          lattice[latticeIndex(i, j, k, latticeHeight)] = noise.sample(nx, ny, nz);
+        }
+      }
+    }
+    return lattice;
+  }
+
+  private float getThreshold(int y, int top) {
+    int depth = top - y;
+    if (depth >= SURFACE_FADE) return THRESHOLD;
+    return THRESHOLD + SURFACE_THRESHOLD_BOOST * (SURFACE_FADE - depth) / SURFACE_FADE;
+  }
+
+  private static int latticeIndex(int i, int j, int k, int latticeHeight) {
+    return i + LATTICE_WIDTH * (j + latticeHeight * k);
+  }
+}
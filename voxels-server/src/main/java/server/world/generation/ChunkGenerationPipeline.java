@@ -0,0 +1,254 @@
+package server.world.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import common.util.ConcurrentLong2ObjectMap;
+import common.util.LongSet;
+import common.world.ChunkData;
+import common.world.LightEngine;
+import common.world.World;
+
+/**
+ * Runs a {@link StagedWorldGenerator} stage by stage on a pool of worker threads.
+ *
+ * <p>Every chunk advances through the {@link ChunkStatus} stages in order. Before a stage runs,
+ * the pipeline makes sure all neighbours within the generator's declared radius reached {@link
+ * ChunkStatus#NOISE}, generating only their noise data if necessary. The pipeline keeps no noise
+ * data of its own; generators are expected to cache it, see {@link ColumnCache}.
+ *
+ * <p>Dependencies are expressed as chained futures: no worker ever blocks waiting for another
+ * stage, which keeps a fixed-size pool free of deadlocks. Once the last stage ran, the worker also
+ * computes the chunk's own light, see {@link LightEngine#lightChunk(ChunkData)}. Finished chunks
+ * stay in the pipeline until they are claimed with {@link #take(int, int)} or discarded with {@link
+ * #retainOnly(LongSet)}.
+ */
+public class ChunkGenerationPipeline {
+
+  /** Book-keeping for a chunk that is being generated asynchronously. */
+  private static final class PendingChunk {
+
+    private final ChunkData chunk;
+
+    private volatile ChunkStatus status = ChunkStatus.EMPTY;
+
+    private final CompletableFuture<ChunkData> future = new CompletableFuture<>();
+
+    private PendingChunk(ChunkData chunk) {
+      this.chunk = chunk;
+    }
+  }
+
+  private static final ThreadLocal<LightEngine> LIGHT_ENGINE =
+      ThreadLocal.withInitial(() -> new LightEngine(null));
+
+  private final StagedWorldGenerator generator;
+
+  private final ExecutorService workers;
+
+  private final ConcurrentLong2ObjectMap<CompletableFuture<ChunkNoiseData>> pendingNoise =
+      new ConcurrentLong2ObjectMap<>();
+
+  private final ConcurrentLong2ObjectMap<PendingChunk> pendingChunks =
+      new ConcurrentLong2ObjectMap<>();
+
+  /**
+   * Creates a new pipeline.
+   *
+   * @param generator the staged generator to run
+   * @param workerThreads number of generation worker threads
+   */
+  public ChunkGenerationPipeline(StagedWorldGenerator generator, int workerThreads) {
+    if (workerThreads <= 0) {
+      throw new IllegalArgumentException("Worker thread count must be greater than zero.");
+    }
+    this.generator = generator;
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            workerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "Chunk-Gen-Worker-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Starts generating the chunk in the background, or returns the already running generation.
+   *
+   * @return a future completing with the fully generated chunk
+   */
+  public CompletableFuture<ChunkData> submit(int chunkX, int chunkZ) {
+    if (workers.isShutdown()) {
+      return CompletableFuture.failedFuture(
+          new RejectedExecutionException("Chunk generation was shut down."));
+    }
+    long key = World.getChunkKey(chunkX, chunkZ);
+    PendingChunk pending = pendingChunks.get(key);
+    if (pending != null) {
+      return pending.future;
+    }
+
+    PendingChunk created = new PendingChunk(new ChunkData(chunkX, chunkZ));
+    pending = pendingChunks.putIfAbsent(key, created);
+    if (pending != null) {
+      return pending.future;
+    }
+
+    schedule(created)
+        .whenComplete(
+            (chunk, error) -> {
+              if (error != null) {
+                created.future.completeExceptionally(error);
+              } else {
+                created.future.complete(chunk);
+              }
+            });
+    return created.future;
+  }
+
+  /**
+   * Removes a submitted chunk from the pipeline and returns its future.
+   *
+   * @return the generation future, or {@code null} if the chunk was never submitted
+   */
+  public CompletableFuture<ChunkData> take(int chunkX, int chunkZ) {
+    PendingChunk pending = pendingChunks.remove(World.getChunkKey(chunkX, chunkZ));
+    return pending != null ? pending.future : null;
+  }
+
+  /**
+   * Drops every submitted chunk whose key is not contained in {@code keys}. Work that is already
+   * running finishes, but its result is no longer kept.
+   */
+  public void retainOnly(LongSet keys) {
+    pendingChunks.removeIf((key, pending) -> !keys.contains(key));
+  }
+
+  /** Returns the generation status of a submitted chunk, or {@code EMPTY} if it is unknown. */
+  public ChunkStatus getStatus(int chunkX, int chunkZ) {
+    PendingChunk pending = pendingChunks.get(World.getChunkKey(chunkX, chunkZ));
+    return pending != null ? pending.status : ChunkStatus.EMPTY;
+  }
+
+  /** Generates and lights the chunk in the calling thread. */
+  public void generateNow(ChunkData chunk) {
+    ChunkNoiseData noise = getNoise(chunk.getChunkX(), chunk.getChunkZ());
+    GenerationContext context = new GenerationContext(chunk, noise, this::getNoise);
+    for (ChunkStatus stage : ChunkStatus.values()) {
+      if (stage.isBlockStage()) {
+        generator.generateStage(stage, context);
+      }
+    }
+    LIGHT_ENGINE.get().lightChunk(chunk);
+  }
+
+  /** Returns the noise data of a chunk, asking the generator in the calling thread. */
+  public ChunkNoiseData getNoise(int chunkX, int chunkZ) {
+    return generator.generateNoise(chunkX, chunkZ);
+  }
+
+  /**
+   * Returns the noise data of a chunk, asking the generator on a worker thread. Concurrent
+   * requests for the same chunk share one future.
+   */
+  public CompletableFuture<ChunkNoiseData> requestNoise(int chunkX, int chunkZ) {
+    long key = World.getChunkKey(chunkX, chunkZ);
+    CompletableFuture<ChunkNoiseData> created = new CompletableFuture<>();
+    CompletableFuture<ChunkNoiseData> existing = pendingNoise.putIfAbsent(key, created);
+    if (existing != null) {
+      return existing;
+    }
+
+    workers.execute(
+        () -> {
+          try {
+            created.complete(getNoise(chunkX, chunkZ));
+          } catch (Throwable t) {
+            created.completeExceptionally(t);
+          } finally {
+            pendingNoise.remove(key, created);
+          }
+        });
+    return created;
+  }
+
+  public int getPendingChunkCount() {
+    return pendingChunks.size();
+  }
+
+  /**
+   * Stops the workers. Chunks that are still being generated fail, so a later {@link #take(int,
+   * int)} falls back to generating in the calling thread instead of waiting forever; later submits
+   * fail at once.
+   */
+  public void shutdown() {
+    workers.shutdownNow();
+    RejectedExecutionException stopped =
+        new RejectedExecutionException("Chunk generation was shut down.");
+    pendingChunks.forEach((key, pending) -> pending.future.completeExceptionally(stopped));
+    pendingNoise.forEach((key, noise) -> noise.completeExceptionally(stopped));
+  }
+
+  private CompletableFuture<ChunkData> schedule(PendingChunk pending) {
+    ChunkData chunk = pending.chunk;
+    int chunkX = chunk.getChunkX();
+    int chunkZ = chunk.getChunkZ();
+
+    CompletableFuture<GenerationContext> future =
+        requestNoise(chunkX, chunkZ)
+            .thenApply(
+                noise -> {
+                  pending.status = ChunkStatus.NOISE;
+                  return new GenerationContext(chunk, noise, this::getNoise);
+                });
+
+    for (ChunkStatus stage : ChunkStatus.values()) {
+      if (!stage.isBlockStage()) continue;
+
+      int radius = generator.getNeighborRadius(stage);
+      future =
+          future.thenCompose(
+              context ->
+                  awaitNeighbors(chunkX, chunkZ, radius)
+                      .thenApplyAsync(
+                          ignored -> {
+                            generator.generateStage(stage, context);
+                            pending.status = stage;
+                            return context;
+                          },
+                          workers));
+    }
+
+    return future.thenApply(
+        context -> {
+          LIGHT_ENGINE.get().lightChunk(chunk);
+          chunk.setDirty(false);
+          pending.status = ChunkStatus.FULL;
+          return chunk;
+        });
+  }
+
+  private CompletableFuture<Void> awaitNeighbors(int chunkX, int chunkZ, int radius) {
+    if (radius <= 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    List<CompletableFuture<ChunkNoiseData>> neighbors = new ArrayList<>();
+    for (int dx = -radius; dx <= radius; dx++) {
+      for (int dz = -radius; dz <= radius; dz++) {
+        if (dx == 0 && dz == 0) continue;
+        neighbors.add(requestNoise(chunkX + dx, chunkZ + dz));
+      }
+    }
+    return CompletableFuture.allOf(neighbors.toArray(new CompletableFuture<?>[0]));
+  }
+}
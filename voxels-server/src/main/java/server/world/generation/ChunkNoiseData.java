@@ -0,0 +1,73 @@
+package server.world.generation;
+
+import common.world.ChunkData;
+
+/**
+ * Intermediate result of the {@link ChunkStatus#NOISE} stage for one chunk: the final surface
+ * height and the climate values of every column.
+ *
+ * <p>Instances are immutable and cached by the generation pipeline, so later stages and
+ * neighbouring chunks can read them without re-evaluating any noise. Columns are indexed {@code x +
+ * z * ChunkData.WIDTH} with chunk-local coordinates.
+ */
+public final class ChunkNoiseData {
+
+  private final int chunkX;
+
+  private final int chunkZ;
+
+  private final int[] heights;
+
+  private final BiomeType[] biomes;
+
+  private final float[] temperatures;
+
+  private final float[] moistures;
+
+  public ChunkNoiseData(
+      int chunkX,
+      int chunkZ,
+      int[] heights,
+      BiomeType[] biomes,
+      float[] temperatures,
+      float[] moistures) {
+    int columns = ChunkData.WIDTH * ChunkData.DEPTH;
+    if (heights.length != columns
+        || biomes.length != columns
+        || temperatures.length != columns
+        || moistures.length != columns) {
+      throw new IllegalArgumentException(
+          "Noise data must contain exactly " + columns + " columns.");
+    }
+    this.chunkX = chunkX;
+    this.chunkZ = chunkZ;
+    this.heights = heights;
+    this.biomes = biomes;
+    this.temperatures = temperatures;
+    this.moistures = moistures;
+  }
+
+  public int getChunkX() {
+    return chunkX;
+  }
+
+  public int getChunkZ() {
+    return chunkZ;
+  }
+
+  public int getHeight(int x, int z) {
+    return heights[x + z * ChunkData.WIDTH];
+  }
+
+  public BiomeType getBiome(int x, int z) {
+    return biomes[x + z * ChunkData.WIDTH];
+  }
+
+  public float getTemperature(int x, int z) {
+    return temperatures[x + z * ChunkData.WIDTH];
+  }
+
+  public float getMoisture(int x, int z) {
+    return moistures[x + z * ChunkData.WIDTH];
+  }
+}
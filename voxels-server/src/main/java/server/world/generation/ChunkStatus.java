@@ -0,0 +1,47 @@
+package server.world.generation;
+
+/**
+ * Generation progress of a chunk on the server.
+ *
+ * <p>Stages run strictly in declaration order. {@link #NOISE} produces the per-chunk {@link
+ * ChunkNoiseData} (heightmap and biome map) and is the only stage neighbours are generated to on
+ * demand, since it does not touch block data. All later stages operate on the chunk's blocks.
+ */
+public enum ChunkStatus {
+  /** Nothing generated yet. */
+  EMPTY,
+
+  /** Heightmap and biome map are available. */
+  NOISE,
+
+  /** Base terrain blocks are placed. */
+  TERRAIN,
+
+  /** Caves and other carvers have run. */
+  CARVERS,
+
+  /** Structures (rocks, trees) are placed. */
+  STRUCTURES,
+
+  /** Water, vegetation and other surface decoration are placed. */
+  DECORATION,
+
+  /** The chunk is complete and can be handed to the world. */
+  FULL;
+
+  private static final ChunkStatus[] VALUES = values();
+
+  /** Returns the following status, or {@link #FULL} for {@code FULL} itself. */
+  public ChunkStatus next() {
+    return this == FULL ? FULL : VALUES[ordinal() + 1];
+  }
+
+  public boolean isAtLeast(ChunkStatus other) {
+    return ordinal() >= other.ordinal();
+  }
+
+  /** Returns {@code true} for the stages that operate on block data. */
+  public boolean isBlockStage() {
+    return isAtLeast(TERRAIN) && this != FULL;
+  }
+}
@@ -0,0 +1,100 @@
+package server.world.generation;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import common.world.ChunkData;
+import common.world.World;
+import server.util.LruCache;
+
+/**
+ * Shared cache of the generated terrain columns: surface height, biome, temperature and moisture.
+ *
+ * <p>Columns are grouped into tiles of {@link #TILE_SIZE} x {@link #TILE_SIZE} chunks, the same
+ * region size the structure placement uses. A tile is filled lazily one chunk at a time, and whole
+ * tiles are evicted in LRU order. Looking up any world column therefore costs a map lookup once its
+ * chunk was sampled, no matter whether it is asked for by terrain generation, structure planning,
+ * spawn placement or a command.
+ *
+ * <p>The cache is safe to use from several threads. Two threads missing the same chunk may both
+ * sample it, but only one result is kept.
+ */
+public class ColumnCache {
+
+  /** Edge length of a tile in chunks. */
+  public static final int TILE_SIZE = 8;
+
+  private static final int CHUNKS_PER_TILE = TILE_SIZE * TILE_SIZE;
+
+  private final GenerationContext.NoiseSource source;
+
+  private final LruCache<Long, AtomicReferenceArray<ChunkNoiseData>> tiles;
+
+  /**
+   * Creates a new column cache.
+   *
+   * @param source computes the columns of a chunk on a cache miss, must be deterministic
+   * @param cachedTiles number of tiles kept in memory
+   */
+  public ColumnCache(GenerationContext.NoiseSource source, int cachedTiles) {
+    this.source = source;
+    this.tiles = new LruCache<>(cachedTiles);
+  }
+
+  /** Returns the columns of a whole chunk, sampling them on a cache miss. */
+  public ChunkNoiseData getChunk(int chunkX, int chunkZ) {
+    AtomicReferenceArray<ChunkNoiseData> tile =
+        tiles.computeIfAbsent(
+            World.getChunkKey(Math.floorDiv(chunkX, TILE_SIZE), Math.floorDiv(chunkZ, TILE_SIZE)),
+            key -> new AtomicReferenceArray<>(CHUNKS_PER_TILE));
+
+    int slot = Math.floorMod(chunkX, TILE_SIZE) + Math.floorMod(chunkZ, TILE_SIZE) * TILE_SIZE;
+    ChunkNoiseData data = tile.get(slot);
+    if (data == null) {
+      data = source.getNoise(chunkX, chunkZ);
+      if (!tile.compareAndSet(slot, null, data)) {
+        data = tile.get(slot);
+      }
+    }
+    return data;
+  }
+
+  /** Returns the generated surface height of the given world column. */
+  public int getHeight(int worldX, int worldZ) {
+    return getColumnChunk(worldX, worldZ).getHeight(localX(worldX), localZ(worldZ));
+  }
+
+  /** Returns the biome of the given world column. */
+  public BiomeType getBiome(int worldX, int worldZ) {
+    return getColumnChunk(worldX, worldZ).getBiome(localX(worldX), localZ(worldZ));
+  }
+
+  /** Returns the temperature of the given world column. */
+  public float getTemperature(int worldX, int worldZ) {
+    return getColumnChunk(worldX, worldZ).getTemperature(localX(worldX), localZ(worldZ));
+  }
+
+  /** Returns the moisture of the given world column. */
+  public float getMoisture(int worldX, int worldZ) {
+    return getColumnChunk(worldX, worldZ).getMoisture(localX(worldX), localZ(worldZ));
+  }
+
+  public int getCachedTileCount() {
+    return tiles.size();
+  }
+
+  public void clear() {
+    tiles.clear();
+  }
+
+  private ChunkNoiseData getColumnChunk(int worldX, int worldZ) {
+    return getChunk(Math.floorDiv(worldX, ChunkData.WIDTH), Math.floorDiv(worldZ, ChunkData.DEPTH));
+  }
+
+  private static int localX(int worldX) {
+    return Math.floorMod(worldX, ChunkData.WIDTH);
+  }
+
+  private static int localZ(int worldZ) {
+    return Math.floorMod(worldZ, ChunkData.DEPTH);
+  }
+}
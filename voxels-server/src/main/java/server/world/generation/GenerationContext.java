@@ -0,0 +1,69 @@
+package server.world.generation;
+
+import java.util.Objects;
+
+import common.world.ChunkData;
+
+/**
+ * Everything a generation stage may access while working on one chunk.
+ *
+ * <p>The chunk's own blocks are writable; neighbouring chunks are only visible through their {@link
+ * ChunkNoiseData}, which the pipeline guarantees to be available within the radius the generator
+ * declared for the running stage.
+ */
+public final class GenerationContext {
+
+  /** Supplies the noise data of arbitrary chunks, computing it if necessary. */
+  @FunctionalInterface
+  public interface NoiseSource {
+
+    ChunkNoiseData getNoise(int chunkX, int chunkZ);
+  }
+
+  private final ChunkData chunk;
+
+  private final ChunkNoiseData noise;
+
+  private final NoiseSource neighbors;
+
+  public GenerationContext(ChunkData chunk, ChunkNoiseData noise, NoiseSource neighbors) {
+    this.chunk = Objects.requireNonNull(chunk);
+    this.noise = Objects.requireNonNull(noise);
+    this.neighbors = Objects.requireNonNull(neighbors);
+  }
+
+  public ChunkData getChunk() {
+    return chunk;
+  }
+
+  /** Returns the noise data of the chunk being generated. */
+  public ChunkNoiseData getNoise() {
+    return noise;
+  }
+
+  /** Returns the noise data of the given chunk, which may be a neighbour. */
+  public ChunkNoiseData getNoise(int chunkX, int chunkZ) {
+    if (chunkX == noise.getChunkX() && chunkZ == noise.getChunkZ()) {
+      return noise;
+    }
+    return neighbors.getNoise(chunkX, chunkZ);
+  }
+
+  /** Returns the generated surface height at the given world column. */
+  public int getSurfaceHeight(int worldX, int worldZ) {
+    ChunkNoiseData data =
+        getNoise(
+            Math.floorDiv(worldX, ChunkData.WIDTH), Math.floorDiv(worldZ, ChunkData.DEPTH));
+    return data.getHeight(
+        Math.floorMod(worldX, ChunkData.WIDTH), Math.floorMod(worldZ, ChunkData.DEPTH));
+  }
+
+  /** Returns the biome at the given world column. */
+  public BiomeType getBiome(int worldX, int worldZ) {
+    ChunkNoiseData data =
+        getNoise(
+            Math.floorDiv(worldX, ChunkData.WIDTH), Math.floorDiv(worldZ, ChunkData.DEPTH));
+    return data.getBiome(
+        Math.floorMod(worldX, ChunkData.WIDTH), Math.floorMod(worldZ, ChunkData.DEPTH));
+  }
+}
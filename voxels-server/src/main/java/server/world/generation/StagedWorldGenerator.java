@@ -0,0 +1,83 @@
+package server.world.generation;
+
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import common.world.ChunkSummary;
+
+/**
+ * A {@link WorldGenerator} split into the stages of {@link ChunkStatus}.
+ *
+ * <p>Splitting generation lets the {@link ChunkGenerationPipeline} cache the {@link
+ * ChunkStatus#NOISE} result per chunk, generate neighbours only as far as a stage actually needs
+ * and run the stages of different chunks in parallel.
+ */
+public interface StagedWorldGenerator extends WorldGenerator {
+
+  /**
+   * Runs the {@link ChunkStatus#NOISE} stage. Must be deterministic and free of side effects, the
+   * result is shared between chunks and threads. Every stage that reads neighbours asks for their
+   * noise again, so generators with expensive noise should cache it, e.g. in a {@link
+   * ColumnCache}.
+   */
+  ChunkNoiseData generateNoise(int chunkX, int chunkZ);
+
+  /**
+   * Runs a single block stage ({@link ChunkStatus#isBlockStage()}) on the context's chunk. Stages
+   * are invoked in order and never concurrently for the same chunk.
+   */
+  void generateStage(ChunkStatus stage, GenerationContext context);
+
+  /**
+   * Returns the radius in chunks around the generated chunk whose noise data {@code stage} reads.
+   * The pipeline makes sure these neighbours reached {@link ChunkStatus#NOISE} before the stage
+   * runs.
+   */
+  default int getNeighborRadius(ChunkStatus stage) {
+    return 0;
+  }
+
+  /**
+   * Returns the generated surface height of a world column without generating any blocks.
+   * Generators that cache their noise data should answer this from the cache.
+   */
+  default int getSurfaceHeight(int worldX, int worldZ) {
+    ChunkNoiseData data =
+        generateNoise(
+            Math.floorDiv(worldX, ChunkData.WIDTH), Math.floorDiv(worldZ, ChunkData.DEPTH));
+    return data.getHeight(
+        Math.floorMod(worldX, ChunkData.WIDTH), Math.floorMod(worldZ, ChunkData.DEPTH));
+  }
+
+  /**
+   * Returns the summary of a chunk as generated, without generating any blocks. Used for distant
+   * terrain, so it only needs to look right from far away. The default covers every column with
+   * the top block of its biome; generators should override it to add water and similar surface
+   * features.
+   */
+  default ChunkSummary generateSummary(int chunkX, int chunkZ) {
+    ChunkNoiseData noise = generateNoise(chunkX, chunkZ);
+    short[] heights = new short[ChunkSummary.COLUMNS];
+    short[] topBlocks = new short[ChunkSummary.COLUMNS];
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int column = x + z * ChunkData.WIDTH;
+        heights[column] = (short) Math.max(0, noise.getHeight(x, z));
+        BiomeType biome = noise.getBiome(x, z);
+        topBlocks[column] = (biome != null ? biome.topBlock : Blocks.STONE).getId();
+      }
+    }
+    return new ChunkSummary(chunkX, chunkZ, heights, topBlocks);
+  }
+
+  /** Runs all stages for the chunk in the calling thread without any caching. */
+  @Override
+  default void generate(ChunkData chunk) {
+    ChunkNoiseData noise = generateNoise(chunk.getChunkX(), chunk.getChunkZ());
+    GenerationContext context = new GenerationContext(chunk, noise, this::generateNoise);
+    for (ChunkStatus stage : ChunkStatus.values()) {
+      if (stage.isBlockStage()) {
+        generateStage(stage, context);
+      }
+    }
+  }
+}
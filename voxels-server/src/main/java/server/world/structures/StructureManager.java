@@ -4,29 +4,44 @@ import java.util.ArrayList;
 import java.util.List;
 
 import common.world.ChunkData;
+import server.world.generation.GenerationContext;
 import server.world.structures.fin.StructureGenerator;
 
 public class StructureManager {
 
-  private List<StructureGenerator> generators = new ArrayList<>();
+  /** Number of planned regions kept by the placement index. */
+  private static final int CACHED_REGIONS = 256;
 
-  public void register(StructureGenerator g) {
+  private final List<StructureGenerator> generators = new ArrayList<>();
+
+  private volatile StructurePlacementIndex index;
+
+  public synchronized void register(StructureGenerator g) {
     generators.add(g);
+    index = null;
   }
 
-  public void generateStructures(ChunkData chunk, long worldSeed) {
+  public void generateStructures(GenerationContext context, long worldSeed) {
+    ChunkData chunk = context.getChunk();
     int cx = chunk.getChunkX();
     int cz = chunk.getChunkZ();
 
-    for (StructureGenerator g : generators) {
-      int chunkRadius = (int) Math.ceil((float) g.getMaxRadius() / ChunkData.WIDTH);
+    for (StructureStart start : getIndex(worldSeed).getStartsFor(cx, cz)) {
+      start.generator().place(context, start);
+    }
+  }
 
-      for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
-        for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
-          // WICHTIG: Wir geben die Koordinaten des "potenziellen Zentrums" mit!
-          g.generateAt(chunk, cx + dx, cz + dz, worldSeed);
+  private StructurePlacementIndex getIndex(long worldSeed) {
+    StructurePlacementIndex current = index;
+    if (current == null || current.getWorldSeed() != worldSeed) {
+      synchronized (this) {
+        current = index;
+        if (current == null || current.getWorldSeed() != worldSeed) {
+          current = new StructurePlacementIndex(generators, worldSeed, CACHED_REGIONS);
+          index = current;
         }
       }
     }
+    return current;
   }
 }
@@ -0,0 +1,125 @@
+package server.world.structures;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import common.world.ChunkData;
+import common.world.World;
+import server.util.LruCache;
+import server.world.structures.fin.StructureGenerator;
+
+/**
+ * Caches planned {@link StructureStart}s per region so each candidate chunk is rolled only once.
+ *
+ * <p>Without the index every generated chunk re-evaluates every candidate centre within the
+ * generators' reach, allocating a new {@code Random} (and bounds) per candidate. The index plans all
+ * candidates of a {@value #REGION_SIZE}x{@value #REGION_SIZE} chunk region in one go, stores only the
+ * candidates that actually spawn and keeps the most recently used regions in a bounded LRU cache.
+ * Looking up the structures for a chunk is then proportional to the number of structures nearby.
+ *
+ * <p>Planned starts are immutable, so the index can be queried from several generation threads.
+ */
+public class StructurePlacementIndex {
+
+  /** Region edge length in chunks. */
+  public static final int REGION_SIZE = 8;
+
+  private static final Comparator<StructureStart> CANDIDATE_ORDER =
+      Comparator.comparingInt(StructureStart::chunkX).thenComparingInt(StructureStart::chunkZ);
+
+  private final List<StructureGenerator> generators;
+
+  private final int[] chunkRadii;
+
+  private final long worldSeed;
+
+  /** Per region: planned starts grouped by generator index. */
+  private final LruCache<Long, StructureStart[][]> regions;
+
+  public StructurePlacementIndex(
+      List<StructureGenerator> generators, long worldSeed, int cachedRegions) {
+    this.generators = List.copyOf(generators);
+    this.worldSeed = worldSeed;
+    this.regions = new LruCache<>(cachedRegions);
+    this.chunkRadii = new int[this.generators.size()];
+    for (int i = 0; i < chunkRadii.length; i++) {
+      chunkRadii[i] =
+          (int) Math.ceil((float) this.generators.get(i).getMaxRadius() / ChunkData.WIDTH);
+    }
+  }
+
+  /**
+   * Returns all structure starts that overlap the given chunk.
+   *
+   * <p>Starts are ordered by generator registration order first and candidate position second, so
+   * placement order (and therefore the generated blocks) does not depend on cache state.
+   */
+  public List<StructureStart> getStartsFor(int chunkX, int chunkZ) {
+    List<StructureStart> result = new ArrayList<>();
+
+    for (int g = 0; g < generators.size(); g++) {
+      int radius = chunkRadii[g];
+      int minRegionX = Math.floorDiv(chunkX - radius, REGION_SIZE);
+      int maxRegionX = Math.floorDiv(chunkX + radius, REGION_SIZE);
+      int minRegionZ = Math.floorDiv(chunkZ - radius, REGION_SIZE);
+      int maxRegionZ = Math.floorDiv(chunkZ + radius, REGION_SIZE);
+
+      int first = result.size();
+      for (int rx = minRegionX; rx <= maxRegionX; rx++) {
+        for (int rz = minRegionZ; rz <= maxRegionZ; rz++) {
+          for (StructureStart start : getRegion(rx, rz)[g]) {
+            if (Math.abs(start.chunkX() - chunkX) > radius) continue;
+            if (Math.abs(start.chunkZ() - chunkZ) > radius) continue;
+            if (start.intersectsChunk(chunkX, chunkZ)) {
+              result.add(start);
+            }
+          }
+        }
+      }
+
+      result.subList(first, result.size()).sort(CANDIDATE_ORDER);
+    }
+
+    return result;
+  }
+
+  public long getWorldSeed() {
+    return worldSeed;
+  }
+
+  public int getCachedRegionCount() {
+    return regions.size();
+  }
+
+  private StructureStart[][] getRegion(int regionX, int regionZ) {
+    return regions.computeIfAbsent(
+        World.getChunkKey(regionX, regionZ), key -> planRegion(regionX, regionZ));
+  }
+
+  private StructureStart[][] planRegion(int regionX, int regionZ) {
+    StructureStart[][] planned = new StructureStart[generators.size()][];
+    List<StructureStart> starts = new ArrayList<>();
+
+    int baseX = regionX * REGION_SIZE;
+    int baseZ = regionZ * REGION_SIZE;
+
+    for (int g = 0; g < generators.size(); g++) {
+      StructureGenerator generator = generators.get(g);
+      starts.clear();
+
+      for (int x = baseX; x < baseX + REGION_SIZE; x++) {
+        for (int z = baseZ; z < baseZ + REGION_SIZE; z++) {
+          StructureStart start = generator.createStart(x, z, worldSeed);
+          if (start != null) {
+            starts.add(start);
+          }
+        }
+      }
+
+      planned[g] = starts.toArray(new StructureStart[0]);
+    }
+
+    return planned;
+  }
+}
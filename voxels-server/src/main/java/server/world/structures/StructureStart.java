@@ -0,0 +1,47 @@
+package server.world.structures;
+
+import common.world.ChunkData;
+import server.world.structures.fin.StructureGenerator;
+
+/**
+ * Immutable description of a structure that spawns at a candidate chunk.
+ *
+ * <p>A start is planned once per candidate chunk and then reused for every chunk the structure
+ * overlaps. It carries everything a generator needs to place its blocks again later: the seed rolled
+ * for the candidate, the world origin and the horizontal block bounds the structure may touch.
+ *
+ * @param generator generator that planned and places this structure
+ * @param chunkX chunk X coordinate of the candidate centre
+ * @param chunkZ chunk Z coordinate of the candidate centre
+ * @param seed position seed rolled for the candidate centre
+ * @param originX world X coordinate of the structure origin
+ * @param originY world Y coordinate of the structure origin
+ * @param originZ world Z coordinate of the structure origin
+ * @param minX smallest world X coordinate the structure may touch
+ * @param minZ smallest world Z coordinate the structure may touch
+ * @param maxX largest world X coordinate the structure may touch
+ * @param maxZ largest world Z coordinate the structure may touch
+ */
+public record StructureStart(
+    StructureGenerator generator,
+    int chunkX,
+    int chunkZ,
+    long seed,
+    int originX,
+    int originY,
+    int originZ,
+    int minX,
+    int minZ,
+    int maxX,
+    int maxZ) {
+
+  /** Returns {@code true} if the structure bounds overlap the given chunk column. */
+  public boolean intersectsChunk(int cx, int cz) {
+    int chunkMinX = cx * ChunkData.WIDTH;
+    int chunkMinZ = cz * ChunkData.DEPTH;
+    return maxX >= chunkMinX
+        && minX < chunkMinX + ChunkData.WIDTH
+        && maxZ >= chunkMinZ
+        && minZ < chunkMinZ + ChunkData.DEPTH;
+  }
+}
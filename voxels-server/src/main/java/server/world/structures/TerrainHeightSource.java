@@ -0,0 +1,8 @@
+package server.world.structures;
+
+/** Supplies the generated surface height of a world column while structures are being planned. */
+@FunctionalInterface
+public interface TerrainHeightSource {
+
+  int getHeight(int wx, int wz);
+}
@@ -1,14 +1,16 @@
 package server.world.structures.fin;
 
-import java.util.Collection;
 import java.util.Random;
 
 import common.game.block.BlockIds;
 import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
 import common.world.ChunkData;
 import math.Bounds;
-import math.Vector3f;
-import voxels.Voxel;
+import math.Mathf;
+import server.world.generation.GenerationContext;
+import server.world.structures.StructureStart;
+import server.world.structures.TerrainHeightSource;
 
 public class MeshStructureGenerator implements StructureGenerator {
 
@@ -18,10 +20,14 @@ public class MeshStructureGenerator implements StructureGenerator {
 
   private final float spawnChance;
 
-  public MeshStructureGenerator(VoxelStructure structure, int maxRadius, float spawnChance) {
+  private final TerrainHeightSource terrain;
+
+  public MeshStructureGenerator(
+      VoxelStructure structure, int maxRadius, float spawnChance, TerrainHeightSource terrain) {
     this.structure = structure;
     this.maxRadius = maxRadius;
     this.spawnChance = spawnChance;
+    this.terrain = terrain;
   }
 
   @Override
@@ -30,45 +36,57 @@ public class MeshStructureGenerator implements StructureGenerator {
   }
 
   @Override
-  public void generateAt(ChunkData chunk, int centerX, int centerZ, long worldSeed) {
+  public StructureStart createStart(int centerX, int centerZ, long worldSeed) {
     // 1. Eindeutiger Seed für diesen Punkt
     long posSeed = worldSeed ^ (centerX * 341873128712L) ^ (centerZ * 132897987541L);
     Random rng = new Random(posSeed);
 
     // 2. Spawn-Chance prüfen
-    if (rng.nextFloat() > spawnChance) return;
+    if (rng.nextFloat() > spawnChance) return null;
 
     // 3. Welt-Zentrum (Mitte des Ziel-Chunks)
-    Vector3f origin =
-        new Vector3f(
-            centerX * ChunkData.WIDTH + (ChunkData.WIDTH / 2f),
-            150, // Testwert für die Höhe
-            centerZ * ChunkData.DEPTH + (ChunkData.DEPTH / 2f));
+    int originX = centerX * ChunkData.WIDTH + ChunkData.WIDTH / 2;
+    int originZ = centerZ * ChunkData.DEPTH + ChunkData.DEPTH / 2;
+    int originY = terrain.getHeight(originX, originZ); // Auf der Geländeoberfläche
 
-    // 4. Bounds-Check (Performance)
+    // 4. Bounds für den Platzierungs-Index
     Bounds local = structure.getLocalBounds(posSeed);
-    Bounds worldBounds = new Bounds(local.getMin().add(origin), local.getMax().add(origin));
-
-    // Wenn der aktuelle Chunk die Struktur nicht berührt -> Abbruch
-    if (!worldBounds.intersects(chunk.getChunkBounds())) {
-      return;
-    }
+    return new StructureStart(
+        this,
+        centerX,
+        centerZ,
+        posSeed,
+        originX,
+        originY,
+        originZ,
+        originX + Mathf.floorToInt(local.getMin().x),
+        originZ + Mathf.floorToInt(local.getMin().z),
+        originX + Mathf.ceilToInt(local.getMax().x),
+        originZ + Mathf.ceilToInt(local.getMax().z));
+  }
 
+  @Override
+  public void place(GenerationContext context, StructureStart start) {
     // 5. Voxel setzen
-    Collection<Voxel> voxels = structure.getVoxels(posSeed);
+    ChunkData chunk = context.getChunk();
+    VoxelTemplate template = structure.getTemplate(start.seed());
     int chunkWorldX = chunk.getChunkX() * ChunkData.WIDTH;
     int chunkWorldZ = chunk.getChunkZ() * ChunkData.DEPTH;
 
-    for (Voxel v : voxels) {
-      int wx = (int) (origin.x + v.getX());
-      int wy = (int) (origin.y + v.getY());
-      int wz = (int) (origin.z + v.getZ());
+    // Template liegt komplett außerhalb dieses Chunks -> nichts zu tun
+    int offsetX = start.originX() - chunkWorldX;
+    int offsetZ = start.originZ() - chunkWorldZ;
+    if (offsetX + template.getMaxX() < 0 || offsetX + template.getMinX() >= ChunkData.WIDTH) return;
+    if (offsetZ + template.getMaxZ() < 0 || offsetZ + template.getMinZ() >= ChunkData.DEPTH) return;
 
-      int lx = wx - chunkWorldX;
-      int lz = wz - chunkWorldZ;
+    BlockType stone = BlockRegistry.get(BlockIds.STONE);
+    for (int packed : template.getPackedVoxels()) {
+      int lx = offsetX + VoxelTemplate.unpackX(packed);
+      int wy = start.originY() + VoxelTemplate.unpackY(packed);
+      int lz = offsetZ + VoxelTemplate.unpackZ(packed);
 
       if (chunk.isInside(lx, wy, lz)) {
-        chunk.setBlockAt(BlockRegistry.get(BlockIds.STONE), lx, wy, lz);
+        chunk.setBlockAt(stone, lx, wy, lz);
       }
     }
   }
@@ -1,8 +1,5 @@
 package server.world.structures.fin;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 
 import math.Bounds;
@@ -15,37 +12,37 @@ import mesh.modifier.transform.RotateModifier;
 import mesh.modifier.transform.ScaleModifier;
 import mesh.modifier.transform.TransformAxis;
 import mesh.modifier.transform.TranslateModifier;
-import voxels.Voxel;
+import server.util.LruCache;
 import voxels.mesh.MeshVoxelizer;
 
 public class RockFormationStructure implements VoxelStructure {
 
-  // Cache, damit wir pro Seed nur einmal voxelizen
-  private final Map<Long, Collection<Voxel>> voxelCache = new HashMap<>();
+  /** Number of voxelized rock shapes kept in memory. */
+  private static final int TEMPLATE_CACHE_SIZE = 64;
+
+  /** Half extent of the (rough) local bounds used for placement planning. */
+  private static final float BOUNDS_RADIUS = 30;
 
-  private final Map<Long, Bounds> boundsCache = new HashMap<>();
+  // Cache, damit wir pro Seed nur einmal voxelizen
+  private final LruCache<Long, VoxelTemplate> templateCache = new LruCache<>(TEMPLATE_CACHE_SIZE);
 
   @Override
-  public Collection<Voxel> getVoxels(long seed) {
-    return voxelCache.computeIfAbsent(
+  public VoxelTemplate getTemplate(long seed) {
+    return templateCache.computeIfAbsent(
         seed,
         s -> {
           Mesh3D mesh = createMesh(s);
           MeshVoxelizer voxelizer = new MeshVoxelizer();
-          return voxelizer.voxelize(mesh);
+          return VoxelTemplate.of(voxelizer.voxelize(mesh));
         });
   }
 
   @Override
   public Bounds getLocalBounds(long seed) {
-    return boundsCache.computeIfAbsent(
-        seed,
-        s -> {
-          // Grobe Schätzung der Bounds für den ersten Test
-          // (Später kannst du das aus dem Mesh berechnen)
-          float r = 30;
-          return new Bounds(new Vector3f(-r, -r, -r), new Vector3f(r, r, r));
-        });
+    // Grobe Schätzung der Bounds, unabhängig vom Seed
+    // (Später kannst du das aus dem Mesh berechnen)
+    float r = BOUNDS_RADIUS;
+    return new Bounds(new Vector3f(-r, -r, -r), new Vector3f(r, r, r));
   }
 
   private Mesh3D createMesh(long seed) {
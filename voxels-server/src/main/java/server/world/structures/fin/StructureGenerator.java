@@ -1,11 +1,29 @@
 package server.world.structures.fin;
 
-import common.world.ChunkData;
+import server.world.generation.GenerationContext;
+import server.world.structures.StructureStart;
 
 public interface StructureGenerator {
 
-  // centerX und centerZ sind die Chunk-Koordinaten des potenziellen Ursprungs
-  void generateAt(ChunkData chunk, int centerX, int centerZ, long worldSeed);
+  /**
+   * Decides whether a structure starts at the given candidate chunk.
+   *
+   * <p>Must be deterministic and free of side effects: the result is cached per region and shared
+   * between all chunks (and threads) the structure overlaps.
+   *
+   * @param centerX chunk X coordinate of the potential origin
+   * @param centerZ chunk Z coordinate of the potential origin
+   * @param worldSeed the world seed
+   * @return the planned start, or {@code null} if nothing spawns at this candidate
+   */
+  StructureStart createStart(int centerX, int centerZ, long worldSeed);
+
+  /**
+   * Places the part of a previously planned structure that falls inside the context's chunk. The
+   * noise data of the neighbouring chunks is available through the context, so a structure can
+   * make the same decisions in every chunk it touches.
+   */
+  void place(GenerationContext context, StructureStart start);
 
   int getMaxRadius();
-}
\ No newline at end of file
+}
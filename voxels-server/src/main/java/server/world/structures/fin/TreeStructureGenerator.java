@@ -4,6 +4,9 @@ import java.util.Random;
 
 import common.game.block.Blocks;
 import common.world.ChunkData;
+import server.world.generation.BiomeType;
+import server.world.generation.GenerationContext;
+import server.world.structures.StructureStart;
 
 public class TreeStructureGenerator implements StructureGenerator {
 
@@ -12,13 +15,33 @@ public class TreeStructureGenerator implements StructureGenerator {
 //  private static final float BASE_TREE_CHANCE = 0.12f;
   private static final float BASE_TREE_CHANCE = 0.2f;
 
+  private static final int CLUSTER_SPREAD = 5;
+
+  private static final int LEAF_RADIUS = 3;
+
+  private final int minGroundY;
+
+  private final int maxGroundY;
+
+  /**
+   * Creates a tree generator. Trees only grow on columns whose biome is covered with grass and
+   * whose surface lies within the given height range.
+   *
+   * @param minGroundY lowest surface height that is covered with grass
+   * @param maxGroundY highest surface height that is covered with grass
+   */
+  public TreeStructureGenerator(int minGroundY, int maxGroundY) {
+    this.minGroundY = minGroundY;
+    this.maxGroundY = maxGroundY;
+  }
+
   @Override
   public int getMaxRadius() {
     return maxRadius;
   }
 
   @Override
-  public void generateAt(ChunkData chunk, int centerX, int centerZ, long seed) {
+  public StructureStart createStart(int centerX, int centerZ, long seed) {
 
     long posSeed = seed ^ (centerX * 341873128712L) ^ (centerZ * 132897987541L);
     Random rng = new Random(posSeed);
@@ -27,40 +50,62 @@ public class TreeStructureGenerator implements StructureGenerator {
 
     float spawnChance = BASE_TREE_CHANCE + density * 0.35f;
 
-    if (rng.nextFloat() > spawnChance) return;
+    if (rng.nextFloat() > spawnChance) return null;
 
     int worldX = centerX * ChunkData.WIDTH + ChunkData.WIDTH / 2;
     int worldZ = centerZ * ChunkData.DEPTH + ChunkData.DEPTH / 2;
 
-    generateSingleTree(chunk, worldX, worldZ, rng);
+    // Cluster-Offsets liegen in [-CLUSTER_SPREAD, CLUSTER_SPREAD - 1], dazu der Blätterradius
+    int reach = CLUSTER_SPREAD + LEAF_RADIUS;
+
+    return new StructureStart(
+        this,
+        centerX,
+        centerZ,
+        posSeed,
+        worldX,
+        0,
+        worldZ,
+        worldX - reach,
+        worldZ - reach,
+        worldX + reach - 1,
+        worldZ + reach - 1);
+  }
+
+  @Override
+  public void place(GenerationContext context, StructureStart start) {
+    Random rng = new Random(start.seed());
+    rng.nextFloat(); // Spawn-Wurf aus createStart überspringen
+
+    int worldX = start.originX();
+    int worldZ = start.originZ();
+
+    generateSingleTree(context, worldX, worldZ, rng);
 
     // ---- Cluster Bäume ----
     int cluster = rng.nextInt(3);
 
     for (int i = 0; i < cluster; i++) {
 
-      int ox = worldX + rng.nextInt(10) - 5;
-      int oz = worldZ + rng.nextInt(10) - 5;
+      int ox = worldX + rng.nextInt(2 * CLUSTER_SPREAD) - CLUSTER_SPREAD;
+      int oz = worldZ + rng.nextInt(2 * CLUSTER_SPREAD) - CLUSTER_SPREAD;
 
-      generateSingleTree(chunk, ox, oz, rng);
+      generateSingleTree(context, ox, oz, rng);
     }
   }
 
-  private void generateSingleTree(ChunkData chunk, int worldX, int worldZ, Random rng) {
-
+  private void generateSingleTree(GenerationContext context, int worldX, int worldZ, Random rng) {
+    ChunkData chunk = context.getChunk();
     int chunkWorldX = chunk.getChunkX() * ChunkData.WIDTH;
     int chunkWorldZ = chunk.getChunkZ() * ChunkData.DEPTH;
 
-    int localX = worldX - chunkWorldX;
-    int localZ = worldZ - chunkWorldZ;
-
-    if (localX < 0 || localZ < 0 || localX >= ChunkData.WIDTH || localZ >= ChunkData.DEPTH) return;
-
-    int groundY = chunk.getHeightValue(localX, localZ);
-
-    if (groundY <= 8) return;
+    // Boden aus dem Noise lesen, nicht aus den Blöcken: der Stamm darf im Nachbar-Chunk stehen,
+    // und alle Chunks, die der Baum berührt, müssen dieselbe Entscheidung treffen
+    int groundY = context.getSurfaceHeight(worldX, worldZ);
+    if (groundY < minGroundY || groundY > maxGroundY) return;
 
-    if (chunk.getBlock(localX, groundY, localZ) != Blocks.GRASS_BLOCK) return;
+    BiomeType biome = context.getBiome(worldX, worldZ);
+    if (biome == null || biome.topBlock != Blocks.GRASS_BLOCK) return;
 
     int treeHeight = 6 + rng.nextInt(3);
     int topY = groundY + treeHeight;
@@ -81,7 +126,7 @@ public class TreeStructureGenerator implements StructureGenerator {
     }
 
     // ---- LEAVES ----
-    int radius = 3;
+    int radius = LEAF_RADIUS;
 
     for (int dx = -radius; dx <= radius; dx++) {
       for (int dz = -radius; dz <= radius; dz++) {
@@ -1,13 +1,14 @@
 package server.world.structures.fin;
 
-import java.util.Collection;
-
 import math.Bounds;
-import voxels.Voxel;
 
 public interface VoxelStructure {
 
-  Collection<Voxel> getVoxels(long seed);
+  /**
+   * Returns the voxel shape for the given seed. Implementations may cache templates, so the result
+   * must be treated as read-only and must be safe to request from several threads.
+   */
+  VoxelTemplate getTemplate(long seed);
 
   Bounds getLocalBounds(long seed);
 }
@@ -0,0 +1,139 @@
+package server.world.structures.fin;
+
+import java.util.Collection;
+
+import voxels.Voxel;
+
+/**
+ * Compact, immutable voxel shape relative to a structure origin.
+ *
+ * <p>Each voxel is packed into a single {@code int} (10 bits per axis, offset by {@link #OFFSET}),
+ * so a template costs 4 bytes per voxel instead of one {@link Voxel} object each and can be shared
+ * between generation threads without copying.
+ */
+public final class VoxelTemplate {
+
+  /** Bias added to every coordinate before packing; supports offsets in {@code [-512, 511]}. */
+  public static final int OFFSET = 512;
+
+  private static final int BITS = 10;
+
+  private static final int MASK = (1 << BITS) - 1;
+
+  private final int[] packed;
+
+  private final int minX;
+
+  private final int minY;
+
+  private final int minZ;
+
+  private final int maxX;
+
+  private final int maxY;
+
+  private final int maxZ;
+
+  private VoxelTemplate(int[] packed) {
+    this.packed = packed;
+
+    if (packed.length == 0) {
+      minX = minY = minZ = maxX = maxY = maxZ = 0;
+      return;
+    }
+
+    int lowX = Integer.MAX_VALUE;
+    int lowY = Integer.MAX_VALUE;
+    int lowZ = Integer.MAX_VALUE;
+    int highX = Integer.MIN_VALUE;
+    int highY = Integer.MIN_VALUE;
+    int highZ = Integer.MIN_VALUE;
+
+    for (int p : packed) {
+      lowX = Math.min(lowX, unpackX(p));
+      lowY = Math.min(lowY, unpackY(p));
+      lowZ = Math.min(lowZ, unpackZ(p));
+      highX = Math.max(highX, unpackX(p));
+      highY = Math.max(highY, unpackY(p));
+      highZ = Math.max(highZ, unpackZ(p));
+    }
+
+    minX = lowX;
+    minY = lowY;
+    minZ = lowZ;
+    maxX = highX;
+    maxY = highY;
+    maxZ = highZ;
+  }
+
+  /**
+   * Packs a voxel collection into a template.
+   *
+   * @throws IllegalArgumentException if a voxel lies outside the packable range
+   */
+  public static VoxelTemplate of(Collection<Voxel> voxels) {
+    int[] packed = new int[voxels.size()];
+    int i = 0;
+    for (Voxel v : voxels) {
+      packed[i++] = pack(v.getX(), v.getY(), v.getZ());
+    }
+    return new VoxelTemplate(packed);
+  }
+
+  public static int pack(int x, int y, int z) {
+    if (!inRange(x) || !inRange(y) || !inRange(z)) {
+      throw new IllegalArgumentException(
+          "Voxel offset out of template range: " + x + ", " + y + ", " + z);
+    }
+    return (x + OFFSET) | ((y + OFFSET) << BITS) | ((z + OFFSET) << (2 * BITS));
+  }
+
+  public static int unpackX(int packed) {
+    return (packed & MASK) - OFFSET;
+  }
+
+  public static int unpackY(int packed) {
+    return ((packed >>> BITS) & MASK) - OFFSET;
+  }
+
+  public static int unpackZ(int packed) {
+    return ((packed >>> (2 * BITS)) & MASK) - OFFSET;
+  }
+
+  private static boolean inRange(int value) {
+    return value >= -OFFSET && value < OFFSET;
+  }
+
+  /** Returns the packed voxels. The array is shared and must not be modified. */
+  public int[] getPackedVoxels() {
+    return packed;
+  }
+
+  public int size() {
+    return packed.length;
+  }
+
+  public int getMinX() {
+    return minX;
+  }
+
+  public int getMinY() {
+    return minY;
+  }
+
+  public int getMinZ() {
+    return minZ;
+  }
+
+  public int getMaxX() {
+    return maxX;
+  }
+
+  public int getMaxY() {
+    return maxY;
+  }
+
+  public int getMaxZ() {
+    return maxZ;
+  }
+}
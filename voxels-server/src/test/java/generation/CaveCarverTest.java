@@ -0,0 +1,88 @@
+package generation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import server.world.generation.BiomeType;
+import server.world.generation.CaveCarver;
+import server.world.generation.ChunkNoiseData;
+
+public class CaveCarverTest {
+
+  private static final int SEA_LEVEL = 80;
+
+  private static ChunkNoiseData flatColumns(int chunkX, int chunkZ, int height) {
+    int columns = ChunkData.WIDTH * ChunkData.DEPTH;
+    int[] heights = new int[columns];
+    Arrays.fill(heights, height);
+    BiomeType[] biomes = new BiomeType[columns];
+    Arrays.fill(biomes, BiomeType.PLAINS);
+    return new ChunkNoiseData(
+        chunkX, chunkZ, heights, biomes, new float[columns], new float[columns]);
+  }
+
+  private static ChunkData solidChunk(int chunkX, int chunkZ, int height) {
+    ChunkData chunk = new ChunkData(chunkX, chunkZ);
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int y = 0; y <= height; y++) {
+        for (int x = 0; x < ChunkData.WIDTH; x++) {
+          chunk.setBlockAt(Blocks.STONE, x, y, z);
+        }
+      }
+    }
+    return chunk;
+  }
+
+  private static int countAir(ChunkData chunk, int minY, int maxY) {
+    int air = 0;
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int y = minY; y <= maxY; y++) {
+        for (int x = 0; x < ChunkData.WIDTH; x++) {
+          if (chunk.getBlock(x, y, z) == Blocks.AIR) air++;
+        }
+      }
+    }
+    return air;
+  }
+
+  @Test
+  public void testCarvesCavesBelowTheSurface() {
+    CaveCarver carver = new CaveCarver(44444, SEA_LEVEL);
+    int air = 0;
+    for (int chunkX = 0; chunkX < 4; chunkX++) {
+      ChunkData chunk = solidChunk(chunkX, 0, 120);
+      carver.carve(chunk, flatColumns(chunkX, 0, 120));
+      air += countAir(chunk, 0, 120);
+      assertEquals(0, countAir(chunk, 0, 4), "The bottom layers should never be carved.");
+    }
+    assertTrue(air > 0, "Some caves should be carved.");
+  }
+
+  @Test
+  public void testSeaFloorStaysSealed() {
+    CaveCarver carver = new CaveCarver(44444, SEA_LEVEL);
+    for (int chunkX = 0; chunkX < 4; chunkX++) {
+      ChunkData chunk = solidChunk(chunkX, 0, 60);
+      carver.carve(chunk, flatColumns(chunkX, 0, 60));
+      assertEquals(0, countAir(chunk, 57, 60), "Columns under water should keep a solid floor.");
+    }
+  }
+
+  @Test
+  public void testCarvingIsDeterministic() {
+    ChunkData first = solidChunk(3, -7, 100);
+    ChunkData second = solidChunk(3, -7, 100);
+
+    new CaveCarver(1, SEA_LEVEL).carve(first, flatColumns(3, -7, 100));
+    new CaveCarver(1, SEA_LEVEL).carve(second, flatColumns(3, -7, 100));
+
+    assertArrayEquals(first.getRawBlockData(), second.getRawBlockData());
+  }
+}
@@ -0,0 +1,159 @@
+package generation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.Blocks;
+import common.util.LongSet;
+import common.world.ChunkData;
+import common.world.World;
+import server.world.generation.BiomeType;
+import server.world.generation.ChunkGenerationPipeline;
+import server.world.generation.ChunkNoiseData;
+import server.world.generation.ChunkStatus;
+import server.world.generation.GenerationContext;
+import server.world.generation.StagedWorldGenerator;
+
+public class ChunkGenerationPipelineTest {
+
+  /** Heights depend on the chunk position; decoration copies the eastern neighbour's height. */
+  private static class FakeGenerator implements StagedWorldGenerator {
+
+    private final List<ChunkStatus> stages = new ArrayList<>();
+
+    private final Set<Long> sampled = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public ChunkNoiseData generateNoise(int chunkX, int chunkZ) {
+      sampled.add(World.getChunkKey(chunkX, chunkZ));
+      int columns = ChunkData.WIDTH * ChunkData.DEPTH;
+      int[] heights = new int[columns];
+      Arrays.fill(heights, 10 + Math.floorMod(chunkX * 3 + chunkZ, 20));
+      BiomeType[] biomes = new BiomeType[columns];
+      Arrays.fill(biomes, BiomeType.PLAINS);
+      return new ChunkNoiseData(
+          chunkX, chunkZ, heights, biomes, new float[columns], new float[columns]);
+    }
+
+    @Override
+    public void generateStage(ChunkStatus stage, GenerationContext context) {
+      synchronized (stages) {
+        stages.add(stage);
+      }
+      ChunkData chunk = context.getChunk();
+      if (stage == ChunkStatus.TERRAIN) {
+        chunk.setBlockAt(Blocks.DIRT, 0, context.getNoise().getHeight(0, 0), 0);
+      }
+      if (stage == ChunkStatus.DECORATION) {
+        int east = context.getNoise(chunk.getChunkX() + 1, chunk.getChunkZ()).getHeight(0, 0);
+        chunk.setBlockAt(Blocks.SAND, 1, east, 1);
+      }
+    }
+
+    @Override
+    public int getNeighborRadius(ChunkStatus stage) {
+      return stage == ChunkStatus.DECORATION ? 1 : 0;
+    }
+
+    @Override
+    public long getSeed() {
+      return 0;
+    }
+  }
+
+  private final FakeGenerator generator = new FakeGenerator();
+
+  private final ChunkGenerationPipeline pipeline = new ChunkGenerationPipeline(generator, 3);
+
+  @AfterEach
+  void shutdown() {
+    pipeline.shutdown();
+  }
+
+  @Test
+  void testAsyncGenerationMatchesDirectGeneration() throws Exception {
+    for (int cx = -2; cx <= 2; cx++) {
+      for (int cz = -2; cz <= 2; cz++) {
+        pipeline.submit(cx, cz);
+      }
+    }
+
+    for (int cx = -2; cx <= 2; cx++) {
+      for (int cz = -2; cz <= 2; cz++) {
+        ChunkData async = pipeline.take(cx, cz).get(10, TimeUnit.SECONDS);
+        ChunkData direct = new ChunkData(cx, cz);
+        new FakeGenerator().generate(direct);
+
+        assertArrayEquals(direct.getRawBlockData(), async.getRawBlockData());
+        assertFalse(async.isDirty(), "Freshly generated chunks should not be dirty.");
+      }
+    }
+  }
+
+  @Test
+  void testStagesRunInOrder() throws Exception {
+    pipeline.submit(4, 4).get(10, TimeUnit.SECONDS);
+
+    assertEquals(
+        List.of(
+            ChunkStatus.TERRAIN,
+            ChunkStatus.CARVERS,
+            ChunkStatus.STRUCTURES,
+            ChunkStatus.DECORATION),
+        generator.stages);
+    assertEquals(ChunkStatus.FULL, pipeline.getStatus(4, 4));
+  }
+
+  @Test
+  void testNeighborsOnlyReachNoiseStage() throws Exception {
+    pipeline.submit(0, 0).get(10, TimeUnit.SECONDS);
+
+    assertEquals(ChunkStatus.EMPTY, pipeline.getStatus(1, 0));
+    for (int dx = -1; dx <= 1; dx++) {
+      for (int dz = -1; dz <= 1; dz++) {
+        assertTrue(
+            generator.sampled.contains(World.getChunkKey(dx, dz)),
+            "Neighbour noise should be sampled.");
+      }
+    }
+  }
+
+  @Test
+  void testRetainOnlyDropsUnclaimedChunks() throws Exception {
+    pipeline.submit(0, 0).get(10, TimeUnit.SECONDS);
+    pipeline.submit(5, 5).get(10, TimeUnit.SECONDS);
+
+    pipeline.retainOnly(new LongSet());
+
+    assertEquals(0, pipeline.getPendingChunkCount());
+    assertNull(pipeline.take(0, 0));
+  }
+
+  @Test
+  void testShutdownFailsUnfinishedChunks() {
+    for (int cx = 10; cx < 20; cx++) {
+      pipeline.submit(cx, 0);
+    }
+
+    pipeline.shutdown();
+
+    // Nichts darf danach ewig warten, weder laufende noch neue Chunks
+    for (int cx = 10; cx < 20; cx++) {
+      assertTrue(pipeline.take(cx, 0).isDone(), "Chunk " + cx + " should be done.");
+    }
+    assertTrue(pipeline.submit(30, 0).isCompletedExceptionally());
+  }
+}
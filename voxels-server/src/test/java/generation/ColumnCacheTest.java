@@ -0,0 +1,95 @@
+package generation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import common.world.ChunkData;
+import server.world.generation.BiomeType;
+import server.world.generation.ChunkNoiseData;
+import server.world.generation.ColumnCache;
+
+public class ColumnCacheTest {
+
+  private final AtomicInteger samples = new AtomicInteger();
+
+  /** Every column stores its own world coordinates, so lookups can be checked exactly. */
+  private ChunkNoiseData sample(int chunkX, int chunkZ) {
+    samples.incrementAndGet();
+    int columns = ChunkData.WIDTH * ChunkData.DEPTH;
+    int[] heights = new int[columns];
+    float[] temperatures = new float[columns];
+    float[] moistures = new float[columns];
+    for (int z = 0; z < ChunkData.DEPTH; z++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        int index = x + z * ChunkData.WIDTH;
+        heights[index] = chunkX * ChunkData.WIDTH + x;
+        temperatures[index] = chunkZ * ChunkData.DEPTH + z;
+        moistures[index] = -heights[index];
+      }
+    }
+    BiomeType[] biomes = new BiomeType[columns];
+    Arrays.fill(biomes, BiomeType.PLAINS);
+    return new ChunkNoiseData(chunkX, chunkZ, heights, biomes, temperatures, moistures);
+  }
+
+  @Test
+  public void testColumnLookupsUseWorldCoordinates() {
+    ColumnCache cache = new ColumnCache(this::sample, 4);
+
+    assertEquals(-17, cache.getHeight(-17, 5));
+    assertEquals(5f, cache.getTemperature(-17, 5));
+    assertEquals(17f, cache.getMoisture(-17, 5));
+    assertEquals(BiomeType.PLAINS, cache.getBiome(-17, 5));
+    assertEquals(130, cache.getHeight(130, -200));
+    assertEquals(-200f, cache.getTemperature(130, -200));
+  }
+
+  @Test
+  public void testChunkIsSampledOnlyOnce() {
+    ColumnCache cache = new ColumnCache(this::sample, 4);
+
+    ChunkNoiseData first = cache.getChunk(3, -2);
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      cache.getHeight(3 * ChunkData.WIDTH + x, -2 * ChunkData.DEPTH);
+    }
+
+    assertSame(first, cache.getChunk(3, -2));
+    assertEquals(1, samples.get(), "Column lookups should hit the cached chunk.");
+  }
+
+  @Test
+  public void testChunksShareRegionTiles() {
+    ColumnCache cache = new ColumnCache(this::sample, 4);
+
+    for (int x = 0; x < ColumnCache.TILE_SIZE; x++) {
+      for (int z = 0; z < ColumnCache.TILE_SIZE; z++) {
+        cache.getChunk(x, z);
+      }
+    }
+    assertEquals(1, cache.getCachedTileCount());
+
+    cache.getChunk(-1, 0);
+    assertEquals(2, cache.getCachedTileCount());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedTileIsEvicted() {
+    ColumnCache cache = new ColumnCache(this::sample, 2);
+
+    cache.getChunk(0, 0);
+    cache.getChunk(ColumnCache.TILE_SIZE, 0);
+    cache.getChunk(0, 0);
+    cache.getChunk(2 * ColumnCache.TILE_SIZE, 0);
+    assertEquals(3, samples.get());
+
+    cache.getChunk(0, 0);
+    assertEquals(3, samples.get(), "The recently used tile should survive.");
+    cache.getChunk(ColumnCache.TILE_SIZE, 0);
+    assertEquals(4, samples.get(), "The least recently used tile should be evicted.");
+  }
+}
@@ -0,0 +1,87 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import common.world.ChunkData;
+import server.world.generation.GenerationContext;
+import server.world.structures.StructurePlacementIndex;
+import server.world.structures.StructureStart;
+import server.world.structures.fin.StructureGenerator;
+
+public class StructurePlacementIndexTest {
+
+  /** Spawns on roughly a third of all candidates with a fixed block reach around the centre. */
+  private static class FakeGenerator implements StructureGenerator {
+
+    private final int reach;
+
+    FakeGenerator(int reach) {
+      this.reach = reach;
+    }
+
+    @Override
+    public StructureStart createStart(int centerX, int centerZ, long worldSeed) {
+      long seed = worldSeed ^ (centerX * 341873128712L) ^ (centerZ * 132897987541L);
+      if (new Random(seed).nextInt(3) != 0) return null;
+      int x = centerX * ChunkData.WIDTH + 8;
+      int z = centerZ * ChunkData.DEPTH + 8;
+      return new StructureStart(
+          this, centerX, centerZ, seed, x, 0, z, x - reach, z - reach, x + reach, z + reach);
+    }
+
+    @Override
+    public void place(GenerationContext context, StructureStart start) {}
+
+    @Override
+    public int getMaxRadius() {
+      return reach;
+    }
+  }
+
+  private List<StructureStart> bruteForce(List<StructureGenerator> generators, int cx, int cz) {
+    List<StructureStart> expected = new ArrayList<>();
+    for (StructureGenerator g : generators) {
+      int radius = (int) Math.ceil((float) g.getMaxRadius() / ChunkData.WIDTH);
+      for (int dx = -radius; dx <= radius; dx++) {
+        for (int dz = -radius; dz <= radius; dz++) {
+          StructureStart start = g.createStart(cx + dx, cz + dz, 7L);
+          if (start != null && start.intersectsChunk(cx, cz)) {
+            expected.add(start);
+          }
+        }
+      }
+    }
+    return expected;
+  }
+
+  @Test
+  void testMatchesBruteForceScanInOrder() {
+    List<StructureGenerator> generators = List.of(new FakeGenerator(20), new FakeGenerator(5));
+    StructurePlacementIndex index = new StructurePlacementIndex(generators, 7L, 16);
+
+    for (int cx = -10; cx <= 10; cx++) {
+      for (int cz = -10; cz <= 10; cz++) {
+        assertEquals(bruteForce(generators, cx, cz), index.getStartsFor(cx, cz));
+      }
+    }
+  }
+
+  @Test
+  void testRegionCacheIsBounded() {
+    StructurePlacementIndex index =
+        new StructurePlacementIndex(List.of(new FakeGenerator(20)), 7L, 4);
+
+    for (int cx = 0; cx < 20 * StructurePlacementIndex.REGION_SIZE; cx += 3) {
+      index.getStartsFor(cx, 0);
+    }
+
+    assertTrue(index.getCachedRegionCount() <= 4);
+  }
+}
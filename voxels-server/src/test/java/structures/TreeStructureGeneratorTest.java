@@ -0,0 +1,95 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import server.world.generation.BiomeType;
+import server.world.generation.ChunkNoiseData;
+import server.world.generation.GenerationContext;
+import server.world.structures.StructureStart;
+import server.world.structures.fin.TreeStructureGenerator;
+
+public class TreeStructureGeneratorTest {
+
+  private static final int GROUND = 100;
+
+  private final TreeStructureGenerator generator = new TreeStructureGenerator(83, 110);
+
+  private static ChunkNoiseData noise(int chunkX, int chunkZ, BiomeType biome) {
+    int columns = ChunkData.WIDTH * ChunkData.DEPTH;
+    int[] heights = new int[columns];
+    Arrays.fill(heights, GROUND);
+    BiomeType[] biomes = new BiomeType[columns];
+    Arrays.fill(biomes, biome);
+    return new ChunkNoiseData(
+        chunkX, chunkZ, heights, biomes, new float[columns], new float[columns]);
+  }
+
+  private static GenerationContext context(ChunkData chunk, BiomeType biome) {
+    return new GenerationContext(
+        chunk,
+        noise(chunk.getChunkX(), chunk.getChunkZ(), biome),
+        (chunkX, chunkZ) -> noise(chunkX, chunkZ, biome));
+  }
+
+  private StructureStart findStart() {
+    for (int cx = 0; cx < 64; cx++) {
+      StructureStart start = generator.createStart(cx, 0, 42L);
+      if (start != null) return start;
+    }
+    return null;
+  }
+
+  private static int count(ChunkData chunk, BlockType block) {
+    int count = 0;
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        for (int y = GROUND; y < GROUND + 16; y++) {
+          if (chunk.getBlock(x, y, z) == block) count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Test
+  void testTrunkStandsOnNoiseSurface() {
+    StructureStart start = findStart();
+    assertNotNull(start);
+    // Keine Blöcke generiert: der Baum darf sich nur auf das Noise verlassen
+    ChunkData chunk = new ChunkData(start.chunkX(), start.chunkZ());
+
+    generator.place(context(chunk, BiomeType.FOREST), start);
+
+    assertTrue(count(chunk, Blocks.OAK_WOOD) > 0);
+    assertTrue(count(chunk, Blocks.LEAF) > 0);
+    for (int x = 0; x < ChunkData.WIDTH; x++) {
+      for (int z = 0; z < ChunkData.DEPTH; z++) {
+        if (chunk.getBlock(x, GROUND + 2, z) == Blocks.OAK_WOOD) {
+          assertEquals(Blocks.OAK_WOOD, chunk.getBlock(x, GROUND + 1, z));
+        }
+        assertEquals(Blocks.AIR, chunk.getBlock(x, GROUND, z));
+      }
+    }
+  }
+
+  @Test
+  void testNoTreesWithoutGrass() {
+    StructureStart start = findStart();
+    assertNotNull(start);
+    ChunkData chunk = new ChunkData(start.chunkX(), start.chunkZ());
+
+    generator.place(context(chunk, BiomeType.DESERT), start);
+
+    assertEquals(0, count(chunk, Blocks.OAK_WOOD));
+    assertEquals(0, count(chunk, Blocks.LEAF));
+  }
+}
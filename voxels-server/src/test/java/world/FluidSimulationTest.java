@@ -0,0 +1,177 @@
+package world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import common.world.World;
+import server.events.events.world.BlocksChangedEvent;
+import server.world.BlockChangeBuffer;
+import server.world.FluidSimulation;
+
+class FluidSimulationTest {
+
+  private static final int FLOOR_Y = 10;
+
+  private static final short WATER = Blocks.WATER.getId();
+
+  private static final short AIR = Blocks.AIR.getId();
+
+  private static final short STONE = Blocks.STONE.getId();
+
+  /** Reports every change to the simulation, like the server world does. */
+  private static final class FluidWorld extends World {
+
+    final BlockChangeBuffer changes = new BlockChangeBuffer();
+
+    final FluidSimulation fluids = new FluidSimulation(this, changes);
+
+    @Override
+    public void setBlock(int x, int y, int z, short blockId) {
+      super.setBlock(x, y, z, blockId);
+      fluids.onBlockChanged(x, y, z);
+    }
+  }
+
+  private FluidWorld world;
+
+  @BeforeEach
+  void setUp() {
+    world = new FluidWorld();
+    for (int cx = -1; cx <= 1; cx++) {
+      for (int cz = -1; cz <= 1; cz++) {
+        ChunkData chunk = new ChunkData(cx, cz);
+        for (int x = 0; x < ChunkData.WIDTH; x++) {
+          for (int z = 0; z < ChunkData.DEPTH; z++) {
+            for (int y = 0; y <= FLOOR_Y; y++) {
+              chunk.setBlockId(STONE, x, y, z);
+            }
+          }
+        }
+        world.addChunk(chunk);
+        world.fluids.onChunkLoaded(cx, cz);
+      }
+    }
+  }
+
+  private void run(int ticks) {
+    for (int i = 0; i < ticks; i++) {
+      world.fluids.tick();
+    }
+  }
+
+  @Test
+  @DisplayName("Should spread from a source one block per delay, at most the maximum level far")
+  void testSpreadOnFloor() {
+    world.setBlock(0, FLOOR_Y + 1, 0, WATER);
+
+    run(FluidSimulation.FLOW_DELAY);
+    assertSame(Blocks.WATER, world.getBlock(1, FLOOR_Y + 1, 0));
+    assertSame(Blocks.WATER, world.getBlock(0, FLOOR_Y + 1, -1));
+    assertSame(Blocks.AIR, world.getBlock(2, FLOOR_Y + 1, 0));
+    assertEquals(1, world.fluids.getLevel(1, FLOOR_Y + 1, 0));
+
+    int maxLevel = FluidSimulation.MAX_LEVEL;
+    run(FluidSimulation.FLOW_DELAY * (maxLevel + 2));
+    assertSame(Blocks.WATER, world.getBlock(maxLevel, FLOOR_Y + 1, 0));
+    assertSame(Blocks.AIR, world.getBlock(maxLevel + 1, FLOOR_Y + 1, 0));
+    assertEquals(maxLevel, world.fluids.getLevel(3, FLOOR_Y + 1, maxLevel - 3));
+    assertSame(Blocks.AIR, world.getBlock(0, FLOOR_Y + 2, 0), "Water never rises");
+    assertEquals(0, world.fluids.getActiveChunkCount(), "Settled water has no pending ticks");
+    assertEquals(4, world.fluids.getLevelChunkCount(), "Settled water keeps its levels");
+  }
+
+  @Test
+  @DisplayName("Should fall down before spreading sideways")
+  void testFall() {
+    world.setBlock(5, FLOOR_Y + 6, 5, STONE);
+    world.setBlock(5, FLOOR_Y + 7, 5, WATER);
+
+    // Über den Rand der Säule fallen
+    run(FluidSimulation.FLOW_DELAY * 8);
+
+    assertSame(Blocks.WATER, world.getBlock(6, FLOOR_Y + 7, 5));
+    assertSame(Blocks.WATER, world.getBlock(6, FLOOR_Y + 1, 5));
+    assertEquals(1, world.fluids.getLevel(6, FLOOR_Y + 1, 5));
+    assertSame(Blocks.AIR, world.getBlock(7, FLOOR_Y + 6, 5), "Falling water does not spread");
+    assertSame(Blocks.WATER, world.getBlock(7, FLOOR_Y + 1, 5));
+  }
+
+  @Test
+  @DisplayName("Should dry up once the source is removed")
+  void testDrain() {
+    world.setBlock(-3, FLOOR_Y + 1, 4, WATER);
+    run(FluidSimulation.FLOW_DELAY * (FluidSimulation.MAX_LEVEL + 2));
+    assertSame(Blocks.WATER, world.getBlock(2, FLOOR_Y + 1, 4));
+
+    world.setBlock(-3, FLOOR_Y + 1, 4, AIR);
+    run(FluidSimulation.FLOW_DELAY * 40);
+
+    for (int x = -12; x <= 6; x++) {
+      for (int z = -5; z <= 13; z++) {
+        assertSame(Blocks.AIR, world.getBlock(x, FLOOR_Y + 1, z), "Water left at " + x + ", " + z);
+      }
+    }
+    assertEquals(0, world.fluids.getActiveChunkCount());
+    assertEquals(0, world.fluids.getLevelChunkCount(), "Dried up chunks keep no levels");
+  }
+
+  @Test
+  @DisplayName("Should leave water alone that nothing changed next to")
+  void testIdleWater() {
+    ChunkData chunk = world.getChunk(0, 0);
+    chunk.setBlockId(WATER, 3, FLOOR_Y + 1, 3);
+
+    run(FluidSimulation.FLOW_DELAY * 4);
+
+    assertSame(Blocks.AIR, world.getBlock(4, FLOOR_Y + 1, 3));
+    assertEquals(0, world.fluids.getActiveChunkCount());
+    assertTrue(world.changes.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should collect the changes of all ticks until they are drained")
+  void testChangesAreBatched() {
+    world.setBlock(0, FLOOR_Y + 1, 0, WATER);
+    run(FluidSimulation.FLOW_DELAY);
+
+    assertEquals(4, world.changes.size());
+    BlocksChangedEvent event = world.changes.drain();
+    assertEquals(4, event.getBlockIds().length);
+    assertEquals(12, event.getPositions().length);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(WATER, event.getBlockIds()[i]);
+      assertEquals(FLOOR_Y + 1, event.getPositions()[i * 3 + 1]);
+    }
+    assertTrue(world.changes.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should keep the flow levels of a chunk that is unloaded and loaded again")
+  void testLevelsSurviveUnload() {
+    world.setBlock(14, FLOOR_Y + 1, 3, WATER);
+    run(FluidSimulation.FLOW_DELAY * (FluidSimulation.MAX_LEVEL + 2));
+    int edgeX = 14 + FluidSimulation.MAX_LEVEL;
+    assertSame(Blocks.WATER, world.getBlock(edgeX, FLOOR_Y + 1, 3));
+
+    ChunkData chunk = world.getChunk(1, 0);
+    world.removeChunk(1, 0);
+    world.fluids.onChunkUnloaded(1, 0);
+    world.addChunk(chunk);
+    world.fluids.onChunkLoaded(1, 0);
+
+    assertEquals(3, world.fluids.getLevel(17, FLOOR_Y + 1, 3));
+    assertEquals(FluidSimulation.MAX_LEVEL, world.fluids.getLevel(edgeX, FLOOR_Y + 1, 3));
+
+    // Als Quelle würde das Wasser am Rand jetzt weiterfließen
+    world.setBlock(edgeX + 1, FLOOR_Y + 1, 3, AIR);
+    run(FluidSimulation.FLOW_DELAY * 4);
+    assertSame(Blocks.AIR, world.getBlock(edgeX + 1, FLOOR_Y + 1, 3));
+  }
+}
@@ -0,0 +1,168 @@
+package world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.BlockRegistry;
+import common.game.block.BlockType;
+import common.game.block.Blocks;
+import common.game.block.RandomTickBehavior;
+import common.world.ChunkData;
+import common.world.World;
+import server.world.BlockChangeBuffer;
+import server.world.RandomTickScheduler;
+
+class RandomTickSchedulerTest {
+
+  private static final short STONE = Blocks.STONE.getId();
+
+  // Wird beim Tick zu Stein, sobald darüber Luft ist
+  private static final short CRUMBLING = crumbling().getId();
+
+  private static BlockType crumbling() {
+    BlockType existing = BlockRegistry.get((short) 4002);
+    if (existing != null) return existing;
+    RandomTickBehavior behavior =
+        (blocks, x, y, z, random) ->
+            blocks.getBlockId(x, y + 1, z) == Blocks.AIR.getId() ? STONE : (short) 4002;
+    return BlockRegistry.register((short) 4002, "test:crumbling")
+        .withBehavior(RandomTickBehavior.class, behavior);
+  }
+
+  /** Exposes the loaded chunks the way the server world hands them to the scheduler. */
+  private static final class TickWorld extends World {
+
+    Iterable<ChunkData> loaded() {
+      return chunks.values();
+    }
+  }
+
+  private static TickWorld world(int min, int max) {
+    TickWorld world = new TickWorld();
+    for (int cx = min; cx <= max; cx++) {
+      for (int cz = min; cz <= max; cz++) {
+        ChunkData chunk = new ChunkData(cx, cz);
+        for (int x = 0; x < ChunkData.WIDTH; x++) {
+          for (int z = 0; z < ChunkData.DEPTH; z++) {
+            for (int y = 0; y < 8; y++) {
+              chunk.setBlockId(STONE, x, y, z);
+            }
+          }
+        }
+        world.addChunk(chunk);
+      }
+    }
+    return world;
+  }
+
+  private static void fillSection(ChunkData chunk, int section, short id) {
+    int bottom = section * ChunkData.SECTION_SIZE;
+    for (int y = bottom; y < bottom + ChunkData.SECTION_SIZE; y++) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        for (int z = 0; z < ChunkData.DEPTH; z++) {
+          chunk.setBlockId(id, x, y, z);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should only pick positions in sections that contain random-ticking blocks")
+  void testSkipsSectionsWithoutTickingBlocks() {
+    TickWorld world = world(-2, 2);
+    fillSection(world.getChunk(1, -1), 3, CRUMBLING);
+    BlockChangeBuffer changes = new BlockChangeBuffer();
+    RandomTickScheduler scheduler = new RandomTickScheduler(world, changes, 7L, 3, 1);
+
+    scheduler.tick(world.loaded());
+
+    assertEquals(1, scheduler.getActiveRegionCount());
+    int[] positions = changes.drain().getPositions();
+    // Nur die oberste Lage hat Luft darüber
+    assertTrue(positions.length <= 3 * 3);
+    for (int i = 0; i < positions.length; i += 3) {
+      assertEquals(4 * ChunkData.SECTION_SIZE - 1, positions[i + 1]);
+      assertEquals(1, Math.floorDiv(positions[i], ChunkData.WIDTH));
+      assertEquals(-1, Math.floorDiv(positions[i + 2], ChunkData.DEPTH));
+    }
+  }
+
+  @Test
+  @DisplayName("Should do nothing for worlds without random-ticking blocks")
+  void testIdleWorld() {
+    TickWorld world = world(-1, 1);
+    BlockChangeBuffer changes = new BlockChangeBuffer();
+    RandomTickScheduler scheduler = new RandomTickScheduler(world, changes, 7L, 3, 1);
+
+    for (int i = 0; i < 20; i++) {
+      scheduler.tick(world.loaded());
+    }
+
+    assertEquals(0, scheduler.getActiveRegionCount());
+    assertTrue(changes.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should reach the same result with parallel workers as on a single thread")
+  void testParallelMatchesSingleThread() {
+    List<TickWorld> worlds = new ArrayList<>();
+    List<RandomTickScheduler> schedulers = new ArrayList<>();
+    for (int workers : new int[] {1, 4}) {
+      TickWorld world = world(-6, 5);
+      // Eine volle Section und ein einzelner Block, der selten getroffen wird
+      for (int cx = -6; cx <= 5; cx++) {
+        for (int cz = -6; cz <= 5; cz++) {
+          ChunkData chunk = world.getChunk(cx, cz);
+          fillSection(chunk, 1, CRUMBLING);
+          chunk.setBlockId(CRUMBLING, 0, 40, 0);
+        }
+      }
+      worlds.add(world);
+      schedulers.add(new RandomTickScheduler(world, new BlockChangeBuffer(), 11L, 3, workers));
+    }
+
+    for (int i = 0; i < 30; i++) {
+      for (int w = 0; w < worlds.size(); w++) {
+        schedulers.get(w).tick(worlds.get(w).loaded());
+      }
+    }
+    assertEquals(16, schedulers.get(1).getActiveRegionCount());
+
+    for (int cx = -6; cx <= 5; cx++) {
+      for (int cz = -6; cz <= 5; cz++) {
+        assertArrayEquals(
+            worlds.get(0).getChunk(cx, cz).getRawBlockData(),
+            worlds.get(1).getChunk(cx, cz).getRawBlockData(),
+            "Chunk " + cx + ", " + cz);
+      }
+    }
+    schedulers.forEach(RandomTickScheduler::shutdown);
+  }
+
+  @Test
+  @DisplayName("Should keep ticking on the calling thread after a shutdown")
+  void testTicksAfterShutdown() {
+    TickWorld world = world(-6, 5);
+    for (int cx = -6; cx <= 5; cx++) {
+      for (int cz = -6; cz <= 5; cz++) {
+        fillSection(world.getChunk(cx, cz), 1, CRUMBLING);
+      }
+    }
+    BlockChangeBuffer changes = new BlockChangeBuffer();
+    RandomTickScheduler scheduler = new RandomTickScheduler(world, changes, 3L, 3, 4);
+
+    scheduler.shutdown();
+    scheduler.tick(world.loaded());
+
+    assertEquals(16, scheduler.getActiveRegionCount());
+    assertFalse(changes.isEmpty());
+  }
+}
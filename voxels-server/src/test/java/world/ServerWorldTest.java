@@ -0,0 +1,115 @@
+package world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import common.game.block.Blocks;
+import common.world.ChunkData;
+import server.events.GameEvent;
+import server.events.events.world.ChunkLightChangedEvent;
+import server.gateways.EventGateway;
+import server.persistance.ChunkRepository;
+import server.world.ServerWorld;
+import server.world.generation.WorldGenerator;
+
+class ServerWorldTest {
+
+  private static final int ROOF_Y = 20;
+
+  private static final short STONE = Blocks.STONE.getId();
+
+  /** Stone floor everywhere, and a stone roof over every chunk except x = 1. */
+  private static final class RoofGenerator implements WorldGenerator {
+
+    @Override
+    public void generate(ChunkData chunk) {
+      for (int x = 0; x < ChunkData.WIDTH; x++) {
+        for (int z = 0; z < ChunkData.DEPTH; z++) {
+          for (int y = 0; y < 8; y++) {
+            chunk.setBlockId(STONE, x, y, z);
+          }
+          if (chunk.getChunkX() != 1) {
+            chunk.setBlockId(STONE, x, ROOF_Y, z);
+          }
+        }
+      }
+    }
+
+    @Override
+    public long getSeed() {
+      return 1L;
+    }
+  }
+
+  private static final class EmptyRepository implements ChunkRepository {
+
+    @Override
+    public void save(ChunkData chunk) {}
+
+    @Override
+    public Optional<ChunkData> load(int x, int z) {
+      return Optional.empty();
+    }
+
+    @Override
+    public boolean exists(int x, int z) {
+      return false;
+    }
+  }
+
+  private final List<ChunkData> lightChanged = new ArrayList<>();
+
+  private ServerWorld world;
+
+  @BeforeEach
+  void setUp() {
+    EventGateway events =
+        new EventGateway() {
+          @Override
+          public void fire(GameEvent event) {
+            if (event instanceof ChunkLightChangedEvent changed) {
+              lightChanged.add(changed.getData());
+            }
+          }
+
+          @Override
+          public <T extends GameEvent> void register(Class<T> eventType, Consumer<T> listener) {}
+        };
+    world = new ServerWorld(new RoofGenerator(), new EmptyRepository(), events);
+  }
+
+  @Test
+  @DisplayName("Should report a loaded neighbour whose light the new chunk changed")
+  void testReportsNeighborLitByNewChunk() {
+    ChunkData covered = world.getOrCreateChunk(0, 0);
+    assertEquals(0, covered.getSkyLight(ChunkData.WIDTH - 1, ROOF_Y - 1, 5));
+    assertTrue(lightChanged.isEmpty());
+
+    // Unter dem offenen Chunk liegt volles Himmelslicht, das seitlich unter das Dach fällt
+    world.getOrCreateChunk(1, 0);
+
+    assertEquals(ChunkData.MAX_LIGHT - 1, covered.getSkyLight(ChunkData.WIDTH - 1, ROOF_Y - 1, 5));
+    assertEquals(1, lightChanged.size());
+    assertSame(covered, lightChanged.get(0));
+  }
+
+  @Test
+  @DisplayName("Should not report neighbours whose light stayed the same")
+  void testIgnoresUnchangedNeighbors() {
+    world.getOrCreateChunk(-1, 0);
+    world.getOrCreateChunk(0, 0);
+    world.getOrCreateChunk(0, 1);
+
+    assertTrue(lightChanged.isEmpty());
+  }
+}
@@ -1,7 +1,7 @@
 package voxels.editor;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import engine.components.AbstractComponent;
 import engine.components.RenderableComponent;
@@ -16,13 +16,16 @@ import math.Color;
 import math.Ray3f;
 import math.Vector3f;
 import voxels.world.Blocks;
-import voxels.world.Chunk;
+import voxels.world.SphereBrush;
 import voxels.world.VoxelWorld;
 
 public class VoxelEditTool extends AbstractComponent implements RenderableComponent {
 
   private static final float MAX_DISTANCE = 10000;
 
+  /** Brush cells written per frame, larger brushes continue in the next frames. */
+  private static final int MAX_BRUSH_CELLS_PER_FRAME = 1 << 16;
+
   private final Input input;
 
   private final VoxelWorld world;
@@ -37,6 +40,8 @@ public class VoxelEditTool extends AbstractComponent implements RenderableCompon
 
   private RaycastResult lastHit = RaycastResult.miss();
 
+  private final Deque<SphereBrush> pendingBrushes = new ArrayDeque<>();
+
   public VoxelEditTool(Input input, VoxelWorld world, WorldStreamer streamer) {
     this.input = input;
     this.world = world;
@@ -64,10 +69,13 @@ public class VoxelEditTool extends AbstractComponent implements RenderableCompon
       applySphere(lastHit.placeX, lastHit.placeY, lastHit.placeZ, selectedBlock);
     }
 
-    if (rightPressed && lastHit.hit) {
+    // Beim Ziehen erst neu abtragen, wenn der letzte Pinsel fertig ist
+    if (rightPressed && lastHit.hit && pendingBrushes.isEmpty()) {
       applySphere(lastHit.blockX, lastHit.blockY, lastHit.blockZ, Blocks.AIR);
     }
 
+    applyPendingBrushes();
+
     lastLeftPressed = leftPressed;
   }
 
@@ -154,56 +162,24 @@ public class VoxelEditTool extends AbstractComponent implements RenderableCompon
   }
 
   // -------------------------------------------------------
-  // Sphere Editing (Boundary Safe)
+  // Sphere Editing (Chunk-weise)
   // -------------------------------------------------------
 
   private void applySphere(int cx, int cy, int cz, short blockId) {
+    pendingBrushes.addLast(new SphereBrush(cx, cy, cz, brushRadius, blockId));
+  }
 
-    int r2 = brushRadius * brushRadius;
-    Set<Long> touched = new HashSet<>();
-
-    for (int dx = -brushRadius; dx <= brushRadius; dx++) {
-      for (int dy = -brushRadius; dy <= brushRadius; dy++) {
-        for (int dz = -brushRadius; dz <= brushRadius; dz++) {
-
-          if (dx * dx + dy * dy + dz * dz > r2) continue;
-
-          int wx = cx + dx;
-          int wy = cy + dy;
-          int wz = cz + dz;
-
-          boolean changed =
-              (blockId == Blocks.AIR)
-                  ? world.removeBlockWorld(wx, wy, wz)
-                  : world.setBlockWorld(wx, wy, wz, blockId);
+  private void applyPendingBrushes() {
+    int budget = MAX_BRUSH_CELLS_PER_FRAME;
 
-          if (!changed) continue;
+    while (budget > 0 && !pendingBrushes.isEmpty()) {
+      SphereBrush brush = pendingBrushes.peekFirst();
+      budget -= brush.apply(world, budget, streamer::onBlocksEdited);
 
-          markChunkAndNeighbors(wx, wz, touched);
-        }
+      if (brush.isDone()) {
+        pendingBrushes.removeFirst();
       }
     }
-
-    for (long key : touched) {
-      streamer.onChunkEdited((int) (key >> 32), (int) key);
-    }
-  }
-
-  private void markChunkAndNeighbors(int wx, int wz, Set<Long> touched) {
-
-    int chunkX = Math.floorDiv(wx, Chunk.SIZE_X);
-    int chunkZ = Math.floorDiv(wz, Chunk.SIZE_Z);
-
-    touched.add(pack(chunkX, chunkZ));
-
-    int localX = Math.floorMod(wx, Chunk.SIZE_X);
-    int localZ = Math.floorMod(wz, Chunk.SIZE_Z);
-
-    if (localX == 0) touched.add(pack(chunkX - 1, chunkZ));
-    if (localX == Chunk.SIZE_X - 1) touched.add(pack(chunkX + 1, chunkZ));
-
-    if (localZ == 0) touched.add(pack(chunkX, chunkZ - 1));
-    if (localZ == Chunk.SIZE_Z - 1) touched.add(pack(chunkX, chunkZ + 1));
   }
 
   // -------------------------------------------------------
@@ -261,10 +237,6 @@ public class VoxelEditTool extends AbstractComponent implements RenderableCompon
     g.drawLine(x0, y0, z1, x0, y1, z1);
   }
 
-  private long pack(int x, int z) {
-    return (((long) x) << 32) | (z & 0xffffffffL);
-  }
-
   private static class RaycastResult {
 
     private final boolean hit;
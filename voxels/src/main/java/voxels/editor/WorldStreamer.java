@@ -2,32 +2,69 @@ package voxels.editor;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import common.logging.Log;
+import common.util.Long2ObjectMap;
+import common.util.LongQueue;
+import common.util.LongSet;
 import engine.components.AbstractComponent;
 import engine.components.StaticGeometry;
 import engine.rendering.Material;
 import engine.scene.Scene;
 import engine.scene.SceneNode;
 import math.Color;
-import mesh.Mesh3D;
+import voxels.mesh.RegionMesh;
 import voxels.mesh.RegionMesher;
 import voxels.render.ProceduralBlockAtlas;
+import voxels.render.RegionMeshUploader;
 import voxels.render.RegionRenderSystem;
 import voxels.world.BlockAccess;
+import voxels.world.Blocks;
 import voxels.world.Chunk;
 import voxels.world.NoiseTerrainGenerator;
 import voxels.world.Region;
 import voxels.world.VoxelWorld;
 
+/**
+ * Streams the chunks around the {@link WorldAnchor} and keeps the region meshes up to date.
+ *
+ * <p>Chunk generation and region meshing run on a pool of worker threads. Generation fills pooled
+ * chunks that are only added to the world once they are done. Mesh jobs never read the live world:
+ * the chunks of a region are copied into pooled snapshots when the job is submitted, together with
+ * the one block wide border of its neighbours, so the editor can keep changing blocks while a
+ * region is meshed.
+ *
+ * <p>The work left on the update thread, adding generated chunks, copying snapshots and uploading
+ * meshes, runs within a time budget per frame. The budget shrinks while frames take longer than
+ * {@link #TARGET_FRAME_SECONDS} and grows again when there is time left. The per frame counts of
+ * the constructor are minimums that are always processed, so streaming never stalls completely.
+ */
 public class WorldStreamer extends AbstractComponent {
 
+  /** Frame time the streamer tries to stay within. */
+  private static final float TARGET_FRAME_SECONDS = 1f / 60f;
+
+  private static final long MIN_BUDGET_NANOS = 500_000L;
+
+  private static final long MAX_BUDGET_NANOS = 8_000_000L;
+
+  private static final long BUDGET_STEP_NANOS = 250_000L;
+
+  /** Jobs queued per worker, enough to keep workers busy without running far ahead. */
+  private static final int JOBS_PER_WORKER = 2;
+
+  /** Blocks per edge of a region. */
+  private static final int REGION_BLOCKS_X = Region.REGION_SIZE * Chunk.SIZE_X;
+
+  private static final int REGION_BLOCKS_Z = Region.REGION_SIZE * Chunk.SIZE_Z;
+
+  /** Block columns of the one block wide ring around a region that a mesh job reads. */
+  private static final int BORDER_COLUMNS = 2 * (REGION_BLOCKS_X + 2) + 2 * REGION_BLOCKS_Z;
+
   private final WorldAnchor anchor;
 
   private final VoxelWorld world;
@@ -48,23 +85,30 @@ public class WorldStreamer extends AbstractComponent {
 
   private final int maxRegionMeshAppliesPerFrame;
 
-  private final Map<Long, SceneNode> regionNodes = new HashMap<>();
+  private final int workerCount;
+
+  private final Long2ObjectMap<SceneNode> regionNodes = new Long2ObjectMap<>();
 
-  private final Deque<Long> pendingGeneration = new ArrayDeque<>();
+  private final LongQueue pendingGeneration = new LongQueue();
 
-  private final Set<Long> pendingGenerationSet = new HashSet<>();
+  private final LongSet pendingGenerationSet = new LongSet();
 
-  private final Deque<Long> pendingUnload = new ArrayDeque<>();
+  private final LongSet inFlightGenerations = new LongSet();
 
-  private final Set<Long> pendingUnloadSet = new HashSet<>();
+  private final LongQueue pendingUnload = new LongQueue();
 
-  private final Deque<Long> pendingDirtyRegions = new ArrayDeque<>();
+  private final LongSet pendingUnloadSet = new LongSet();
 
-  private final Set<Long> pendingDirtyRegionSet = new HashSet<>();
+  private final LongQueue pendingDirtyRegions = new LongQueue();
 
-  private final Set<Long> inFlightRegionBuilds = new HashSet<>();
+  private final LongSet pendingDirtyRegionSet = new LongSet();
 
-  private final Set<Long> dirtyAfterBuild = new HashSet<>();
+  private final LongSet inFlightRegionBuilds = new LongSet();
+
+  private final LongSet dirtyAfterBuild = new LongSet();
+
+  private final ConcurrentLinkedQueue<GenerationResult> completedGenerations =
+      new ConcurrentLinkedQueue<>();
 
   private final ConcurrentLinkedQueue<MeshBuildResult> completedMeshBuilds =
       new ConcurrentLinkedQueue<>();
@@ -73,13 +117,10 @@ public class WorldStreamer extends AbstractComponent {
 
   private Material regionMaterial;
 
-  private final ExecutorService meshExecutor =
-      Executors.newSingleThreadExecutor(
-          runnable -> {
-            Thread thread = new Thread(runnable, "world-stream-mesh-worker");
-            thread.setDaemon(true);
-            return thread;
-          });
+  private final ExecutorService workers;
+
+  // Jeder Worker behält seinen Mesher samt Puffern
+  private final ThreadLocal<RegionMesher> meshers = ThreadLocal.withInitial(RegionMesher::new);
 
   private Scene scene;
 
@@ -87,11 +128,17 @@ public class WorldStreamer extends AbstractComponent {
 
   private int currentAnchorChunkZ = Integer.MIN_VALUE;
 
+  private long budgetNanos = 2_000_000L;
+
+  private float smoothedFrameSeconds = TARGET_FRAME_SECONDS;
+
   // -------------------
   // Chunk Pool
   // -------------------
   private final Deque<Chunk> chunkPool = new ArrayDeque<>();
 
+  private final Deque<Chunk> snapshotPool = new ArrayDeque<>();
+
   private Chunk obtainChunk(int chunkX, int chunkZ) {
     Chunk chunk = chunkPool.pollFirst();
     if (chunk == null) {
@@ -106,6 +153,23 @@ public class WorldStreamer extends AbstractComponent {
     chunkPool.addLast(chunk);
   }
 
+  private Chunk obtainSnapshot(Chunk source) {
+    Chunk snapshot = snapshotPool.pollFirst();
+    if (snapshot == null) {
+      snapshot = new Chunk(source.getChunkX(), source.getChunkZ());
+    }
+    snapshot.copyFrom(source);
+    return snapshot;
+  }
+
+  private void releaseSnapshots(Chunk[] snapshots) {
+    for (Chunk snapshot : snapshots) {
+      if (snapshot != null) {
+        snapshotPool.addLast(snapshot);
+      }
+    }
+  }
+
   // -------------------
   // Constructors
   // -------------------
@@ -130,6 +194,39 @@ public class WorldStreamer extends AbstractComponent {
       int maxChunkUnloadsPerFrame,
       int maxRegionMeshSubmissionsPerFrame,
       int maxRegionMeshAppliesPerFrame) {
+    this(
+        anchor,
+        world,
+        generator,
+        renderSystem,
+        chunkRadius,
+        unloadRadius,
+        maxChunkGenerationsPerFrame,
+        maxChunkUnloadsPerFrame,
+        maxRegionMeshSubmissionsPerFrame,
+        maxRegionMeshAppliesPerFrame,
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  /**
+   * @param maxChunkGenerationsPerFrame generated chunks added to the world per frame at least
+   * @param maxChunkUnloadsPerFrame chunks unloaded per frame at least
+   * @param maxRegionMeshSubmissionsPerFrame region mesh jobs submitted per frame at least
+   * @param maxRegionMeshAppliesPerFrame finished region meshes uploaded per frame at least
+   * @param workerCount threads generating chunks and meshing regions
+   */
+  public WorldStreamer(
+      WorldAnchor anchor,
+      VoxelWorld world,
+      NoiseTerrainGenerator generator,
+      RegionRenderSystem renderSystem,
+      int chunkRadius,
+      int unloadRadius,
+      int maxChunkGenerationsPerFrame,
+      int maxChunkUnloadsPerFrame,
+      int maxRegionMeshSubmissionsPerFrame,
+      int maxRegionMeshAppliesPerFrame,
+      int workerCount) {
     this.anchor = anchor;
     this.world = world;
     this.generator = generator;
@@ -140,6 +237,18 @@ public class WorldStreamer extends AbstractComponent {
     this.maxChunkUnloadsPerFrame = Math.max(1, maxChunkUnloadsPerFrame);
     this.maxRegionMeshSubmissionsPerFrame = Math.max(1, maxRegionMeshSubmissionsPerFrame);
     this.maxRegionMeshAppliesPerFrame = Math.max(1, maxRegionMeshAppliesPerFrame);
+    this.workerCount = Math.max(1, workerCount);
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            this.workerCount,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "World-Stream-Worker-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
   }
 
   @Override
@@ -152,18 +261,41 @@ public class WorldStreamer extends AbstractComponent {
 
   @Override
   public void onUpdate(float tpf) {
+    updateBudget(tpf);
     updateStreamingTargets(false);
     processQueues();
   }
 
   @Override
   public void onDetach() {
-    meshExecutor.shutdownNow();
+    workers.shutdownNow();
+    completedGenerations.clear();
     completedMeshBuilds.clear();
+    inFlightGenerations.clear();
     inFlightRegionBuilds.clear();
     dirtyAfterBuild.clear();
   }
 
+  /** Current time budget per frame for the streaming work on the update thread. */
+  public long getBudgetNanos() {
+    return budgetNanos;
+  }
+
+  public int getWorkerCount() {
+    return workerCount;
+  }
+
+  private void updateBudget(float tpf) {
+    if (tpf <= 0) return;
+    smoothedFrameSeconds += (tpf - smoothedFrameSeconds) * 0.1f;
+
+    if (smoothedFrameSeconds > TARGET_FRAME_SECONDS * 1.1f) {
+      budgetNanos = Math.max(MIN_BUDGET_NANOS, budgetNanos * 4 / 5);
+    } else if (smoothedFrameSeconds < TARGET_FRAME_SECONDS * 0.9f) {
+      budgetNanos = Math.min(MAX_BUDGET_NANOS, budgetNanos + BUDGET_STEP_NANOS);
+    }
+  }
+
   private synchronized void ensureRenderResources() {
     if (blockAtlas != null && regionMaterial != null) {
       return;
@@ -203,11 +335,43 @@ public class WorldStreamer extends AbstractComponent {
     markChunkRegionAndNeighborsDirty(chunkX, chunkZ);
   }
 
+  /**
+   * Queues the regions whose mesh can change when the blocks in the given box change, bounds
+   * inclusive. A region also shows the faces of blocks right outside of it, so the box is grown by
+   * one block first.
+   */
+  public void onBlocksEdited(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+    int regionWidth = Region.REGION_SIZE * Chunk.SIZE_X;
+    int regionDepth = Region.REGION_SIZE * Chunk.SIZE_Z;
+
+    int minRegionX = Math.floorDiv(minX - 1, regionWidth);
+    int maxRegionX = Math.floorDiv(maxX + 1, regionWidth);
+    int minRegionZ = Math.floorDiv(minZ - 1, regionDepth);
+    int maxRegionZ = Math.floorDiv(maxZ + 1, regionDepth);
+
+    for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+      for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+        queueRegionIfRelevant(regionX, regionZ);
+      }
+    }
+  }
+
   private void processQueues() {
-    generateQueuedChunks();
-    unloadQueuedChunks();
-    submitRegionMeshBuilds();
-    applyCompletedRegionMeshes();
+    long deadline = System.nanoTime() + budgetNanos;
+    addGeneratedChunks(deadline);
+    submitChunkGenerations();
+    unloadQueuedChunks(deadline);
+    submitRegionMeshBuilds(deadline);
+    applyCompletedRegionMeshes(deadline);
+  }
+
+  /** Whether a stage that already processed {@code done} items may continue. */
+  private static boolean hasTime(int done, int minimum, long deadline) {
+    return done < minimum || System.nanoTime() < deadline;
+  }
+
+  private int maxJobsInFlight() {
+    return workerCount * JOBS_PER_WORKER;
   }
 
   private void queueMissingChunksNearAnchor(int anchorChunkX, int anchorChunkZ) {
@@ -240,7 +404,7 @@ public class WorldStreamer extends AbstractComponent {
     }
 
     long chunkKey = key(chunkX, chunkZ);
-    if (!pendingGenerationSet.add(chunkKey)) {
+    if (inFlightGenerations.contains(chunkKey) || !pendingGenerationSet.add(chunkKey)) {
       return;
     }
 
@@ -260,19 +424,15 @@ public class WorldStreamer extends AbstractComponent {
       }
 
       long key = key(chunkX, chunkZ);
-      if (pendingUnloadSet.contains(key)) {
-        continue;
+      if (pendingUnloadSet.add(key)) {
+        pendingUnload.addLast(key);
       }
-
-      pendingUnload.addLast(key);
-      pendingUnloadSet.add(key);
     }
   }
 
-  private void generateQueuedChunks() {
-    int generated = 0;
-
-    while (generated < maxChunkGenerationsPerFrame && !pendingGeneration.isEmpty()) {
+  /** Hands queued chunks to the workers, the chunk stays owned by its job until it returns. */
+  private void submitChunkGenerations() {
+    while (inFlightGenerations.size() < maxJobsInFlight() && !pendingGeneration.isEmpty()) {
       long key = pendingGeneration.removeFirst();
       pendingGenerationSet.remove(key);
 
@@ -289,18 +449,55 @@ public class WorldStreamer extends AbstractComponent {
 
       // Chunk-Pooling: obtain aus Pool
       Chunk chunk = obtainChunk(chunkX, chunkZ);
-      generator.generate(chunk);
+      inFlightGenerations.add(key);
+      workers.execute(
+          () -> {
+            boolean generated = false;
+            try {
+              generator.generate(chunk);
+              generated = true;
+            } catch (RuntimeException e) {
+              Log.error("Generation of chunk " + chunkX + ", " + chunkZ + " failed.", e);
+            } finally {
+              completedGenerations.add(new GenerationResult(chunk, generated));
+            }
+          });
+    }
+  }
+
+  private void addGeneratedChunks(long deadline) {
+    int added = 0;
+
+    while (hasTime(added, maxChunkGenerationsPerFrame, deadline)) {
+      GenerationResult result = completedGenerations.poll();
+      if (result == null) {
+        break;
+      }
+
+      Chunk chunk = result.chunk;
+      int chunkX = chunk.getChunkX();
+      int chunkZ = chunk.getChunkZ();
+      inFlightGenerations.remove(key(chunkX, chunkZ));
+
+      // Inzwischen außer Reichweite oder vom Editor angelegt
+      if (!result.generated
+          || !isWithinRadius(chunkX, chunkZ, currentAnchorChunkX, currentAnchorChunkZ, chunkRadius)
+          || world.hasChunk(chunkX, chunkZ)) {
+        releaseChunk(chunk);
+        continue;
+      }
+
       world.addChunk(chunk);
 
       markChunkRegionAndNeighborsDirty(chunkX, chunkZ);
-      generated++;
+      added++;
     }
   }
 
-  private void unloadQueuedChunks() {
+  private void unloadQueuedChunks(long deadline) {
     int unloaded = 0;
 
-    while (unloaded < maxChunkUnloadsPerFrame && !pendingUnload.isEmpty()) {
+    while (hasTime(unloaded, maxChunkUnloadsPerFrame, deadline) && !pendingUnload.isEmpty()) {
       long key = pendingUnload.removeFirst();
       pendingUnloadSet.remove(key);
 
@@ -316,7 +513,7 @@ public class WorldStreamer extends AbstractComponent {
         continue;
       }
 
-      // Chunk-Pooling: zurück in Pool
+      // Chunk-Pooling: zurück in Pool, Mesh-Jobs lesen nur Snapshots
       releaseChunk(removed);
 
       markChunkRegionAndNeighborsDirty(chunkX, chunkZ);
@@ -324,10 +521,12 @@ public class WorldStreamer extends AbstractComponent {
     }
   }
 
-  private void submitRegionMeshBuilds() {
+  private void submitRegionMeshBuilds(long deadline) {
     int submitted = 0;
 
-    while (submitted < maxRegionMeshSubmissionsPerFrame && !pendingDirtyRegions.isEmpty()) {
+    while (hasTime(submitted, maxRegionMeshSubmissionsPerFrame, deadline)
+        && inFlightRegionBuilds.size() < maxJobsInFlight()
+        && !pendingDirtyRegions.isEmpty()) {
       long regionKey = pendingDirtyRegions.removeFirst();
       pendingDirtyRegionSet.remove(regionKey);
 
@@ -346,47 +545,75 @@ public class WorldStreamer extends AbstractComponent {
         continue;
       }
 
+      SnapshotBlockAccess blockSnapshot = createBlockSnapshot(regionX, regionZ);
       Region regionSnapshot = new Region(regionX, regionZ);
       for (Chunk chunk : liveRegion.getChunks()) {
-        regionSnapshot.addChunk(chunk);
+        regionSnapshot.addChunk(blockSnapshot.getChunk(chunk.getChunkX(), chunk.getChunkZ()));
       }
 
-      BlockAccess blockSnapshot = createBlockSnapshot(regionX, regionZ);
-
       inFlightRegionBuilds.add(regionKey);
-      meshExecutor.submit(
+      workers.execute(
           () -> {
-            ensureRenderResources();
-            RegionMesher mesher = new RegionMesher(blockAtlas);
-            Mesh3D mesh = mesher.create(regionSnapshot, blockSnapshot);
-            completedMeshBuilds.add(new MeshBuildResult(regionKey, mesh));
+            RegionMesh mesh = null;
+            try {
+              mesh = meshers.get().build(regionSnapshot, blockSnapshot);
+            } catch (RuntimeException e) {
+              Log.error("Meshing of region " + regionX + ", " + regionZ + " failed.", e);
+            } finally {
+              completedMeshBuilds.add(
+                  new MeshBuildResult(regionKey, mesh, blockSnapshot.snapshots));
+            }
           });
       submitted++;
     }
   }
 
-  private BlockAccess createBlockSnapshot(int regionX, int regionZ) {
+  /**
+   * Copies the chunks of a region for a mesh job. Of the neighbours only the one block wide border
+   * the mesher reads is copied, up to one block above the highest block of the region.
+   */
+  private SnapshotBlockAccess createBlockSnapshot(int regionX, int regionZ) {
     int startChunkX = regionX * Region.REGION_SIZE;
     int startChunkZ = regionZ * Region.REGION_SIZE;
 
-    Map<Long, Chunk> chunkSnapshot = new HashMap<>();
-
-    for (int chunkX = startChunkX - 1; chunkX <= startChunkX + Region.REGION_SIZE; chunkX++) {
-      for (int chunkZ = startChunkZ - 1; chunkZ <= startChunkZ + Region.REGION_SIZE; chunkZ++) {
-        Chunk chunk = world.getChunk(chunkX, chunkZ);
+    Chunk[] snapshots = new Chunk[Region.REGION_SIZE * Region.REGION_SIZE];
+    int maxHeight = 0;
+    for (int z = 0; z < Region.REGION_SIZE; z++) {
+      for (int x = 0; x < Region.REGION_SIZE; x++) {
+        Chunk chunk = world.getChunk(startChunkX + x, startChunkZ + z);
         if (chunk != null) {
-          chunkSnapshot.put(key(chunkX, chunkZ), chunk);
+          snapshots[x + z * Region.REGION_SIZE] = obtainSnapshot(chunk);
+          maxHeight = Math.max(maxHeight, chunk.getMaxHeight());
         }
       }
     }
 
-    return new SnapshotBlockAccess(chunkSnapshot);
+    int height = Math.min(maxHeight + 2, Chunk.SIZE_Y);
+    short[] border = new short[BORDER_COLUMNS * height];
+    int originX = startChunkX * Chunk.SIZE_X;
+    int originZ = startChunkZ * Chunk.SIZE_Z;
+    for (int column = 0; column < BORDER_COLUMNS; column++) {
+      int worldX = originX + SnapshotBlockAccess.borderX(column);
+      int worldZ = originZ + SnapshotBlockAccess.borderZ(column);
+      Chunk chunk =
+          world.getChunk(Math.floorDiv(worldX, Chunk.SIZE_X), Math.floorDiv(worldZ, Chunk.SIZE_Z));
+      if (chunk == null) continue;
+
+      int localX = Math.floorMod(worldX, Chunk.SIZE_X);
+      int localZ = Math.floorMod(worldZ, Chunk.SIZE_Z);
+      int offset = column * height;
+      for (int y = 0; y < height; y++) {
+        border[offset + y] = chunk.getBlock(localX, y, localZ);
+      }
+    }
+
+    return new SnapshotBlockAccess(startChunkX, startChunkZ, snapshots, border, height);
   }
 
-  private void applyCompletedRegionMeshes() {
+  private void applyCompletedRegionMeshes(long deadline) {
     int applied = 0;
 
-    while (applied < maxRegionMeshAppliesPerFrame) {
+    while (hasTime(applied, maxRegionMeshAppliesPerFrame, deadline)) {
       MeshBuildResult result = completedMeshBuilds.poll();
       if (result == null) {
         break;
@@ -397,6 +624,16 @@ public class WorldStreamer extends AbstractComponent {
       int regionZ = zFromKey(regionKey);
 
       inFlightRegionBuilds.remove(regionKey);
+      releaseSnapshots(result.snapshots);
+
+      if (dirtyAfterBuild.remove(regionKey)) {
+        queueRegion(regionKey);
+      }
+
+      // Fehlgeschlagen: alten Node behalten
+      if (result.failed) {
+        continue;
+      }
 
       Region liveRegion = world.getRegion(regionX, regionZ);
       if (liveRegion == null || liveRegion.isEmpty()) {
@@ -405,8 +642,8 @@ public class WorldStreamer extends AbstractComponent {
         continue;
       }
 
-      Mesh3D mesh = result.mesh;
-      if (mesh == null || mesh.getFaceCount() == 0) {
+      RegionMesh mesh = result.mesh;
+      if (mesh.isEmpty()) {
         removeRegionNode(regionKey);
         applied++;
         continue;
@@ -418,16 +655,12 @@ public class WorldStreamer extends AbstractComponent {
       }
 
       ensureRenderResources();
-      StaticGeometry geometry = new StaticGeometry(mesh, regionMaterial);
+      StaticGeometry geometry = RegionMeshUploader.upload(mesh, regionMaterial);
 
       SceneNode newNode = new SceneNode("Region [" + regionX + "," + regionZ + "]", geometry);
       scene.addNode(newNode);
       regionNodes.put(regionKey, newNode);
 
-      if (dirtyAfterBuild.remove(regionKey)) {
-        queueRegion(regionKey);
-      }
-
       applied++;
     }
   }
@@ -497,43 +730,111 @@ public class WorldStreamer extends AbstractComponent {
     return (((long) x) << 32) | (z & 0xffffffffL);
   }
 
+  private static class GenerationResult {
+
+    private final Chunk chunk;
+
+    private final boolean generated;
+
+    private GenerationResult(Chunk chunk, boolean generated) {
+      this.chunk = chunk;
+      this.generated = generated;
+    }
+  }
+
   private static class MeshBuildResult {
 
     private final long regionKey;
 
-    private final Mesh3D mesh;
+    private final RegionMesh mesh;
+
+    private final boolean failed;
 
-    private MeshBuildResult(long regionKey, Mesh3D mesh) {
+    private final Chunk[] snapshots;
+
+    private MeshBuildResult(long regionKey, RegionMesh mesh, Chunk[] snapshots) {
       this.regionKey = regionKey;
       this.mesh = mesh;
+      this.failed = mesh == null;
+      this.snapshots = snapshots;
     }
   }
 
+  /**
+   * Read-only view of the chunk snapshots of a mesh job and the border around them. Neighbour
+   * chunks are not available as chunks, the mesher reads their border block by block.
+   */
   private static class SnapshotBlockAccess implements BlockAccess {
-    private final Map<Long, Chunk> chunks;
 
-    private SnapshotBlockAccess(Map<Long, Chunk> chunks) {
-      this.chunks = chunks;
+    private final int startChunkX;
+
+    private final int startChunkZ;
+
+    private final Chunk[] snapshots;
+
+    // Eine Blocksäule pro Randspalte, siehe borderX und borderZ
+    private final short[] border;
+
+    private final int borderHeight;
+
+    private SnapshotBlockAccess(
+        int startChunkX, int startChunkZ, Chunk[] snapshots, short[] border, int borderHeight) {
+      this.startChunkX = startChunkX;
+      this.startChunkZ = startChunkZ;
+      this.snapshots = snapshots;
+      this.border = border;
+      this.borderHeight = borderHeight;
     }
 
     @Override
     public short getBlock(int worldX, int worldY, int worldZ) {
-      if (worldY < 0 || worldY >= Chunk.SIZE_Y) return voxels.world.Blocks.AIR;
+      if (worldY < 0 || worldY >= Chunk.SIZE_Y) return Blocks.AIR;
+
+      int x = worldX - startChunkX * Chunk.SIZE_X;
+      int z = worldZ - startChunkZ * Chunk.SIZE_Z;
+      if (x >= 0 && x < REGION_BLOCKS_X && z >= 0 && z < REGION_BLOCKS_Z) {
+        Chunk chunk = snapshots[x / Chunk.SIZE_X + (z / Chunk.SIZE_Z) * Region.REGION_SIZE];
+        if (chunk == null) return Blocks.AIR;
+        return chunk.getBlock(x % Chunk.SIZE_X, worldY, z % Chunk.SIZE_Z);
+      }
 
-      int chunkX = Math.floorDiv(worldX, Chunk.SIZE_X);
-      int chunkZ = Math.floorDiv(worldZ, Chunk.SIZE_Z);
+      int column = borderColumn(x, z);
+      if (column < 0 || worldY >= borderHeight) return Blocks.AIR;
+      return border[column * borderHeight + worldY];
+    }
 
-      Chunk chunk = chunks.get(key(chunkX, chunkZ));
-      if (chunk == null) return voxels.world.Blocks.AIR;
+    @Override
+    public Chunk getChunk(int chunkX, int chunkZ) {
+      int x = chunkX - startChunkX;
+      int z = chunkZ - startChunkZ;
+      if (x < 0 || x >= Region.REGION_SIZE || z < 0 || z >= Region.REGION_SIZE) return null;
+      return snapshots[x + z * Region.REGION_SIZE];
+    }
 
-      int localX = Math.floorMod(worldX, Chunk.SIZE_X);
-      int localZ = Math.floorMod(worldZ, Chunk.SIZE_Z);
+    // Reihenfolge der Spalten: Zeile z = -1, Zeile z = Ende, Spalte x = -1, Spalte x = Ende
+
+    /** Returns the border column of a position relative to the region, or -1 if it has none. */
+    private static int borderColumn(int x, int z) {
+      if (x < -1 || x > REGION_BLOCKS_X || z < -1 || z > REGION_BLOCKS_Z) return -1;
+      int row = REGION_BLOCKS_X + 2;
+      if (z == -1) return x + 1;
+      if (z == REGION_BLOCKS_Z) return row + x + 1;
+      if (x == -1) return 2 * row + z;
+      if (x == REGION_BLOCKS_X) return 2 * row + REGION_BLOCKS_Z + z;
+      return -1;
+    }
 
-      return chunk.getBlock(localX, worldY, localZ);
+    private static int borderX(int column) {
+      int row = REGION_BLOCKS_X + 2;
+      if (column < 2 * row) return column % row - 1;
+      return column < 2 * row + REGION_BLOCKS_Z ? -1 : REGION_BLOCKS_X;
     }
 
-    private long key(int x, int z) {
-      return (((long) x) << 32) | (z & 0xffffffffL);
+    private static int borderZ(int column) {
+      int row = REGION_BLOCKS_X + 2;
+      if (column < row) return -1;
+      if (column < 2 * row) return REGION_BLOCKS_Z;
+      return (column - 2 * row) % REGION_BLOCKS_Z;
     }
   }
 }
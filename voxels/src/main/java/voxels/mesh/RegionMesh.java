@@ -0,0 +1,124 @@
+package voxels.mesh;
+
+import java.util.Arrays;
+
+import mesh.Mesh3D;
+import mesh.next.surface.SurfaceLayer;
+import voxels.render.ProceduralBlockAtlas;
+
+/**
+ * Compact mesh of a region as built by the {@link RegionMesher}.
+ *
+ * <p>Vertices are packed into one float array, {@link #STRIDE} floats per vertex: the world space
+ * position followed by the tile coordinates described in {@link ProceduralBlockAtlas}. Every quad
+ * owns four consecutive vertices and is stored as two triangles in the index array. A {@link
+ * Mesh3D} is only created on request with {@link #toMesh3D()}, for tools that need to edit or
+ * inspect the geometry.
+ */
+public final class RegionMesh {
+
+  /** Floats per vertex: x, y, z, u, v. */
+  public static final int STRIDE = 5;
+
+  private float[] vertices;
+
+  private int[] indices;
+
+  private int vertexCount;
+
+  private int indexCount;
+
+  public RegionMesh() {
+    this(256);
+  }
+
+  /** Creates an empty mesh with room for {@code quads} quads. */
+  public RegionMesh(int quads) {
+    int capacity = Math.max(1, quads);
+    vertices = new float[capacity * 4 * STRIDE];
+    indices = new int[capacity * 6];
+  }
+
+  /** Appends a vertex and returns its index. */
+  int addVertex(float x, float y, float z, float u, float v) {
+    int offset = vertexCount * STRIDE;
+    if (offset + STRIDE > vertices.length) {
+      vertices = Arrays.copyOf(vertices, Math.max(offset + STRIDE, vertices.length * 2));
+    }
+    vertices[offset] = x;
+    vertices[offset + 1] = y;
+    vertices[offset + 2] = z;
+    vertices[offset + 3] = u;
+    vertices[offset + 4] = v;
+    return vertexCount++;
+  }
+
+  /** Appends the quad a, b, c, d as the triangles a, b, c and a, c, d. */
+  void addQuad(int a, int b, int c, int d) {
+    if (indexCount + 6 > indices.length) {
+      indices = Arrays.copyOf(indices, Math.max(indexCount + 6, indices.length * 2));
+    }
+    indices[indexCount++] = a;
+    indices[indexCount++] = b;
+    indices[indexCount++] = c;
+    indices[indexCount++] = a;
+    indices[indexCount++] = c;
+    indices[indexCount++] = d;
+  }
+
+  /** Shrinks the arrays to their content once building is done. */
+  void trim() {
+    vertices = Arrays.copyOf(vertices, vertexCount * STRIDE);
+    indices = Arrays.copyOf(indices, indexCount);
+  }
+
+  /** Packed vertex data, only the first {@link #getVertexCount()} vertices are valid. */
+  public float[] getVertices() {
+    return vertices;
+  }
+
+  /** Triangle indices, only the first {@link #getIndexCount()} entries are valid. */
+  public int[] getIndices() {
+    return indices;
+  }
+
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  public int getIndexCount() {
+    return indexCount;
+  }
+
+  public int getQuadCount() {
+    return indexCount / 6;
+  }
+
+  public boolean isEmpty() {
+    return indexCount == 0;
+  }
+
+  /**
+   * Creates a {@link Mesh3D} with the same quads. Every vertex gets its own UV, so the face UV
+   * indices equal the vertex indices. The UVs stay tile coordinates, which only the region shader
+   * turns into atlas UVs.
+   */
+  public Mesh3D toMesh3D() {
+    Mesh3D mesh = new Mesh3D();
+    SurfaceLayer surfaceLayer = mesh.getSurfaceLayer();
+    for (int i = 0; i < vertexCount; i++) {
+      int offset = i * STRIDE;
+      mesh.addVertex(vertices[offset], vertices[offset + 1], vertices[offset + 2]);
+      surfaceLayer.addUV(vertices[offset + 3], vertices[offset + 4]);
+    }
+    for (int i = 0; i < indexCount; i += 6) {
+      int a = indices[i];
+      int b = indices[i + 1];
+      int c = indices[i + 2];
+      int d = indices[i + 5];
+      mesh.addFace(a, b, c, d);
+      surfaceLayer.setFaceUVIndices(mesh.getFaceCount() - 1, new int[] {a, b, c, d});
+    }
+    return mesh;
+  }
+}
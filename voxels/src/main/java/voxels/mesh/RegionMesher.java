@@ -1,7 +1,8 @@
 package voxels.mesh;
 
+import java.util.Arrays;
+
 import mesh.Mesh3D;
-import mesh.modifier.transform.TranslateModifier;
 import voxels.render.ProceduralBlockAtlas;
 import voxels.world.BlockAccess;
 import voxels.world.Blocks;
@@ -9,51 +10,93 @@ import voxels.world.Chunk;
 import voxels.world.Region;
 import voxels.world.VoxelWorld;
 
+/**
+ * Builds the mesh of a region with greedy meshing.
+ *
+ * <p>The blocks of the region and a one block border of its neighbours are copied into a padded
+ * local array once per build, so the mask loops only index into that array. Visible faces of the
+ * same block and side are merged into rectangles of up to {@link ProceduralBlockAtlas#MAX_REPEAT}
+ * blocks per side, and every rectangle becomes one quad. Its UVs are tile coordinates that span
+ * one unit per block, so the region shader repeats the texture tile once per block instead of
+ * stretching it.
+ *
+ * <p>The quads are written straight into a {@link RegionMesh} in world space.
+ *
+ * <p>Not thread-safe, use one instance per thread.
+ */
 public class RegionMesher {
 
-  private Mesh3D mesh;
+  // Ecken eines Quads: v0 am Ursprung, v1 entlang u, v2 entlang u und v, v3 entlang v
+  private static final int[] CORNER_U = {0, 1, 1, 0};
 
-  private int nextIndex;
+  private static final int[] CORNER_V = {0, 0, 1, 1};
 
-  private BlockAccess blocks;
+  private static final int[] BACK_ORDER = {0, 1, 2, 3};
 
-  private final ProceduralBlockAtlas atlas;
+  private static final int[] FRONT_ORDER = {0, 3, 2, 1};
 
-  public RegionMesher(ProceduralBlockAtlas atlas) {
-    if (atlas == null) throw new IllegalArgumentException("atlas cannot be null");
-    this.atlas = atlas;
-  }
+  private static final int[] BACK_X_ORDER = {3, 0, 1, 2};
 
-  public RegionMesher() {
-    this(new ProceduralBlockAtlas());
-  }
+  private static final int[] FRONT_Z_ORDER = {1, 0, 3, 2};
+
+  // Kachel-Ecken der Vertices in der Reihenfolge von ProceduralBlockAtlas.getFaceUVs, t von oben
+  private static final int[] TILE_S = {1, 0, 0, 1};
+
+  private static final int[] TILE_T = {0, 0, 1, 1};
+
+  private static final int MAX_REPEAT = ProceduralBlockAtlas.MAX_REPEAT;
+
+  private static final int TILE_STRIDE = ProceduralBlockAtlas.TILE_STRIDE;
+
+  private RegionMesh target;
+
+  // Region plus ein Block Rand, Index (x + 1) + padX * ((z + 1) + padZ * (y + 1))
+  private short[] padded = new short[0];
+
+  private int[] mask = new int[0];
+
+  private final int[] dims = new int[3];
+
+  private final int[] strides = new int[3];
+
+  private final int[] position = new int[3];
+
+  private int worldX;
+
+  private int worldZ;
 
   public Mesh3D create(Region region, VoxelWorld world) {
     return create(region, (BlockAccess) world);
   }
 
+  /** Builds the region and returns it as a {@link Mesh3D}, for tools that edit the geometry. */
   public Mesh3D create(Region region, BlockAccess blocks) {
+    return build(region, blocks).toMesh3D();
+  }
 
-    this.blocks = blocks;
-    this.mesh = new Mesh3D();
-    this.nextIndex = 0;
-
-    atlas.appendUVs(mesh.getSurfaceLayer());
+  /** Builds the compact mesh of a region, positions are in world space. */
+  public RegionMesh build(Region region, BlockAccess blocks) {
 
     int startChunkX = region.getRegionX() * Region.REGION_SIZE;
     int startChunkZ = region.getRegionZ() * Region.REGION_SIZE;
 
-    int sizeX = Region.REGION_SIZE * Chunk.SIZE_X;
-    int sizeZ = Region.REGION_SIZE * Chunk.SIZE_Z;
-    int sizeY = computeRegionMaxHeight(region);
-
-    greedyMesh(startChunkX, startChunkZ, sizeX, sizeY, sizeZ);
+    dims[0] = Region.REGION_SIZE * Chunk.SIZE_X;
+    dims[1] = computeRegionMaxHeight(region);
+    dims[2] = Region.REGION_SIZE * Chunk.SIZE_Z;
 
-    float worldX = startChunkX * Chunk.SIZE_X;
-    float worldZ = startChunkZ * Chunk.SIZE_Z;
+    worldX = startChunkX * Chunk.SIZE_X;
+    worldZ = startChunkZ * Chunk.SIZE_Z;
 
-    new TranslateModifier(worldX, 0, worldZ).modify(mesh);
+    gather(region, blocks, startChunkX, startChunkZ);
 
+    RegionMesh mesh = new RegionMesh();
+    this.target = mesh;
+    try {
+      greedyMesh();
+    } finally {
+      this.target = null;
+    }
+    mesh.trim();
     return mesh;
   }
 
@@ -67,35 +110,118 @@ public class RegionMesher {
     return max + 1;
   }
 
-  private void greedyMesh(int chunkStartX, int chunkStartZ, int sizeX, int sizeY, int sizeZ) {
+  /** Copies the region and the border of its neighbours into {@link #padded}. */
+  private void gather(Region region, BlockAccess blocks, int startChunkX, int startChunkZ) {
+    int padX = dims[0] + 2;
+    int padZ = dims[2] + 2;
+    int volume = padX * padZ * (dims[1] + 2);
+    if (padded.length < volume) {
+      padded = new short[volume];
+    } else {
+      Arrays.fill(padded, 0, volume, Blocks.AIR);
+    }
+    strides[0] = 1;
+    strides[1] = padX * padZ;
+    strides[2] = padX;
+
+    for (Chunk chunk : region.getChunks()) {
+      copyChunk(chunk, chunk.getChunkX() - startChunkX, chunk.getChunkZ() - startChunkZ);
+    }
+
+    for (int chunkX = -1; chunkX <= Region.REGION_SIZE; chunkX++) {
+      for (int chunkZ = -1; chunkZ <= Region.REGION_SIZE; chunkZ++) {
+        boolean insideX = chunkX >= 0 && chunkX < Region.REGION_SIZE;
+        boolean insideZ = chunkZ >= 0 && chunkZ < Region.REGION_SIZE;
+        if (insideX && insideZ) continue;
+
+        Chunk neighbor = blocks.getChunk(startChunkX + chunkX, startChunkZ + chunkZ);
+        if (neighbor != null) {
+          copyChunk(neighbor, chunkX, chunkZ);
+        } else {
+          copyBlocks(blocks, chunkX, chunkZ);
+        }
+      }
+    }
+  }
 
-    int[] dims = {sizeX, sizeY, sizeZ};
-    int[] x = new int[3];
-    int[] q = new int[3];
+  /** Copies the part of a chunk that overlaps the padded volume, offsets are in chunks. */
+  private void copyChunk(Chunk chunk, int offsetChunkX, int offsetChunkZ) {
+    int originX = offsetChunkX * Chunk.SIZE_X;
+    int originZ = offsetChunkZ * Chunk.SIZE_Z;
+    int minX = Math.max(-1, originX);
+    int maxX = Math.min(dims[0], originX + Chunk.SIZE_X - 1);
+    int minZ = Math.max(-1, originZ);
+    int maxZ = Math.min(dims[2], originZ + Chunk.SIZE_Z - 1);
+    int maxY = Math.min(dims[1], Chunk.SIZE_Y - 1);
+
+    for (int y = 0; y <= maxY; y++) {
+      for (int z = minZ; z <= maxZ; z++) {
+        int index = paddedIndex(minX, y, z);
+        for (int x = minX; x <= maxX; x++, index++) {
+          padded[index] = chunk.getBlock(x - originX, y, z - originZ);
+        }
+      }
+    }
+  }
+
+  /** Fallback for accesses that are not backed by chunks, reads block by block. */
+  private void copyBlocks(BlockAccess blocks, int offsetChunkX, int offsetChunkZ) {
+    int originX = offsetChunkX * Chunk.SIZE_X;
+    int originZ = offsetChunkZ * Chunk.SIZE_Z;
+    int minX = Math.max(-1, originX);
+    int maxX = Math.min(dims[0], originX + Chunk.SIZE_X - 1);
+    int minZ = Math.max(-1, originZ);
+    int maxZ = Math.min(dims[2], originZ + Chunk.SIZE_Z - 1);
+    int maxY = Math.min(dims[1], Chunk.SIZE_Y - 1);
+
+    for (int y = 0; y <= maxY; y++) {
+      for (int z = minZ; z <= maxZ; z++) {
+        for (int x = minX; x <= maxX; x++) {
+          padded[paddedIndex(x, y, z)] = blocks.getBlock(worldX + x, y, worldZ + z);
+        }
+      }
+    }
+  }
+
+  private int paddedIndex(int x, int y, int z) {
+    return (x + 1) + strides[2] * (z + 1) + strides[1] * (y + 1);
+  }
+
+  private void greedyMesh() {
+
+    int origin = paddedIndex(0, 0, 0);
 
     for (int d = 0; d < 3; d++) {
 
       int u = (d + 1) % 3;
       int v = (d + 2) % 3;
 
-      q[0] = q[1] = q[2] = 0;
-      q[d] = 1;
+      int sizeU = dims[u];
+      int sizeV = dims[v];
+      if (mask.length < sizeU * sizeV) {
+        mask = new int[sizeU * sizeV];
+      }
+
+      int step = strides[d];
 
-      int[] mask = new int[dims[u] * dims[v]];
+      for (int slice = -1; slice < dims[d]; slice++) {
 
-      for (x[d] = -1; x[d] < dims[d]; ) {
+        // Faces von Nachbarblöcken am Rand baut die Nachbarregion
+        boolean lowerBorder = d != 1 && slice == -1;
+        boolean upperBorder = d != 1 && slice == dims[d] - 1;
 
         int n = 0;
 
-        for (x[v] = 0; x[v] < dims[v]; x[v]++) {
-          for (x[u] = 0; x[u] < dims[u]; x[u]++) {
+        for (int j = 0; j < sizeV; j++) {
+          int index = origin + slice * step + j * strides[v];
+          for (int i = 0; i < sizeU; i++, index += strides[u]) {
 
-            short a = getBlock(chunkStartX, chunkStartZ, x[0], x[1], x[2]);
-            short b = getBlock(chunkStartX, chunkStartZ, x[0] + q[0], x[1] + q[1], x[2] + q[2]);
+            short a = padded[index];
+            short b = padded[index + step];
 
-            if (a != Blocks.AIR && b == Blocks.AIR) {
+            if (a != Blocks.AIR && b == Blocks.AIR && !lowerBorder) {
               mask[n++] = a;
-            } else if (a == Blocks.AIR && b != Blocks.AIR) {
+            } else if (a == Blocks.AIR && b != Blocks.AIR && !upperBorder) {
               mask[n++] = -b;
             } else {
               mask[n++] = 0;
@@ -103,106 +229,94 @@ public class RegionMesher {
           }
         }
 
-        x[d]++;
         n = 0;
 
-        for (int j = 0; j < dims[v]; j++) {
-          for (int i = 0; i < dims[u]; ) {
+        for (int j = 0; j < sizeV; j++) {
+          for (int i = 0; i < sizeU; ) {
 
             int c = mask[n];
-
-            if (c != 0) {
-
-              x[u] = i;
-              x[v] = j;
-
-              int[] du = new int[3];
-              int[] dv = new int[3];
-
-              du[u] = 1;
-              dv[v] = 1;
-
-              addQuad(x, du, dv, c > 0, (short) Math.abs(c), d);
-
-              mask[n] = 0;
+            if (c == 0) {
               i++;
               n++;
+              continue;
+            }
 
-            } else {
-              i++;
-              n++;
+            // Mehr Wiederholungen fasst der Abstand der Kacheln nicht
+            int w;
+            for (w = 1; w < MAX_REPEAT && i + w < sizeU && mask[n + w] == c; w++) ;
+
+            int h;
+            outer:
+            for (h = 1; h < MAX_REPEAT && j + h < sizeV; h++) {
+              for (int k = 0; k < w; k++) {
+                if (mask[n + k + h * sizeU] != c) {
+                  break outer;
+                }
+              }
             }
+
+            position[d] = slice + 1;
+            position[u] = i;
+            position[v] = j;
+            addRectangle(d, u, v, w, h, c > 0, (short) Math.abs(c));
+
+            for (int l = 0; l < h; l++) {
+              Arrays.fill(mask, n + l * sizeU, n + l * sizeU + w, 0);
+            }
+
+            i += w;
+            n += w;
           }
         }
       }
     }
   }
 
-  private short getBlock(int chunkStartX, int chunkStartZ, int x, int y, int z) {
-
-    int worldX = chunkStartX * Chunk.SIZE_X + x;
-    int worldZ = chunkStartZ * Chunk.SIZE_Z + z;
-
-    return blocks.getBlock(worldX, y, worldZ);
-  }
-
-  private void addQuad(int[] pos, int[] du, int[] dv, boolean frontFace, short blockId, int axis) {
-    float x = pos[0];
-    float y = -pos[1];
-    float z = pos[2];
-
-    float[] v0 = {x, y, z};
-    float[] v1 = {x + du[0], y - du[1], z + du[2]};
-    float[] v2 = {x + du[0] + dv[0], y - du[1] - dv[1], z + du[2] + dv[2]};
-    float[] v3 = {x + dv[0], y - dv[1], z + dv[2]};
-
-    float[] a = v0;
-    float[] b = v1;
-    float[] c = v2;
-    float[] d = v3;
-
-    if (frontFace) {
-      a = v0;
-      b = v3;
-      c = v2;
-      d = v1;
-    } else {
-      a = v0;
-      b = v1;
-      c = v2;
-      d = v3;
+  /** Emits a merged rectangle of {@code w} x {@code h} blocks starting at {@link #position}. */
+  private void addRectangle(
+      int axis, int u, int v, int w, int h, boolean frontFace, short blockId) {
+    int[] order = cornerOrder(axis, frontFace);
+    int face = toFaceOrdinal(axis, frontFace);
+    float tileU = ProceduralBlockAtlas.getTileColumn(face) * TILE_STRIDE;
+    float tileV = ProceduralBlockAtlas.getTileRow(blockId, face) * TILE_STRIDE;
+
+    // s läuft entlang der Kante von Vertex 0 zu 1, t entlang der Kante von 1 zu 2
+    boolean sAlongU = CORNER_U[order[0]] != CORNER_U[order[1]];
+    int repeatS = sAlongU ? w : h;
+    int repeatT = sAlongU ? h : w;
+
+    int base = target.getVertexCount();
+    for (int i = 0; i < 4; i++) {
+      int corner = order[i];
+      addVertex(
+          u,
+          v,
+          CORNER_U[corner] * w,
+          CORNER_V[corner] * h,
+          tileU + TILE_S[i] * repeatS,
+          tileV + TILE_T[i] * repeatT);
     }
-
-    if ((axis == 0 && !frontFace)
-        || // -X
-        (axis == 2 && frontFace)) { // +Z
-
-      float[] tmp = d;
-      d = c;
-      c = b;
-      b = a;
-      a = tmp;
-    }
-
-    addFace(a, b, c, d, blockId, axis, frontFace);
+    target.addQuad(base, base + 1, base + 2, base + 3);
   }
 
-  private void addFace(
-      float[] a, float[] b, float[] c, float[] d, short blockId, int axis, boolean frontFace) {
-
-    mesh.addVertex(a[0], a[1], a[2]);
-    mesh.addVertex(b[0], b[1], b[2]);
-    mesh.addVertex(c[0], c[1], c[2]);
-    mesh.addVertex(d[0], d[1], d[2]);
-
-    int faceIndex = mesh.getFaceCount();
-    mesh.addFace(nextIndex, nextIndex + 1, nextIndex + 2, nextIndex + 3);
-
-    int faceOrdinal = toFaceOrdinal(axis, frontFace);
-    mesh.getSurfaceLayer()
-        .setFaceUVIndices(faceIndex, atlas.getFaceUVIndices(blockId, faceOrdinal));
+  private void addVertex(int u, int v, int offsetU, int offsetV, float uvU, float uvV) {
+    int x = position[0];
+    int y = position[1];
+    int z = position[2];
+    if (u == 0) x += offsetU;
+    else if (u == 1) y += offsetU;
+    else z += offsetU;
+    if (v == 0) x += offsetV;
+    else if (v == 1) y += offsetV;
+    else z += offsetV;
+    target.addVertex(worldX + x, -y, worldZ + z, uvU, uvV);
+  }
 
-    nextIndex += 4;
+  /** Corner order of a face, so that every side keeps the winding of the original quads. */
+  private static int[] cornerOrder(int axis, boolean frontFace) {
+    if (axis == 0 && !frontFace) return BACK_X_ORDER; // -X
+    if (axis == 2 && frontFace) return FRONT_Z_ORDER; // +Z
+    return frontFace ? FRONT_ORDER : BACK_ORDER;
   }
 
   private int toFaceOrdinal(int axis, boolean frontFace) {
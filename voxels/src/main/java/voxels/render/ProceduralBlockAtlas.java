@@ -4,6 +4,7 @@ import engine.resources.FilterMode;
 import engine.resources.Texture;
 import engine.resources.TextureManager;
 import math.PerlinNoise;
+import math.Vector3f;
 import mesh.next.surface.SurfaceLayer;
 import voxels.world.Blocks;
 
@@ -14,6 +15,11 @@ import java.awt.image.BufferedImage;
  * Procedurally generates a block atlas and UV layout for the voxel editor.
  *
  * <p>Layout: rows = texture tile types, columns = cube face ordinals.
+ *
+ * <p>Region meshes do not store atlas UVs but tile coordinates: the tile of a block face starts at
+ * {@code (getTileColumn(face) * TILE_STRIDE, getTileRow(blockId, face) * TILE_STRIDE)}, and a quad
+ * covering n blocks spans n units from there. {@code region.frag} maps the integer part back to
+ * the tile and repeats the fraction inside it, so a merged quad shows one tile per block.
  */
 public class ProceduralBlockAtlas {
 
@@ -29,6 +35,12 @@ public class ProceduralBlockAtlas {
 
   public static final int FACE_BOTTOM = 5;
 
+  /** Largest number of blocks a quad may cover along one axis and still repeat its tile. */
+  public static final int MAX_REPEAT = 16;
+
+  /** Distance of neighbouring tiles in tile coordinates, must match {@code region.frag}. */
+  public static final int TILE_STRIDE = 2 * MAX_REPEAT;
+
   private static final int TILE_AIR = 0;
 
   private static final int TILE_STONE = 1;
@@ -106,6 +118,43 @@ public class ProceduralBlockAtlas {
     return new int[] {base + 3, base + 2, base + 1, base};
   }
 
+  /**
+   * Returns the UVs of a block face as u, v pairs in the corner order of {@link
+   * #getFaceUVIndices(short, int)}, for meshes that store UVs per vertex.
+   */
+  public float[] getFaceUVs(short blockId, int faceOrdinal) {
+    int[] uvIndices = getFaceUVIndices(blockId, faceOrdinal);
+    float[] uvs = new float[uvIndices.length * 2];
+    for (int i = 0; i < uvIndices.length; i++) {
+      uvs[i * 2] = uvData[uvIndices[i] * 2];
+      uvs[i * 2 + 1] = uvData[uvIndices[i] * 2 + 1];
+    }
+    return uvs;
+  }
+
+  /** Returns the atlas column of a face, where its tiles start at {@code column * TILE_STRIDE}. */
+  public static int getTileColumn(int faceOrdinal) {
+    return Math.max(0, Math.min(faceOrdinal, COLUMNS - 1));
+  }
+
+  /**
+   * Returns the atlas row of a block face, counted from the top of the image. Unlike the UVs this
+   * is not flipped, {@code region.frag} reads the tile coordinates as they are.
+   */
+  public static int getTileRow(short blockId, int faceOrdinal) {
+    return tileTypeFor(blockId, getTileColumn(faceOrdinal));
+  }
+
+  /**
+   * Stores the values {@code region.frag} needs to turn tile coordinates into atlas UVs: the tile
+   * width and height in UV units and the edge margin.
+   *
+   * @return {@code store}
+   */
+  public static Vector3f getShaderParameters(Vector3f store) {
+    return store.set(1f / COLUMNS, 1f / TILE_TYPE_COUNT, EPSILON);
+  }
+
   private BufferedImage createAtlasImage() {
     int width = TILE_SIZE * COLUMNS;
     int height = TILE_SIZE * TILE_TYPE_COUNT;
@@ -194,7 +243,7 @@ public class ProceduralBlockAtlas {
     return TILE_TYPE_COUNT - 1 - row;
   }
 
-  private int tileTypeFor(short blockId, int faceOrdinal) {
+  private static int tileTypeFor(short blockId, int faceOrdinal) {
     if (blockId == Blocks.STONE) {
       return TILE_STONE;
     }
@@ -0,0 +1,29 @@
+package voxels.render;
+
+import engine.components.StaticGeometry;
+import engine.rendering.Graphics;
+import engine.rendering.Material;
+import engine.vbo.VBO;
+import math.Vector3f;
+
+/**
+ * Geometry of a region mesh. It is drawn with the region shader, which turns the tile coordinates
+ * of the mesh into atlas UVs and repeats the tile of a merged quad once per block.
+ */
+public class RegionGeometry extends StaticGeometry {
+
+  private final Vector3f atlasParameters =
+      ProceduralBlockAtlas.getShaderParameters(new Vector3f());
+
+  public RegionGeometry(VBO vbo, Material material) {
+    super(vbo, material);
+  }
+
+  @Override
+  public void render(Graphics g) {
+    g.setShader("region.vert", "region.frag");
+    g.setUniform("u_atlas", atlasParameters);
+    super.render(g);
+    g.resetShader();
+  }
+}
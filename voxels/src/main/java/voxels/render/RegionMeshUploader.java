@@ -0,0 +1,44 @@
+package voxels.render;
+
+import engine.backend.processing.BufferedShape;
+import engine.rendering.Material;
+import voxels.mesh.RegionMesh;
+
+/** Copies the triangles of a {@link RegionMesh} into a {@link BufferedShape}. */
+public final class RegionMeshUploader {
+
+  private RegionMeshUploader() {}
+
+  /**
+   * Creates the static geometry for a region mesh.
+   *
+   * @return the geometry, or {@code null} if the mesh holds no quads
+   */
+  public static RegionGeometry upload(RegionMesh mesh, Material material) {
+    if (mesh.isEmpty()) return null;
+
+    BufferedShape shape = new BufferedShape(material);
+    write(mesh, shape);
+    return new RegionGeometry(shape.getVBO(), material);
+  }
+
+  /** Writes the triangles of a mesh into the shape, one vertex per index. */
+  static void write(RegionMesh mesh, BufferedShape shape) {
+    shape.begin(BufferedShape.TRIANGLES);
+
+    float[] vertices = mesh.getVertices();
+    int[] indices = mesh.getIndices();
+    for (int i = 0; i < mesh.getIndexCount(); i++) {
+      int offset = indices[i] * RegionMesh.STRIDE;
+      // Kachel-Koordinaten unverändert, region.frag rechnet sie in Atlas-UVs um
+      shape.vertex(
+          vertices[offset],
+          vertices[offset + 1],
+          vertices[offset + 2],
+          vertices[offset + 3],
+          vertices[offset + 4]);
+    }
+
+    shape.end();
+  }
+}
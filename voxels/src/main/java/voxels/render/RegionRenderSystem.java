@@ -7,13 +7,14 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import mesh.Mesh3D;
+import voxels.mesh.RegionMesh;
 import voxels.mesh.RegionMesher;
 import voxels.world.Region;
 import voxels.world.VoxelWorld;
 
 public class RegionRenderSystem {
 
-  private final Map<Region, Mesh3D> meshCache = new ConcurrentHashMap<>();
+  private final Map<Region, RegionMesh> meshCache = new ConcurrentHashMap<>();
 
   public void buildMeshesParallel(VoxelWorld world, int threadCount) {
 
@@ -24,7 +25,7 @@ public class RegionRenderSystem {
       executor.submit(
           () -> {
             RegionMesher mesher = new RegionMesher();
-            Mesh3D mesh = mesher.create(region, world);
+            RegionMesh mesh = mesher.build(region, world);
             meshCache.put(region, mesh);
           });
     }
@@ -38,7 +39,13 @@ public class RegionRenderSystem {
     }
   }
 
-  public Mesh3D getMesh(Region region) {
+  public RegionMesh getRegionMesh(Region region) {
     return meshCache.get(region);
   }
+
+  /** Returns the mesh of a region as a {@link Mesh3D}, which is created on every call. */
+  public Mesh3D getMesh(Region region) {
+    RegionMesh mesh = meshCache.get(region);
+    return mesh != null ? mesh.toMesh3D() : null;
+  }
 }
@@ -3,4 +3,12 @@ package voxels.world;
 public interface BlockAccess {
 
   short getBlock(int worldX, int worldY, int worldZ);
+
+  /**
+   * Returns the chunk at the given chunk coordinates, or null if it is missing or this access is
+   * not backed by chunks. Lets bulk readers copy chunks directly instead of block by block.
+   */
+  default Chunk getChunk(int chunkX, int chunkZ) {
+    return null;
+  }
 }
@@ -44,6 +44,16 @@ public final class Chunk {
     this.maxHeight = 0;
   }
 
+  /** Makes this chunk an exact copy of {@code source}, used for snapshots read by workers. */
+  public void copyFrom(Chunk source) {
+    this.chunkX = source.chunkX;
+    this.chunkZ = source.chunkZ;
+    System.arraycopy(source.blocks, 0, blocks, 0, blocks.length);
+    System.arraycopy(source.heightMap, 0, heightMap, 0, heightMap.length);
+    this.minHeight = source.minHeight;
+    this.maxHeight = source.maxHeight;
+  }
+
   // -------------------
   // Block-Zugriff
   // -------------------
@@ -55,6 +65,33 @@ public final class Chunk {
     blocks[index(x, y, z)] = id;
   }
 
+  /**
+   * Sets the blocks {@code fromX} to {@code toX} of one row, which lie next to each other in the
+   * block array. Raises the height of the columns that get a solid block above their current
+   * height, like {@link VoxelWorld#setBlockWorld}.
+   *
+   * @return the number of blocks that changed
+   */
+  public int fillRow(int y, int z, int fromX, int toX, short id) {
+    int changed = 0;
+    int rowStart = index(0, y, z);
+    for (int x = fromX; x <= toX; x++) {
+      if (blocks[rowStart + x] == id) continue;
+
+      blocks[rowStart + x] = id;
+      changed++;
+      if (id != Blocks.AIR && y > heightMap[x + SIZE_X * z]) {
+        setHeight(x, z, y);
+      }
+    }
+    return changed;
+  }
+
+  /** Backing block array in {@link #index} order, for bulk transfers in {@link VoxelWorldIO}. */
+  short[] getBlockData() {
+    return blocks;
+  }
+
   // -------------------
   // HeightMap
   // -------------------
@@ -1,8 +1,8 @@
 package voxels.world;
 
 import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+
+import common.util.Long2ObjectMap;
 
 public class Region {
 
@@ -12,7 +12,7 @@ public class Region {
 
   private final int regionZ;
 
-  private final Map<Long, Chunk> chunks = new LinkedHashMap<>();
+  private final Long2ObjectMap<Chunk> chunks = new Long2ObjectMap<>();
 
   public Region(int regionX, int regionZ) {
     this.regionX = regionX;
@@ -0,0 +1,171 @@
+package voxels.world;
+
+/**
+ * Fills a sphere of blocks chunk by chunk.
+ *
+ * <p>The sphere is split into one slice per chunk it reaches. A slice is clipped to its chunk and
+ * written as rows of neighbouring blocks straight into the chunk, so there is one chunk lookup per
+ * slice instead of one per block. Slices are applied in order by {@link #apply}, which stops once
+ * a cell budget is used up, so large brushes can be spread over several frames.
+ *
+ * <p>The same cells as the plain {@code dx² + dy² + dz² <= r²} test are filled.
+ */
+public final class SphereBrush {
+
+  /** Receives the box of changed blocks of every edited chunk slice. */
+  public interface EditListener {
+
+    /** All changed blocks lie within the given world space box, bounds inclusive. */
+    void onBlocksEdited(int minX, int minY, int minZ, int maxX, int maxY, int maxZ);
+  }
+
+  private final int centerX;
+
+  private final int centerY;
+
+  private final int centerZ;
+
+  private final int radius;
+
+  private final short blockId;
+
+  private final int[] sliceChunkX;
+
+  private final int[] sliceChunkZ;
+
+  private final int sliceCount;
+
+  private int nextSlice;
+
+  private int changedBlocks;
+
+  public SphereBrush(int centerX, int centerY, int centerZ, int radius, short blockId) {
+    this.centerX = centerX;
+    this.centerY = centerY;
+    this.centerZ = centerZ;
+    this.radius = Math.max(0, radius);
+    this.blockId = blockId;
+
+    int minChunkX = Math.floorDiv(centerX - this.radius, Chunk.SIZE_X);
+    int maxChunkX = Math.floorDiv(centerX + this.radius, Chunk.SIZE_X);
+    int minChunkZ = Math.floorDiv(centerZ - this.radius, Chunk.SIZE_Z);
+    int maxChunkZ = Math.floorDiv(centerZ + this.radius, Chunk.SIZE_Z);
+
+    int capacity = (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+    sliceChunkX = new int[capacity];
+    sliceChunkZ = new int[capacity];
+
+    int count = 0;
+    long r2 = (long) this.radius * this.radius;
+    for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+      for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+        // Ecken des Würfels, die die Kugel nicht erreicht, auslassen
+        long dx = distanceToRange(centerX, chunkX * Chunk.SIZE_X, Chunk.SIZE_X);
+        long dz = distanceToRange(centerZ, chunkZ * Chunk.SIZE_Z, Chunk.SIZE_Z);
+        if (dx * dx + dz * dz > r2) continue;
+
+        sliceChunkX[count] = chunkX;
+        sliceChunkZ[count] = chunkZ;
+        count++;
+      }
+    }
+    sliceCount = count;
+  }
+
+  /**
+   * Applies slices until at least {@code maxCells} cells were visited or the brush is done. At
+   * least one slice is applied per call.
+   *
+   * @return the number of cells visited
+   */
+  public int apply(VoxelWorld world, int maxCells, EditListener listener) {
+    int visited = 0;
+    while (nextSlice < sliceCount && (visited == 0 || visited < maxCells)) {
+      visited += applySlice(world, sliceChunkX[nextSlice], sliceChunkZ[nextSlice], listener);
+      nextSlice++;
+    }
+    return visited;
+  }
+
+  public boolean isDone() {
+    return nextSlice >= sliceCount;
+  }
+
+  /** Number of blocks changed so far. */
+  public int getChangedBlocks() {
+    return changedBlocks;
+  }
+
+  private int applySlice(VoxelWorld world, int chunkX, int chunkZ, EditListener listener) {
+    int chunkMinX = chunkX * Chunk.SIZE_X;
+    int chunkMinZ = chunkZ * Chunk.SIZE_Z;
+
+    int minZ = Math.max(centerZ - radius, chunkMinZ);
+    int maxZ = Math.min(centerZ + radius, chunkMinZ + Chunk.SIZE_Z - 1);
+    int minY = Math.max(centerY - radius, 0);
+    int maxY = Math.min(centerY + radius, Chunk.SIZE_Y - 1);
+    if (minY > maxY) return 0;
+
+    Chunk chunk = world.getChunk(chunkX, chunkZ);
+    if (chunk == null) {
+      if (blockId == Blocks.AIR) return 0;
+      chunk = new Chunk(chunkX, chunkZ);
+      world.addChunk(chunk);
+    }
+
+    int visited = 0;
+    int editedMinX = Integer.MAX_VALUE;
+    int editedMinY = Integer.MAX_VALUE;
+    int editedMinZ = Integer.MAX_VALUE;
+    int editedMaxX = Integer.MIN_VALUE;
+    int editedMaxY = Integer.MIN_VALUE;
+    int editedMaxZ = Integer.MIN_VALUE;
+
+    long r2 = (long) radius * radius;
+    for (int z = minZ; z <= maxZ; z++) {
+      long dz = z - centerZ;
+      for (int y = minY; y <= maxY; y++) {
+        long dy = y - centerY;
+        long rest = r2 - dy * dy - dz * dz;
+        if (rest < 0) continue;
+
+        int halfWidth = floorSqrt(rest);
+        int fromX = Math.max(centerX - halfWidth, chunkMinX);
+        int toX = Math.min(centerX + halfWidth, chunkMinX + Chunk.SIZE_X - 1);
+        if (fromX > toX) continue;
+
+        visited += toX - fromX + 1;
+        int changed = chunk.fillRow(y, z - chunkMinZ, fromX - chunkMinX, toX - chunkMinX, blockId);
+        if (changed == 0) continue;
+
+        changedBlocks += changed;
+        editedMinX = Math.min(editedMinX, fromX);
+        editedMaxX = Math.max(editedMaxX, toX);
+        editedMinY = Math.min(editedMinY, y);
+        editedMaxY = Math.max(editedMaxY, y);
+        editedMinZ = Math.min(editedMinZ, z);
+        editedMaxZ = Math.max(editedMaxZ, z);
+      }
+    }
+
+    if (editedMinX <= editedMaxX && listener != null) {
+      listener.onBlocksEdited(
+          editedMinX, editedMinY, editedMinZ, editedMaxX, editedMaxY, editedMaxZ);
+    }
+    return Math.max(visited, 1);
+  }
+
+  /** Distance from {@code value} to the range {@code start .. start + size - 1}. */
+  private static long distanceToRange(int value, int start, int size) {
+    if (value < start) return start - value;
+    int end = start + size - 1;
+    return value > end ? value - end : 0;
+  }
+
+  private static int floorSqrt(long value) {
+    int root = (int) Math.sqrt(value);
+    while ((long) root * root > value) root--;
+    while ((long) (root + 1) * (root + 1) <= value) root++;
+    return root;
+  }
+}
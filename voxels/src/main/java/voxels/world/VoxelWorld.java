@@ -2,15 +2,15 @@ package voxels.world;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+
+import common.util.Long2ObjectMap;
 
 public class VoxelWorld implements BlockAccess {
 
-  private final Map<Long, Chunk> chunks = new HashMap<>();
+  private final Long2ObjectMap<Chunk> chunks = new Long2ObjectMap<>();
 
-  private final Map<Long, Region> regions = new HashMap<>();
+  private final Long2ObjectMap<Region> regions = new Long2ObjectMap<>();
 
   public void addChunk(Chunk chunk) {
 
@@ -1,16 +1,55 @@
 package voxels.world;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Reads and writes chunks, one file per chunk.
+ *
+ * <p>Format version 2 stores the chunk in sections of {@link #SECTION_HEIGHT} layers. A section
+ * made of one block is stored as that id. Other sections store a palette of their ids and one bit
+ * packed palette index per block, or the raw ids if that is smaller. Files are transferred in one
+ * piece over a {@link FileChannel}. Version 1 files, the plain ids in {@link Chunk} order, can
+ * still be loaded; saving always writes version 2.
+ */
 public final class VoxelWorldIO {
 
+  private static final int FORMAT_VERSION = 2;
+
+  private static final int LEGACY_FORMAT_VERSION = 1;
+
+  public static final int SECTION_HEIGHT = 16;
+
+  private static final int SECTION_COUNT = Chunk.SIZE_Y / SECTION_HEIGHT;
+
+  private static final int SECTION_VOLUME = Chunk.SIZE_X * Chunk.SIZE_Z * SECTION_HEIGHT;
+
+  private static final int COLUMN_COUNT = Chunk.SIZE_X * Chunk.SIZE_Z;
+
+  /** Bits per entry that mark a section of raw ids. */
+  private static final int RAW_SECTION = 16;
+
+  /** Header plus every section stored raw, the largest possible file. */
+  private static final int MAX_FILE_SIZE = 4 * 4 + SECTION_COUNT * (1 + SECTION_VOLUME * 2);
+
+  private static final ThreadLocal<SectionCodec> CODECS =
+      ThreadLocal.withInitial(SectionCodec::new);
+
   private VoxelWorldIO() {}
 
   public static void saveChunk(VoxelWorld world, int chunkX, int chunkZ, Path root)
@@ -21,20 +60,34 @@ public final class VoxelWorldIO {
     }
 
     Files.createDirectories(root);
-    Path path = chunkPath(root, chunkX, chunkZ);
+    writeChunk(chunk, root);
+  }
 
-    try (DataOutputStream out =
-        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
-      out.writeInt(1); // format version
-      out.writeInt(chunkX);
-      out.writeInt(chunkZ);
+  private static void writeChunk(Chunk chunk, Path root) throws IOException {
+    SectionCodec codec = CODECS.get();
+    ByteBuffer buffer = codec.fileBuffer;
+    buffer.clear();
 
-      for (int y = 0; y < Chunk.SIZE_Y; y++) {
-        for (int z = 0; z < Chunk.SIZE_Z; z++) {
-          for (int x = 0; x < Chunk.SIZE_X; x++) {
-            out.writeShort(chunk.getBlock(x, y, z));
-          }
-        }
+    buffer.putInt(FORMAT_VERSION);
+    buffer.putInt(chunk.getChunkX());
+    buffer.putInt(chunk.getChunkZ());
+    buffer.putInt(SECTION_COUNT);
+
+    short[] blocks = chunk.getBlockData();
+    for (int section = 0; section < SECTION_COUNT; section++) {
+      codec.encode(blocks, section * SECTION_VOLUME, buffer);
+    }
+    buffer.flip();
+
+    Path path = chunkPath(root, chunk.getChunkX(), chunk.getChunkZ());
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
       }
     }
   }
@@ -45,71 +98,171 @@ public final class VoxelWorldIO {
       return null;
     }
 
-    try (DataInputStream in =
-        new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
-      int version = in.readInt();
-      if (version != 1) {
+    ByteBuffer buffer = readFile(path);
+    try {
+      int version = buffer.getInt();
+      if (version != FORMAT_VERSION && version != LEGACY_FORMAT_VERSION) {
         throw new IOException("Unsupported chunk format version: " + version);
       }
 
-      int fileChunkX = in.readInt();
-      int fileChunkZ = in.readInt();
+      int fileChunkX = buffer.getInt();
+      int fileChunkZ = buffer.getInt();
 
       Chunk chunk = new Chunk(fileChunkX, fileChunkZ);
+      short[] blocks = chunk.getBlockData();
 
-      int[] heights = new int[Chunk.SIZE_X * Chunk.SIZE_Z];
-      for (int i = 0; i < heights.length; i++) heights[i] = -1;
-
-      for (int y = 0; y < Chunk.SIZE_Y; y++) {
-        for (int z = 0; z < Chunk.SIZE_Z; z++) {
-          for (int x = 0; x < Chunk.SIZE_X; x++) {
-            short id = in.readShort();
-            chunk.setBlock(x, y, z, id);
-            if (id != Blocks.AIR) {
-              heights[x + Chunk.SIZE_X * z] = y;
-            }
-          }
+      if (version == LEGACY_FORMAT_VERSION) {
+        // Version 1 liegt bereits in Chunk-Reihenfolge vor
+        buffer.asShortBuffer().get(blocks);
+      } else {
+        int sections = buffer.getInt();
+        if (sections != SECTION_COUNT) {
+          throw new IOException("Unexpected section count: " + sections);
+        }
+        SectionCodec codec = CODECS.get();
+        for (int section = 0; section < SECTION_COUNT; section++) {
+          codec.decode(buffer, blocks, section * SECTION_VOLUME);
         }
       }
 
-      for (int z = 0; z < Chunk.SIZE_Z; z++) {
-        for (int x = 0; x < Chunk.SIZE_X; x++) {
-          int h = heights[x + Chunk.SIZE_X * z];
-          chunk.setHeight(x, z, Math.max(h, 0));
+      updateHeights(chunk, blocks);
+      return chunk;
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Truncated chunk file: " + path, e);
+    }
+  }
+
+  private static ByteBuffer readFile(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Chunk file too large: " + path);
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          break;
         }
       }
+      buffer.flip();
+      return buffer;
+    }
+  }
 
-      return chunk;
+  /** Sets every column to its highest non-air block, or 0 for empty columns. */
+  private static void updateHeights(Chunk chunk, short[] blocks) {
+    for (int column = 0; column < COLUMN_COUNT; column++) {
+      int height = 0;
+      for (int y = Chunk.SIZE_Y - 1; y >= 0; y--) {
+        if (blocks[column + y * COLUMN_COUNT] != Blocks.AIR) {
+          height = y;
+          break;
+        }
+      }
+      chunk.setHeight(column % Chunk.SIZE_X, column / Chunk.SIZE_X, height);
     }
   }
 
   public static void saveLoadedChunks(VoxelWorld world, Path root) throws IOException {
+    saveLoadedChunks(world, root, defaultThreadCount());
+  }
+
+  /**
+   * Saves all chunks of the world using {@code threads} threads. The world must not change while
+   * saving.
+   */
+  public static void saveLoadedChunks(VoxelWorld world, Path root, int threads)
+      throws IOException {
+    Files.createDirectories(root);
+
+    List<Callable<Chunk>> tasks = new ArrayList<>();
     for (Chunk chunk : world.getChunks()) {
-      saveChunk(world, chunk.getChunkX(), chunk.getChunkZ(), root);
+      tasks.add(
+          () -> {
+            writeChunk(chunk, root);
+            return chunk;
+          });
     }
+    runAll(tasks, threads);
   }
 
   public static int loadAllChunks(VoxelWorld world, Path root) throws IOException {
+    return loadAllChunks(world, root, defaultThreadCount());
+  }
+
+  /**
+   * Loads all chunk files of a directory using {@code threads} threads. Files are decoded in
+   * parallel, the chunks are added to the world on the calling thread.
+   */
+  public static int loadAllChunks(VoxelWorld world, Path root, int threads) throws IOException {
     if (!Files.exists(root)) {
       return 0;
     }
 
-    int loaded = 0;
+    List<Callable<Chunk>> tasks = new ArrayList<>();
     try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "chunk_*.bin")) {
       for (Path path : stream) {
         String name = path.getFileName().toString();
         int[] coords = parseChunkCoords(name);
         if (coords == null) continue;
 
-        if (loadChunkIntoWorld(world, coords[0], coords[1], root)) {
-          loaded++;
-        }
+        tasks.add(() -> loadChunk(root, coords[0], coords[1]));
+      }
+    }
+
+    int loaded = 0;
+    for (Chunk chunk : runAll(tasks, threads)) {
+      if (chunk != null) {
+        world.addChunk(chunk);
+        loaded++;
       }
     }
 
     return loaded;
   }
 
+  private static List<Chunk> runAll(List<Callable<Chunk>> tasks, int threads) throws IOException {
+    if (tasks.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, Math.min(threads, tasks.size())),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "World-IO-Worker-" + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    try {
+      List<Future<Chunk>> futures = executor.invokeAll(tasks);
+      List<Chunk> results = new ArrayList<>(futures.size());
+      for (Future<Chunk> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while transferring chunks", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Chunk transfer failed", cause);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static int defaultThreadCount() {
+    return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+  }
+
   private static int[] parseChunkCoords(String fileName) {
     if (!fileName.startsWith("chunk_") || !fileName.endsWith(".bin")) {
       return null;
@@ -143,4 +296,122 @@ public final class VoxelWorldIO {
   private static Path chunkPath(Path root, int chunkX, int chunkZ) {
     return root.resolve("chunk_" + chunkX + "_" + chunkZ + ".bin");
   }
+
+  /**
+   * Encodes and decodes single sections. Holds the scratch arrays of one thread.
+   *
+   * <p>Section layout: one byte bits per entry, then
+   *
+   * <ul>
+   *   <li>0: the block id of the whole section,
+   *   <li>1 to 15: palette size, palette ids and {@code SECTION_VOLUME * bits / 64} longs of packed
+   *       indices, low bits first,
+   *   <li>16: the raw block ids.
+   * </ul>
+   */
+  private static final class SectionCodec {
+
+    private final ByteBuffer fileBuffer = ByteBuffer.allocate(MAX_FILE_SIZE);
+
+    // Palette-Index je Block-ID, -1 = noch nicht in der Palette
+    private final int[] paletteIndex = new int[1 << 16];
+
+    private final short[] palette = new short[SECTION_VOLUME];
+
+    private final long[] words = new long[SECTION_VOLUME * RAW_SECTION / 64];
+
+    private SectionCodec() {
+      Arrays.fill(paletteIndex, -1);
+    }
+
+    private void encode(short[] blocks, int offset, ByteBuffer out) {
+      int paletteSize = 0;
+      for (int i = offset; i < offset + SECTION_VOLUME; i++) {
+        int id = blocks[i] & 0xFFFF;
+        if (paletteIndex[id] < 0) {
+          paletteIndex[id] = paletteSize;
+          palette[paletteSize++] = blocks[i];
+        }
+      }
+
+      int bits = paletteSize == 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+      if (bits > 0 && paletteSize * 2 + SECTION_VOLUME * bits / 8 >= SECTION_VOLUME * 2) {
+        bits = RAW_SECTION;
+      }
+
+      out.put((byte) bits);
+      if (bits == 0) {
+        out.putShort(palette[0]);
+      } else if (bits == RAW_SECTION) {
+        out.asShortBuffer().put(blocks, offset, SECTION_VOLUME);
+        out.position(out.position() + SECTION_VOLUME * 2);
+      } else {
+        out.putShort((short) paletteSize);
+        out.asShortBuffer().put(palette, 0, paletteSize);
+        out.position(out.position() + paletteSize * 2);
+
+        int wordCount = SECTION_VOLUME * bits / 64;
+        Arrays.fill(words, 0, wordCount, 0L);
+        for (int i = 0; i < SECTION_VOLUME; i++) {
+          long value = paletteIndex[blocks[offset + i] & 0xFFFF];
+          int bit = i * bits;
+          int word = bit >>> 6;
+          int shift = bit & 63;
+          words[word] |= value << shift;
+          if (shift + bits > 64) {
+            words[word + 1] |= value >>> (64 - shift);
+          }
+        }
+        out.asLongBuffer().put(words, 0, wordCount);
+        out.position(out.position() + wordCount * 8);
+      }
+
+      for (int i = 0; i < paletteSize; i++) {
+        paletteIndex[palette[i] & 0xFFFF] = -1;
+      }
+    }
+
+    private void decode(ByteBuffer in, short[] blocks, int offset) throws IOException {
+      int bits = in.get();
+      if (bits == 0) {
+        Arrays.fill(blocks, offset, offset + SECTION_VOLUME, in.getShort());
+        return;
+      }
+      if (bits == RAW_SECTION) {
+        in.asShortBuffer().get(blocks, offset, SECTION_VOLUME);
+        in.position(in.position() + SECTION_VOLUME * 2);
+        return;
+      }
+      if (bits < 0 || bits > RAW_SECTION) {
+        throw new IOException("Invalid section encoding: " + bits);
+      }
+
+      int paletteSize = in.getShort();
+      if (paletteSize < 1 || paletteSize > SECTION_VOLUME) {
+        throw new IOException("Invalid palette size: " + paletteSize);
+      }
+      in.asShortBuffer().get(palette, 0, paletteSize);
+      in.position(in.position() + paletteSize * 2);
+
+      int wordCount = SECTION_VOLUME * bits / 64;
+      in.asLongBuffer().get(words, 0, wordCount);
+      in.position(in.position() + wordCount * 8);
+
+      long mask = (1L << bits) - 1;
+      for (int i = 0; i < SECTION_VOLUME; i++) {
+        int bit = i * bits;
+        int word = bit >>> 6;
+        int shift = bit & 63;
+        long value = words[word] >>> shift;
+        if (shift + bits > 64) {
+          value |= words[word + 1] << (64 - shift);
+        }
+        int index = (int) (value & mask);
+        if (index >= paletteSize) {
+          throw new IOException("Palette index out of range: " + index);
+        }
+        blocks[offset + i] = palette[index];
+      }
+    }
+  }
 }
@@ -0,0 +1,25 @@
+precision mediump float;
+
+uniform sampler2D texture;
+
+// Kachelbreite, Kachelhöhe und Rand im Atlas, siehe ProceduralBlockAtlas
+uniform vec3 u_atlas;
+
+// Muss ProceduralBlockAtlas.TILE_STRIDE entsprechen
+const float TILE_STRIDE = 32.0;
+
+varying highp vec2 vTexCoord;
+varying vec4 vColor;
+
+// Ganzzahliger Teil wählt die Kachel, der Bruchteil wiederholt sie pro Block
+vec2 atlasUV(highp vec2 tileCoord) {
+    highp vec2 tile = floor(tileCoord / TILE_STRIDE);
+    vec2 local = fract(tileCoord - tile * TILE_STRIDE);
+    return tile * u_atlas.xy + u_atlas.z + local * (u_atlas.xy - 2.0 * u_atlas.z);
+}
+
+void main() {
+    vec4 texCol = texture2D(texture, atlasUV(vTexCoord));
+    if(texCol.a < 0.1) discard;
+    gl_FragColor = texCol * vColor;
+}
@@ -0,0 +1,18 @@
+precision mediump float;
+
+uniform mat4 projection;
+uniform mat4 modelview;
+
+attribute vec4 position;
+attribute vec2 texCoord;
+attribute vec4 color;
+
+// Kachel-Koordinaten, siehe ProceduralBlockAtlas; brauchen die volle Genauigkeit
+varying highp vec2 vTexCoord;
+varying vec4 vColor;
+
+void main() {
+    vTexCoord = texCoord;
+    vColor = color;
+    gl_Position = projection * modelview * position;
+}
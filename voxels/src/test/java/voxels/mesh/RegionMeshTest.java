@@ -0,0 +1,138 @@
+package voxels.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import math.Vector2f;
+import math.Vector3f;
+import mesh.Mesh3D;
+import mesh.next.surface.SurfaceLayer;
+
+public class RegionMeshTest {
+
+  private static final float EPSILON = 1e-6f;
+
+  /** Adds an axis aligned unit quad at height {@code y}, UVs encode the quad and corner. */
+  private static void addQuad(RegionMesh mesh, float y) {
+    int a = mesh.addVertex(0, y, 0, y, 0);
+    int b = mesh.addVertex(1, y, 0, y, 1);
+    int c = mesh.addVertex(1, y, 1, y, 2);
+    int d = mesh.addVertex(0, y, 1, y, 3);
+    mesh.addQuad(a, b, c, d);
+  }
+
+  @Test
+  public void testNewMeshIsEmpty() {
+    RegionMesh mesh = new RegionMesh();
+
+    assertTrue(mesh.isEmpty());
+    assertEquals(0, mesh.getVertexCount());
+    assertEquals(0, mesh.getIndexCount());
+    assertEquals(0, mesh.getQuadCount());
+  }
+
+  @Test
+  public void testVerticesArePackedWithStride() {
+    RegionMesh mesh = new RegionMesh();
+
+    assertEquals(0, mesh.addVertex(1, 2, 3, 4, 5));
+    assertEquals(1, mesh.addVertex(6, 7, 8, 9, 10));
+
+    float[] vertices = mesh.getVertices();
+    for (int i = 0; i < 2 * RegionMesh.STRIDE; i++) {
+      assertEquals(i + 1, vertices[i], EPSILON);
+    }
+    assertEquals(2, mesh.getVertexCount());
+  }
+
+  @Test
+  public void testQuadIsStoredAsTwoTriangles() {
+    RegionMesh mesh = new RegionMesh();
+    mesh.addQuad(4, 5, 6, 7);
+
+    assertFalse(mesh.isEmpty());
+    assertEquals(1, mesh.getQuadCount());
+    assertEquals(6, mesh.getIndexCount());
+    int[] triangles = new int[6];
+    System.arraycopy(mesh.getIndices(), 0, triangles, 0, 6);
+    assertArrayEquals(new int[] {4, 5, 6, 4, 6, 7}, triangles);
+  }
+
+  @Test
+  public void testGrowsBeyondInitialCapacity() {
+    RegionMesh mesh = new RegionMesh(1);
+    for (int i = 0; i < 10; i++) {
+      addQuad(mesh, i);
+    }
+
+    assertEquals(40, mesh.getVertexCount());
+    assertEquals(10, mesh.getQuadCount());
+    assertEquals(9, mesh.getVertices()[39 * RegionMesh.STRIDE + 1], EPSILON);
+    assertEquals(39, mesh.getIndices()[59]);
+  }
+
+  @Test
+  public void testTrimShrinksArraysToContent() {
+    RegionMesh mesh = new RegionMesh(64);
+    addQuad(mesh, 0);
+    addQuad(mesh, 1);
+
+    mesh.trim();
+
+    assertEquals(8 * RegionMesh.STRIDE, mesh.getVertices().length);
+    assertEquals(12, mesh.getIndices().length);
+    assertEquals(1, mesh.getVertices()[4 * RegionMesh.STRIDE + 1], EPSILON);
+    assertEquals(7, mesh.getIndices()[11]);
+  }
+
+  @Test
+  public void testTrimOfEmptyMesh() {
+    RegionMesh mesh = new RegionMesh();
+
+    mesh.trim();
+
+    assertEquals(0, mesh.getVertices().length);
+    assertEquals(0, mesh.getIndices().length);
+    assertTrue(mesh.isEmpty());
+  }
+
+  @Test
+  public void testToMesh3DMatchesSourceData() {
+    RegionMesh mesh = new RegionMesh();
+    addQuad(mesh, 0);
+    addQuad(mesh, 2);
+
+    Mesh3D converted = mesh.toMesh3D();
+
+    assertEquals(mesh.getVertexCount(), converted.getVertexCount());
+    assertEquals(mesh.getQuadCount(), converted.getFaceCount());
+
+    float[] vertices = mesh.getVertices();
+    for (int i = 0; i < mesh.getVertexCount(); i++) {
+      Vector3f vertex = converted.getVertexAt(i);
+      assertEquals(vertices[i * RegionMesh.STRIDE], vertex.getX(), EPSILON);
+      assertEquals(vertices[i * RegionMesh.STRIDE + 1], vertex.getY(), EPSILON);
+      assertEquals(vertices[i * RegionMesh.STRIDE + 2], vertex.getZ(), EPSILON);
+    }
+
+    SurfaceLayer surfaceLayer = converted.getSurfaceLayer();
+    for (int face = 0; face < converted.getFaceCount(); face++) {
+      int base = face * 4;
+      assertArrayEquals(
+          new int[] {base, base + 1, base + 2, base + 3}, converted.getFaceAt(face).indices);
+
+      int[] uvIndices = surfaceLayer.getFaceUVIndices(face);
+      assertArrayEquals(converted.getFaceAt(face).indices, uvIndices);
+      for (int corner = 0; corner < 4; corner++) {
+        Vector2f uv = surfaceLayer.getUvAt(uvIndices[corner]);
+        int offset = (base + corner) * RegionMesh.STRIDE;
+        assertEquals(vertices[offset + 3], uv.getX(), EPSILON);
+        assertEquals(vertices[offset + 4], uv.getY(), EPSILON);
+      }
+    }
+  }
+}
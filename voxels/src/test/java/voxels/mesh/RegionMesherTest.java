@@ -0,0 +1,137 @@
+package voxels.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import voxels.render.ProceduralBlockAtlas;
+import voxels.world.Blocks;
+import voxels.world.Chunk;
+import voxels.world.VoxelWorld;
+
+public class RegionMesherTest {
+
+  private static final float EPSILON = 1e-6f;
+
+  private final RegionMesher mesher = new RegionMesher();
+
+  /** Loads chunks {@code min..max} in both directions, filled with stone up to {@code top}. */
+  private static VoxelWorld flatWorld(int min, int max, int top) {
+    VoxelWorld world = new VoxelWorld();
+    for (int chunkX = min; chunkX <= max; chunkX++) {
+      for (int chunkZ = min; chunkZ <= max; chunkZ++) {
+        Chunk chunk = new Chunk(chunkX, chunkZ);
+        for (int y = 0; y <= top; y++) {
+          for (int z = 0; z < Chunk.SIZE_Z; z++) {
+            chunk.fillRow(y, z, 0, Chunk.SIZE_X - 1, Blocks.STONE);
+          }
+        }
+        world.addChunk(chunk);
+      }
+    }
+    return world;
+  }
+
+  private RegionMesh build(VoxelWorld world, int regionX, int regionZ) {
+    return mesher.build(world.getRegion(regionX, regionZ), world);
+  }
+
+  private static float get(RegionMesh mesh, int vertex, int component) {
+    return mesh.getVertices()[vertex * RegionMesh.STRIDE + component];
+  }
+
+  private static float distance(RegionMesh mesh, int a, int b) {
+    float dx = get(mesh, a, 0) - get(mesh, b, 0);
+    float dy = get(mesh, a, 1) - get(mesh, b, 1);
+    float dz = get(mesh, a, 2) - get(mesh, b, 2);
+    return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  /** Every quad must repeat its tile once per block along both of its edges. */
+  private static void assertTilesMatchBlocks(RegionMesh mesh) {
+    for (int base = 0; base < mesh.getVertexCount(); base += 4) {
+      assertEquals(
+          distance(mesh, base, base + 1),
+          Math.abs(get(mesh, base, 3) - get(mesh, base + 1, 3)),
+          EPSILON);
+      assertEquals(
+          distance(mesh, base + 1, base + 2),
+          Math.abs(get(mesh, base + 1, 4) - get(mesh, base + 2, 4)),
+          EPSILON);
+    }
+  }
+
+  /** Returns the first vertex of the quad whose vertices all lie at height {@code y}. */
+  private static int findHorizontalQuad(RegionMesh mesh, float y) {
+    outer:
+    for (int base = 0; base < mesh.getVertexCount(); base += 4) {
+      for (int i = 0; i < 4; i++) {
+        if (get(mesh, base + i, 1) != y) continue outer;
+      }
+      return base;
+    }
+    return -1;
+  }
+
+  @Test
+  public void testFlatTerrainIsMergedIntoCappedQuads() {
+    RegionMesh mesh = build(flatWorld(-1, 2, 3), 0, 0);
+
+    // 32 x 32 Blöcke oben und unten, je vier Quads mit höchstens 16 Blöcken pro Seite
+    assertEquals(8, mesh.getQuadCount());
+    assertEquals(32, mesh.getVertexCount());
+    assertEquals(48, mesh.getIndexCount());
+    for (int base = 0; base < mesh.getVertexCount(); base += 4) {
+      assertEquals(ProceduralBlockAtlas.MAX_REPEAT, distance(mesh, base, base + 1), EPSILON);
+      assertEquals(ProceduralBlockAtlas.MAX_REPEAT, distance(mesh, base + 1, base + 2), EPSILON);
+    }
+    assertTilesMatchBlocks(mesh);
+  }
+
+  @Test
+  public void testMergedQuadRepeatsTilePerBlock() {
+    VoxelWorld world = new VoxelWorld();
+    for (int x = 2; x < 7; x++) {
+      world.setBlockWorld(x, 10, 4, Blocks.GRASS);
+    }
+
+    RegionMesh mesh = build(world, 0, 0);
+
+    assertEquals(6, mesh.getQuadCount());
+    assertTilesMatchBlocks(mesh);
+
+    // Positionen werden mit gespiegeltem Y abgelegt
+    int top = findHorizontalQuad(mesh, -11);
+    float minU = Float.MAX_VALUE;
+    float minV = Float.MAX_VALUE;
+    float maxU = -Float.MAX_VALUE;
+    float maxV = -Float.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      minU = Math.min(minU, get(mesh, top + i, 3));
+      minV = Math.min(minV, get(mesh, top + i, 4));
+      maxU = Math.max(maxU, get(mesh, top + i, 3));
+      maxV = Math.max(maxV, get(mesh, top + i, 4));
+    }
+    int face = ProceduralBlockAtlas.FACE_TOP;
+    int stride = ProceduralBlockAtlas.TILE_STRIDE;
+    assertEquals(ProceduralBlockAtlas.getTileColumn(face) * stride, minU, EPSILON);
+    assertEquals(ProceduralBlockAtlas.getTileRow(Blocks.GRASS, face) * stride, minV, EPSILON);
+    assertEquals(5, (maxU - minU) * (maxV - minV), EPSILON);
+    assertEquals(5, Math.max(maxU - minU, maxV - minV), EPSILON);
+  }
+
+  @Test
+  public void testSingleBlockSpansOneTile() {
+    VoxelWorld world = new VoxelWorld();
+    world.setBlockWorld(5, 0, 5, Blocks.STONE);
+
+    RegionMesh mesh = build(world, 0, 0);
+
+    assertEquals(6, mesh.getQuadCount());
+    for (int base = 0; base < mesh.getVertexCount(); base += 4) {
+      assertEquals(1, distance(mesh, base, base + 1), EPSILON);
+      assertEquals(1, distance(mesh, base + 1, base + 2), EPSILON);
+    }
+    assertTilesMatchBlocks(mesh);
+  }
+}
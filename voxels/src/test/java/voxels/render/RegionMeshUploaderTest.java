@@ -0,0 +1,86 @@
+package voxels.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import engine.backend.processing.BufferedShape;
+import engine.rendering.Material;
+import voxels.mesh.RegionMesh;
+import voxels.mesh.RegionMesher;
+import voxels.world.Blocks;
+import voxels.world.VoxelWorld;
+
+public class RegionMeshUploaderTest {
+
+  private static final float EPSILON = 1e-6f;
+
+  /** Records the written vertices instead of creating a Processing shape. */
+  private static final class RecordingShape extends BufferedShape {
+
+    final List<float[]> vertices = new ArrayList<>();
+
+    int type = -1;
+
+    boolean ended;
+
+    RecordingShape() {
+      super(new Material());
+    }
+
+    @Override
+    public void begin(int type) {
+      this.type = type;
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, float u, float v) {
+      vertices.add(new float[] {x, y, z, u, v});
+    }
+
+    @Override
+    public void end() {
+      ended = true;
+    }
+  }
+
+  private static RegionMesh buildSingleBlock() {
+    VoxelWorld world = new VoxelWorld();
+    world.setBlockWorld(3, 5, 7, Blocks.GRASS);
+    return new RegionMesher().build(world.getRegion(0, 0), world);
+  }
+
+  @Test
+  public void testEmptyMeshIsNotUploaded() {
+    assertNull(RegionMeshUploader.upload(new RegionMesh(), new Material()));
+  }
+
+  @Test
+  public void testWritesOneVertexPerIndex() {
+    RegionMesh mesh = buildSingleBlock();
+    RecordingShape shape = new RecordingShape();
+
+    RegionMeshUploader.write(mesh, shape);
+
+    assertEquals(BufferedShape.TRIANGLES, shape.type);
+    assertTrue(shape.ended);
+    assertEquals(mesh.getIndexCount(), shape.vertices.size());
+    assertEquals(6 * 6, shape.vertices.size());
+
+    float[] source = mesh.getVertices();
+    int[] indices = mesh.getIndices();
+    for (int i = 0; i < mesh.getIndexCount(); i++) {
+      float[] written = shape.vertices.get(i);
+      int offset = indices[i] * RegionMesh.STRIDE;
+      // Kachel-Koordinaten werden nicht gespiegelt
+      for (int component = 0; component < RegionMesh.STRIDE; component++) {
+        assertEquals(source[offset + component], written[component], EPSILON);
+      }
+    }
+  }
+}
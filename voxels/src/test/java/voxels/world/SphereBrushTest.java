@@ -0,0 +1,154 @@
+package voxels.world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SphereBrushTest {
+
+  private static final short[] IDS = {
+    Blocks.AIR, Blocks.STONE, Blocks.DIRT, Blocks.GRASS, Blocks.LOG, Blocks.LEAF
+  };
+
+  /** Chunks -2..2 in both directions with random terrain, the same for every seed. */
+  private static VoxelWorld terrain(long seed) {
+    Random random = new Random(seed);
+    VoxelWorld world = new VoxelWorld();
+    for (int chunkX = -2; chunkX <= 2; chunkX++) {
+      for (int chunkZ = -2; chunkZ <= 2; chunkZ++) {
+        Chunk chunk = new Chunk(chunkX, chunkZ);
+        for (int z = 0; z < Chunk.SIZE_Z; z++) {
+          for (int x = 0; x < Chunk.SIZE_X; x++) {
+            int height = 20 + random.nextInt(20);
+            for (int y = 0; y <= height; y++) {
+              chunk.setBlock(x, y, z, y == height ? Blocks.GRASS : Blocks.STONE);
+            }
+            chunk.setHeight(x, z, height);
+          }
+        }
+        world.addChunk(chunk);
+      }
+    }
+    return world;
+  }
+
+  /** The cube loop the brush replaced, one world lookup per cell. */
+  private static int applyCubeLoop(VoxelWorld world, int cx, int cy, int cz, int r, short id) {
+    int changed = 0;
+    int r2 = r * r;
+    for (int dx = -r; dx <= r; dx++) {
+      for (int dy = -r; dy <= r; dy++) {
+        for (int dz = -r; dz <= r; dz++) {
+          if (dx * dx + dy * dy + dz * dz > r2) continue;
+          if (world.setBlockWorld(cx + dx, cy + dy, cz + dz, id)) changed++;
+        }
+      }
+    }
+    return changed;
+  }
+
+  /** Places a coordinate on, next to or between chunk borders. */
+  private static int nearBorder(Random random, int size) {
+    int border = (random.nextInt(5) - 2) * size;
+    return border + random.nextInt(5) - 2 + (random.nextBoolean() ? size / 2 : 0);
+  }
+
+  private static void assertSameWorld(VoxelWorld expected, VoxelWorld actual) {
+    assertEquals(expected.getChunks().size(), actual.getChunks().size());
+    for (Chunk chunk : expected.getChunks()) {
+      Chunk other = actual.getChunk(chunk.getChunkX(), chunk.getChunkZ());
+      assertNotNull(other, "Chunk " + chunk.getChunkX() + ", " + chunk.getChunkZ());
+      assertArrayEquals(chunk.getBlockData(), other.getBlockData());
+      for (int z = 0; z < Chunk.SIZE_Z; z++) {
+        for (int x = 0; x < Chunk.SIZE_X; x++) {
+          assertEquals(chunk.getHeight(x, z), other.getHeight(x, z));
+        }
+      }
+      assertEquals(chunk.getMinHeight(), other.getMinHeight());
+      assertEquals(chunk.getMaxHeight(), other.getMaxHeight());
+    }
+  }
+
+  @Test
+  public void testMatchesCubeLoop() {
+    Random random = new Random(42);
+    VoxelWorld expected = terrain(7);
+    VoxelWorld actual = terrain(7);
+
+    for (int i = 0; i < 200; i++) {
+      int cx = nearBorder(random, Chunk.SIZE_X);
+      int cz = nearBorder(random, Chunk.SIZE_Z);
+      int cy = random.nextInt(4) == 0 ? random.nextInt(4) : 10 + random.nextInt(40);
+      int r = random.nextInt(14);
+      short id = IDS[random.nextInt(IDS.length)];
+
+      int expectedChanges = applyCubeLoop(expected, cx, cy, cz, r, id);
+
+      SphereBrush brush = new SphereBrush(cx, cy, cz, r, id);
+      while (!brush.isDone()) {
+        // Kleines Budget, damit die Kugel über mehrere Aufrufe verteilt wird
+        brush.apply(actual, 200, null);
+      }
+
+      assertEquals(expectedChanges, brush.getChangedBlocks(), "Brush " + i);
+    }
+    assertSameWorld(expected, actual);
+  }
+
+  @Test
+  public void testRaisesHeightsOfNewChunks() {
+    VoxelWorld expected = new VoxelWorld();
+    VoxelWorld actual = new VoxelWorld();
+
+    applyCubeLoop(expected, 15, 60, -1, 9, Blocks.LOG);
+    SphereBrush brush = new SphereBrush(15, 60, -1, 9, Blocks.LOG);
+    brush.apply(actual, Integer.MAX_VALUE, null);
+
+    assertTrue(brush.isDone());
+    assertEquals(4, actual.getChunks().size());
+    assertEquals(69, actual.getChunk(0, -1).getHeight(15, 15));
+    assertSameWorld(expected, actual);
+  }
+
+  @Test
+  public void testEditedBoxesCoverChangedBlocks() {
+    VoxelWorld before = terrain(3);
+    VoxelWorld after = terrain(3);
+    int[] box = {
+      Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+      Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE
+    };
+
+    SphereBrush brush = new SphereBrush(16, 30, 0, 7, Blocks.AIR);
+    brush.apply(
+        after,
+        Integer.MAX_VALUE,
+        (minX, minY, minZ, maxX, maxY, maxZ) -> {
+          box[0] = Math.min(box[0], minX);
+          box[1] = Math.min(box[1], minY);
+          box[2] = Math.min(box[2], minZ);
+          box[3] = Math.max(box[3], maxX);
+          box[4] = Math.max(box[4], maxY);
+          box[5] = Math.max(box[5], maxZ);
+        });
+
+    int changed = 0;
+    for (int x = 0; x <= 32; x++) {
+      for (int y = 0; y < 60; y++) {
+        for (int z = -16; z <= 16; z++) {
+          if (before.getBlock(x, y, z) == after.getBlock(x, y, z)) continue;
+          changed++;
+          assertTrue(x >= box[0] && y >= box[1] && z >= box[2]);
+          assertTrue(x <= box[3] && y <= box[4] && z <= box[5]);
+        }
+      }
+    }
+    assertEquals(brush.getChangedBlocks(), changed);
+    assertTrue(changed > 0);
+  }
+}
@@ -0,0 +1,180 @@
+package voxels.world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class VoxelWorldIOTest {
+
+  private static final int SECTION_VOLUME =
+      Chunk.SIZE_X * Chunk.SIZE_Z * VoxelWorldIO.SECTION_HEIGHT;
+
+  private static final int SECTION_COUNT = Chunk.SIZE_Y / VoxelWorldIO.SECTION_HEIGHT;
+
+  @TempDir Path root;
+
+  /** Sets block {@code i} of a section, in section order, to {@code ids.applyAsInt(i)}. */
+  private static void fillSection(Chunk chunk, int section, IntUnaryOperator ids) {
+    for (int i = 0; i < SECTION_VOLUME; i++) {
+      int x = i % Chunk.SIZE_X;
+      int z = (i / Chunk.SIZE_X) % Chunk.SIZE_Z;
+      int y = section * VoxelWorldIO.SECTION_HEIGHT + i / (Chunk.SIZE_X * Chunk.SIZE_Z);
+      chunk.setBlock(x, y, z, (short) ids.applyAsInt(i));
+    }
+  }
+
+  /** Scrambles the block order, so packed indices are not simply increasing. */
+  private static int scramble(int i) {
+    return (i * 0x9E3779B1) >>> 7;
+  }
+
+  private Chunk roundTrip(Chunk chunk) throws IOException {
+    VoxelWorld world = new VoxelWorld();
+    world.addChunk(chunk);
+    VoxelWorldIO.saveChunk(world, chunk.getChunkX(), chunk.getChunkZ(), root);
+    Chunk loaded = VoxelWorldIO.loadChunk(root, chunk.getChunkX(), chunk.getChunkZ());
+    assertEquals(chunk.getChunkX(), loaded.getChunkX());
+    assertEquals(chunk.getChunkZ(), loaded.getChunkZ());
+    assertArrayEquals(chunk.getBlockData(), loaded.getBlockData());
+    return loaded;
+  }
+
+  private Path chunkFile(Chunk chunk) {
+    return root.resolve("chunk_" + chunk.getChunkX() + "_" + chunk.getChunkZ() + ".bin");
+  }
+
+  /** Returns the bits per entry every section of a saved chunk was written with. */
+  private int[] sectionBits(Chunk chunk) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(chunkFile(chunk)));
+    assertEquals(2, buffer.getInt());
+    buffer.position(4 * 4);
+
+    int[] bits = new int[SECTION_COUNT];
+    for (int section = 0; section < SECTION_COUNT; section++) {
+      bits[section] = buffer.get();
+      if (bits[section] == 0) {
+        buffer.getShort();
+      } else if (bits[section] == 16) {
+        buffer.position(buffer.position() + SECTION_VOLUME * 2);
+      } else {
+        int paletteSize = buffer.getShort();
+        int wordCount = SECTION_VOLUME * bits[section] / 64;
+        buffer.position(buffer.position() + paletteSize * 2 + wordCount * 8);
+      }
+    }
+    assertEquals(0, buffer.remaining());
+    return bits;
+  }
+
+  @Test
+  public void testUniformSections() throws IOException {
+    Chunk chunk = new Chunk(3, -2);
+    fillSection(chunk, 0, i -> Blocks.STONE);
+    fillSection(chunk, 1, i -> Blocks.DIRT);
+    fillSection(chunk, 5, i -> 40000);
+
+    roundTrip(chunk);
+
+    int[] bits = sectionBits(chunk);
+    for (int section = 0; section < SECTION_COUNT; section++) {
+      assertEquals(0, bits[section], "Section " + section);
+    }
+    // Alle Sections einheitlich: Kopf plus je ein Byte und eine ID
+    assertEquals(4 * 4 + SECTION_COUNT * 3, Files.size(chunkFile(chunk)));
+  }
+
+  @Test
+  public void testPaletteSections() throws IOException {
+    Chunk chunk = new Chunk(-1, 7);
+    int[] paletteSizes = {2, 5, 8, 20, 32, 200};
+    int[] expectedBits = {1, 3, 3, 5, 5, 8};
+    for (int section = 0; section < paletteSizes.length; section++) {
+      int size = paletteSizes[section];
+      // Hohe IDs prüfen, dass die Palette IDs ohne Vorzeichen behandelt
+      fillSection(chunk, section, i -> scramble(i) % size * 331 + (size > 8 ? 33000 : 0));
+    }
+
+    roundTrip(chunk);
+
+    int[] bits = sectionBits(chunk);
+    for (int section = 0; section < paletteSizes.length; section++) {
+      assertEquals(expectedBits[section], bits[section], "Palette of " + paletteSizes[section]);
+    }
+  }
+
+  @Test
+  public void testRawSection() throws IOException {
+    Chunk chunk = new Chunk(0, 0);
+    fillSection(chunk, 2, i -> i);
+    fillSection(chunk, 3, i -> scramble(i) & 0xFFFF);
+
+    roundTrip(chunk);
+
+    int[] bits = sectionBits(chunk);
+    assertEquals(16, bits[2]);
+    assertEquals(16, bits[3]);
+  }
+
+  @Test
+  public void testHeightsAreRestored() throws IOException {
+    Chunk chunk = new Chunk(0, 0);
+    chunk.setBlock(4, 130, 9, Blocks.LOG);
+    chunk.setBlock(0, 0, 0, Blocks.STONE);
+
+    Chunk loaded = roundTrip(chunk);
+
+    assertEquals(130, loaded.getHeight(4, 9));
+    assertEquals(0, loaded.getHeight(0, 0));
+    assertEquals(130, loaded.getMaxHeight());
+  }
+
+  @Test
+  public void testLoadsVersionOneFile() throws IOException {
+    Chunk chunk = new Chunk(5, -9);
+    fillSection(chunk, 0, i -> Blocks.STONE);
+    fillSection(chunk, 1, i -> scramble(i) % 6);
+    chunk.setBlock(15, 200, 15, Blocks.LEAF);
+
+    short[] blocks = chunk.getBlockData();
+    ByteBuffer buffer = ByteBuffer.allocate(3 * 4 + blocks.length * 2);
+    buffer.putInt(1).putInt(5).putInt(-9);
+    buffer.asShortBuffer().put(blocks);
+    Files.write(chunkFile(chunk), buffer.array());
+
+    Chunk loaded = VoxelWorldIO.loadChunk(root, 5, -9);
+
+    assertEquals(5, loaded.getChunkX());
+    assertEquals(-9, loaded.getChunkZ());
+    assertArrayEquals(blocks, loaded.getBlockData());
+    assertEquals(200, loaded.getHeight(15, 15));
+  }
+
+  @Test
+  public void testRejectsUnknownVersion() throws IOException {
+    Files.write(root.resolve("chunk_0_0.bin"), ByteBuffer.allocate(16).putInt(7).array());
+
+    assertThrows(IOException.class, () -> VoxelWorldIO.loadChunk(root, 0, 0));
+  }
+
+  @Test
+  public void testRejectsTruncatedFile() throws IOException {
+    Chunk chunk = new Chunk(1, 1);
+    fillSection(chunk, 0, i -> scramble(i) % 20);
+    roundTrip(chunk);
+
+    byte[] data = Files.readAllBytes(chunkFile(chunk));
+    Files.write(chunkFile(chunk), Arrays.copyOf(data, data.length / 2));
+
+    assertThrows(IOException.class, () -> VoxelWorldIO.loadChunk(root, 1, 1));
+  }
+}